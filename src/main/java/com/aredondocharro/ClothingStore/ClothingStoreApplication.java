@@ -3,11 +3,17 @@ package com.aredondocharro.ClothingStore;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.Map;
+
 @SpringBootApplication
 public class ClothingStoreApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ClothingStoreApplication.class, args);
+		SpringApplication app = new SpringApplication(ClothingStoreApplication.class);
+		// Las tareas @Scheduled (refresh del catálogo, sweepers, webhooks, SSE, buckets...) comparten el scheduler:
+		// con el hilo único por defecto una pasada lenta retrasa a las demás. Cualquier config lo sobrescribe
+		app.setDefaultProperties(Map.of("spring.task.scheduling.pool.size", "8"));
+		app.run(args);
 	}
 
 }
@@ -1,36 +1,59 @@
 package com.aredondocharro.ClothingStore.inventory.application;
 
 import com.aredondocharro.ClothingStore.inventory.contracts.event.InventoryStockAdjusted;
+import com.aredondocharro.ClothingStore.inventory.contracts.event.InventoryStockBulkAdjusted;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.InvalidStockException;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.InventoryItemNotFoundException;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.ItemDiscontinuedException;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.AdjustInventoryStockUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentResult;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
 import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 public class AdjustInventoryStockService implements AdjustInventoryStockUseCase {
 
+    private static final String DEFAULT_REASON = "admin-adjustment";
+
+    // Líneas por batch JDBC; cada tramo aplicado se publica como un único evento
+    static final int BATCH_SIZE = 1000;
+
     private final InventoryItemRepositoryPort repo;
     private final Clock clock;
     private final EventBusPort eventBus;
+    private final StockBucketPort stockBuckets;
 
     @Override
     public void adjustOnHand(InventoryItemId id, int delta, String reason, Instant now) {
         if (id == null) throw new IllegalArgumentException("id is required");
-        if (reason == null || reason.isBlank()) reason = "admin-adjustment";
+        if (reason == null || reason.isBlank()) reason = DEFAULT_REASON;
+
+        Instant effectiveNow = effectiveNow(now);
+        // Lo que está en buckets cuenta como reservado: para bajar onHand vuelve antes a la fila
+        if (delta < 0) stockBuckets.drain(id, effectiveNow);
 
         InventoryItem item = repo.findById(id)
                 .orElseThrow(() -> new InventoryItemNotFoundException(id));
 
-        Instant effectiveNow = effectiveNow(now);
-
         InventoryItem updated = item.adjustOnHand(delta, effectiveNow);
         repo.save(updated);
 
@@ -38,7 +61,83 @@ public class AdjustInventoryStockService implements AdjustInventoryStockUseCase
         log.info("Inventory stock adjusted id={} sku={} delta={} reason={}", updated.id(), updated.sku(), delta, reason);
     }
 
+    /**
+     * Ajuste masivo sin read-modify-write: los SKUs se resuelven en una consulta y los deltas
+     * se aplican con UPDATEs condicionales en batch. Solo las líneas rechazadas se releen,
+     * para que el dominio explique el motivo.
+     */
+    @Override
+    public StockAdjustmentResult adjustOnHandAll(List<StockAdjustmentLine> lines, Instant now) {
+        if (lines == null || lines.isEmpty()) throw new IllegalArgumentException("lines are required");
+        Instant effectiveNow = effectiveNow(now);
+
+        Set<Sku> skus = lines.stream().map(StockAdjustmentLine::sku).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Sku, InventoryItemId> idsBySku = skus.isEmpty() ? Map.of() : repo.findIdsBySkus(skus);
+
+        List<StockAdjustmentResult.Failure> failures = new ArrayList<>();
+        List<Resolved> resolved = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            StockAdjustmentLine line = lines.get(i);
+            InventoryItemId id = line.itemId() != null ? line.itemId() : idsBySku.get(line.sku());
+            if (id == null) {
+                failures.add(new StockAdjustmentResult.Failure(i, line.target(), "Inventory item not found"));
+                continue;
+            }
+            String reason = line.reason() == null || line.reason().isBlank() ? DEFAULT_REASON : line.reason();
+            resolved.add(new Resolved(i, line.target(), StockAdjustmentLine.byId(id, line.delta(), reason)));
+        }
+
+        // Orden estable por id: peticiones concurrentes bloquean las filas en el mismo orden (sin deadlocks)
+        // y las líneas repetidas de un item conservan el orden de la petición.
+        resolved.sort(Comparator.comparing(r -> r.line().itemId().getValue()));
+
+        // Igual que en adjustOnHand: las bajadas de items con buckets recuperan antes su stock
+        resolved.stream()
+                .map(Resolved::line)
+                .filter(l -> l.delta() < 0 && stockBuckets.isBucketed(l.itemId()))
+                .map(StockAdjustmentLine::itemId)
+                .distinct()
+                .forEach(id -> stockBuckets.drain(id, effectiveNow));
+
+        int applied = 0;
+        for (int from = 0; from < resolved.size(); from += BATCH_SIZE) {
+            List<Resolved> chunk = resolved.subList(from, Math.min(from + BATCH_SIZE, resolved.size()));
+            Set<Integer> rejected = new HashSet<>(repo.tryAdjustOnHandAll(chunk.stream().map(Resolved::line).toList(), effectiveNow));
+
+            List<InventoryStockBulkAdjusted.Adjustment> adjustments = new ArrayList<>(chunk.size() - rejected.size());
+            for (int j = 0; j < chunk.size(); j++) {
+                Resolved r = chunk.get(j);
+                if (rejected.contains(j)) {
+                    failures.add(new StockAdjustmentResult.Failure(r.index(), r.target(), diagnose(r.line(), effectiveNow)));
+                } else {
+                    adjustments.add(new InventoryStockBulkAdjusted.Adjustment(r.line().itemId().getValue(), r.line().delta(), r.line().reason()));
+                }
+            }
+            if (!adjustments.isEmpty()) {
+                eventBus.publish(new InventoryStockBulkAdjusted(adjustments, effectiveNow));
+                applied += adjustments.size();
+            }
+        }
+
+        failures.sort(Comparator.comparingInt(StockAdjustmentResult.Failure::index));
+        log.info("Inventory stock bulk-adjusted lines={} applied={} failed={}", lines.size(), applied, failures.size());
+        return new StockAdjustmentResult(applied, failures);
+    }
+
+    private String diagnose(StockAdjustmentLine line, Instant now) {
+        InventoryItem item = repo.findById(line.itemId()).orElse(null);
+        if (item == null) return "Inventory item not found";
+        try {
+            item.adjustOnHand(line.delta(), now);
+            return "Stock changed concurrently, retry the line";
+        } catch (ItemDiscontinuedException | InvalidStockException ex) {
+            return ex.getMessage();
+        }
+    }
+
     private Instant effectiveNow(Instant now) {
         return now != null ? now : Instant.now(clock);
     }
+
+    private record Resolved(int index, String target, StockAdjustmentLine line) {}
 }
@@ -1,10 +1,12 @@
 package com.aredondocharro.ClothingStore.inventory.application;
 
+import com.aredondocharro.ClothingStore.inventory.domain.exception.InvalidStockException;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.InventoryItemNotFoundException;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.StockReservationNotActiveException;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.StockReservationNotFoundException;
 import com.aredondocharro.ClothingStore.inventory.domain.model.*;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.ConsumeStockUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.HotStockLedgerPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +22,7 @@ public class ConsumeStockService implements ConsumeStockUseCase {
     private final InventoryItemRepositoryPort itemRepo;
     private final StockReservationRepositoryPort reservationRepo;
     private final Clock clock;
+    private final HotStockLedgerPort hotLedger;
 
     @Override
     public void consume(InventoryItemId itemId, ReservationReference reference, Instant now) {
@@ -30,21 +33,20 @@ public class ConsumeStockService implements ConsumeStockUseCase {
 
         // 1) Reserva ACTIVE: camino normal
         var active = reservationRepo.findByItemAndReferenceAndStatus(itemId, reference, ReservationStatus.ACTIVE);
+        if (active.isEmpty() && hotLedger.flushPending(itemId, reference)) {
+            // Seguía en el write-behind del ledger hot: se ha persistido solo esa reserva
+            active = reservationRepo.findByItemAndReferenceAndStatus(itemId, reference, ReservationStatus.ACTIVE);
+        }
         if (active.isPresent()) {
             StockReservation reservation = active.get();
 
-            InventoryItem item = itemRepo.findById(itemId)
-                    .orElseThrow(() -> new InventoryItemNotFoundException(itemId));
-
-            InventoryItem updated = item.consumeReserved(reservation.quantity(), effectiveNow);
-            StockReservation consumed = reservation.consume(effectiveNow);
-
-            // Debe ir en transacción (Iteración 5.2)
-            itemRepo.save(updated);
-            reservationRepo.save(consumed);
+            // Debe ir en transacción (Iteración 5.2): reserva y stock en una sola sentencia
+            if (!itemRepo.tryConsume(reservation.consume(effectiveNow))) {
+                throw consumeRejection(itemId, reservation.quantity(), effectiveNow);
+            }
 
-            log.info("Stock consumed itemId={} sku={} ref={} qty={}",
-                    itemId, updated.sku(), reference, reservation.quantity());
+            log.info("Stock consumed itemId={} ref={} qty={}",
+                    itemId, reference, reservation.quantity());
             return;
         }
 
@@ -65,4 +67,11 @@ public class ConsumeStockService implements ConsumeStockUseCase {
         // 4) Si no hay nada, no existe reserva
         throw new StockReservationNotFoundException(reference);
     }
+
+    private RuntimeException consumeRejection(InventoryItemId itemId, int quantity, Instant now) {
+        InventoryItem item = itemRepo.findById(itemId)
+                .orElseThrow(() -> new InventoryItemNotFoundException(itemId));
+        item.consumeReserved(quantity, now);
+        return new InvalidStockException("Cannot consume reserved stock (concurrent update). qty=" + quantity);
+    }
 }
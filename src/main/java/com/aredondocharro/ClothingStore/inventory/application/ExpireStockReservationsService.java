@@ -0,0 +1,79 @@
+package com.aredondocharro.ClothingStore.inventory.application;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.StockReleased;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ExpireStockReservationsUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ExpireStockReservationsService implements ExpireStockReservationsUseCase {
+
+    private final InventoryItemRepositoryPort itemRepo;
+    private final StockReservationRepositoryPort reservationRepo;
+    private final Clock clock;
+    private final EventBusPort eventBus;
+
+    private final LongAdder skipped = new LongAdder();
+
+    @Override
+    public int expireBatch(Instant now, int batchSize) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be > 0");
+
+        Instant effectiveNow = now != null ? now : Instant.now(clock);
+
+        // 1) Reclamar y marcar RELEASED el lote (otros nodos se saltan estas filas)
+        List<StockReservation> expired = reservationRepo.releaseExpired(effectiveNow, batchSize);
+        if (expired.isEmpty()) return 0;
+
+        // 2) Un único UPDATE por item con la cantidad agregada, en orden de id (sin deadlocks)
+        Map<InventoryItemId, Integer> quantities = new TreeMap<>(Comparator.comparing(InventoryItemId::getValue));
+        for (StockReservation r : expired) {
+            quantities.merge(r.itemId(), r.quantity(), Integer::sum);
+        }
+        // Un item con el reservado por debajo de sus reservas no hace rollback del lote: si no, el mismo lote
+        // (ordenado por expires_at) volvería en cada pasada y pararía la caducidad de todo el sistema.
+        // Sus reservas se quedan RELEASED sin devolver stock ni publicar evento; el item requiere revisión.
+        Set<InventoryItemId> rejected = new HashSet<>(itemRepo.tryReleaseAll(quantities, effectiveNow));
+        if (!rejected.isEmpty()) {
+            List<StockReservation> skippedNow = expired.stream().filter(r -> rejected.contains(r.itemId())).toList();
+            skipped.add(skippedNow.size());
+            log.error("Expired reservations skipped, reserved stock below reservations items={} reservations={}",
+                    rejected, skippedNow.stream().map(StockReservation::id).toList());
+        }
+
+        // 3) Mismo contrato que un release manual
+        for (StockReservation r : expired) {
+            if (rejected.contains(r.itemId())) continue;
+            eventBus.publish(new StockReleased(
+                    r.id().getValue(),
+                    r.itemId().getValue(),
+                    r.reference().getValue(),
+                    r.quantity(),
+                    effectiveNow
+            ));
+        }
+
+        log.info("Expired reservations released count={} items={} skippedItems={}",
+                expired.size(), quantities.size(), rejected.size());
+        return expired.size();
+    }
+
+    /** Reservas caducadas cerradas sin devolver stock porque el item tenía menos reservado que ellas. */
+    public long getSkippedCount() { return skipped.sum(); }
+}
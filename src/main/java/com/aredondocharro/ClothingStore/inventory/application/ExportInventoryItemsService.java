@@ -0,0 +1,65 @@
+package com.aredondocharro.ClothingStore.inventory.application;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemName;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Stock;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ExportInventoryItemsUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryItemSummary;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryExportPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ExportInventoryItemsService implements ExportInventoryItemsUseCase {
+
+    // Filas que se corrigen juntas con los buckets: una consulta por bloque (ninguna sin items con buckets)
+    static final int BUCKET_CHUNK = 500;
+
+    private final InventoryExportPort exportPort;
+    private final StockBucketPort stockBuckets;
+
+    @Override
+    public long export(InventorySearchQuery query, Consumer<InventoryItemSummary> sink) {
+        if (sink == null) throw new IllegalArgumentException("sink is required");
+
+        List<InventoryItemSummaryView> chunk = new ArrayList<>(BUCKET_CHUNK);
+        long count = exportPort.streamSummaries(query, v -> {
+            chunk.add(v);
+            if (chunk.size() >= BUCKET_CHUNK) emit(chunk, sink);
+        });
+        emit(chunk, sink);
+
+        log.info("Inventory export finished rows={}", count);
+        return count;
+    }
+
+    // Lo que sigue en buckets cuenta como reservado en la fila pero está disponible
+    private void emit(List<InventoryItemSummaryView> chunk, Consumer<InventoryItemSummary> sink) {
+        if (chunk.isEmpty()) return;
+        Map<InventoryItemId, StockBucketView> buckets = stockBuckets.findTotals(
+                chunk.stream().map(InventoryItemSummaryView::id).toList());
+        for (InventoryItemSummaryView v : chunk) {
+            Stock stock = new Stock(v.onHand(), v.reserved());
+            StockBucketView b = buckets.get(v.id());
+            sink.accept(new InventoryItemSummary(
+                    v.id(),
+                    v.sku(),
+                    ItemName.of(v.name()),
+                    v.price(),
+                    b != null ? b.exact(stock) : stock,
+                    v.status()
+            ));
+        }
+        chunk.clear();
+    }
+}
@@ -3,15 +3,24 @@ package com.aredondocharro.ClothingStore.inventory.application;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.InventoryItemNotFoundException;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Stock;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.GetInventoryItemUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFingerprint;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryItemDetails;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
 import lombok.RequiredArgsConstructor;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 @RequiredArgsConstructor
 public class GetInventoryItemService implements GetInventoryItemUseCase {
 
     private final InventoryItemRepositoryPort repo;
+    private final StockBucketPort stockBuckets;
 
     @Override
     public InventoryItemDetails getById(InventoryItemId id) {
@@ -20,6 +29,28 @@ public class GetInventoryItemService implements GetInventoryItemUseCase {
         InventoryItem item = repo.findById(id)
                 .orElseThrow(() -> new InventoryItemNotFoundException(id));
 
+        // Con buckets, la fila cuenta como reservado lo que aún está en ellos y no cambia con sus reservas
+        StockBucketView buckets = stockBuckets.findTotals(List.of(id)).get(id);
+        if (buckets != null) {
+            return details(item,
+                    buckets.exact(item.stock()),
+                    latest(item.updatedAt(), buckets.lastModified()),
+                    item.version() + buckets.versionSum());
+        }
+        return details(item, item.stock(), item.updatedAt(), item.version());
+    }
+
+    @Override
+    public Optional<InventoryFingerprint> fingerprint(InventoryItemId id) {
+        if (id == null) throw new IllegalArgumentException("id is required");
+        // Misma huella que la ETag de getById
+        return repo.findFingerprint(id).map(f -> {
+            StockBucketView buckets = stockBuckets.findTotals(List.of(id)).get(id);
+            return buckets != null ? f.combine(buckets.fingerprint()) : f;
+        });
+    }
+
+    private static InventoryItemDetails details(InventoryItem item, Stock stock, Instant updatedAt, long version) {
         return new InventoryItemDetails(
                 item.id(),
                 item.sku(),
@@ -32,10 +63,15 @@ public class GetInventoryItemService implements GetInventoryItemUseCase {
                 item.fabric(),
                 item.color(),
                 item.price(),
-                item.stock(),
+                stock,
                 item.status(),
                 item.createdAt(),
-                item.updatedAt()
+                updatedAt,
+                version
         );
     }
+
+    private static Instant latest(Instant a, Instant b) {
+        return b != null && b.isAfter(a) ? b : a;
+    }
 }
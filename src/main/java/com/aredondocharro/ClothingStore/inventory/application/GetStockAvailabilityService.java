@@ -0,0 +1,76 @@
+package com.aredondocharro.ClothingStore.inventory.application;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Stock;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.GetStockAvailabilityUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAvailability;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAvailabilityCheck;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryAvailabilityView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class GetStockAvailabilityService implements GetStockAvailabilityUseCase {
+
+    // Un carrito, no un volcado del catálogo
+    public static final int MAX_CHECK_SIZE = 100;
+
+    private final InventoryItemRepositoryPort repo;
+    private final StockBucketPort stockBuckets;
+
+    @Override
+    public List<StockAvailability> getAvailability(Collection<InventoryItemId> ids) {
+        if (ids == null) throw new IllegalArgumentException("ids are required");
+        if (ids.isEmpty()) return List.of();
+
+        return toAvailability(repo.findAvailability(ids));
+    }
+
+    @Override
+    public StockAvailabilityCheck check(Collection<InventoryItemId> ids, Collection<Sku> skus) {
+        Set<InventoryItemId> wantedIds = ids == null ? Set.of() : new LinkedHashSet<>(ids);
+        Set<Sku> wantedSkus = skus == null ? Set.of() : new LinkedHashSet<>(skus);
+        if (wantedIds.isEmpty() && wantedSkus.isEmpty()) throw new IllegalArgumentException("ids or skus are required");
+        if (wantedIds.size() + wantedSkus.size() > MAX_CHECK_SIZE) {
+            throw new IllegalArgumentException("at most " + MAX_CHECK_SIZE + " ids/skus per check");
+        }
+
+        List<InventoryAvailabilityView> found = repo.findAvailability(wantedIds, wantedSkus);
+
+        Set<InventoryItemId> foundIds = new HashSet<>();
+        Set<Sku> foundSkus = new HashSet<>();
+        for (InventoryAvailabilityView v : found) {
+            foundIds.add(v.id());
+            foundSkus.add(v.sku());
+        }
+
+        return new StockAvailabilityCheck(
+                toAvailability(found),
+                wantedIds.stream().filter(id -> !foundIds.contains(id)).toList(),
+                wantedSkus.stream().filter(sku -> !foundSkus.contains(sku)).toList()
+        );
+    }
+
+    // Con buckets, lo que aún está en ellos no está reservado aunque la fila lo cuente así
+    private List<StockAvailability> toAvailability(List<InventoryAvailabilityView> views) {
+        Map<InventoryItemId, StockBucketView> buckets = stockBuckets.findTotals(
+                views.stream().map(InventoryAvailabilityView::id).toList());
+        return views.stream()
+                .map(v -> {
+                    Stock stock = new Stock(v.onHand(), v.reserved());
+                    StockBucketView b = buckets.get(v.id());
+                    return new StockAvailability(v.id(), v.sku(), v.price(), b != null ? b.exact(stock) : stock, v.status());
+                })
+                .toList();
+    }
+}
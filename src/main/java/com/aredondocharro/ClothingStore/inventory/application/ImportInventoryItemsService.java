@@ -0,0 +1,132 @@
+package com.aredondocharro.ClothingStore.inventory.application;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.InventoryItemsImported;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CreateInventoryItemCommand;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ImportInventoryItemsUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportResult;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryBulkImportPort;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Alta masiva: mismas reglas de dominio que {@link CreateInventoryItemService}, pero sin
+ * comprobar SKU fila a fila ni publicar un evento por item. Las filas se validan y se
+ * entregan al puerto según llegan, así que la memoria no crece con el tamaño del fichero.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ImportInventoryItemsService implements ImportInventoryItemsUseCase {
+
+    static final int MAX_ERROR_SAMPLES = 100;
+
+    private final InventoryBulkImportPort importPort;
+    private final Clock clock;
+    private final EventBusPort eventBus;
+
+    @Override
+    public InventoryImportResult importItems(Iterator<InventoryImportLine> lines, Instant now) {
+        if (lines == null) throw new IllegalArgumentException("lines are required");
+
+        Instant effectiveNow = now != null ? now : Instant.now(clock);
+        ValidatingIterator items = new ValidatingIterator(lines, effectiveNow);
+
+        InventoryBulkImportPort.Outcome outcome = importPort.importAll(items, MAX_ERROR_SAMPLES);
+
+        List<String> errors = new ArrayList<>(items.errors);
+        for (String sku : outcome.conflictingSkus()) {
+            if (errors.size() >= MAX_ERROR_SAMPLES) break;
+            errors.add("sku " + sku + " already exists");
+        }
+
+        InventoryImportResult result = new InventoryImportResult(
+                items.received,
+                outcome.inserted(),
+                outcome.conflicts(),
+                items.rejected,
+                errors
+        );
+
+        eventBus.publish(new InventoryItemsImported(result.imported(), result.conflicts(), result.rejected(), effectiveNow));
+        log.info("Inventory import finished received={} imported={} conflicts={} rejected={}",
+                result.received(), result.imported(), result.conflicts(), result.rejected());
+
+        return result;
+    }
+
+    /**
+     * Convierte filas en items de dominio bajo demanda; las inválidas se cuentan y se saltan.
+     */
+    private static final class ValidatingIterator implements Iterator<InventoryItem> {
+
+        private final Iterator<InventoryImportLine> lines;
+        private final Instant now;
+        private final List<String> errors = new ArrayList<>();
+        private long received;
+        private long rejected;
+        private InventoryItem next;
+
+        private ValidatingIterator(Iterator<InventoryImportLine> lines, Instant now) {
+            this.lines = lines;
+            this.now = now;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && lines.hasNext()) {
+                InventoryImportLine line = lines.next();
+                received++;
+                if (line.isRejected()) {
+                    reject(line.lineNumber(), line.error());
+                    continue;
+                }
+                try {
+                    next = toItem(line.command());
+                } catch (RuntimeException ex) {
+                    reject(line.lineNumber(), ex.getMessage());
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public InventoryItem next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            InventoryItem item = next;
+            next = null;
+            return item;
+        }
+
+        private InventoryItem toItem(CreateInventoryItemCommand c) {
+            return InventoryItem.createNew(
+                    null,
+                    c.sku(),
+                    c.name(),
+                    c.description(),
+                    c.category(),
+                    c.accessoryType(),
+                    c.gender(),
+                    c.size(),
+                    c.fabric(),
+                    c.color(),
+                    c.price(),
+                    c.initialOnHand(),
+                    now
+            );
+        }
+
+        private void reject(long lineNumber, String error) {
+            rejected++;
+            if (errors.size() < MAX_ERROR_SAMPLES) errors.add("line " + lineNumber + ": " + error);
+        }
+    }
+}
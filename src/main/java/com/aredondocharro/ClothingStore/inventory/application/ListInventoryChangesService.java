@@ -0,0 +1,84 @@
+package com.aredondocharro.ClothingStore.inventory.application;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemName;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Stock;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChange;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangeCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangePage;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ListInventoryChangesUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryChangeView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * updated_at lo pone el nodo al escribir, pero la fila solo es visible al hacer commit: una transacción
+ * lenta (p. ej. un import masivo de minutos) puede aparecer con un updated_at que el consumidor ya dejó atrás.
+ * Por eso el feed solo entrega filas anteriores al inicio de la transacción de escritura más antigua aún
+ * abierta: nada de lo que queda por hacer commit puede caer detrás del cursor. {@code settleLag} se resta
+ * además como margen del desfase de reloj entre nodos y BD, y del hueco entre fijar updated_at y escribir.
+ */
+public class ListInventoryChangesService implements ListInventoryChangesUseCase {
+
+    public static final int MAX_LIMIT = 500;
+
+    private final InventoryItemRepositoryPort repo;
+    private final Clock clock;
+    private final Duration settleLag;
+    private final StockBucketPort stockBuckets;
+
+    public ListInventoryChangesService(InventoryItemRepositoryPort repo, Clock clock, Duration settleLag, StockBucketPort stockBuckets) {
+        if (settleLag == null || settleLag.isNegative()) throw new IllegalArgumentException("settleLag must be >= 0");
+        this.repo = repo;
+        this.clock = clock;
+        this.settleLag = settleLag;
+        this.stockBuckets = stockBuckets;
+    }
+
+    @Override
+    public InventoryChangePage changesAfter(InventoryChangeCursor after, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be > 0");
+        if (limit > MAX_LIMIT) throw new IllegalArgumentException("limit max is " + MAX_LIMIT);
+
+        Instant bound = clock.instant();
+        Instant oldestOpenWrite = repo.findOldestOpenWriteStart().orElse(null);
+        if (oldestOpenWrite != null && oldestOpenWrite.isBefore(bound)) bound = oldestOpenWrite;
+        Instant before = bound.minus(settleLag);
+
+        // Una fila extra para saber si hay más sin esperar
+        List<InventoryChangeView> rows = repo.findChangesAfter(after, before, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<InventoryChangeView> page = hasMore ? rows.subList(0, limit) : rows;
+
+        InventoryChangeCursor next = page.isEmpty()
+                ? after
+                : new InventoryChangeCursor(page.get(page.size() - 1).updatedAt(), page.get(page.size() - 1).id().getValue());
+
+        // Lo que sigue en buckets cuenta como reservado en la fila pero está disponible: una consulta por página
+        Map<InventoryItemId, StockBucketView> buckets = stockBuckets.findTotals(
+                page.stream().map(InventoryChangeView::id).toList());
+
+        return new InventoryChangePage(page.stream().map(v -> toChange(v, buckets.get(v.id()))).toList(), next, hasMore);
+    }
+
+    private static InventoryChange toChange(InventoryChangeView v, StockBucketView buckets) {
+        Stock stock = new Stock(v.onHand(), v.reserved());
+        return new InventoryChange(
+                v.id(),
+                v.sku(),
+                ItemName.of(v.name()),
+                v.price(),
+                buckets != null ? buckets.exact(stock) : stock,
+                v.status(),
+                v.updatedAt(),
+                v.version()
+        );
+    }
+}
@@ -1,22 +1,35 @@
 package com.aredondocharro.ClothingStore.inventory.application;
 
 import com.aredondocharro.ClothingStore.inventory.contracts.event.StockReserved;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.InsufficientStockException;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.InvalidReservationException;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.InvalidStockException;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.InventoryItemNotFoundException;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.ItemDiscontinuedException;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.StockReservationAlreadyExistsException;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
 import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
 import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
 import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservationId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockAttempt;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockOutcome;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.HotStockLedgerPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
 import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -26,6 +39,10 @@ public class ReserveStockService implements ReserveStockUseCase {
     private final StockReservationRepositoryPort reservationRepo;
     private final Clock clock;
     private final EventBusPort eventBus;
+    private final HotStockLedgerPort hotLedger;
+    // null = las reservas no caducan
+    private final Duration reservationTtl;
+    private final StockBucketPort stockBuckets;
 
     @Override
     public StockReservationId reserve(InventoryItemId itemId, ReservationReference reference, int quantity, Instant now) {
@@ -33,8 +50,14 @@ public class ReserveStockService implements ReserveStockUseCase {
         if (reference == null) throw new IllegalArgumentException("reference is required");
         if (quantity <= 0) throw new IllegalArgumentException("quantity must be > 0");
 
-        // 1) Idempotencia por (itemId, reference)
-        var existing = reservationRepo.findActiveByItemAndReference(itemId, reference);
+        boolean hot = hotLedger.isHot(itemId);
+
+        // 1) Idempotencia por (itemId, reference): en items hot primero el ledger en memoria; si no la
+        // conoce (lease caducado, otro nodo, ruta SQL) manda la BD, antes de tocar el stock arrendado
+        var existing = hot
+                ? hotLedger.findKnown(itemId, reference)
+                        .or(() -> reservationRepo.findActiveByItemAndReference(itemId, reference))
+                : reservationRepo.findActiveByItemAndReference(itemId, reference);
         if (existing.isPresent()) {
             if (existing.get().quantity() == quantity) {
                 log.info("Reserve idempotent hit itemId={} ref={} qty={} reservationId={}",
@@ -45,39 +68,279 @@ public class ReserveStockService implements ReserveStockUseCase {
         }
 
         Instant effectiveNow = effectiveNow(now);
-
-        // 2) Cargar item y reservar stock (reglas en el dominio)
-        InventoryItem item = itemRepo.findById(itemId)
-                .orElseThrow(() -> new InventoryItemNotFoundException(itemId));
-
-        InventoryItem updatedItem = item.reserve(quantity, effectiveNow);
-
-        // 3) Crear reserva (agregado separado)
         StockReservation reservation = StockReservation.createNew(
                 null,
                 itemId,
                 reference,
                 quantity,
-                effectiveNow
+                effectiveNow,
+                reservationTtl
         );
 
-        // 4) Persistir (debe ir en transacción -> lo cubriremos con wrapper tx en infraestructura)
-        itemRepo.save(updatedItem);
-        reservationRepo.save(reservation);
+        // 2) Item hot: reserva en memoria contra stock arrendado; el ledger persiste en diferido
+        if (hot) {
+            var held = hotLedger.tryReserve(reservation);
+            if (held.isPresent()) {
+                StockReservation current = held.get();
+                if (!current.id().equals(reservation.id())) {
+                    // Otra petición con la misma referencia aún pendiente de flush
+                    if (current.quantity() == quantity) return current.id();
+                    throw new StockReservationAlreadyExistsException(reference);
+                }
+                publishReserved(reservation);
+                log.debug("Stock reserved (hot) itemId={} ref={} qty={} reservationId={}",
+                        itemId, reference, quantity, reservation.id());
+                return reservation.id();
+            }
+            // Sin stock arrendado: la ruta SQL decide (y da el error de dominio si procede)
+        }
+
+        // 3) Item con buckets: se descuenta de uno de sus N buckets en vez de bloquear la fila del item
+        if (stockBuckets.isBucketed(itemId) && stockBuckets.tryReserve(reservation)) {
+            publishReserved(reservation);
+            log.debug("Stock reserved (bucket) itemId={} ref={} qty={} reservationId={}",
+                    itemId, reference, quantity, reservation.id());
+            return reservation.id();
+        }
+
+        // 4) UPDATE condicional de stock + INSERT de la reserva en una sola sentencia (sin read-modify-write).
+        // Si no hay bastante en la fila puede estar repartido en buckets: se devuelve a la fila y se reintenta
+        if (!itemRepo.tryReserve(reservation)
+                && !(stockBuckets.drain(itemId, effectiveNow) > 0 && itemRepo.tryReserve(reservation))) {
+            throw reserveRejection(itemId, quantity, effectiveNow);
+        }
 
         // 5) Publicar evento
+        publishReserved(reservation);
+
+        log.info("Stock reserved itemId={} ref={} qty={} reservationId={}",
+                itemId, reference, quantity, reservation.id());
+
+        return reservation.id();
+    }
+
+    @Override
+    public Map<InventoryItemId, StockReservationId> reserveAll(ReservationReference reference, List<ReserveStockLine> lines, Instant now) {
+        if (reference == null) throw new IllegalArgumentException("reference is required");
+        if (lines == null || lines.isEmpty()) throw new IllegalArgumentException("lines are required");
+
+        // Orden determinista por id: todas las transacciones bloquean filas en el mismo orden (sin deadlocks)
+        List<ReserveStockLine> sorted = lines.stream()
+                .sorted(Comparator.comparing(l -> l.itemId().getValue()))
+                .toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).itemId().equals(sorted.get(i - 1).itemId())) {
+                throw new IllegalArgumentException("duplicate itemId in lines: " + sorted.get(i).itemId());
+            }
+        }
+
+        Instant effectiveNow = effectiveNow(now);
+
+        // 1) Idempotencia por (itemId, reference) con una sola consulta
+        Map<InventoryItemId, StockReservation> existing = reservationRepo.findActiveByReference(reference).stream()
+                .collect(Collectors.toMap(StockReservation::itemId, r -> r));
+
+        Map<InventoryItemId, StockReservationId> reserved = new HashMap<>();
+        List<ReserveStockLine> pending = new ArrayList<>();
+        for (ReserveStockLine line : sorted) {
+            StockReservation current = existing.get(line.itemId());
+            if (current == null) {
+                pending.add(line);
+            } else if (current.quantity() == line.quantity()) {
+                reserved.put(line.itemId(), current.id());
+            } else {
+                throw new StockReservationAlreadyExistsException(reference);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            // 2) UPDATEs condicionales en un único batch; si una línea falla, la tx entera hace rollback
+            List<InventoryItemId> rejected = retryAfterDrain(pending, itemRepo.tryReserveAll(pending, effectiveNow), effectiveNow);
+            if (!rejected.isEmpty()) {
+                ReserveStockLine failed = pending.stream()
+                        .filter(l -> rejected.contains(l.itemId()))
+                        .findFirst()
+                        .orElseThrow();
+                throw reserveRejection(failed.itemId(), failed.quantity(), effectiveNow);
+            }
+
+            // 3) Reservas en bloque
+            List<StockReservation> reservations = pending.stream()
+                    .map(l -> StockReservation.createNew(null, l.itemId(), reference, l.quantity(), effectiveNow, reservationTtl))
+                    .toList();
+            reservationRepo.insertAll(reservations);
+
+            // 4) Un evento por reserva (mismo contrato que reserve)
+            for (StockReservation r : reservations) {
+                reserved.put(r.itemId(), r.id());
+                eventBus.publish(new StockReserved(
+                        r.id().getValue(),
+                        r.itemId().getValue(),
+                        reference.getValue(),
+                        r.quantity(),
+                        effectiveNow
+                ));
+            }
+        }
+
+        log.info("Stock reserved (batch) ref={} lines={} new={}", reference, lines.size(), pending.size());
+
+        Map<InventoryItemId, StockReservationId> result = new LinkedHashMap<>();
+        for (ReserveStockLine line : lines) {
+            result.put(line.itemId(), reserved.get(line.itemId()));
+        }
+        return result;
+    }
+
+    @Override
+    public List<ReserveStockOutcome> reserveGroup(InventoryItemId itemId, List<ReserveStockAttempt> attempts, Instant now) {
+        if (itemId == null) throw new IllegalArgumentException("itemId is required");
+        if (attempts == null || attempts.isEmpty()) throw new IllegalArgumentException("attempts are required");
+
+        Instant effectiveNow = effectiveNow(now);
+
+        // Item hot o con buckets: ya reparten la contención por su cuenta, una a una
+        if (hotLedger.isHot(itemId) || stockBuckets.isBucketed(itemId)) {
+            return attempts.stream()
+                    .map(a -> outcomeOf(() -> reserve(itemId, a.reference(), a.quantity(), effectiveNow)))
+                    .toList();
+        }
+
+        // 1) Idempotencia de todo el grupo con una sola consulta
+        Set<ReservationReference> references = attempts.stream()
+                .map(ReserveStockAttempt::reference)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<ReservationReference, StockReservation> byReference = new HashMap<>();
+        for (StockReservation r : reservationRepo.findActiveByItemAndReferences(itemId, references)) {
+            byReference.put(r.reference(), r);
+        }
+
+        // 2) Reparto por orden de llegada sobre el item de dominio: mismas reglas y errores que reserve en secuencia
+        ReserveStockOutcome[] outcomes = new ReserveStockOutcome[attempts.size()];
+        List<StockReservation> accepted = new ArrayList<>();
+        // Se carga una sola vez, con la primera petición nueva
+        boolean itemLoaded = false;
+        Optional<InventoryItem> item = Optional.empty();
+        for (int i = 0; i < outcomes.length; i++) {
+            ReserveStockAttempt attempt = attempts.get(i);
+            try {
+                if (attempt.reference() == null) throw new IllegalArgumentException("reference is required");
+                if (attempt.quantity() <= 0) throw new IllegalArgumentException("quantity must be > 0");
+
+                StockReservation current = byReference.get(attempt.reference());
+                if (current != null) {
+                    if (current.quantity() != attempt.quantity()) {
+                        throw new StockReservationAlreadyExistsException(attempt.reference());
+                    }
+                    outcomes[i] = ReserveStockOutcome.reserved(current.id());
+                    continue;
+                }
+
+                if (!itemLoaded) {
+                    item = itemRepo.findById(itemId);
+                    itemLoaded = true;
+                }
+                item = Optional.of(item.orElseThrow(() -> new InventoryItemNotFoundException(itemId))
+                        .reserve(attempt.quantity(), effectiveNow));
+
+                StockReservation reservation = StockReservation.createNew(
+                        null, itemId, attempt.reference(), attempt.quantity(), effectiveNow, reservationTtl);
+                byReference.put(attempt.reference(), reservation);
+                accepted.add(reservation);
+                outcomes[i] = ReserveStockOutcome.reserved(reservation.id());
+            } catch (RuntimeException ex) {
+                outcomes[i] = rejectedOrRethrow(ex);
+            }
+        }
+
+        if (accepted.isEmpty()) return List.of(outcomes);
+
+        // 3) Un único UPDATE condicional por el total del grupo + reservas en un batch
+        int total = accepted.stream().mapToInt(StockReservation::quantity).sum();
+        if (itemRepo.tryReserveAll(List.of(new ReserveStockLine(itemId, total)), effectiveNow).isEmpty()) {
+            reservationRepo.insertAll(accepted);
+            accepted.forEach(this::publishReserved);
+            log.info("Stock reserved (group) itemId={} requests={} new={} qty={}",
+                    itemId, attempts.size(), accepted.size(), total);
+            return List.of(outcomes);
+        }
+
+        // 4) Otra tx cambió el stock después de leerlo: cada petición aceptada con su propio UPDATE condicional
+        Set<StockReservationId> planned = accepted.stream().map(StockReservation::id).collect(Collectors.toSet());
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i].isReserved() && planned.contains(outcomes[i].reservationId())) {
+                ReserveStockAttempt attempt = attempts.get(i);
+                outcomes[i] = outcomeOf(() -> reserve(itemId, attempt.reference(), attempt.quantity(), effectiveNow));
+            }
+        }
+        log.info("Stock reserved (group, sequential fallback) itemId={} requests={}", itemId, attempts.size());
+        return List.of(outcomes);
+    }
+
+    /**
+     * Las líneas rechazadas de items con buckets pueden tener el stock en ellos: se devuelve a la fila
+     * y se reintentan una vez. Devuelve los ids que siguen rechazados.
+     */
+    private List<InventoryItemId> retryAfterDrain(List<ReserveStockLine> lines, List<InventoryItemId> rejected, Instant now) {
+        if (rejected.isEmpty()) return rejected;
+        List<ReserveStockLine> retry = lines.stream()
+                .filter(l -> rejected.contains(l.itemId()) && stockBuckets.drain(l.itemId(), now) > 0)
+                .toList();
+        if (retry.isEmpty()) return rejected;
+
+        List<InventoryItemId> stillRejected = itemRepo.tryReserveAll(retry, now);
+        Set<InventoryItemId> retried = retry.stream().map(ReserveStockLine::itemId).collect(Collectors.toSet());
+        return rejected.stream()
+                .filter(id -> !retried.contains(id) || stillRejected.contains(id))
+                .toList();
+    }
+
+    private static ReserveStockOutcome outcomeOf(Supplier<StockReservationId> reserve) {
+        try {
+            return ReserveStockOutcome.reserved(reserve.get());
+        } catch (RuntimeException ex) {
+            return rejectedOrRethrow(ex);
+        }
+    }
+
+    /**
+     * Solo los rechazos de negocio o de validación son el resultado de una petición. Un error de BD o de
+     * infraestructura se propaga: el grupo entero hace rollback y se reintenta o falla para todos.
+     */
+    private static ReserveStockOutcome rejectedOrRethrow(RuntimeException ex) {
+        if (ex instanceof InsufficientStockException
+                || ex instanceof InventoryItemNotFoundException
+                || ex instanceof ItemDiscontinuedException
+                || ex instanceof StockReservationAlreadyExistsException
+                || ex instanceof InvalidReservationException
+                || ex instanceof InvalidStockException
+                || ex instanceof IllegalArgumentException) {
+            return ReserveStockOutcome.rejected(ex);
+        }
+        throw ex;
+    }
+
+    private void publishReserved(StockReservation reservation) {
         eventBus.publish(new StockReserved(
                 reservation.id().getValue(),
-                itemId.getValue(),
-                reference.getValue(),
-                quantity,
-                effectiveNow
+                reservation.itemId().getValue(),
+                reservation.reference().getValue(),
+                reservation.quantity(),
+                reservation.createdAt()
         ));
+    }
 
-        log.info("Stock reserved itemId={} sku={} ref={} qty={} reservationId={}",
-                itemId, updatedItem.sku(), reference, quantity, reservation.id());
-
-        return reservation.id();
+    /**
+     * El UPDATE no afectó filas: cargamos el item y dejamos que el dominio ({@code Stock})
+     * decida el error (no encontrado, discontinuado, stock insuficiente...).
+     */
+    private RuntimeException reserveRejection(InventoryItemId itemId, int quantity, Instant now) {
+        InventoryItem item = itemRepo.findById(itemId)
+                .orElseThrow(() -> new InventoryItemNotFoundException(itemId));
+        item.reserve(quantity, now);
+        // Carrera: otra tx liberó stock entre el UPDATE y la lectura
+        return new InsufficientStockException("Not enough available stock to reserve (concurrent update). qty=" + quantity);
     }
 
     private Instant effectiveNow(Instant now) {
@@ -1,18 +1,23 @@
 package com.aredondocharro.ClothingStore.inventory.application;
 
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
 import com.aredondocharro.ClothingStore.inventory.domain.model.ItemName;
 import com.aredondocharro.ClothingStore.inventory.domain.model.Stock;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.*;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @RequiredArgsConstructor
 public class SearchInventoryItemsService implements SearchInventoryItemsUseCase {
 
     private final InventoryItemRepositoryPort repo;
+    private final StockBucketPort stockBuckets;
 
     @Override
     public Page<InventoryItemSummary> search(InventorySearchQuery query, PageRequest pageRequest) {
@@ -20,20 +25,44 @@ public class SearchInventoryItemsService implements SearchInventoryItemsUseCase
 
         Page<InventoryItemSummaryView> viewPage = repo.search(query, pageRequest);
 
-        List<InventoryItemSummary> summaries = viewPage.items().stream()
-                .map(this::toSummary)
-                .toList();
+        List<InventoryItemSummary> summaries = toSummaries(viewPage.items());
+
+        return new Page<>(summaries, viewPage.total(), viewPage.request(), viewPage.countMode(), viewPage.hasNext());
+    }
+
+    @Override
+    public CursorPage<InventoryItemSummary> searchAfter(InventorySearchQuery query, CursorPageRequest pageRequest) {
+        if (pageRequest == null) throw new IllegalArgumentException("pageRequest is required");
+
+        CursorPage<InventoryItemSummaryView> viewPage = repo.searchAfter(query, pageRequest);
 
-        return new Page<>(summaries, viewPage.total(), viewPage.request());
+        List<InventoryItemSummary> summaries = toSummaries(viewPage.items());
+
+        return new CursorPage<>(summaries, viewPage.next());
+    }
+
+    @Override
+    public InventoryFacets facets(InventorySearchQuery query) {
+        return repo.countFacets(query);
+    }
+
+    // Una consulta de buckets por página (ninguna si no hay items con buckets en ella)
+    private List<InventoryItemSummary> toSummaries(List<InventoryItemSummaryView> views) {
+        Map<InventoryItemId, StockBucketView> buckets = stockBuckets.findTotals(
+                views.stream().map(InventoryItemSummaryView::id).toList());
+        return views.stream()
+                .map(v -> toSummary(v, buckets.get(v.id())))
+                .toList();
     }
 
-    private InventoryItemSummary toSummary(InventoryItemSummaryView v) {
+    private InventoryItemSummary toSummary(InventoryItemSummaryView v, StockBucketView buckets) {
+        Stock stock = new Stock(v.onHand(), v.reserved());
         return new InventoryItemSummary(
                 v.id(),
                 v.sku(),
                 ItemName.of(v.name()),
                 v.price(),
-                new Stock(v.onHand(), v.reserved()),
+                buckets != null ? buckets.exact(stock) : stock,
                 v.status()
         );
     }
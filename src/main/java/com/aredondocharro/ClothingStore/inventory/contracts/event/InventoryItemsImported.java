@@ -0,0 +1,12 @@
+package com.aredondocharro.ClothingStore.inventory.contracts.event;
+
+import com.aredondocharro.ClothingStore.shared.domain.event.DomainEvent;
+
+import java.time.Instant;
+
+/**
+ * Resumen de un import masivo: sustituye a un {@link InventoryItemCreated} por fila.
+ */
+public record InventoryItemsImported(long imported, long conflicts, long rejected, Instant occurredAt) implements DomainEvent {
+    @Override public String type() { return "inventory.items.imported"; }
+}
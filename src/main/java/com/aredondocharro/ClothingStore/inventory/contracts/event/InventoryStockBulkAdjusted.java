@@ -0,0 +1,20 @@
+package com.aredondocharro.ClothingStore.inventory.contracts.event;
+
+import com.aredondocharro.ClothingStore.shared.domain.event.DomainEvent;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Un tramo de un ajuste masivo: sustituye a un {@link InventoryStockAdjusted} por línea aplicada.
+ */
+public record InventoryStockBulkAdjusted(List<Adjustment> adjustments, Instant occurredAt) implements DomainEvent {
+    public InventoryStockBulkAdjusted {
+        adjustments = List.copyOf(adjustments);
+    }
+
+    @Override public String type() { return "inventory.stock.bulk-adjusted"; }
+
+    public record Adjustment(UUID itemId, int delta, String reason) {}
+}
@@ -20,7 +20,8 @@ public record InventoryItem(
         Stock stock,
         ItemStatus status,
         Instant createdAt,
-        Instant updatedAt
+        Instant updatedAt,
+        long version
 ) {
 
     public InventoryItem {
@@ -44,6 +45,7 @@ public record InventoryItem(
         if (updatedAt.isBefore(createdAt)) {
             throw new IllegalArgumentException("updatedAt cannot be before createdAt");
         }
+        if (version < 0) throw new IllegalArgumentException("version must be >= 0");
     }
 
     public static InventoryItem createNew(
@@ -77,7 +79,8 @@ public record InventoryItem(
                 Stock.of(initialOnHand),
                 ItemStatus.ACTIVE,
                 now,
-                now
+                now,
+                0L
         );
     }
 
@@ -118,7 +121,8 @@ public record InventoryItem(
                 stock,
                 status,
                 createdAt,
-                now
+                now,
+                version
         );
     }
 
@@ -131,7 +135,7 @@ public record InventoryItem(
 
         return new InventoryItem(
                 id, sku, name, description, category, accessoryType, gender, size, fabric, color,
-                newPrice, stock, status, createdAt, now
+                newPrice, stock, status, createdAt, now, version
         );
     }
 
@@ -144,7 +148,7 @@ public record InventoryItem(
 
         return new InventoryItem(
                 id, sku, name, description, category, accessoryType, gender, size, fabric, color,
-                price, newStock, status, createdAt, now
+                price, newStock, status, createdAt, now, version
         );
     }
 
@@ -156,7 +160,7 @@ public record InventoryItem(
 
         return new InventoryItem(
                 id, sku, name, description, category, accessoryType, gender, size, fabric, color,
-                price, newStock, status, createdAt, now
+                price, newStock, status, createdAt, now, version
         );
     }
 
@@ -168,7 +172,7 @@ public record InventoryItem(
 
         return new InventoryItem(
                 id, sku, name, description, category, accessoryType, gender, size, fabric, color,
-                price, newStock, status, createdAt, now
+                price, newStock, status, createdAt, now, version
         );
     }
 
@@ -178,7 +182,7 @@ public record InventoryItem(
 
         return new InventoryItem(
                 id, sku, name, description, category, accessoryType, gender, size, fabric, color,
-                price, stock, ItemStatus.DISCONTINUED, createdAt, now
+                price, stock, ItemStatus.DISCONTINUED, createdAt, now, version
         );
     }
 
@@ -188,7 +192,7 @@ public record InventoryItem(
 
         return new InventoryItem(
                 id, sku, name, description, category, accessoryType, gender, size, fabric, color,
-                price, stock, ItemStatus.ACTIVE, createdAt, now
+                price, stock, ItemStatus.ACTIVE, createdAt, now, version
         );
     }
     public InventoryItem consumeReserved(int qty, Instant now) {
@@ -201,7 +205,7 @@ public record InventoryItem(
 
         return new InventoryItem(
                 id, sku, name, description, category, accessoryType, gender, size, fabric, color,
-                price, afterOnHandDecrease, status, createdAt, now
+                price, afterOnHandDecrease, status, createdAt, now, version
         );
     }
 }
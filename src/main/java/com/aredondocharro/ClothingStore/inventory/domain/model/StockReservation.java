@@ -2,6 +2,7 @@ package com.aredondocharro.ClothingStore.inventory.domain.model;
 
 import com.aredondocharro.ClothingStore.inventory.domain.exception.InvalidReservationException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 
@@ -12,8 +13,10 @@ public record StockReservation(
         int quantity,
         ReservationStatus status,
         Instant createdAt,
+        Instant expiresAt,
         Instant releasedAt,
-        Instant consumedAt
+        Instant consumedAt,
+        long version
 ) {
 
     public StockReservation {
@@ -24,6 +27,10 @@ public record StockReservation(
         Objects.requireNonNull(createdAt, "createdAt");
 
         if (quantity <= 0) throw new InvalidReservationException("Reservation quantity must be > 0");
+        if (version < 0) throw new InvalidReservationException("Reservation version must be >= 0");
+        if (expiresAt != null && !expiresAt.isAfter(createdAt)) {
+            throw new InvalidReservationException("expiresAt must be after createdAt");
+        }
 
         if (status == ReservationStatus.RELEASED && releasedAt == null) {
             throw new InvalidReservationException("releasedAt is required when status is RELEASED");
@@ -39,8 +46,25 @@ public record StockReservation(
             ReservationReference reference,
             int quantity,
             Instant now
+    ) {
+        return createNew(id, itemId, reference, quantity, now, null);
+    }
+
+    /**
+     * Reserva nueva que caduca a los {@code ttl} (null = no caduca nunca).
+     */
+    public static StockReservation createNew(
+            StockReservationId id,
+            InventoryItemId itemId,
+            ReservationReference reference,
+            int quantity,
+            Instant now,
+            Duration ttl
     ) {
         Objects.requireNonNull(now, "now");
+        if (ttl != null && (ttl.isZero() || ttl.isNegative())) {
+            throw new InvalidReservationException("Reservation ttl must be > 0");
+        }
         return new StockReservation(
                 id == null ? StockReservationId.newId() : id,
                 itemId,
@@ -48,8 +72,10 @@ public record StockReservation(
                 quantity,
                 ReservationStatus.ACTIVE,
                 now,
+                ttl != null ? now.plus(ttl) : null,
                 null,
-                null
+                null,
+                0L
         );
     }
 
@@ -57,6 +83,11 @@ public record StockReservation(
         return status == ReservationStatus.ACTIVE;
     }
 
+    public boolean isExpired(Instant now) {
+        Objects.requireNonNull(now, "now");
+        return status == ReservationStatus.ACTIVE && expiresAt != null && !expiresAt.isAfter(now);
+    }
+
     public StockReservation release(Instant now) {
         Objects.requireNonNull(now, "now");
         if (status != ReservationStatus.ACTIVE) return this;
@@ -65,8 +96,10 @@ public record StockReservation(
                 id, itemId, reference, quantity,
                 ReservationStatus.RELEASED,
                 createdAt,
+                expiresAt,
                 now,
-                null
+                null,
+                version
         );
     }
 
@@ -78,8 +111,10 @@ public record StockReservation(
                 id, itemId, reference, quantity,
                 ReservationStatus.CONSUMED,
                 createdAt,
+                expiresAt,
                 null,
-                now
+                now,
+                version
         );
     }
 }
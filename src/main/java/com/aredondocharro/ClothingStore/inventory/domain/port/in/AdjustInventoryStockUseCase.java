@@ -3,7 +3,11 @@ package com.aredondocharro.ClothingStore.inventory.domain.port.in;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
 
 import java.time.Instant;
+import java.util.List;
 
 public interface AdjustInventoryStockUseCase {
     void adjustOnHand(InventoryItemId id, int delta, String reason, Instant now);
+
+    // Ajuste masivo (sincronización con almacén): aplica cada línea válida y devuelve las rechazadas.
+    StockAdjustmentResult adjustOnHandAll(List<StockAdjustmentLine> lines, Instant now);
 }
@@ -0,0 +1,11 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+/**
+ * Cómo se calcula el total de una búsqueda paginada.
+ * EXACT = count(*) con los mismos filtros; ESTIMATED = estimación del planner; NONE = sin total (solo hasNext).
+ */
+public enum CountMode {
+    EXACT,
+    ESTIMATED,
+    NONE
+}
@@ -0,0 +1,17 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Resultado de una página por cursor: {@code next} null = no hay más resultados.
+ */
+public record CursorPage<T>(List<T> items, InventoryCursor next) {
+    public CursorPage {
+        Objects.requireNonNull(items, "items");
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.util.Objects;
+
+/**
+ * Página por cursor: {@code after} null = primera página.
+ */
+public record CursorPageRequest(InventorySort sort, InventoryCursor after, int limit) {
+    public CursorPageRequest {
+        Objects.requireNonNull(sort, "sort");
+        if (limit <= 0) throw new IllegalArgumentException("limit must be > 0");
+        if (limit > 200) throw new IllegalArgumentException("limit max is 200");
+        if (after != null && after.sort() != sort) throw new IllegalArgumentException("cursor does not match sort");
+    }
+
+    public static CursorPageRequest first(InventorySort sort, int limit) {
+        return new CursorPageRequest(sort, null, limit);
+    }
+}
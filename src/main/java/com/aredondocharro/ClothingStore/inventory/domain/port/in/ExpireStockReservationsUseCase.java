@@ -0,0 +1,11 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.time.Instant;
+
+public interface ExpireStockReservationsUseCase {
+    /**
+     * Libera un lote de como mucho {@code batchSize} reservas caducadas.
+     * Devuelve cuántas liberó (menos que batchSize = no quedan más por ahora).
+     */
+    int expireBatch(Instant now, int batchSize);
+}
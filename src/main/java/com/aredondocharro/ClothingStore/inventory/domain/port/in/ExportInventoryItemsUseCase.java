@@ -0,0 +1,8 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.util.function.Consumer;
+
+public interface ExportInventoryItemsUseCase {
+    // Export completo en streaming: cada item se entrega al sink según se lee (memoria constante)
+    long export(InventorySearchQuery query, Consumer<InventoryItemSummary> sink);
+}
@@ -2,6 +2,11 @@ package com.aredondocharro.ClothingStore.inventory.domain.port.in;
 
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
 
+import java.util.Optional;
+
 public interface GetInventoryItemUseCase {
     InventoryItemDetails getById(InventoryItemId id);
+
+    // Versión actual del item sin cargarlo (peticiones condicionales); vacío si no existe
+    Optional<InventoryFingerprint> fingerprint(InventoryItemId id);
 }
@@ -0,0 +1,15 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GetStockAvailabilityUseCase {
+    // Disponibilidad de varios items en una sola consulta; los que no existen no aparecen
+    List<StockAvailability> getAvailability(Collection<InventoryItemId> ids);
+
+    // Carrito: ids y SKUs mezclados en una sola consulta, informando de los que no existen
+    StockAvailabilityCheck check(Collection<InventoryItemId> ids, Collection<Sku> skus);
+}
@@ -0,0 +1,12 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.time.Instant;
+import java.util.Iterator;
+
+public interface ImportInventoryItemsUseCase {
+    /**
+     * Importa en bloque las filas según se van leyendo (el iterador se consume una sola vez).
+     * Las filas inválidas se descartan; los SKU ya existentes (o repetidos en el fichero) cuentan como conflicto.
+     */
+    InventoryImportResult importItems(Iterator<InventoryImportLine> lines, Instant now);
+}
@@ -0,0 +1,20 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+
+import java.time.Instant;
+
+/**
+ * Estado actual de un item modificado (discontinuados incluidos); {@code version} permite descartar
+ * entregas repetidas o fuera de orden en el consumidor.
+ */
+public record InventoryChange(
+        InventoryItemId id,
+        Sku sku,
+        ItemName name,
+        Money price,
+        Stock stock,
+        ItemStatus status,
+        Instant updatedAt,
+        long version
+) {}
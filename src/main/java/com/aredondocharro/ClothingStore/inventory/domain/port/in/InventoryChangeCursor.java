@@ -0,0 +1,36 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posición en el feed de cambios: último (updated_at, id) entregado. Token opaco (Base64 URL-safe).
+ */
+public record InventoryChangeCursor(Instant updatedAt, UUID lastId) {
+
+    public InventoryChangeCursor {
+        Objects.requireNonNull(updatedAt, "updatedAt");
+        Objects.requireNonNull(lastId, "lastId");
+    }
+
+    public String encode() {
+        String raw = updatedAt + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static InventoryChangeCursor decode(String token) {
+        if (token == null || token.isBlank()) throw new IllegalArgumentException("cursor is required");
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) throw new IllegalArgumentException("invalid cursor");
+            return new InventoryChangeCursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Tramo del feed de cambios. {@code next} es desde donde seguir (el mismo cursor si no hubo cambios;
+ * null solo si aún no hay nada que entregar); {@code hasMore} indica que se puede pedir ya sin esperar.
+ */
+public record InventoryChangePage(List<InventoryChange> changes, InventoryChangeCursor next, boolean hasMore) {
+    public InventoryChangePage {
+        Objects.requireNonNull(changes, "changes");
+    }
+}
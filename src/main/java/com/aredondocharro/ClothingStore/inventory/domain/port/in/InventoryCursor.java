@@ -0,0 +1,35 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Última posición servida (clave de orden, id). Se expone como token opaco (Base64 URL-safe).
+ */
+public record InventoryCursor(InventorySort sort, String key, UUID lastId) {
+
+    public InventoryCursor {
+        Objects.requireNonNull(sort, "sort");
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(lastId, "lastId");
+    }
+
+    public String encode() {
+        String raw = sort.name() + "|" + lastId + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static InventoryCursor decode(String token) {
+        if (token == null || token.isBlank()) throw new IllegalArgumentException("cursor is required");
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) throw new IllegalArgumentException("invalid cursor");
+            return new InventoryCursor(InventorySort.valueOf(parts[0]), parts[2], UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+}
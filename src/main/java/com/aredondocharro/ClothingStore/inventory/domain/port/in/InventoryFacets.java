@@ -0,0 +1,26 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Conteos por valor de cada faceta para un mismo conjunto de filtros.
+ * Los valores sin resultados no aparecen.
+ */
+public record InventoryFacets(
+        Map<InventoryCategory, Long> categories,
+        Map<Gender, Long> genders,
+        Map<Size, Long> sizes,
+        Map<Fabric, Long> fabrics,
+        Map<ItemStatus, Long> statuses
+) {
+    public InventoryFacets {
+        categories = Map.copyOf(Objects.requireNonNull(categories, "categories"));
+        genders = Map.copyOf(Objects.requireNonNull(genders, "genders"));
+        sizes = Map.copyOf(Objects.requireNonNull(sizes, "sizes"));
+        fabrics = Map.copyOf(Objects.requireNonNull(fabrics, "fabrics"));
+        statuses = Map.copyOf(Objects.requireNonNull(statuses, "statuses"));
+    }
+}
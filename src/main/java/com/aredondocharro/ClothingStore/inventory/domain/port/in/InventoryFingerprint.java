@@ -0,0 +1,25 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.time.Instant;
+
+/**
+ * Huella barata de lo que devolvería una lectura: filas, último updated_at y suma de versiones.
+ * Cualquier alta, cambio o salida del filtro la altera, así que sirve como validador HTTP (ETag).
+ */
+public record InventoryFingerprint(long count, Instant lastModified, long versionSum) {
+
+    public static final InventoryFingerprint EMPTY = new InventoryFingerprint(0, null, 0);
+
+    public static InventoryFingerprint ofItem(long version, Instant updatedAt) {
+        return new InventoryFingerprint(1, updatedAt, version);
+    }
+
+    /** Mismas filas, sumando las versiones y la fecha de otra fuente que cambia por su cuenta (p. ej. buckets de stock). */
+    public InventoryFingerprint combine(InventoryFingerprint other) {
+        if (other == null || other.equals(EMPTY)) return this;
+        Instant last = lastModified == null || (other.lastModified != null && other.lastModified.isAfter(lastModified))
+                ? other.lastModified
+                : lastModified;
+        return new InventoryFingerprint(count, last, versionSum + other.versionSum);
+    }
+}
@@ -0,0 +1,20 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+/**
+ * Una fila del fichero de import: el comando ya construido o el motivo por el que no se pudo leer.
+ */
+public record InventoryImportLine(long lineNumber, CreateInventoryItemCommand command, String error) {
+
+    public static InventoryImportLine ok(long lineNumber, CreateInventoryItemCommand command) {
+        if (command == null) throw new IllegalArgumentException("command is required");
+        return new InventoryImportLine(lineNumber, command, null);
+    }
+
+    public static InventoryImportLine rejected(long lineNumber, String error) {
+        return new InventoryImportLine(lineNumber, null, error == null ? "invalid row" : error);
+    }
+
+    public boolean isRejected() {
+        return command == null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.util.List;
+
+/**
+ * Resultado de un import masivo. {@code errors} es solo una muestra acotada (el fichero puede tener millones de filas).
+ */
+public record InventoryImportResult(
+        long received,
+        long imported,
+        long conflicts,
+        long rejected,
+        List<String> errors
+) {
+    public InventoryImportResult {
+        errors = errors == null ? List.of() : List.copyOf(errors);
+    }
+}
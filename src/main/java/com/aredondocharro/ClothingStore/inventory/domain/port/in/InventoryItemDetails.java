@@ -19,5 +19,6 @@ public record InventoryItemDetails(
         Stock stock,
         ItemStatus status,
         Instant createdAt,
-        Instant updatedAt
+        Instant updatedAt,
+        long version
 ) {}
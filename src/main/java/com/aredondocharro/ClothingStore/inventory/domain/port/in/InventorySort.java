@@ -0,0 +1,12 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+/**
+ * Órdenes soportados por la paginación por cursor. Todos desempatan por id,
+ * así (clave, id) identifica una posición única y cada uno tiene su índice compuesto.
+ */
+public enum InventorySort {
+    UPDATED_AT_DESC,
+    PRICE_ASC,
+    PRICE_DESC,
+    NAME_ASC
+}
@@ -0,0 +1,6 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+public interface ListInventoryChangesUseCase {
+    // Items modificados tras el cursor, en orden estable; after null = desde el principio
+    InventoryChangePage changesAfter(InventoryChangeCursor after, int limit);
+}
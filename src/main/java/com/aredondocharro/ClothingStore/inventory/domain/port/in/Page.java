@@ -3,10 +3,25 @@ package com.aredondocharro.ClothingStore.inventory.domain.port.in;
 import java.util.List;
 import java.util.Objects;
 
-public record Page<T>(List<T> items, long total, PageRequest request) {
+/**
+ * {@code countMode} es el modo realmente usado (puede ser EXACT aunque se pidiera otro si el total se deduce de la página).
+ * Con NONE, {@code total} es -1.
+ */
+public record Page<T>(List<T> items, long total, PageRequest request, CountMode countMode, boolean hasNext) {
     public Page {
         Objects.requireNonNull(items, "items");
         Objects.requireNonNull(request, "request");
-        if (total < 0) throw new IllegalArgumentException("total must be >= 0");
+        Objects.requireNonNull(countMode, "countMode");
+        if (countMode == CountMode.NONE ? total != -1 : total < 0) {
+            throw new IllegalArgumentException("total must be >= 0 (or -1 with CountMode.NONE)");
+        }
+    }
+
+    public Page(List<T> items, long total, PageRequest request) {
+        this(items, total, request, CountMode.EXACT, request.offset() + (long) items.size() < total);
+    }
+
+    public boolean hasTotal() {
+        return countMode != CountMode.NONE;
     }
 }
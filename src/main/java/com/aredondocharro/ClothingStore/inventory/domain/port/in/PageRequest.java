@@ -1,13 +1,20 @@
 package com.aredondocharro.ClothingStore.inventory.domain.port.in;
 
-public record PageRequest(int offset, int limit) {
+import java.util.Objects;
+
+public record PageRequest(int offset, int limit, CountMode countMode) {
     public PageRequest {
         if (offset < 0) throw new IllegalArgumentException("offset must be >= 0");
         if (limit <= 0) throw new IllegalArgumentException("limit must be > 0");
         if (limit > 200) throw new IllegalArgumentException("limit max is 200");
+        Objects.requireNonNull(countMode, "countMode");
     }
 
     public static PageRequest of(int offset, int limit) {
-        return new PageRequest(offset, limit);
+        return new PageRequest(offset, limit, CountMode.EXACT);
+    }
+
+    public static PageRequest of(int offset, int limit, CountMode countMode) {
+        return new PageRequest(offset, limit, countMode);
     }
 }
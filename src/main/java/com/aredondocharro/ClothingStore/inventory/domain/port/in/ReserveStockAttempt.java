@@ -0,0 +1,8 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+
+/**
+ * Una petición de reserva dentro de un grupo sobre el mismo item (ver {@link ReserveStockUseCase#reserveGroup}).
+ */
+public record ReserveStockAttempt(ReservationReference reference, int quantity) {}
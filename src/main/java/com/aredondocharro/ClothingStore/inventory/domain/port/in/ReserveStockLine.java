@@ -0,0 +1,12 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+
+import java.util.Objects;
+
+public record ReserveStockLine(InventoryItemId itemId, int quantity) {
+    public ReserveStockLine {
+        Objects.requireNonNull(itemId, "itemId");
+        if (quantity <= 0) throw new IllegalArgumentException("quantity must be > 0");
+    }
+}
@@ -0,0 +1,35 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservationId;
+
+import java.util.Objects;
+
+/**
+ * Resultado de una petición de un grupo: la reserva o el error que habría dado {@code reserve} por separado.
+ */
+public record ReserveStockOutcome(StockReservationId reservationId, RuntimeException error) {
+
+    public ReserveStockOutcome {
+        if ((reservationId == null) == (error == null)) {
+            throw new IllegalArgumentException("exactly one of reservationId or error is required");
+        }
+    }
+
+    public static ReserveStockOutcome reserved(StockReservationId reservationId) {
+        return new ReserveStockOutcome(Objects.requireNonNull(reservationId, "reservationId"), null);
+    }
+
+    public static ReserveStockOutcome rejected(RuntimeException error) {
+        return new ReserveStockOutcome(null, Objects.requireNonNull(error, "error"));
+    }
+
+    public boolean isReserved() {
+        return reservationId != null;
+    }
+
+    /** El id de la reserva, o lanza el error como lo habría hecho {@code reserve}. */
+    public StockReservationId getOrThrow() {
+        if (error != null) throw error;
+        return reservationId;
+    }
+}
@@ -5,7 +5,17 @@ import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationRefere
 import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservationId;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 public interface ReserveStockUseCase {
     StockReservationId reserve(InventoryItemId itemId, ReservationReference reference, int quantity, Instant now);
+
+    // Todas las líneas de un pedido bajo una misma referencia: todo o nada (orden de la entrada en el resultado)
+    Map<InventoryItemId, StockReservationId> reserveAll(ReservationReference reference, List<ReserveStockLine> lines, Instant now);
+
+    // Peticiones independientes sobre un mismo item en una sola transacción: stock repartido por orden de
+    // llegada y un resultado por petición (el rechazo de negocio de una no deshace las demás; un error de
+    // infraestructura se propaga y deshace el grupo entero)
+    List<ReserveStockOutcome> reserveGroup(InventoryItemId itemId, List<ReserveStockAttempt> attempts, Instant now);
 }
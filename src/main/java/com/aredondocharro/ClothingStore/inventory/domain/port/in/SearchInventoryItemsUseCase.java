@@ -2,4 +2,10 @@ package com.aredondocharro.ClothingStore.inventory.domain.port.in;
 
 public interface SearchInventoryItemsUseCase {
     Page<InventoryItemSummary> search(InventorySearchQuery query, PageRequest pageRequest);
+
+    // Paginación keyset: coste constante sea cual sea la profundidad
+    CursorPage<InventoryItemSummary> searchAfter(InventorySearchQuery query, CursorPageRequest pageRequest);
+
+    // Conteos de todas las facetas con los mismos filtros, en una sola consulta
+    InventoryFacets facets(InventorySearchQuery query);
 }
@@ -0,0 +1,31 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+
+/**
+ * Una línea de ajuste masivo: el item se identifica por id o por SKU (exactamente uno de los dos).
+ */
+public record StockAdjustmentLine(InventoryItemId itemId, Sku sku, int delta, String reason) {
+    public StockAdjustmentLine {
+        if ((itemId == null) == (sku == null)) throw new IllegalArgumentException("exactly one of itemId or sku is required");
+    }
+
+    public static StockAdjustmentLine byId(InventoryItemId itemId, int delta, String reason) {
+        return new StockAdjustmentLine(itemId, null, delta, reason);
+    }
+
+    public static StockAdjustmentLine bySku(Sku sku, int delta, String reason) {
+        return new StockAdjustmentLine(null, sku, delta, reason);
+    }
+
+    /** Misma línea ya resuelta a id (el SKU deja de hacer falta). */
+    public StockAdjustmentLine withItemId(InventoryItemId id) {
+        return new StockAdjustmentLine(id, null, delta, reason);
+    }
+
+    /** Identificador tal y como lo envió el cliente, para los informes de error. */
+    public String target() {
+        return itemId != null ? itemId.getValue().toString() : sku.getValue();
+    }
+}
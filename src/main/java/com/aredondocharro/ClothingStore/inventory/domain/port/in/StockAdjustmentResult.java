@@ -0,0 +1,15 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import java.util.List;
+
+/**
+ * Resultado de un ajuste masivo: las líneas válidas se aplican y las demás se informan por posición.
+ */
+public record StockAdjustmentResult(int applied, List<Failure> failures) {
+    public StockAdjustmentResult {
+        failures = failures == null ? List.of() : List.copyOf(failures);
+    }
+
+    /** {@code index} es la posición (0-based) de la línea en la petición. */
+    public record Failure(int index, String target, String reason) {}
+}
@@ -0,0 +1,20 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Money;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Stock;
+
+public record StockAvailability(
+        InventoryItemId id,
+        Sku sku,
+        Money price,
+        Stock stock,
+        ItemStatus status
+) {
+    /** Lo que se puede vender ahora mismo: 0 si el item está discontinuado. */
+    public int sellable() {
+        return status == ItemStatus.ACTIVE ? stock.available() : 0;
+    }
+}
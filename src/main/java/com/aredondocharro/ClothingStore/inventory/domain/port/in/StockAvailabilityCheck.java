@@ -0,0 +1,15 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.in;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+
+import java.util.List;
+
+/**
+ * Disponibilidad de un lote de ids/SKUs: lo encontrado y, por separado, lo que no existe.
+ */
+public record StockAvailabilityCheck(
+        List<StockAvailability> items,
+        List<InventoryItemId> missingIds,
+        List<Sku> missingSkus
+) {}
@@ -0,0 +1,36 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.out;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+
+import java.util.Optional;
+
+/**
+ * Ledger en memoria para items "hot": el stock se arrienda de la BD por bloques
+ * y las reservas se persisten en diferido (write-behind).
+ */
+public interface HotStockLedgerPort {
+
+    boolean isHot(InventoryItemId itemId);
+
+    // Reserva contra el stock arrendado. Devuelve la reserva que ocupa (itemId, reference):
+    // el candidato o una previa que el ledger conoce. Vacío = sin stock; el caller sigue por la ruta SQL.
+    Optional<StockReservation> tryReserve(StockReservation candidate);
+
+    // Reserva que el ledger conoce para (itemId, reference): pendiente de flush o persistida hace poco
+    Optional<StockReservation> findKnown(InventoryItemId itemId, ReservationReference reference);
+
+    // Persiste ya la reserva pendiente de (itemId, reference), sin esperar al write-behind.
+    // true = el ledger la tenía pendiente y ya está en la BD (o la resolvió); false = no la conocía o falló
+    boolean flushPending(InventoryItemId itemId, ReservationReference reference);
+
+    static HotStockLedgerPort disabled() {
+        return new HotStockLedgerPort() {
+            @Override public boolean isHot(InventoryItemId itemId) { return false; }
+            @Override public Optional<StockReservation> tryReserve(StockReservation candidate) { return Optional.empty(); }
+            @Override public Optional<StockReservation> findKnown(InventoryItemId itemId, ReservationReference reference) { return Optional.empty(); }
+            @Override public boolean flushPending(InventoryItemId itemId, ReservationReference reference) { return false; }
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.out;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Registro de Idempotency-Keys: la primera petición reclama la clave y guarda su respuesta;
+ * los reintentos con la misma clave reciben esa respuesta sin volver a ejecutar el caso de uso.
+ */
+public interface IdempotencyStorePort {
+
+    /**
+     * Reclama la clave (o una caducada / abandonada en curso desde antes de {@code staleBefore}).
+     * Si la petición actual pasa a ser la dueña devuelve su token de claim; si no, el registro existente.
+     */
+    Claim claim(String key, String fingerprint, Instant now, Instant staleBefore, Instant expiresAt);
+
+    Optional<StoredRequest> find(String key);
+
+    // Guarda la respuesta si la clave sigue siendo de ese claim; false = otra petición la retomó
+    boolean complete(String key, String claimToken, StoredResponse response, Instant now);
+
+    // La ejecución falló sin respuesta reutilizable: el siguiente reintento vuelve a ejecutarse.
+    // Solo borra la clave si sigue siendo de ese claim
+    void release(String key, String claimToken);
+
+    // Borra como mucho {@code limit} claves caducadas; devuelve cuántas
+    int purgeExpired(Instant now, int limit);
+
+    record Claim(String token, StoredRequest existing) {
+        public static Claim owned(String token) {
+            return new Claim(token, null);
+        }
+
+        public static Claim taken(StoredRequest existing) {
+            return new Claim(null, existing);
+        }
+
+        public boolean isOwned() {
+            return token != null;
+        }
+    }
+
+    record StoredRequest(String key, String fingerprint, StoredResponse response, Instant expiresAt) {
+        public boolean isCompleted() {
+            return response != null;
+        }
+    }
+
+    record StoredResponse(int status, String contentType, String location, byte[] body) {}
+}
@@ -0,0 +1,25 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.out;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
+
+import java.util.Iterator;
+import java.util.List;
+
+public interface InventoryBulkImportPort {
+
+    /**
+     * Vuelca los items en streaming e inserta los que no chocan por SKU.
+     * Un SKU repetido en la entrada se queda con su primera aparición.
+     */
+    Outcome importAll(Iterator<InventoryItem> items, int maxConflictSamples);
+
+    record Outcome(long staged, long inserted, List<String> conflictingSkus) {
+        public Outcome {
+            conflictingSkus = conflictingSkus == null ? List.of() : List.copyOf(conflictingSkus);
+        }
+
+        public long conflicts() {
+            return staged - inserted;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.out;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+
+import java.util.function.Consumer;
+
+public interface InventoryExportPort {
+    /**
+     * Recorre todas las filas que cumplen los filtros y las entrega una a una a {@code sink},
+     * sin acumularlas. Devuelve cuántas entregó.
+     */
+    long streamSummaries(InventorySearchQuery query, Consumer<InventoryItemSummaryView> sink);
+}
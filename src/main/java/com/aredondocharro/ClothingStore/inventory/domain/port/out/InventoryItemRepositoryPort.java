@@ -3,18 +3,77 @@ package com.aredondocharro.ClothingStore.inventory.domain.port.out;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
 import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPage;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangeCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFacets;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFingerprint;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.Page;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.PageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryAvailabilityView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryChangeView;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface InventoryItemRepositoryPort {
     Optional<InventoryItem> findById(InventoryItemId id);
     Optional<InventoryItem> findBySku(Sku sku);
 
+    // Resuelve varios SKUs en una sola consulta; los que no existen no aparecen en el mapa.
+    Map<Sku, InventoryItemId> findIdsBySkus(Collection<Sku> skus);
+
+    // Proyección de disponibilidad para varios ids en una sola consulta (sin cargar entidades)
+    List<InventoryAvailabilityView> findAvailability(Collection<InventoryItemId> ids);
+    // Igual, resolviendo a la vez ids y SKUs (un item que coincide por ambos aparece una vez)
+    List<InventoryAvailabilityView> findAvailability(Collection<InventoryItemId> ids, Collection<Sku> skus);
+
+    // Validador HTTP: versión/updated_at del item, sin cargar la fila completa.
+    Optional<InventoryFingerprint> findFingerprint(InventoryItemId id);
+
+    // Feed de cambios: filas con (updated_at, id) posterior al cursor y updated_at < before, en orden estable
+    List<InventoryChangeView> findChangesAfter(InventoryChangeCursor after, Instant before, int limit);
+    // Inicio de la transacción de escritura más antigua aún abierta (otra que la del caller); vacío si no hay
+    Optional<Instant> findOldestOpenWriteStart();
+
     void save(InventoryItem item);
 
+    // Updates atómicos de stock (un único UPDATE condicional).
+    // Devuelven false si la guarda no se cumple; el caller decide el error con las reglas del dominio.
+    boolean tryReserve(InventoryItemId id, int qty, Instant now);
+    boolean tryRelease(InventoryItemId id, int qty, Instant now);
+    boolean tryConsume(InventoryItemId id, int qty, Instant now);
+
+    // Igual, pero escribiendo además la reserva (ya en su estado final) en la misma sentencia: un round trip.
+    // Si la reserva cambió entretanto se lanza conflicto optimista; con false la reserva puede haber quedado
+    // escrita, así que el caller debe lanzar para deshacer la transacción.
+    boolean tryReserve(StockReservation reservation);
+    boolean tryRelease(StockReservation released);
+    boolean tryConsume(StockReservation consumed);
+
+    // Mismo UPDATE condicional para varias líneas en un único batch, ejecutado en el orden recibido.
+    // Devuelve los ids cuya guarda no se cumplió (vacío = todas reservadas).
+    List<InventoryItemId> tryReserveAll(List<ReserveStockLine> lines, Instant now);
+
+    // Libera en un único batch una cantidad agregada por item, en el orden de iteración del mapa.
+    // Devuelve los ids cuya guarda (reserved >= qty) no se cumplió.
+    List<InventoryItemId> tryReleaseAll(Map<InventoryItemId, Integer> quantities, Instant now);
+
+    // Ajusta onHand en un único batch con la guarda de Stock.adjustOnHand (item activo, onHand + delta >= reserved).
+    // Todas las líneas deben venir resueltas a id. Devuelve las posiciones (en la lista recibida) rechazadas.
+    List<Integer> tryAdjustOnHandAll(List<StockAdjustmentLine> lines, Instant now);
+
     Page<InventoryItemSummaryView> search(InventorySearchQuery query, PageRequest pageRequest);
+
+    CursorPage<InventoryItemSummaryView> searchAfter(InventorySearchQuery query, CursorPageRequest pageRequest);
+
+    InventoryFacets countFacets(InventorySearchQuery query);
 }
@@ -0,0 +1,38 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.out;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Buckets de stock para items "calientes": parte del disponible se reparte en N filas y cada reserva
+ * bloquea solo una. Lo que está en los buckets ya cuenta como reservado en el item, así que las demás
+ * rutas (reserveAll, liberar, consumir...) siguen funcionando sobre la fila sin vender de más.
+ */
+public interface StockBucketPort {
+
+    boolean isBucketed(InventoryItemId itemId);
+
+    // Descuenta de un bucket con disponible (empezando por uno al azar) y escribe la reserva en la misma sentencia.
+    // false = ningún bucket tiene bastante; el caller sigue por la fila del item.
+    boolean tryReserve(StockReservation reservation);
+
+    // Devuelve a la fila del item lo que queda en sus buckets, en la transacción del caller. Unidades devueltas.
+    int drain(InventoryItemId itemId, Instant now);
+
+    // Totales por item, solo de los que tienen buckets, para corregir el stock leído de la fila
+    Map<InventoryItemId, StockBucketView> findTotals(Collection<InventoryItemId> ids);
+
+    static StockBucketPort disabled() {
+        return new StockBucketPort() {
+            @Override public boolean isBucketed(InventoryItemId itemId) { return false; }
+            @Override public boolean tryReserve(StockReservation reservation) { return false; }
+            @Override public int drain(InventoryItemId itemId, Instant now) { return 0; }
+            @Override public Map<InventoryItemId, StockBucketView> findTotals(Collection<InventoryItemId> ids) { return Map.of(); }
+        };
+    }
+}
@@ -5,12 +5,27 @@ import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationRefere
 import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationStatus;
 import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface StockReservationRepositoryPort {
     Optional<StockReservation> findActiveByItemAndReference(InventoryItemId itemId, ReservationReference reference);
     void save(StockReservation reservation);
 
+    List<StockReservation> findActiveByReference(ReservationReference reference);
+
+    // Reservas activas de un item para varias referencias en una sola consulta
+    List<StockReservation> findActiveByItemAndReferences(InventoryItemId itemId, Collection<ReservationReference> references);
+
+    // Inserta reservas nuevas en bloque (un único round trip)
+    void insertAll(List<StockReservation> reservations);
+
+    // Pasa a RELEASED hasta 'limit' reservas ACTIVE caducadas (expiresAt <= now) y las devuelve ya liberadas.
+    // Las filas bloqueadas por otra transacción se saltan: varios nodos pueden barrer a la vez.
+    List<StockReservation> releaseExpired(Instant now, int limit);
+
     Optional<StockReservation> findByItemAndReferenceAndStatus(
             InventoryItemId itemId,
             ReservationReference reference,
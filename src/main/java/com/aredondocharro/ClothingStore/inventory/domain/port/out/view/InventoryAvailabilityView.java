@@ -0,0 +1,18 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.out.view;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Money;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+
+/**
+ * Proyección mínima para disponibilidad: sin nombre, descripción ni atributos de catálogo.
+ */
+public record InventoryAvailabilityView(
+        InventoryItemId id,
+        Sku sku,
+        Money price,
+        int onHand,
+        int reserved,
+        ItemStatus status
+) {}
@@ -0,0 +1,20 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.out.view;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Money;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+
+import java.time.Instant;
+
+public record InventoryChangeView(
+        InventoryItemId id,
+        Sku sku,
+        String name,
+        Money price,
+        int onHand,
+        int reserved,
+        ItemStatus status,
+        Instant updatedAt,
+        long version
+) {}
@@ -0,0 +1,28 @@
+package com.aredondocharro.ClothingStore.inventory.domain.port.out.view;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Stock;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFingerprint;
+
+import java.time.Instant;
+
+/**
+ * Totales de los buckets de un item: lo que aún no se ha reservado (y la fila del item cuenta como reservado)
+ * y su versión/fecha para los validadores HTTP.
+ */
+public record StockBucketView(
+        InventoryItemId itemId,
+        int unreserved,
+        long versionSum,
+        Instant lastModified
+) {
+
+    /** Stock exacto a partir del de la fila del item. */
+    public Stock exact(Stock row) {
+        return new Stock(row.onHand(), row.reserved() - unreserved);
+    }
+
+    public InventoryFingerprint fingerprint() {
+        return new InventoryFingerprint(0, lastModified, versionSum);
+    }
+}
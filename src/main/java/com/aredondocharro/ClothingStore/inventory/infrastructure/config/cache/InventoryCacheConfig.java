@@ -0,0 +1,34 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.cache;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache.BoundedTtlCache;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache.CachingInventoryItemRepository;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventoryItemRepositoryAdapter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryCacheProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.cache", name = "enabled", havingValue = "true")
+public class InventoryCacheConfig {
+
+    // Sin @Primary: lo compone InventoryRepositoryConfig
+    @Bean
+    public CachingInventoryItemRepository cachingInventoryItemRepository(
+            InventoryItemRepositoryAdapter adapter,
+            InventoryCacheProperties props,
+            Clock clock
+    ) {
+        return new CachingInventoryItemRepository(
+                adapter,
+                new BoundedTtlCache<InventoryItemId, InventoryItem>(props.getMaxSize(), props.getTtl(), clock),
+                new BoundedTtlCache<Sku, InventoryItemId>(props.getMaxSize(), props.getTtl(), clock)
+        );
+    }
+}
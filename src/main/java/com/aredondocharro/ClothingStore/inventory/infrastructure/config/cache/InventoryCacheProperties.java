@@ -0,0 +1,28 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventory.cache")
+public class InventoryCacheProperties {
+    /**
+     * Opt-in read-through cache for item lookups by id / sku. Invalidation is in-process only: a write
+     * committed on another node is seen here only after ttl, so enable it on single-node deployments or
+     * where ttl-old stock on reads outside read-write transactions is acceptable.
+     */
+    private boolean enabled = false;
+    /** Max cached items (LRU beyond that) */
+    private int maxSize = 10_000;
+    /** Staleness bound: max age of a cached item, for writes made by other nodes or missed invalidations */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+}
@@ -0,0 +1,23 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.catalog;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog.BitmapCatalogIndex;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog.JdbcCatalogRowSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryCatalogIndexProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.catalog-index", name = "enabled", havingValue = "true")
+public class InventoryCatalogIndexConfig {
+
+    // Build inicial, refresh, sondeo de cambios y rebuild periódicos: @Scheduled en BitmapCatalogIndex
+    @Bean
+    public BitmapCatalogIndex bitmapCatalogIndex(JdbcTemplate jdbc, InventoryCatalogIndexProperties props, Clock clock) {
+        return new BitmapCatalogIndex(new JdbcCatalogRowSource(jdbc), clock, props.getSettleLag());
+    }
+}
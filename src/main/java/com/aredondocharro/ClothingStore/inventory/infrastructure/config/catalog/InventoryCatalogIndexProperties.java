@@ -0,0 +1,42 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.catalog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventory.catalog-index")
+public class InventoryCatalogIndexProperties {
+    /** Opt-in: serve enum-only catalog searches and facets from the in-memory bitmap index */
+    private boolean enabled = false;
+    /** How often items changed by events are reloaded into the index */
+    private Duration refreshInterval = Duration.ofMillis(200);
+    /**
+     * Poll for items written since the last poll, including writes by other nodes (events are local).
+     * Bounds how stale the index is for remote writes: about poll-interval + settle-lag + refresh-interval.
+     */
+    private Duration pollInterval = Duration.ofSeconds(2);
+    /** Margin for clock skew between nodes and the database; rows this recent are polled again */
+    private Duration settleLag = Duration.ofSeconds(5);
+    /** Full reload period; heals anything the event marks and the poll both missed (e.g. deleted rows) */
+    private Duration fullRebuildInterval = Duration.ofMinutes(10);
+    /** Delay before the first full build after startup */
+    private Duration initialDelay = Duration.ZERO;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getRefreshInterval() { return refreshInterval; }
+    public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+
+    public Duration getSettleLag() { return settleLag; }
+    public void setSettleLag(Duration settleLag) { this.settleLag = settleLag; }
+
+    public Duration getFullRebuildInterval() { return fullRebuildInterval; }
+    public void setFullRebuildInterval(Duration fullRebuildInterval) { this.fullRebuildInterval = fullRebuildInterval; }
+
+    public Duration getInitialDelay() { return initialDelay; }
+    public void setInitialDelay(Duration initialDelay) { this.initialDelay = initialDelay; }
+}
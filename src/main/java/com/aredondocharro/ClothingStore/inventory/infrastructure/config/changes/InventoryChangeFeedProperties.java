@@ -0,0 +1,14 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.changes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventory.changes")
+public class InventoryChangeFeedProperties {
+    /** Margin subtracted from the feed bound (now, or the start of the oldest open write transaction) for clock skew */
+    private Duration settleLag = Duration.ofSeconds(5);
+
+    public Duration getSettleLag() { return settleLag; }
+    public void setSettleLag(Duration settleLag) { this.settleLag = settleLag; }
+}
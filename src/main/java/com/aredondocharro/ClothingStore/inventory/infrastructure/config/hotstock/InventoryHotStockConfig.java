@@ -0,0 +1,60 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.hotstock;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock.JdbcHotStockLeases;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock.StripedHotStockLedger;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.stream.Collectors;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryHotStockProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.hot-stock", name = "enabled", havingValue = "true")
+public class InventoryHotStockConfig {
+
+    // Flush, re-arriendos y caducidad de leases: @Scheduled en StripedHotStockLedger (app.inventory.hot-stock.flush-interval);
+    // la reconciliación de nodos caídos, también allí (app.inventory.hot-stock.reclaim-interval)
+    @Bean(destroyMethod = "close")
+    public StripedHotStockLedger hotStockLedger(
+            InventoryHotStockProperties props,
+            InventoryItemRepositoryPort itemRepo,
+            StockReservationRepositoryPort reservationRepo,
+            EventBusPort eventBus,
+            JdbcTemplate jdbc,
+            @Qualifier("transactionManager") PlatformTransactionManager txManager,
+            Clock clock
+    ) {
+        // Leases y flush en transacción propia, nunca en la del caller
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int stripes = props.getStripes() > 0 ? props.getStripes() : Runtime.getRuntime().availableProcessors();
+
+        return new StripedHotStockLedger(
+                props.getItemIds().stream().map(InventoryItemId::of).collect(Collectors.toSet()),
+                itemRepo,
+                reservationRepo,
+                eventBus,
+                tx,
+                new JdbcHotStockLeases(jdbc, JdbcHotStockLeases.newNodeId()),
+                clock,
+                stripes,
+                props.getLeaseChunk(),
+                props.getLeaseTtl(),
+                props.getFlushBatchSize(),
+                props.getReclaimAfter()
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.hotstock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@ConfigurationProperties(prefix = "app.inventory.hot-stock")
+public class InventoryHotStockProperties {
+    /**
+     * Opt-in: reserve flagged items against an in-memory lease instead of one UPDATE per reservation.
+     * Durability trade-off: a reservation is acknowledged, and StockReserved published, before its
+     * stock_reservations row is written. A node that dies without shutting down loses up to one
+     * flush-interval of reservations whose events may already be out. Its unflushed leased units stay
+     * reserved until another node reclaims them, at most reclaim-after + reclaim-interval later.
+     */
+    private boolean enabled = false;
+    /** Inventory item ids running in hot mode (e.g. the SKUs of a drop) */
+    private Set<UUID> itemIds = new HashSet<>();
+    /** Counter stripes per item; 0 = available processors */
+    private int stripes = 0;
+    /** Units leased from the database per round trip */
+    private int leaseChunk = 200;
+    /** Idle time after which unused leased units are returned to the database */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+    /** Write-behind period for pending reservations (also drives lease refills and expiry) */
+    private Duration flushInterval = Duration.ofMillis(50);
+    /** Max reservations inserted per batch */
+    private int flushBatchSize = 500;
+    /** Heartbeat age after which a node's leased units are returned by another node; must exceed lease-ttl */
+    private Duration reclaimAfter = Duration.ofMinutes(5);
+    /** Period of the job that returns units leased by dead nodes */
+    private Duration reclaimInterval = Duration.ofMinutes(1);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Set<UUID> getItemIds() { return itemIds; }
+    public void setItemIds(Set<UUID> itemIds) { this.itemIds = itemIds; }
+
+    public int getStripes() { return stripes; }
+    public void setStripes(int stripes) { this.stripes = stripes; }
+
+    public int getLeaseChunk() { return leaseChunk; }
+    public void setLeaseChunk(int leaseChunk) { this.leaseChunk = leaseChunk; }
+
+    public Duration getLeaseTtl() { return leaseTtl; }
+    public void setLeaseTtl(Duration leaseTtl) { this.leaseTtl = leaseTtl; }
+
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+
+    public int getFlushBatchSize() { return flushBatchSize; }
+    public void setFlushBatchSize(int flushBatchSize) { this.flushBatchSize = flushBatchSize; }
+
+    public Duration getReclaimAfter() { return reclaimAfter; }
+    public void setReclaimAfter(Duration reclaimAfter) { this.reclaimAfter = reclaimAfter; }
+
+    public Duration getReclaimInterval() { return reclaimInterval; }
+    public void setReclaimInterval(Duration reclaimInterval) { this.reclaimInterval = reclaimInterval; }
+}
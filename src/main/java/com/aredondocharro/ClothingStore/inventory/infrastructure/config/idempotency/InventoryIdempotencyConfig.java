@@ -0,0 +1,46 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.idempotency;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.idempotency.IdempotencyKeyFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryIdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+// La purga de claves caducadas es un @Component con @Scheduled (IdempotencyKeySweeper)
+public class InventoryIdempotencyConfig {
+
+    // Después de Spring Security (-100): el usuario ya está autenticado y las peticiones rechazadas no reclaman clave
+    private static final int FILTER_ORDER = 0;
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyKeyFilter> inventoryIdempotencyKeyFilter(
+            IdempotencyStorePort store,
+            InventoryIdempotencyProperties props,
+            ObjectMapper objectMapper,
+            Clock clock
+    ) {
+        IdempotencyKeyFilter filter = new IdempotencyKeyFilter(
+                store,
+                objectMapper,
+                clock,
+                props.getTtl(),
+                props.getInFlightTimeout(),
+                props.getInFlightTimeoutByPath(),
+                props.getInFlightWait(),
+                (int) Math.min(Integer.MAX_VALUE - 1, props.getMaxBodySize().toBytes()),
+                props.isCacheEnabled() ? props.getCacheSize() : 0
+        );
+        FilterRegistrationBean<IdempotencyKeyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/admin/inventory/*");
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,74 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.inventory.idempotency")
+public class InventoryIdempotencyProperties {
+    /** Honour the Idempotency-Key header on admin inventory mutations */
+    private boolean enabled = true;
+    /** How long a key (and its stored response) is replayed */
+    private Duration ttl = Duration.ofHours(24);
+    /** An IN_PROGRESS key older than this is considered abandoned and can be claimed again */
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+    /** Per-route override of inFlightTimeout (Ant path pattern, first match wins); must exceed the route's slowest run */
+    private Map<String, Duration> inFlightTimeoutByPath = new LinkedHashMap<>(Map.of(
+            "/admin/inventory/items/stock/adjust", Duration.ofMinutes(10)
+    ));
+    /** How long a duplicate waits for the in-flight original before answering 409 */
+    private Duration inFlightWait = Duration.ofSeconds(2);
+    /** Largest request body that is fingerprinted (bigger bodies are rejected with 413) */
+    private DataSize maxBodySize = DataSize.ofMegabytes(2);
+    /** Keep completed responses in memory in front of the table */
+    private boolean cacheEnabled = true;
+    /** Max completed responses kept in memory */
+    private int cacheSize = 10_000;
+    /** Run the background purge of expired keys on this node */
+    private boolean sweeperEnabled = true;
+    /** Delay between purges */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+    /** Keys deleted per statement */
+    private int sweepBatchSize = 500;
+    /** Upper bound of batches per purge */
+    private int maxBatchesPerSweep = 20;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+    public Duration getInFlightTimeout() { return inFlightTimeout; }
+    public void setInFlightTimeout(Duration inFlightTimeout) { this.inFlightTimeout = inFlightTimeout; }
+
+    public Map<String, Duration> getInFlightTimeoutByPath() { return inFlightTimeoutByPath; }
+    public void setInFlightTimeoutByPath(Map<String, Duration> inFlightTimeoutByPath) { this.inFlightTimeoutByPath = inFlightTimeoutByPath; }
+
+    public Duration getInFlightWait() { return inFlightWait; }
+    public void setInFlightWait(Duration inFlightWait) { this.inFlightWait = inFlightWait; }
+
+    public DataSize getMaxBodySize() { return maxBodySize; }
+    public void setMaxBodySize(DataSize maxBodySize) { this.maxBodySize = maxBodySize; }
+
+    public boolean isCacheEnabled() { return cacheEnabled; }
+    public void setCacheEnabled(boolean cacheEnabled) { this.cacheEnabled = cacheEnabled; }
+
+    public int getCacheSize() { return cacheSize; }
+    public void setCacheSize(int cacheSize) { this.cacheSize = cacheSize; }
+
+    public boolean isSweeperEnabled() { return sweeperEnabled; }
+    public void setSweeperEnabled(boolean sweeperEnabled) { this.sweeperEnabled = sweeperEnabled; }
+
+    public Duration getSweepInterval() { return sweepInterval; }
+    public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+
+    public int getSweepBatchSize() { return sweepBatchSize; }
+    public void setSweepBatchSize(int sweepBatchSize) { this.sweepBatchSize = sweepBatchSize; }
+
+    public int getMaxBatchesPerSweep() { return maxBatchesPerSweep; }
+    public void setMaxBatchesPerSweep(int maxBatchesPerSweep) { this.maxBatchesPerSweep = maxBatchesPerSweep; }
+}
@@ -0,0 +1,33 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.persistence;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache.CachingInventoryItemRepository;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog.BitmapCatalogIndex;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog.CatalogIndexedInventoryRepository;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventoryItemRepositoryAdapter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration(proxyBeanMethods = false)
+public class InventoryRepositoryConfig {
+
+    /**
+     * Port que ven los casos de uso: adapter JPA, envuelto por la cache de items
+     * y el índice de catálogo cuando están habilitados.
+     */
+    @Bean
+    @Primary
+    public InventoryItemRepositoryPort inventoryItemRepository(
+            InventoryItemRepositoryAdapter adapter,
+            ObjectProvider<CachingInventoryItemRepository> cache,
+            ObjectProvider<BitmapCatalogIndex> catalogIndex
+    ) {
+        CachingInventoryItemRepository cached = cache.getIfAvailable();
+        InventoryItemRepositoryPort port = cached != null ? cached : adapter;
+
+        BitmapCatalogIndex index = catalogIndex.getIfAvailable();
+        return index != null ? new CatalogIndexedInventoryRepository(port, index) : port;
+    }
+}
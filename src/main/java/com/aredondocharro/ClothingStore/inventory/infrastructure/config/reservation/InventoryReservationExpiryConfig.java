@@ -0,0 +1,10 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.reservation;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// El sweeper es un @Component con @Scheduled (ReservationExpirySweeper); aquí solo sus propiedades
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryReservationProperties.class)
+public class InventoryReservationExpiryConfig {
+}
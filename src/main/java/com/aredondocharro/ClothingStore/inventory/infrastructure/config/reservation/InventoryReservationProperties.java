@@ -0,0 +1,61 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.reservation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventory.reservation")
+public class InventoryReservationProperties {
+    /** Lifetime of a new reservation before the sweeper releases it (0 = never expires) */
+    private Duration ttl = Duration.ofMinutes(30);
+    /** Run the background sweeper on this node */
+    private boolean sweeperEnabled = true;
+    /** Delay between sweeps */
+    private Duration sweepInterval = Duration.ofSeconds(5);
+    /** Reservations released per transaction */
+    private int batchSize = 200;
+    /** Upper bound of batches per sweep, so one node never monopolises a backlog */
+    private int maxBatchesPerSweep = 50;
+    /**
+     * How long a reserve waits for others to join its transaction while another reserve on the same item is
+     * in flight (0 = no coalescing). A reserve on an idle item does not wait.
+     */
+    private Duration coalesceWindow = Duration.ZERO;
+    /** Reserve requests applied together at most; a full group is applied without waiting for the window */
+    private int coalesceMaxBatch = 64;
+    /** Upper bound a coalesced request waits for its group's leader before failing */
+    private Duration coalesceWaitTimeout = Duration.ofSeconds(10);
+
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+    public boolean isSweeperEnabled() { return sweeperEnabled; }
+    public void setSweeperEnabled(boolean sweeperEnabled) { this.sweeperEnabled = sweeperEnabled; }
+
+    public Duration getSweepInterval() { return sweepInterval; }
+    public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getMaxBatchesPerSweep() { return maxBatchesPerSweep; }
+    public void setMaxBatchesPerSweep(int maxBatchesPerSweep) { this.maxBatchesPerSweep = maxBatchesPerSweep; }
+
+    public Duration getCoalesceWindow() { return coalesceWindow; }
+    public void setCoalesceWindow(Duration coalesceWindow) { this.coalesceWindow = coalesceWindow; }
+
+    public int getCoalesceMaxBatch() { return coalesceMaxBatch; }
+    public void setCoalesceMaxBatch(int coalesceMaxBatch) { this.coalesceMaxBatch = coalesceMaxBatch; }
+
+    public Duration getCoalesceWaitTimeout() { return coalesceWaitTimeout; }
+    public void setCoalesceWaitTimeout(Duration coalesceWaitTimeout) { this.coalesceWaitTimeout = coalesceWaitTimeout; }
+
+    public boolean isCoalescingEnabled() {
+        return coalesceWindow != null && !coalesceWindow.isZero() && !coalesceWindow.isNegative();
+    }
+
+    /** TTL for the domain: null when reservations do not expire */
+    public Duration effectiveTtl() {
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+}
@@ -0,0 +1,11 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.scheduling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tareas periódicas de inventario (@Scheduled); spring.task.scheduling.enabled=false las apaga todas
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "spring.task.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class InventorySchedulingConfig {}
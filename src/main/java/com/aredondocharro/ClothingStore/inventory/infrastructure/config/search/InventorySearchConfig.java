@@ -0,0 +1,22 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.search;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.ConcurrentSearchQueries;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Desactivado por defecto: cada búsqueda EXACT ocupa una conexión más del pool mientras dura el count.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventorySearchProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.search", name = "concurrent-count", havingValue = "true")
+public class InventorySearchConfig {
+
+    @Bean(destroyMethod = "close")
+    public ConcurrentSearchQueries concurrentSearchQueries(InventorySearchProperties props, JdbcTemplate jdbc) {
+        return new ConcurrentSearchQueries(jdbc, props.getDeadline());
+    }
+}
@@ -0,0 +1,19 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventory.search")
+public class InventorySearchProperties {
+    /** Run the page and the exact count of offset searches concurrently, on two pooled connections */
+    private boolean concurrentCount = false;
+    /** Budget for the whole search; both queries are cancelled server-side once it runs out */
+    private Duration deadline = Duration.ofSeconds(2);
+
+    public boolean isConcurrentCount() { return concurrentCount; }
+    public void setConcurrentCount(boolean concurrentCount) { this.concurrentCount = concurrentCount; }
+
+    public Duration getDeadline() { return deadline; }
+    public void setDeadline(Duration deadline) { this.deadline = deadline; }
+}
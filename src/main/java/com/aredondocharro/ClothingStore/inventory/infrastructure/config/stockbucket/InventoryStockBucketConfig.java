@@ -0,0 +1,46 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.stockbucket;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.stockbucket.JdbcStockBuckets;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.stream.Collectors;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryStockBucketProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.stock-buckets", name = "enabled", havingValue = "true")
+public class InventoryStockBucketConfig {
+
+    @Bean
+    public JdbcStockBuckets stockBuckets(
+            InventoryStockBucketProperties props,
+            JdbcTemplate jdbc,
+            InventoryItemRepositoryPort itemRepo,
+            @Qualifier("transactionManager") PlatformTransactionManager txManager,
+            Clock clock
+    ) {
+        // Rebalanceo en transacción propia, una por item
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        return new JdbcStockBuckets(
+                props.getItemIds().stream().map(InventoryItemId::of).collect(Collectors.toSet()),
+                jdbc,
+                itemRepo,
+                tx,
+                clock,
+                props.getBuckets(),
+                props.getMaxPerBucket()
+        );
+    }
+}
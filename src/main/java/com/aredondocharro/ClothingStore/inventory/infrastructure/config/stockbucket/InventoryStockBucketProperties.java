@@ -0,0 +1,42 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.stockbucket;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@ConfigurationProperties(prefix = "app.inventory.stock-buckets")
+public class InventoryStockBucketProperties {
+    /** Opt-in: spread the stock of flagged items across several rows so reservations do not queue on one row lock */
+    private boolean enabled = false;
+    /** Inventory item ids with bucketed stock (e.g. launch-day SKUs) */
+    private Set<UUID> itemIds = new HashSet<>();
+    /** Buckets per item, roughly the number of reservations that can run on one item at once */
+    private int buckets = 16;
+    /** Upper bound of units held by one bucket; the rest stays on the item row */
+    private int maxPerBucket = 500;
+    /** Delay between rebalancing passes */
+    private Duration rebalanceInterval = Duration.ofSeconds(1);
+    /** Delay before the first rebalancing pass */
+    private Duration initialDelay = Duration.ZERO;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Set<UUID> getItemIds() { return itemIds; }
+    public void setItemIds(Set<UUID> itemIds) { this.itemIds = itemIds; }
+
+    public int getBuckets() { return buckets; }
+    public void setBuckets(int buckets) { this.buckets = buckets; }
+
+    public int getMaxPerBucket() { return maxPerBucket; }
+    public void setMaxPerBucket(int maxPerBucket) { this.maxPerBucket = maxPerBucket; }
+
+    public Duration getRebalanceInterval() { return rebalanceInterval; }
+    public void setRebalanceInterval(Duration rebalanceInterval) { this.rebalanceInterval = rebalanceInterval; }
+
+    public Duration getInitialDelay() { return initialDelay; }
+    public void setInitialDelay(Duration initialDelay) { this.initialDelay = initialDelay; }
+}
@@ -0,0 +1,29 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.stream;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.GetStockAvailabilityUseCase;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.stream.StockAvailabilityStreamHub;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryStreamProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.stream", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InventoryStreamConfig {
+
+    // Flush, resync y heartbeat: @Scheduled en StockAvailabilityStreamHub
+    @Bean(destroyMethod = "close")
+    public StockAvailabilityStreamHub stockAvailabilityStreamHub(
+            GetStockAvailabilityUseCase availability,
+            InventoryStreamProperties props
+    ) {
+        return new StockAvailabilityStreamHub(
+                availability,
+                props.getEmitterTimeout(),
+                props.getMaxItemsPerSubscription(),
+                props.getMaxSubscribers(),
+                props.getMaxPendingPerSubscriber()
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventory.stream")
+public class InventoryStreamProperties {
+    /** SSE availability stream for product pages */
+    private boolean enabled = true;
+    /** Coalescing window: at most one update per item and subscriber per interval */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /**
+     * Re-read of every watched item, sending only what changed. Stock events are local to the node, so this
+     * bounds how late a change committed on another node reaches subscribers here.
+     */
+    private Duration resyncInterval = Duration.ofSeconds(5);
+    /** SSE comment sent to every subscriber to keep idle connections open through proxies */
+    private Duration heartbeatInterval = Duration.ofSeconds(20);
+    /** Async request timeout; clients (EventSource) reconnect on their own */
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+    /** Items a single subscription may watch */
+    private int maxItemsPerSubscription = 100;
+    /** Open subscriptions per node before answering 503 */
+    private int maxSubscribers = 50_000;
+    /** Sends queued for one subscriber before it is treated as a slow consumer and disconnected */
+    private int maxPendingPerSubscriber = 64;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+
+    public Duration getResyncInterval() { return resyncInterval; }
+    public void setResyncInterval(Duration resyncInterval) { this.resyncInterval = resyncInterval; }
+
+    public Duration getHeartbeatInterval() { return heartbeatInterval; }
+    public void setHeartbeatInterval(Duration heartbeatInterval) { this.heartbeatInterval = heartbeatInterval; }
+
+    public Duration getEmitterTimeout() { return emitterTimeout; }
+    public void setEmitterTimeout(Duration emitterTimeout) { this.emitterTimeout = emitterTimeout; }
+
+    public int getMaxItemsPerSubscription() { return maxItemsPerSubscription; }
+    public void setMaxItemsPerSubscription(int maxItemsPerSubscription) { this.maxItemsPerSubscription = maxItemsPerSubscription; }
+
+    public int getMaxSubscribers() { return maxSubscribers; }
+    public void setMaxSubscribers(int maxSubscribers) { this.maxSubscribers = maxSubscribers; }
+
+    public int getMaxPendingPerSubscriber() { return maxPendingPerSubscriber; }
+    public void setMaxPendingPerSubscriber(int maxPendingPerSubscriber) { this.maxPendingPerSubscriber = maxPendingPerSubscriber; }
+}
@@ -0,0 +1,24 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.tx;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventory.retry")
+public class InventoryRetryProperties {
+    /** Total attempts (first run included) on optimistic lock conflicts */
+    private int maxAttempts = 4;
+    /** Base delay for the jittered exponential backoff */
+    private Duration baseDelay = Duration.ofMillis(10);
+    /** Upper bound for a single backoff sleep */
+    private Duration maxDelay = Duration.ofMillis(200);
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public Duration getBaseDelay() { return baseDelay; }
+    public void setBaseDelay(Duration baseDelay) { this.baseDelay = baseDelay; }
+
+    public Duration getMaxDelay() { return maxDelay; }
+    public void setMaxDelay(Duration maxDelay) { this.maxDelay = maxDelay; }
+}
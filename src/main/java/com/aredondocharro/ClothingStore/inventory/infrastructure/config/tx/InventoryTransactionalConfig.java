@@ -1,8 +1,11 @@
 package com.aredondocharro.ClothingStore.inventory.infrastructure.config.tx;
 
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.*;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.config.reservation.InventoryReservationProperties;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.tx.*;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -11,12 +14,19 @@ import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.interceptor.NameMatchTransactionAttributeSource;
 import org.springframework.transaction.interceptor.RuleBasedTransactionAttribute;
 import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({InventoryRetryProperties.class, InventoryReservationProperties.class})
 public class InventoryTransactionalConfig {
 
+    @Bean
+    public OptimisticLockRetryPolicy inventoryOptimisticLockRetryPolicy(InventoryRetryProperties props) {
+        return new OptimisticLockRetryPolicy(props.getMaxAttempts(), props.getBaseDelay(), props.getMaxDelay());
+    }
+
     // -------------------------
-    // WRITE use cases (tx)
+    // WRITE use cases (tx + retry on optimistic lock)
     // -------------------------
 
     @Bean
@@ -25,43 +35,56 @@ public class InventoryTransactionalConfig {
             @Qualifier("transactionManager") PlatformTransactionManager txManager,
             @Qualifier("createInventoryItemUseCaseCore") CreateInventoryItemUseCase core
     ) {
-        return txProxy(CreateInventoryItemUseCase.class, core, txManager, false);
+        return new TransactionalCreateInventoryItemUseCase(core, new TransactionTemplate(txManager));
+    }
+
+    @Bean
+    @Primary
+    public ImportInventoryItemsUseCase importInventoryItemsUseCase(
+            @Qualifier("transactionManager") PlatformTransactionManager txManager,
+            @Qualifier("importInventoryItemsUseCaseCore") ImportInventoryItemsUseCase core
+    ) {
+        return new TransactionalImportInventoryItemsUseCase(core, new TransactionTemplate(txManager));
     }
 
     @Bean
     @Primary
     public UpdateInventoryItemUseCase updateInventoryItemUseCase(
             @Qualifier("transactionManager") PlatformTransactionManager txManager,
-            @Qualifier("updateInventoryItemUseCaseCore") UpdateInventoryItemUseCase core
+            @Qualifier("updateInventoryItemUseCaseCore") UpdateInventoryItemUseCase core,
+            OptimisticLockRetryPolicy retry
     ) {
-        return txProxy(UpdateInventoryItemUseCase.class, core, txManager, false);
+        return new TransactionalUpdateInventoryItemUseCase(core, new TransactionTemplate(txManager), retry);
     }
 
     @Bean
     @Primary
     public ChangeInventoryItemPriceUseCase changeInventoryItemPriceUseCase(
             @Qualifier("transactionManager") PlatformTransactionManager txManager,
-            @Qualifier("changeInventoryItemPriceUseCaseCore") ChangeInventoryItemPriceUseCase core
+            @Qualifier("changeInventoryItemPriceUseCaseCore") ChangeInventoryItemPriceUseCase core,
+            OptimisticLockRetryPolicy retry
     ) {
-        return txProxy(ChangeInventoryItemPriceUseCase.class, core, txManager, false);
+        return new TransactionalChangeInventoryItemPriceUseCase(core, new TransactionTemplate(txManager), retry);
     }
 
     @Bean
     @Primary
     public AdjustInventoryStockUseCase adjustInventoryStockUseCase(
             @Qualifier("transactionManager") PlatformTransactionManager txManager,
-            @Qualifier("adjustInventoryStockUseCaseCore") AdjustInventoryStockUseCase core
+            @Qualifier("adjustInventoryStockUseCaseCore") AdjustInventoryStockUseCase core,
+            OptimisticLockRetryPolicy retry
     ) {
-        return txProxy(AdjustInventoryStockUseCase.class, core, txManager, false);
+        return new TransactionalAdjustInventoryStockUseCase(core, new TransactionTemplate(txManager), retry);
     }
 
     @Bean
     @Primary
     public DiscontinueInventoryItemUseCase discontinueInventoryItemUseCase(
             @Qualifier("transactionManager") PlatformTransactionManager txManager,
-            @Qualifier("discontinueInventoryItemUseCaseCore") DiscontinueInventoryItemUseCase core
+            @Qualifier("discontinueInventoryItemUseCaseCore") DiscontinueInventoryItemUseCase core,
+            OptimisticLockRetryPolicy retry
     ) {
-        return txProxy(DiscontinueInventoryItemUseCase.class, core, txManager, false);
+        return new TransactionalDiscontinueInventoryItemUseCase(core, new TransactionTemplate(txManager), retry);
     }
 
     // -------------------------
@@ -86,35 +109,83 @@ public class InventoryTransactionalConfig {
         return txProxy(SearchInventoryItemsUseCase.class, core, txManager, true);
     }
 
+    @Bean
+    @Primary
+    public GetStockAvailabilityUseCase getStockAvailabilityUseCase(
+            @Qualifier("transactionManager") PlatformTransactionManager txManager,
+            @Qualifier("getStockAvailabilityUseCaseCore") GetStockAvailabilityUseCase core
+    ) {
+        return txProxy(GetStockAvailabilityUseCase.class, core, txManager, true);
+    }
+
+    @Bean
+    @Primary
+    public ListInventoryChangesUseCase listInventoryChangesUseCase(
+            @Qualifier("transactionManager") PlatformTransactionManager txManager,
+            @Qualifier("listInventoryChangesUseCaseCore") ListInventoryChangesUseCase core
+    ) {
+        return txProxy(ListInventoryChangesUseCase.class, core, txManager, true);
+    }
+
+    // Una única transacción de solo lectura durante todo el stream (el cursor de servidor la necesita)
+    @Bean
+    @Primary
+    public ExportInventoryItemsUseCase exportInventoryItemsUseCase(
+            @Qualifier("transactionManager") PlatformTransactionManager txManager,
+            @Qualifier("exportInventoryItemsUseCaseCore") ExportInventoryItemsUseCase core
+    ) {
+        return txProxy(ExportInventoryItemsUseCase.class, core, txManager, true);
+    }
+
     // -------------------------
-    // STOCK reservation flow (tx)
+    // STOCK reservation flow (tx + retry on optimistic lock)
     // -------------------------
 
     @Bean
     @Primary
     public ReserveStockUseCase reserveStockUseCase(
             @Qualifier("transactionManager") PlatformTransactionManager txManager,
-            @Qualifier("reserveStockUseCaseCore") ReserveStockUseCase core
+            @Qualifier("reserveStockUseCaseCore") ReserveStockUseCase core,
+            OptimisticLockRetryPolicy retry,
+            InventoryReservationProperties reservationProps
     ) {
-        return txProxy(ReserveStockUseCase.class, core, txManager, false);
+        ReserveStockUseCase transactional = new TransactionalReserveStockUseCase(core, new TransactionTemplate(txManager), retry);
+        if (!reservationProps.isCoalescingEnabled()) return transactional;
+        // Reservas concurrentes del mismo item en una sola transacción (fuera de ella: el grupo abre la suya)
+        return new CoalescingReserveStockUseCase(transactional,
+                reservationProps.getCoalesceWindow(),
+                reservationProps.getCoalesceMaxBatch(),
+                reservationProps.getCoalesceWaitTimeout());
     }
 
     @Bean
     @Primary
     public ReleaseStockUseCase releaseStockUseCase(
             @Qualifier("transactionManager") PlatformTransactionManager txManager,
-            @Qualifier("releaseStockUseCaseCore") ReleaseStockUseCase core
+            @Qualifier("releaseStockUseCaseCore") ReleaseStockUseCase core,
+            OptimisticLockRetryPolicy retry
     ) {
-        return txProxy(ReleaseStockUseCase.class, core, txManager, false);
+        return new TransactionalReleaseStockUseCase(core, new TransactionTemplate(txManager), retry);
     }
 
     @Bean
     @Primary
     public ConsumeStockUseCase consumeStockUseCase(
             @Qualifier("transactionManager") PlatformTransactionManager txManager,
-            @Qualifier("consumeStockUseCaseCore") ConsumeStockUseCase core
+            @Qualifier("consumeStockUseCaseCore") ConsumeStockUseCase core,
+            OptimisticLockRetryPolicy retry
+    ) {
+        return new TransactionalConsumeStockUseCase(core, new TransactionTemplate(txManager), retry);
+    }
+
+    @Bean
+    @Primary
+    public ExpireStockReservationsUseCase expireStockReservationsUseCase(
+            @Qualifier("transactionManager") PlatformTransactionManager txManager,
+            @Qualifier("expireStockReservationsUseCaseCore") ExpireStockReservationsUseCase core,
+            OptimisticLockRetryPolicy retry
     ) {
-        return txProxy(ConsumeStockUseCase.class, core, txManager, false);
+        return new TransactionalExpireStockReservationsUseCase(core, new TransactionTemplate(txManager), retry);
     }
 
     // -------------------------
@@ -2,15 +2,24 @@ package com.aredondocharro.ClothingStore.inventory.infrastructure.config.usecase
 
 import com.aredondocharro.ClothingStore.inventory.application.*;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.HotStockLedgerPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryBulkImportPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryExportPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.config.changes.InventoryChangeFeedProperties;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.config.reservation.InventoryReservationProperties;
 import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Clock;
 
 @Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryChangeFeedProperties.class)
 public class InventoryUseCasesConfig {
 
     // -------------------------
@@ -26,6 +35,15 @@ public class InventoryUseCasesConfig {
         return new CreateInventoryItemService(repo, clock, eventBus);
     }
 
+    @Bean(name = "importInventoryItemsUseCaseCore")
+    public ImportInventoryItemsUseCase importInventoryItemsUseCaseCore(
+            InventoryBulkImportPort importPort,
+            Clock clock,
+            EventBusPort eventBus
+    ) {
+        return new ImportInventoryItemsService(importPort, clock, eventBus);
+    }
+
     @Bean(name = "updateInventoryItemUseCaseCore")
     public UpdateInventoryItemUseCase updateInventoryItemUseCaseCore(
             InventoryItemRepositoryPort repo,
@@ -47,9 +65,11 @@ public class InventoryUseCasesConfig {
     public AdjustInventoryStockUseCase adjustInventoryStockUseCaseCore(
             InventoryItemRepositoryPort repo,
             Clock clock,
-            EventBusPort eventBus
+            EventBusPort eventBus,
+            ObjectProvider<StockBucketPort> stockBuckets
     ) {
-        return new AdjustInventoryStockService(repo, clock, eventBus);
+        return new AdjustInventoryStockService(repo, clock, eventBus,
+                stockBuckets.getIfAvailable(StockBucketPort::disabled));
     }
 
     @Bean(name = "discontinueInventoryItemUseCaseCore")
@@ -66,13 +86,46 @@ public class InventoryUseCasesConfig {
     // -------------------------
 
     @Bean(name = "getInventoryItemUseCaseCore")
-    public GetInventoryItemUseCase getInventoryItemUseCaseCore(InventoryItemRepositoryPort repo) {
-        return new GetInventoryItemService(repo);
+    public GetInventoryItemUseCase getInventoryItemUseCaseCore(
+            InventoryItemRepositoryPort repo,
+            ObjectProvider<StockBucketPort> stockBuckets
+    ) {
+        return new GetInventoryItemService(repo, stockBuckets.getIfAvailable(StockBucketPort::disabled));
     }
 
     @Bean(name = "searchInventoryItemsUseCaseCore")
-    public SearchInventoryItemsUseCase searchInventoryItemsUseCaseCore(InventoryItemRepositoryPort repo) {
-        return new SearchInventoryItemsService(repo);
+    public SearchInventoryItemsUseCase searchInventoryItemsUseCaseCore(
+            InventoryItemRepositoryPort repo,
+            ObjectProvider<StockBucketPort> stockBuckets
+    ) {
+        return new SearchInventoryItemsService(repo, stockBuckets.getIfAvailable(StockBucketPort::disabled));
+    }
+
+    @Bean(name = "getStockAvailabilityUseCaseCore")
+    public GetStockAvailabilityUseCase getStockAvailabilityUseCaseCore(
+            InventoryItemRepositoryPort repo,
+            ObjectProvider<StockBucketPort> stockBuckets
+    ) {
+        return new GetStockAvailabilityService(repo, stockBuckets.getIfAvailable(StockBucketPort::disabled));
+    }
+
+    @Bean(name = "listInventoryChangesUseCaseCore")
+    public ListInventoryChangesUseCase listInventoryChangesUseCaseCore(
+            InventoryItemRepositoryPort repo,
+            Clock clock,
+            InventoryChangeFeedProperties props,
+            ObjectProvider<StockBucketPort> stockBuckets
+    ) {
+        return new ListInventoryChangesService(repo, clock, props.getSettleLag(),
+                stockBuckets.getIfAvailable(StockBucketPort::disabled));
+    }
+
+    @Bean(name = "exportInventoryItemsUseCaseCore")
+    public ExportInventoryItemsUseCase exportInventoryItemsUseCaseCore(
+            InventoryExportPort exportPort,
+            ObjectProvider<StockBucketPort> stockBuckets
+    ) {
+        return new ExportInventoryItemsService(exportPort, stockBuckets.getIfAvailable(StockBucketPort::disabled));
     }
 
     // -------------------------
@@ -84,9 +137,15 @@ public class InventoryUseCasesConfig {
             InventoryItemRepositoryPort itemRepo,
             StockReservationRepositoryPort reservationRepo,
             Clock clock,
-            EventBusPort eventBus
+            EventBusPort eventBus,
+            ObjectProvider<HotStockLedgerPort> hotLedger,
+            ObjectProvider<StockBucketPort> stockBuckets,
+            InventoryReservationProperties reservationProps
     ) {
-        return new ReserveStockService(itemRepo, reservationRepo, clock, eventBus);
+        return new ReserveStockService(itemRepo, reservationRepo, clock, eventBus,
+                hotLedger.getIfAvailable(HotStockLedgerPort::disabled),
+                reservationProps.effectiveTtl(),
+                stockBuckets.getIfAvailable(StockBucketPort::disabled));
     }
 
     @Bean(name = "releaseStockUseCaseCore")
@@ -94,17 +153,31 @@ public class InventoryUseCasesConfig {
             InventoryItemRepositoryPort itemRepo,
             StockReservationRepositoryPort reservationRepo,
             Clock clock,
-            EventBusPort eventBus
+            EventBusPort eventBus,
+            ObjectProvider<HotStockLedgerPort> hotLedger
     ) {
-        return new ReleaseStockService(itemRepo, reservationRepo, clock, eventBus);
+        return new ReleaseStockService(itemRepo, reservationRepo, clock, eventBus,
+                hotLedger.getIfAvailable(HotStockLedgerPort::disabled));
     }
 
     @Bean(name = "consumeStockUseCaseCore")
     public ConsumeStockUseCase consumeStockUseCaseCore(
             InventoryItemRepositoryPort itemRepo,
             StockReservationRepositoryPort reservationRepo,
-            Clock clock
+            Clock clock,
+            ObjectProvider<HotStockLedgerPort> hotLedger
+    ) {
+        return new ConsumeStockService(itemRepo, reservationRepo, clock,
+                hotLedger.getIfAvailable(HotStockLedgerPort::disabled));
+    }
+
+    @Bean(name = "expireStockReservationsUseCaseCore")
+    public ExpireStockReservationsUseCase expireStockReservationsUseCaseCore(
+            InventoryItemRepositoryPort itemRepo,
+            StockReservationRepositoryPort reservationRepo,
+            Clock clock,
+            EventBusPort eventBus
     ) {
-        return new ConsumeStockService(itemRepo, reservationRepo, clock);
+        return new ExpireStockReservationsService(itemRepo, reservationRepo, clock, eventBus);
     }
 }
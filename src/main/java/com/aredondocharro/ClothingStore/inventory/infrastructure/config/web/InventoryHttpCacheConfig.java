@@ -0,0 +1,9 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.web;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryHttpCacheProperties.class)
+public class InventoryHttpCacheConfig {
+}
@@ -0,0 +1,14 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventory.http-cache")
+public class InventoryHttpCacheProperties {
+    /** Freshness window for browsers/CDN on public reads; 0 = always revalidate with the ETag */
+    private Duration maxAge = Duration.ZERO;
+
+    public Duration getMaxAge() { return maxAge; }
+    public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+}
@@ -0,0 +1,63 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.webhook;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.JdbcWebhookOutbox;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.WebhookDispatcher;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.WebhookSender;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.WebhookSubscriber;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InventoryWebhookProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.webhooks", name = "enabled", havingValue = "true")
+public class InventoryWebhookConfig {
+
+    @Bean
+    public JdbcWebhookOutbox jdbcWebhookOutbox(JdbcTemplate jdbc, InventoryWebhookProperties props) {
+        return new JdbcWebhookOutbox(jdbc, subscribers(props));
+    }
+
+    // Sondeo del outbox: @Scheduled en WebhookDispatcher (app.inventory.webhooks.poll-interval)
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.inventory.webhooks", name = "dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+    public WebhookDispatcher webhookDispatcher(
+            JdbcWebhookOutbox outbox,
+            InventoryWebhookProperties props,
+            ObjectMapper objectMapper,
+            Clock clock
+    ) {
+        if (props.getLease().compareTo(props.getRequestTimeout()) <= 0) {
+            throw new IllegalArgumentException("app.inventory.webhooks.lease must exceed request-timeout");
+        }
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(props.getRequestTimeout())
+                .build();
+        return new WebhookDispatcher(
+                outbox,
+                new WebhookSender(http, objectMapper, clock, props.getRequestTimeout()),
+                subscribers(props),
+                clock,
+                WebhookDispatcher.newDeliveryExecutor(),
+                props.getBatchSize(),
+                props.getMaxAttempts(),
+                props.getBaseDelay(),
+                props.getMultiplier(),
+                props.getMaxDelay(),
+                props.getLease()
+        );
+    }
+
+    private static List<WebhookSubscriber> subscribers(InventoryWebhookProperties props) {
+        return props.getSubscribers().stream()
+                .map(s -> new WebhookSubscriber(s.getId(), s.getUrl(), s.getSecret(), s.getEvents(), s.getMaxInFlight()))
+                .toList();
+    }
+}
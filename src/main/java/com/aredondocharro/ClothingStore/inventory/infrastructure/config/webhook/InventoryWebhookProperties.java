@@ -0,0 +1,94 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.config.webhook;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "app.inventory.webhooks")
+public class InventoryWebhookProperties {
+    /** Record inventory events in the webhook outbox and deliver them to the subscribers below */
+    private boolean enabled = false;
+    /** Run the dispatcher on this node (events are recorded regardless) */
+    private boolean dispatcherEnabled = true;
+    /** Delay between dispatcher passes; events recorded meanwhile travel in the same batch */
+    private Duration pollInterval = Duration.ofSeconds(1);
+    /** Events per POST */
+    private int batchSize = 100;
+    /** Delivery attempts before a batch's events are marked FAILED */
+    private int maxAttempts = 8;
+    /** Base delay for the exponential backoff */
+    private Duration baseDelay = Duration.ofSeconds(10);
+    /** Exponential multiplier */
+    private double multiplier = 3.0;
+    /** Upper bound for a single backoff */
+    private Duration maxDelay = Duration.ofHours(1);
+    /** Timeout of one POST */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+    /** How long a claimed batch stays hidden from other passes/nodes; must exceed requestTimeout */
+    private Duration lease = Duration.ofSeconds(60);
+    private List<Subscriber> subscribers = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public boolean isDispatcherEnabled() { return dispatcherEnabled; }
+    public void setDispatcherEnabled(boolean dispatcherEnabled) { this.dispatcherEnabled = dispatcherEnabled; }
+
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public Duration getBaseDelay() { return baseDelay; }
+    public void setBaseDelay(Duration baseDelay) { this.baseDelay = baseDelay; }
+
+    public double getMultiplier() { return multiplier; }
+    public void setMultiplier(double multiplier) { this.multiplier = multiplier; }
+
+    public Duration getMaxDelay() { return maxDelay; }
+    public void setMaxDelay(Duration maxDelay) { this.maxDelay = maxDelay; }
+
+    public Duration getRequestTimeout() { return requestTimeout; }
+    public void setRequestTimeout(Duration requestTimeout) { this.requestTimeout = requestTimeout; }
+
+    public Duration getLease() { return lease; }
+    public void setLease(Duration lease) { this.lease = lease; }
+
+    public List<Subscriber> getSubscribers() { return subscribers; }
+    public void setSubscribers(List<Subscriber> subscribers) { this.subscribers = subscribers; }
+
+    public static class Subscriber {
+        /** Stable id stored with each outbox row (max 64 chars) */
+        private String id;
+        private URI url;
+        /** HMAC-SHA256 key for the X-Inventory-Signature header */
+        private String secret;
+        /** Event types to deliver, e.g. inventory.item.price-changed; empty = all */
+        private Set<String> events = Set.of();
+        /** Batches delivered to this subscriber at the same time */
+        private int maxInFlight = 2;
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public URI getUrl() { return url; }
+        public void setUrl(URI url) { this.url = url; }
+
+        public String getSecret() { return secret; }
+        public void setSecret(String secret) { this.secret = secret; }
+
+        public Set<String> getEvents() { return events; }
+        public void setEvents(Set<String> events) { this.events = events; }
+
+        public int getMaxInFlight() { return maxInFlight; }
+        public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+    }
+}
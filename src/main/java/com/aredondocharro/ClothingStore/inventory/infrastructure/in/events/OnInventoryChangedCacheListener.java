@@ -0,0 +1,47 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.events;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.*;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache.CachingInventoryItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.inventory.cache", name = "enabled", havingValue = "true")
+public class OnInventoryChangedCacheListener {
+
+    private final CachingInventoryItemRepository cache;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemPriceChanged e) { evict(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryStockAdjusted e) { evict(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryStockBulkAdjusted e) {
+        e.adjustments().forEach(a -> evict(a.itemId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(StockReserved e) { evict(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(StockReleased e) { evict(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemDiscontinued e) { evict(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemReactivated e) { evict(e.itemId()); }
+
+    private void evict(UUID itemId) {
+        cache.invalidate(InventoryItemId.of(itemId));
+    }
+}
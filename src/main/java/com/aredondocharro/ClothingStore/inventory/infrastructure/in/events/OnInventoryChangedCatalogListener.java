@@ -0,0 +1,55 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.events;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.*;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog.BitmapCatalogIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.inventory.catalog-index", name = "enabled", havingValue = "true")
+public class OnInventoryChangedCatalogListener {
+
+    private final BitmapCatalogIndex index;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemCreated e) { markDirty(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemsImported e) {
+        if (e.imported() > 0) index.requestRebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemPriceChanged e) { markDirty(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryStockAdjusted e) { markDirty(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryStockBulkAdjusted e) {
+        e.adjustments().forEach(a -> markDirty(a.itemId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(StockReserved e) { markDirty(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(StockReleased e) { markDirty(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemDiscontinued e) { markDirty(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemReactivated e) { markDirty(e.itemId()); }
+
+    private void markDirty(UUID itemId) {
+        index.markDirty(InventoryItemId.of(itemId));
+    }
+}
@@ -0,0 +1,59 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.events;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.*;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.JdbcWebhookOutbox;
+import com.aredondocharro.ClothingStore.shared.domain.event.DomainEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+
+// BEFORE_COMMIT: el evento queda en el outbox en la misma transacción que el cambio (o ninguno de los dos)
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.inventory.webhooks", name = "enabled", havingValue = "true")
+public class OnInventoryEventWebhookListener {
+
+    private final JdbcWebhookOutbox outbox;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemPriceChanged e) { record(List.of(e), e.occurredAt()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(InventoryStockAdjusted e) { record(List.of(e), e.occurredAt()); }
+
+    // Para el suscriptor un ajuste masivo son N ajustes sueltos
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(InventoryStockBulkAdjusted e) {
+        record(e.adjustments().stream()
+                .map(a -> new InventoryStockAdjusted(a.itemId(), a.delta(), a.reason(), e.occurredAt()))
+                .toList(), e.occurredAt());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(StockReserved e) { record(List.of(e), e.occurredAt()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(StockReleased e) { record(List.of(e), e.occurredAt()); }
+
+    private void record(List<? extends DomainEvent> events, Instant occurredAt) {
+        outbox.record(events.stream()
+                .map(e -> new JdbcWebhookOutbox.OutboxEvent(e.type(), toJson(e), occurredAt))
+                .toList());
+    }
+
+    private String toJson(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("cannot serialize " + event.type(), ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.events;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.InventoryItemDiscontinued;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock.StripedHotStockLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.inventory.hot-stock", name = "enabled", havingValue = "true")
+public class OnInventoryItemDiscontinuedHotStockListener {
+
+    private final StripedHotStockLedger ledger;
+
+    // Un item discontinuado no debe seguir vendiendo desde el lease en memoria
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemDiscontinued e) {
+        ledger.evict(InventoryItemId.of(e.itemId()));
+    }
+}
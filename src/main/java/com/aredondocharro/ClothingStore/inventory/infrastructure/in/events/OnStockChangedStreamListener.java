@@ -0,0 +1,46 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.events;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.*;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.stream.StockAvailabilityStreamHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+// Consumir no cambia available (baja onHand y reserved a la vez): no hace falta escucharlo.
+// Solo ve eventos de este nodo; lo escrito en otros lo recoge el resync periódico del hub
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.inventory.stream", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OnStockChangedStreamListener {
+
+    private final StockAvailabilityStreamHub hub;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(StockReserved e) { changed(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(StockReleased e) { changed(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryStockAdjusted e) { changed(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryStockBulkAdjusted e) {
+        e.adjustments().forEach(a -> changed(a.itemId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemDiscontinued e) { changed(e.itemId()); }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(InventoryItemReactivated e) { changed(e.itemId()); }
+
+    private void changed(UUID itemId) {
+        hub.markChanged(InventoryItemId.of(itemId));
+    }
+}
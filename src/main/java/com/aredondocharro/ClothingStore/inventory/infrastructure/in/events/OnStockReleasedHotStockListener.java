@@ -0,0 +1,25 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.events;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.StockReleased;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock.StripedHotStockLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.inventory.hot-stock", name = "enabled", havingValue = "true")
+public class OnStockReleasedHotStockListener {
+
+    private final StripedHotStockLedger ledger;
+
+    // Una reserva liberada no debe seguir resolviendo la idempotencia en memoria
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(StockReleased e) {
+        ledger.forget(InventoryItemId.of(e.itemId()), ReservationReference.of(e.reference()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.scheduling;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.config.idempotency.InventoryIdempotencyProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purga periódica de Idempotency-Keys caducadas, en lotes de {@code sweep-batch-size} por sentencia
+ * para no bloquear la tabla con un borrado masivo. Seguro en varios nodos ({@code SKIP LOCKED}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.inventory.idempotency", name = {"enabled", "sweeper-enabled"}, havingValue = "true", matchIfMissing = true)
+public class IdempotencyKeySweeper {
+
+    private final IdempotencyStorePort store;
+    private final Clock clock;
+    private final InventoryIdempotencyProperties props;
+
+    private final LongAdder purged = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @Scheduled(
+            fixedDelayString = "${app.inventory.idempotency.sweep-interval:1m}",
+            initialDelayString = "${app.inventory.idempotency.sweep-interval:1m}"
+    )
+    public void tick() {
+        try {
+            sweep();
+        } catch (RuntimeException ex) {
+            // Nunca caemos el scheduler
+            failures.increment();
+            log.warn("[inventory-idempotency] sweep failed: {}", ex.getMessage());
+        }
+    }
+
+    /** Una pasada completa. Devuelve las claves borradas. */
+    public int sweep() {
+        int batchSize = Math.max(1, props.getSweepBatchSize());
+        int maxBatches = Math.max(1, props.getMaxBatchesPerSweep());
+        Instant now = Instant.now(clock);
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int count = store.purgeExpired(now, batchSize);
+            purged.add(count);
+            total += count;
+            if (count < batchSize) break;
+        }
+        if (total > 0) log.debug("[inventory-idempotency] purged={} (<= {})", total, now);
+        return total;
+    }
+
+    public long getPurgedCount() { return purged.sum(); }
+
+    public long getFailureCount() { return failures.sum(); }
+}
@@ -0,0 +1,72 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.scheduling;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ExpireStockReservationsUseCase;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.config.reservation.InventoryReservationProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Barre periódicamente las reservas ACTIVE caducadas y devuelve su stock.
+ * <p>
+ * Cada pasada procesa lotes de {@code batch-size} (una transacción por lote) hasta vaciar
+ * lo vencido o agotar {@code max-batches-per-sweep}. Es seguro en varios nodos: el reparto
+ * lo hace {@code SKIP LOCKED} en base de datos, no hace falta elegir líder.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.inventory.reservation", name = "sweeper-enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationExpirySweeper {
+
+    private final ExpireStockReservationsUseCase expire;
+    private final Clock clock;
+    private final InventoryReservationProperties props;
+
+    private final LongAdder released = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @Scheduled(
+            fixedDelayString = "${app.inventory.reservation.sweep-interval:5s}",
+            initialDelayString = "${app.inventory.reservation.sweep-interval:5s}"
+    )
+    public void tick() {
+        try {
+            sweep();
+        } catch (RuntimeException ex) {
+            // Nunca tumbamos el scheduler: el lote hizo rollback y se reintenta en la siguiente pasada
+            failures.increment();
+            log.warn("[reservation-expiry] sweep failed: {}", ex.getMessage());
+        }
+    }
+
+    /** Una pasada completa. Devuelve las reservas liberadas. */
+    public int sweep() {
+        int batchSize = Math.max(1, props.getBatchSize());
+        int maxBatches = Math.max(1, props.getMaxBatchesPerSweep());
+        Instant now = Instant.now(clock);
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int count = expire.expireBatch(now, batchSize);
+            batches.increment();
+            released.add(count);
+            total += count;
+            if (count < batchSize) break;
+        }
+        if (total > 0) log.info("[reservation-expiry] released={} (<= {})", total, now);
+        return total;
+    }
+
+    public long getReleasedCount() { return released.sum(); }
+
+    public long getBatchCount() { return batches.sum(); }
+
+    public long getFailureCount() { return failures.sum(); }
+}
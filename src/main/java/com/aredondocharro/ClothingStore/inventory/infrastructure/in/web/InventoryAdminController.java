@@ -3,21 +3,38 @@ package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web;
 import com.aredondocharro.ClothingStore.inventory.domain.model.*;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.*;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.*;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.exporter.InventoryExportFormat;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.exporter.InventoryExportWriter;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.importer.InventoryImportReader;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.mapper.InventoryWebMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/admin/inventory/items")
 public class InventoryAdminController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final CreateInventoryItemUseCase createUseCase;
+    private final ImportInventoryItemsUseCase importUseCase;
+    private final ExportInventoryItemsUseCase exportUseCase;
+    private final ObjectMapper objectMapper;
     private final UpdateInventoryItemUseCase updateUseCase;
     private final ChangeInventoryItemPriceUseCase changePriceUseCase;
     private final AdjustInventoryStockUseCase adjustStockUseCase;
@@ -35,6 +52,43 @@ public class InventoryAdminController {
                 .body(new CreateInventoryItemResponse(id.getValue()));
     }
 
+    @Operation(summary = "Bulk import inventory items from a streamed CSV (with header) or NDJSON body (admin)")
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<InventoryImportResponse> importItems(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) {
+        Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+        InventoryImportReader lines = contentType.isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? InventoryImportReader.ndjson(reader, objectMapper)
+                : InventoryImportReader.csv(reader);
+        InventoryImportResult result = importUseCase.importItems(lines, null);
+        return ResponseEntity.ok(InventoryWebMapper.toImportResponse(result));
+    }
+
+    @Operation(summary = "Stream every inventory item matching the filters as NDJSON or CSV (admin)")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) InventoryCategory category,
+            @RequestParam(required = false) Gender gender,
+            @RequestParam(required = false) Size size,
+            @RequestParam(required = false) Fabric fabric,
+            @RequestParam(required = false) ItemStatus status,
+            @RequestParam(defaultValue = "NDJSON") InventoryExportFormat format
+    ) {
+        InventorySearchQuery query = InventoryWebMapper.toSearchQuery(text, category, gender, size, fabric, status);
+        StreamingResponseBody body = out -> {
+            try (InventoryExportWriter writer = new InventoryExportWriter(format, out, objectMapper)) {
+                exportUseCase.export(query, s -> writer.write(InventoryWebMapper.toSummaryResponse(s)));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventory." + format.extension() + "\"")
+                .body(body);
+    }
+
     @Operation(summary = "Update inventory item details (admin)")
     @PutMapping("/{id}")
     public ResponseEntity<Void> update(@PathVariable String id, @Valid @RequestBody UpdateInventoryItemRequest body) {
@@ -60,6 +114,13 @@ public class InventoryAdminController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Adjust on-hand stock for many items by id or SKU in one batch, reporting failed lines (admin)")
+    @PostMapping("/stock/adjust")
+    public ResponseEntity<BulkAdjustStockResponse> adjustStockAll(@Valid @RequestBody BulkAdjustStockRequest body) {
+        StockAdjustmentResult result = adjustStockUseCase.adjustOnHandAll(InventoryWebMapper.toAdjustmentLines(body), null);
+        return ResponseEntity.ok(InventoryWebMapper.toBulkAdjustResponse(result));
+    }
+
     @Operation(summary = "Discontinue inventory item (admin)")
     @PostMapping("/{id}/discontinue")
     public ResponseEntity<Void> discontinue(@PathVariable String id) {
@@ -85,6 +146,15 @@ public class InventoryAdminController {
         return ResponseEntity.ok(new ReserveStockResponse(reservationId.getValue()));
     }
 
+    @Operation(summary = "Reserve stock for several items under one reference, all or nothing (admin/system)")
+    @PostMapping("/reserve")
+    public ResponseEntity<ReserveStockBatchResponse> reserveAll(@Valid @RequestBody ReserveStockBatchRequest body) {
+        ReservationReference reference = ReservationReference.of(body.reference());
+        Map<InventoryItemId, StockReservationId> reservations =
+                reserveUseCase.reserveAll(reference, InventoryWebMapper.toReserveLines(body), null);
+        return ResponseEntity.ok(InventoryWebMapper.toReserveBatchResponse(reference, reservations));
+    }
+
     @Operation(summary = "Release stock reservation by reference (admin/system)")
     @PostMapping("/{id}/release")
     public ResponseEntity<Void> release(@PathVariable String id, @Valid @RequestBody ReleaseStockRequest body) {
@@ -0,0 +1,31 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.stream.StockAvailabilityStreamHub;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/inventory/items")
+@ConditionalOnProperty(prefix = "app.inventory.stream", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InventoryAvailabilityStreamController {
+
+    private final StockAvailabilityStreamHub hub;
+
+    @Operation(summary = "Server-Sent Events with the available stock of the given items: current value first, then coalesced updates")
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam List<UUID> ids) {
+        return hub.subscribe(ids.stream().map(InventoryItemId::of).toList());
+    }
+}
@@ -0,0 +1,35 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangeCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ListInventoryChangesUseCase;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.InventoryChangesResponse;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.mapper.InventoryWebMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/inventory/changes")
+public class InventoryChangesController {
+
+    private final ListInventoryChangesUseCase changesUseCase;
+
+    @Operation(summary = "Items modified after the cursor (discontinued included), oldest first; keep the returned 'next' and poll with it")
+    @GetMapping
+    public ResponseEntity<InventoryChangesResponse> changes(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        InventoryChangeCursor cursor = after == null || after.isBlank() ? null : InventoryChangeCursor.decode(after);
+        var page = changesUseCase.changesAfter(cursor, limit);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(InventoryWebMapper.toChangesResponse(page));
+    }
+}
@@ -2,13 +2,18 @@ package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web;
 
 import com.aredondocharro.ClothingStore.inventory.domain.exception.*;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
 
-@RestControllerAdvice(assignableTypes = {InventoryPublicController.class, InventoryAdminController.class})
+@RestControllerAdvice(assignableTypes = {
+        InventoryPublicController.class,
+        InventoryAdminController.class,
+        InventoryChangesController.class
+})
 public class InventoryExceptionHandler {
 
     @ExceptionHandler(InventoryItemNotFoundException.class)
@@ -42,6 +47,10 @@ public class InventoryExceptionHandler {
         return build(HttpStatus.CONFLICT, "inventory.reservation.conflict", ex.getMessage(), req);
     }
 
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<InventoryErrorResponse> searchTimeout(RuntimeException ex, HttpServletRequest req) {
+        return build(HttpStatus.SERVICE_UNAVAILABLE, "inventory.search.timeout", ex.getMessage(), req);
+    }
 
     private ResponseEntity<InventoryErrorResponse> build(HttpStatus status, String code, String message, HttpServletRequest req) {
         return ResponseEntity.status(status).body(new InventoryErrorResponse(
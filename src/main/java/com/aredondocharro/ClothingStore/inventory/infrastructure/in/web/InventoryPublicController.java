@@ -1,18 +1,29 @@
 package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web;
 
 import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CountMode;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPage;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.GetInventoryItemUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.GetStockAvailabilityUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFacets;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFingerprint;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryItemSummary;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.SearchInventoryItemsUseCase;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.Page;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.config.web.InventoryHttpCacheProperties;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.*;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.mapper.InventoryWebMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,16 +32,50 @@ public class InventoryPublicController {
 
     private final GetInventoryItemUseCase getUseCase;
     private final SearchInventoryItemsUseCase searchUseCase;
+    private final GetStockAvailabilityUseCase availabilityUseCase;
+    private final InventoryHttpCacheProperties httpCache;
 
     @Operation(summary = "Get inventory item by id")
     @GetMapping("/{id}")
-    public ResponseEntity<InventoryItemResponse> getById(@PathVariable String id) {
+    public ResponseEntity<InventoryItemResponse> getById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         InventoryItemId itemId = InventoryItemId.of(id);
+
+        // Revalidación: se contesta con la versión del item, sin cargarlo ni serializarlo
+        if (ifNoneMatch != null) {
+            Optional<InventoryFingerprint> current = getUseCase.fingerprint(itemId);
+            if (current.isPresent()) {
+                String etag = InventoryWebMapper.toETag(current.get());
+                if (matches(ifNoneMatch, etag)) return notModified(etag);
+            }
+        }
+
         var details = getUseCase.getById(itemId);
-        return ResponseEntity.ok(InventoryWebMapper.toResponse(details));
+        return ResponseEntity.ok()
+                .eTag(InventoryWebMapper.toETag(details))
+                .cacheControl(cacheControl())
+                .body(InventoryWebMapper.toResponse(details));
+    }
+
+    @Operation(summary = "Current availability and price of up to 100 items by id and/or SKU; unknown ones are listed as missing")
+    @GetMapping("/availability")
+    public ResponseEntity<StockAvailabilityCheckResponse> availability(
+            @RequestParam(required = false) List<String> ids,
+            @RequestParam(required = false) List<String> skus
+    ) {
+        var check = availabilityUseCase.check(
+                ids == null ? List.of() : ids.stream().map(InventoryItemId::of).toList(),
+                skus == null ? List.of() : skus.stream().map(Sku::of).toList()
+        );
+        // Stock vivo: sin cache compartida
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(InventoryWebMapper.toAvailabilityResponse(check));
     }
 
-    @Operation(summary = "Search inventory items with filters and pagination")
+    @Operation(summary = "Search inventory items with filters and pagination; count=EXACT|ESTIMATED|NONE, facets=true adds facet counts")
     @GetMapping
     public ResponseEntity<PagedResponse<InventoryItemSummaryResponse>> search(
             @RequestParam(required = false) String text,
@@ -40,27 +85,82 @@ public class InventoryPublicController {
             @RequestParam(required = false) Fabric fabric,
             @RequestParam(required = false) ItemStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int sizeParam
+            @RequestParam(defaultValue = "20") int sizeParam,
+            @RequestParam(defaultValue = "EXACT") CountMode count,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         var query = InventoryWebMapper.toSearchQuery(text, category, gender, size, fabric, status);
-        var pageRequest = InventoryWebMapper.toPageRequest(page, sizeParam);
+        var pageRequest = InventoryWebMapper.toPageRequest(page, sizeParam, count);
 
         Page<InventoryItemSummary> result = searchUseCase.search(query, pageRequest);
 
-        @SuppressWarnings("unchecked")
-        Page<com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryItemSummary> typed =
-                result;
+        List<InventoryItemSummaryResponse> items = result.items().stream()
+                .map(InventoryWebMapper::toSummaryResponse)
+                .toList();
+
+        InventoryFacets facetCounts = facets ? searchUseCase.facets(query) : null;
+
+        // ETag a partir de la propia respuesta: ni una consulta extra en el camino caliente, y el 304
+        // se ahorra la serialización y la transferencia
+        PagedResponse<InventoryItemSummaryResponse> body = InventoryWebMapper.toPagedResponse(items, page, result, facetCounts);
+        String etag = InventoryWebMapper.toETag(body);
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) return notModified(etag);
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl())
+                .body(body);
+    }
+
+    @Operation(summary = "Search inventory items with cursor (keyset) pagination; send an empty cursor for the first page")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPagedResponse<InventoryItemSummaryResponse>> searchByCursor(
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) InventoryCategory category,
+            @RequestParam(required = false) Gender gender,
+            @RequestParam(required = false) Size size,
+            @RequestParam(required = false) Fabric fabric,
+            @RequestParam(required = false) ItemStatus status,
+            @RequestParam(required = false) InventorySort sort,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int sizeParam
+    ) {
+        var query = InventoryWebMapper.toSearchQuery(text, category, gender, size, fabric, status);
+        var pageRequest = InventoryWebMapper.toCursorPageRequest(sort, cursor, sizeParam);
+
+        CursorPage<InventoryItemSummary> result = searchUseCase.searchAfter(query, pageRequest);
 
-        List<InventoryItemSummaryResponse> items = typed.items().stream()
+        List<InventoryItemSummaryResponse> items = result.items().stream()
                 .map(InventoryWebMapper::toSummaryResponse)
                 .toList();
 
-        return ResponseEntity.ok(new PagedResponse<>(
+        return ResponseEntity.ok(new CursorPagedResponse<>(
                 items,
-                page,
                 pageRequest.limit(),
-                typed.total(),
-                InventoryWebMapper.totalPages(typed.total(), pageRequest.limit())
+                result.hasNext() ? result.next().encode() : null
         ));
     }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(httpCache.getMaxAge()).cachePublic().mustRevalidate();
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl())
+                .build();
+    }
+
+    // If-None-Match admite varios ETags, "*" y prefijo W/ (comparación débil, RFC 9110 §13.1.2)
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
 }
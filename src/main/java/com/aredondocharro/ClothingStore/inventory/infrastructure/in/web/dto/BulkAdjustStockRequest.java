@@ -0,0 +1,27 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkAdjustStockRequest(
+        @NotEmpty @Size(max = 10000) List<@Valid @NotNull Line> lines
+) {
+    // Cada línea identifica el item por itemId o por sku, nunca por ambos
+    public record Line(
+            UUID itemId,
+            String sku,
+            int delta,
+            String reason
+    ) {
+        @AssertTrue(message = "exactly one of itemId or sku is required")
+        public boolean isTargetValid() {
+            return (itemId == null) != (sku == null || sku.isBlank());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import java.util.List;
+
+public record BulkAdjustStockResponse(
+        int applied,
+        int failed,
+        List<Failure> failures
+) {
+    public record Failure(int index, String target, String reason) {}
+}
@@ -0,0 +1,9 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import java.util.List;
+
+public record CursorPagedResponse<T>(
+        List<T> items,
+        int size,
+        String nextCursor
+) {}
@@ -0,0 +1,28 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record InventoryChangesResponse(
+        List<Change> changes,
+        String next,
+        boolean hasMore
+) {
+    public record Change(
+            UUID id,
+            String sku,
+            String name,
+            BigDecimal priceAmount,
+            String priceCurrency,
+            int onHand,
+            int reserved,
+            int available,
+            ItemStatus status,
+            Instant updatedAt,
+            long version
+    ) {}
+}
@@ -0,0 +1,11 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import java.util.Map;
+
+public record InventoryFacetsResponse(
+        Map<String, Long> category,
+        Map<String, Long> gender,
+        Map<String, Long> size,
+        Map<String, Long> fabric,
+        Map<String, Long> status
+) {}
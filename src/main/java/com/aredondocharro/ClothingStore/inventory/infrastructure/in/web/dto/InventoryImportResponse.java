@@ -0,0 +1,11 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import java.util.List;
+
+public record InventoryImportResponse(
+        long received,
+        long imported,
+        long conflicts,
+        long rejected,
+        List<String> errors
+) {}
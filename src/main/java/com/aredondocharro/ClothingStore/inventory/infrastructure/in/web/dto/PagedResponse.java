@@ -2,10 +2,17 @@ package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
 
 import java.util.List;
 
+/**
+ * {@code totalItems}/{@code totalPages} son null con countMode NONE y aproximados con ESTIMATED.
+ * {@code facets} solo se rellena si se piden.
+ */
 public record PagedResponse<T>(
         List<T> items,
         int page,
         int size,
-        long totalItems,
-        int totalPages
+        Long totalItems,
+        Integer totalPages,
+        String countMode,
+        boolean hasNext,
+        InventoryFacetsResponse facets
 ) {}
@@ -0,0 +1,21 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ReserveStockBatchRequest(
+        @NotBlank String reference,
+        @NotEmpty @Size(max = 200) List<@Valid @NotNull Line> lines
+) {
+    public record Line(
+            @NotNull UUID itemId,
+            @Min(1) int quantity
+    ) {}
+}
@@ -0,0 +1,11 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ReserveStockBatchResponse(
+        String reference,
+        List<Line> reservations
+) {
+    public record Line(UUID itemId, UUID reservationId) {}
+}
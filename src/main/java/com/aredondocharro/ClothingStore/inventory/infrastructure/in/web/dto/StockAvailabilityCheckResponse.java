@@ -0,0 +1,24 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record StockAvailabilityCheckResponse(
+        List<Item> items,
+        List<UUID> missingIds,
+        List<String> missingSkus
+) {
+    public record Item(
+            UUID id,
+            String sku,
+            BigDecimal priceAmount,
+            String priceCurrency,
+            int onHand,
+            int reserved,
+            int available,
+            ItemStatus status
+    ) {}
+}
@@ -0,0 +1,11 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
+
+import java.util.UUID;
+
+public record StockAvailabilityEventResponse(
+        UUID itemId,
+        int available,
+        ItemStatus status
+) {}
@@ -0,0 +1,20 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.exporter;
+
+import org.springframework.http.MediaType;
+
+public enum InventoryExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    InventoryExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() { return mediaType; }
+
+    public String extension() { return extension; }
+}
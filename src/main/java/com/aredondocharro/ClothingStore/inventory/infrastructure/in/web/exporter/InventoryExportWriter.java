@@ -0,0 +1,80 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.exporter;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.InventoryItemSummaryResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe el export fila a fila sobre la respuesta (buffer fijo, nada se acumula).
+ * CSV con las mismas columnas que {@link InventoryItemSummaryResponse}.
+ */
+public final class InventoryExportWriter implements AutoCloseable {
+
+    private static final String CSV_HEADER = "id,sku,name,priceAmount,priceCurrency,onHand,reserved,available,status\n";
+
+    private final InventoryExportFormat format;
+    private final OutputStream out;
+    private final ObjectMapper mapper;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public InventoryExportWriter(InventoryExportFormat format, OutputStream out, ObjectMapper mapper) {
+        this.format = format;
+        this.out = new BufferedOutputStream(out, 64 * 1024);
+        this.mapper = mapper;
+        if (format == InventoryExportFormat.CSV) writeUtf8(CSV_HEADER);
+    }
+
+    public void write(InventoryItemSummaryResponse r) {
+        try {
+            if (format == InventoryExportFormat.NDJSON) {
+                out.write(mapper.writeValueAsBytes(r));
+                out.write('\n');
+                return;
+            }
+            line.setLength(0);
+            line.append(r.id()).append(',');
+            csv(r.sku()).append(',');
+            csv(r.name()).append(',');
+            line.append(r.priceAmount().toPlainString()).append(',')
+                    .append(r.priceCurrency()).append(',')
+                    .append(r.onHand()).append(',')
+                    .append(r.reserved()).append(',')
+                    .append(r.available()).append(',')
+                    .append(r.status()).append('\n');
+            writeUtf8(line);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+
+    private StringBuilder csv(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) return line.append(value);
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') line.append('"');
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    private void writeUtf8(CharSequence s) {
+        try {
+            out.write(s.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.idempotency;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort.Claim;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort.StoredRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort.StoredResponse;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.InventoryExceptionHandler.InventoryErrorResponse;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache.BoundedTtlCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Idempotency-Key para las mutaciones de inventario.
+ * <p>
+ * La primera petición con una clave la reclama en el store, ejecuta el caso de uso y guarda
+ * la respuesta (status &lt; 500). Los reintentos con la misma clave y el mismo cuerpo reciben
+ * esa respuesta sin volver a ejecutarse; con otro cuerpo, 422. Si el original sigue en curso,
+ * el duplicado espera hasta {@code inFlightWait} y después responde 409 con Retry-After.
+ * <p>
+ * Una clave en curso se da por abandonada tras {@code inFlightTimeout} (por ruta si hay override).
+ * Cada claim lleva un token: si otra petición la retoma, la original ya no puede completarla ni borrarla.
+ * <p>
+ * La clave va acotada al usuario autenticado. Sin cabecera, la petición pasa sin coste.
+ */
+@Slf4j
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 200;
+
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final long POLL_INTERVAL_MILLIS = 25;
+
+    private final IdempotencyStorePort store;
+    // El de la aplicación: los errores salen serializados igual que los de InventoryExceptionHandler
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    // Patrón Ant de la ruta -> timeout; el primero que casa gana
+    private final Map<String, Duration> inFlightTimeoutByPath;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final long inFlightWaitNanos;
+    private final int maxBodySize;
+    // Solo respuestas completadas: son inmutables hasta que caduca la clave
+    private final BoundedTtlCache<String, StoredRequest> completed;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder inFlightConflicts = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder takenOver = new LongAdder();
+
+    public IdempotencyKeyFilter(IdempotencyStorePort store,
+                                ObjectMapper objectMapper,
+                                Clock clock,
+                                Duration ttl,
+                                Duration inFlightTimeout,
+                                Map<String, Duration> inFlightTimeoutByPath,
+                                Duration inFlightWait,
+                                int maxBodySize,
+                                int cacheSize) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be > 0");
+        if (inFlightTimeout == null || inFlightTimeout.isNegative() || inFlightTimeout.isZero()) {
+            throw new IllegalArgumentException("inFlightTimeout must be > 0");
+        }
+        inFlightTimeoutByPath.forEach((pattern, timeout) -> {
+            if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("inFlightTimeout for " + pattern + " must be > 0");
+            }
+        });
+        if (inFlightWait == null || inFlightWait.isNegative()) throw new IllegalArgumentException("inFlightWait must be >= 0");
+        if (maxBodySize <= 0) throw new IllegalArgumentException("maxBodySize must be > 0");
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.inFlightTimeoutByPath = new LinkedHashMap<>(inFlightTimeoutByPath);
+        this.inFlightWaitNanos = inFlightWait.toNanos();
+        this.maxBodySize = maxBodySize;
+        this.completed = cacheSize > 0 ? new BoundedTtlCache<>(cacheSize, ttl, clock) : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // El import se consume en streaming: no se puede bufferizar para la huella
+        return !METHODS.contains(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || request.getRequestURI().endsWith("/import");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, "inventory.idempotency.invalid_key",
+                    HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = readBody(request);
+        if (body == null) {
+            writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "inventory.idempotency.body_too_large",
+                    "Request body too large for an idempotent request");
+            return;
+        }
+
+        String scopedKey = scope(request) + ":" + key;
+        String fingerprint = fingerprint(request, body);
+
+        Optional<StoredRequest> cached = completed == null ? Optional.empty() : completed.peek(scopedKey);
+        if (cached.isPresent() && cached.get().expiresAt().isAfter(clock.instant())) {
+            answerExisting(cached.get(), fingerprint, request, response);
+            return;
+        }
+
+        Duration staleAfter = inFlightTimeout(request);
+        long deadline = System.nanoTime() + inFlightWaitNanos;
+        while (true) {
+            Instant now = clock.instant();
+            Claim claim = store.claim(scopedKey, fingerprint, now, now.minus(staleAfter), now.plus(ttl));
+            if (claim.isOwned()) {
+                execute(scopedKey, claim.token(), body, request, response, chain);
+                return;
+            }
+            StoredRequest found = claim.existing();
+            if (found.isCompleted() || !fingerprint.equals(found.fingerprint())) {
+                answerExisting(found, fingerprint, request, response);
+                return;
+            }
+            // Mismo cuerpo y todavía en curso en otra petición (o nodo)
+            if (System.nanoTime() - deadline >= 0 || !pause()) {
+                inFlightConflicts.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, staleAfter.toSeconds())));
+                writeError(request, response, HttpStatus.CONFLICT, "inventory.idempotency.in_progress",
+                        "A request with this " + HEADER + " is still being processed");
+                return;
+            }
+        }
+    }
+
+    public long getExecutionCount() { return executions.sum(); }
+
+    public long getReplayCount() { return replays.sum(); }
+
+    public long getInFlightConflictCount() { return inFlightConflicts.sum(); }
+
+    public long getMismatchCount() { return mismatches.sum(); }
+
+    /** Ejecuciones cuya clave retomó otra petición antes de terminar (respuesta no guardada). */
+    public long getTakenOverCount() { return takenOver.sum(); }
+
+    Duration inFlightTimeout(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Duration> e : inFlightTimeoutByPath.entrySet()) {
+            if (pathMatcher.match(e.getKey(), path)) return e.getValue();
+        }
+        return inFlightTimeout;
+    }
+
+    private void execute(String scopedKey,
+                         String claimToken,
+                         byte[] body,
+                         HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain chain) throws ServletException, IOException {
+        executions.increment();
+        ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(new ReplayableBodyRequest(request, body), wrapped);
+            int status = wrapped.getStatus();
+            // Un 5xx no es una respuesta definitiva: se libera la clave para que el reintento se ejecute
+            if (status < 500) {
+                stored = true;
+                boolean completed = store.complete(scopedKey, claimToken, new StoredResponse(
+                        status,
+                        wrapped.getContentType(),
+                        wrapped.getHeader(HttpHeaders.LOCATION),
+                        wrapped.getContentAsByteArray()
+                ), clock.instant());
+                if (!completed) {
+                    // La clave se dio por abandonada y la retomó otra petición: su resultado manda
+                    takenOver.increment();
+                    log.warn("[inventory-idempotency] key taken over while executing {} {}",
+                            request.getMethod(), request.getRequestURI());
+                }
+            }
+        } finally {
+            if (!stored) safeRelease(scopedKey, claimToken);
+            wrapped.copyBodyToResponse();
+        }
+    }
+
+    private void answerExisting(StoredRequest existing,
+                                String fingerprint,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        if (!fingerprint.equals(existing.fingerprint())) {
+            mismatches.increment();
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "inventory.idempotency.key_reused",
+                    HEADER + " was already used with a different request");
+            return;
+        }
+        if (completed != null) completed.get(existing.key(), () -> Optional.of(existing));
+
+        replays.increment();
+        StoredResponse stored = existing.response();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) response.setContentType(stored.contentType());
+        if (stored.location() != null) response.setHeader(HttpHeaders.LOCATION, stored.location());
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] payload = stored.body() == null ? new byte[0] : stored.body();
+        response.setContentLength(payload.length);
+        if (payload.length > 0) response.getOutputStream().write(payload);
+    }
+
+    private void safeRelease(String scopedKey, String claimToken) {
+        try {
+            store.release(scopedKey, claimToken);
+        } catch (RuntimeException ex) {
+            // La clave quedará IN_PROGRESS hasta inFlightTimeout; después se puede reclamar
+            log.warn("[inventory-idempotency] release failed: {}", ex.getMessage());
+        }
+    }
+
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxBodySize) return null;
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        return body.length > maxBodySize ? null : body;
+    }
+
+    private static String scope(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal == null || principal.getName() == null ? "anonymous" : principal.getName();
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) ' ');
+            sha.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                sha.update((byte) '?');
+                sha.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            sha.update((byte) '\n');
+            sha.update(body);
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeError(HttpServletRequest request,
+                            HttpServletResponse response,
+                            HttpStatus status,
+                            String code,
+                            String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new InventoryErrorResponse(
+                clock.instant().toString(),
+                status.value(),
+                status.getReasonPhrase(),
+                code,
+                message,
+                request.getRequestURI()
+        ));
+    }
+
+    /** Devuelve al controlador el cuerpo ya leído para la huella. */
+    private static final class ReplayableBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        ReplayableBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new BufferedServletInputStream(new ByteArrayInputStream(body));
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() { return body.length; }
+
+        @Override
+        public long getContentLengthLong() { return body.length; }
+    }
+
+    /**
+     * El cuerpo ya está en memoria y nunca bloquea. Con un ReadListener (lectura asíncrona) se avisa en el acto
+     * de que hay datos y, en cuanto el lector lo vacía, de que ha terminado.
+     */
+    private static final class BufferedServletInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream in;
+        private ReadListener listener;
+        private boolean allDataReadNotified;
+
+        BufferedServletInputStream(ByteArrayInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean isFinished() { return in.available() == 0; }
+
+        @Override
+        public boolean isReady() { return true; }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            if (listener == null) throw new NullPointerException("listener");
+            if (this.listener != null) throw new IllegalStateException("ReadListener already set");
+            this.listener = listener;
+            try {
+                if (!isFinished()) listener.onDataAvailable();
+                notifyIfAllDataRead();
+            } catch (IOException | RuntimeException ex) {
+                listener.onError(ex);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            notifyIfAllDataRead();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            notifyIfAllDataRead();
+            return n;
+        }
+
+        private void notifyIfAllDataRead() throws IOException {
+            if (listener == null || allDataReadNotified || !isFinished()) return;
+            allDataReadNotified = true;
+            listener.onAllDataRead();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.importer;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportLine;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.CreateInventoryItemRequest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV (RFC 4180) con cabecera: columnas por nombre, en cualquier orden, con los mismos
+ * nombres que el JSON de alta. Admite comillas dobles, {@code ""} y saltos de línea dentro de comillas.
+ */
+final class CsvReader extends InventoryImportReader {
+
+    private static final List<String> REQUIRED = List.of(
+            "sku", "name", "category", "accessorytype", "gender", "size", "fabric", "priceamount", "pricecurrency"
+    );
+
+    private Map<String, Integer> header;
+
+    CsvReader(Reader reader) {
+        super(reader);
+    }
+
+    @Override
+    protected InventoryImportLine readNext() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) return null;
+            header = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<String> missing = REQUIRED.stream().filter(c -> !header.containsKey(c)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("CSV header is missing columns " + missing);
+            }
+        }
+
+        List<String> fields;
+        long start;
+        do {
+            start = lineNumber + 1;
+            fields = readRecord();
+            if (fields == null) return null;
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        try {
+            return toLine(start, toRequest(fields));
+        } catch (RuntimeException ex) {
+            return InventoryImportLine.rejected(start, ex.getMessage());
+        }
+    }
+
+    private CreateInventoryItemRequest toRequest(List<String> f) {
+        String onHand = field(f, "initialonhand");
+        return new CreateInventoryItemRequest(
+                field(f, "sku"),
+                field(f, "name"),
+                field(f, "description"),
+                enumField(f, "category", InventoryCategory.class),
+                enumField(f, "accessorytype", AccessoryType.class),
+                enumField(f, "gender", Gender.class),
+                enumField(f, "size", Size.class),
+                enumField(f, "fabric", Fabric.class),
+                field(f, "color"),
+                new BigDecimal(required(f, "priceamount").trim()),
+                field(f, "pricecurrency"),
+                onHand == null || onHand.isBlank() ? 0 : Integer.parseInt(onHand.trim())
+        );
+    }
+
+    private String field(List<String> f, String column) {
+        Integer idx = header.get(column);
+        if (idx == null || idx >= f.size()) return null;
+        String v = f.get(idx);
+        return v.isEmpty() ? null : v;
+    }
+
+    private String required(List<String> f, String column) {
+        String v = field(f, column);
+        if (v == null || v.isBlank()) throw new IllegalArgumentException(column + " is required");
+        return v;
+    }
+
+    private <E extends Enum<E>> E enumField(List<String> f, String column, Class<E> type) {
+        String v = required(f, column).trim().toUpperCase(Locale.ROOT);
+        try {
+            return Enum.valueOf(type, v);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("invalid " + column + ": " + v);
+        }
+    }
+
+    /** Un registro completo (puede ocupar varias líneas físicas), o null en EOF. */
+    private List<String> readRecord() throws IOException {
+        int c = in.read();
+        if (c == -1) return null;
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    int n = in.read();
+                    if (n == '"') {
+                        cur.append('"');
+                    } else {
+                        quoted = false;
+                        if (n != -1) in.reset();
+                    }
+                } else {
+                    if (c == '\n') lineNumber++;
+                    cur.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                cur.append((char) c);
+            }
+            c = in.read();
+        }
+        fields.add(cur.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,97 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.importer;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportLine;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.CreateInventoryItemRequest;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.mapper.InventoryWebMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee el cuerpo de un import fila a fila (CSV con cabecera o NDJSON) y lo convierte en
+ * {@link InventoryImportLine}. Nunca carga el fichero entero: cada {@code next()} lee un registro.
+ * <p>
+ * Una fila mal formada no corta el import: se devuelve como rechazada con su número de línea.
+ */
+public abstract class InventoryImportReader implements Iterator<InventoryImportLine> {
+
+    protected final BufferedReader in;
+    protected long lineNumber;
+    private InventoryImportLine next;
+    private boolean done;
+
+    protected InventoryImportReader(Reader reader) {
+        this.in = reader instanceof BufferedReader br ? br : new BufferedReader(reader, 64 * 1024);
+    }
+
+    public static InventoryImportReader csv(Reader reader) {
+        return new CsvReader(reader);
+    }
+
+    public static InventoryImportReader ndjson(Reader reader, ObjectMapper mapper) {
+        return new NdjsonReader(reader, mapper);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = readNext();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public InventoryImportLine next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        InventoryImportLine line = next;
+        next = null;
+        return line;
+    }
+
+    /** Siguiente fila, o null al final del fichero. */
+    protected abstract InventoryImportLine readNext() throws IOException;
+
+    protected static InventoryImportLine toLine(long lineNumber, CreateInventoryItemRequest request) {
+        try {
+            return InventoryImportLine.ok(lineNumber, InventoryWebMapper.toCreateCommand(request));
+        } catch (RuntimeException ex) {
+            return InventoryImportLine.rejected(lineNumber, ex.getMessage());
+        }
+    }
+
+    private static final class NdjsonReader extends InventoryImportReader {
+
+        private final ObjectMapper mapper;
+
+        private NdjsonReader(Reader reader, ObjectMapper mapper) {
+            super(reader);
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected InventoryImportLine readNext() throws IOException {
+            String raw;
+            while ((raw = in.readLine()) != null) {
+                lineNumber++;
+                if (raw.isBlank()) continue;
+                try {
+                    return toLine(lineNumber, mapper.readValue(raw, CreateInventoryItemRequest.class));
+                } catch (JsonProcessingException ex) {
+                    return InventoryImportLine.rejected(lineNumber, "invalid json: " + ex.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+}
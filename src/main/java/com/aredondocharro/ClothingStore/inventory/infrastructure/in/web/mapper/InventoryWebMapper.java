@@ -4,7 +4,14 @@ import com.aredondocharro.ClothingStore.inventory.domain.model.*;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.*;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.*;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public final class InventoryWebMapper {
 
@@ -27,6 +34,10 @@ public final class InventoryWebMapper {
         );
     }
 
+    public static InventoryImportResponse toImportResponse(InventoryImportResult r) {
+        return new InventoryImportResponse(r.received(), r.imported(), r.conflicts(), r.rejected(), r.errors());
+    }
+
     public static UpdateInventoryItemCommand toUpdateCommand(InventoryItemId id, UpdateInventoryItemRequest r) {
         return new UpdateInventoryItemCommand(
                 id,
@@ -42,6 +53,41 @@ public final class InventoryWebMapper {
         );
     }
 
+    public static String toETag(InventoryItemDetails d) {
+        return toETag(InventoryFingerprint.ofItem(d.version(), d.updatedAt()));
+    }
+
+    // ETag fuerte: cambia con cualquier cambio de filas, updated_at (en micros, la precisión de Postgres) o versión
+    public static String toETag(InventoryFingerprint f) {
+        Instant lastModified = f.lastModified();
+        long micros = lastModified == null ? 0 : lastModified.getEpochSecond() * 1_000_000 + lastModified.getNano() / 1_000;
+        return "\"%x-%x-%x\"".formatted(f.count(), micros, f.versionSum());
+    }
+
+    /**
+     * ETag fuerte de una página de búsqueda a partir de lo que se devuelve (items, stock, totales y facetas):
+     * no cuesta ninguna consulta más que la propia búsqueda.
+     */
+    public static String toETag(PagedResponse<InventoryItemSummaryResponse> r) {
+        StringBuilder content = new StringBuilder(64 + r.items().size() * 96);
+        content.append(r.page()).append('|').append(r.size()).append('|').append(r.totalItems())
+                .append('|').append(r.countMode()).append('|').append(r.hasNext()).append('\n');
+        for (InventoryItemSummaryResponse i : r.items()) {
+            content.append(i.id()).append('|').append(i.sku()).append('|').append(i.name())
+                    .append('|').append(i.priceAmount().toPlainString()).append('|').append(i.priceCurrency())
+                    .append('|').append(i.onHand()).append('|').append(i.reserved()).append('|').append(i.status())
+                    .append('\n');
+        }
+        // Las facetas van en LinkedHashMap ordenado por enum: su toString es estable entre nodos
+        if (r.facets() != null) content.append(r.facets());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public static InventoryItemResponse toResponse(InventoryItemDetails d) {
         return new InventoryItemResponse(
                 d.id().getValue(),
@@ -79,6 +125,76 @@ public final class InventoryWebMapper {
         );
     }
 
+    public static StockAvailabilityCheckResponse toAvailabilityResponse(StockAvailabilityCheck c) {
+        return new StockAvailabilityCheckResponse(
+                c.items().stream()
+                        .map(a -> new StockAvailabilityCheckResponse.Item(
+                                a.id().getValue(),
+                                a.sku().getValue(),
+                                a.price().amount(),
+                                a.price().currency().getCurrencyCode(),
+                                a.stock().onHand(),
+                                a.stock().reserved(),
+                                a.sellable(),
+                                a.status()))
+                        .toList(),
+                c.missingIds().stream().map(InventoryItemId::getValue).toList(),
+                c.missingSkus().stream().map(Sku::getValue).toList()
+        );
+    }
+
+    public static InventoryChangesResponse toChangesResponse(InventoryChangePage p) {
+        return new InventoryChangesResponse(
+                p.changes().stream()
+                        .map(c -> new InventoryChangesResponse.Change(
+                                c.id().getValue(),
+                                c.sku().getValue(),
+                                c.name().getValue(),
+                                c.price().amount(),
+                                c.price().currency().getCurrencyCode(),
+                                c.stock().onHand(),
+                                c.stock().reserved(),
+                                c.stock().available(),
+                                c.status(),
+                                c.updatedAt(),
+                                c.version()))
+                        .toList(),
+                p.next() != null ? p.next().encode() : null,
+                p.hasMore()
+        );
+    }
+
+    public static List<ReserveStockLine> toReserveLines(ReserveStockBatchRequest r) {
+        return r.lines().stream()
+                .map(l -> new ReserveStockLine(InventoryItemId.of(l.itemId()), l.quantity()))
+                .toList();
+    }
+
+    public static List<StockAdjustmentLine> toAdjustmentLines(BulkAdjustStockRequest r) {
+        return r.lines().stream()
+                .map(l -> l.itemId() != null
+                        ? StockAdjustmentLine.byId(InventoryItemId.of(l.itemId()), l.delta(), l.reason())
+                        : StockAdjustmentLine.bySku(Sku.of(l.sku()), l.delta(), l.reason()))
+                .toList();
+    }
+
+    public static BulkAdjustStockResponse toBulkAdjustResponse(StockAdjustmentResult r) {
+        List<BulkAdjustStockResponse.Failure> failures = r.failures().stream()
+                .map(f -> new BulkAdjustStockResponse.Failure(f.index(), f.target(), f.reason()))
+                .toList();
+        return new BulkAdjustStockResponse(r.applied(), failures.size(), failures);
+    }
+
+    public static ReserveStockBatchResponse toReserveBatchResponse(
+            ReservationReference reference,
+            Map<InventoryItemId, StockReservationId> reservations
+    ) {
+        List<ReserveStockBatchResponse.Line> lines = reservations.entrySet().stream()
+                .map(e -> new ReserveStockBatchResponse.Line(e.getKey().getValue(), e.getValue().getValue()))
+                .toList();
+        return new ReserveStockBatchResponse(reference.getValue(), lines);
+    }
+
     public static InventorySearchQuery toSearchQuery(
             String text,
             InventoryCategory category,
@@ -91,12 +207,68 @@ public final class InventoryWebMapper {
     }
 
     public static PageRequest toPageRequest(int page, int size) {
+        return toPageRequest(page, size, CountMode.EXACT);
+    }
+
+    public static PageRequest toPageRequest(int page, int size, CountMode countMode) {
         if (page < 0) throw new IllegalArgumentException("page must be >= 0");
         if (size <= 0) throw new IllegalArgumentException("size must be > 0");
 
         int limit = Math.min(size, 200);
         int offset = Math.multiplyExact(page, limit); // overflow-safe
-        return PageRequest.of(offset, limit);
+        return PageRequest.of(offset, limit, countMode != null ? countMode : CountMode.EXACT);
+    }
+
+    public static CursorPageRequest toCursorPageRequest(InventorySort sort, String cursor, int size) {
+        if (size <= 0) throw new IllegalArgumentException("size must be > 0");
+
+        InventoryCursor after = (cursor == null || cursor.isBlank()) ? null : InventoryCursor.decode(cursor);
+        // Sin sort explícito, el del cursor (páginas siguientes) o el orden por defecto
+        InventorySort effectiveSort = sort != null ? sort
+                : after != null ? after.sort()
+                : InventorySort.UPDATED_AT_DESC;
+
+        return new CursorPageRequest(effectiveSort, after, Math.min(size, 200));
+    }
+
+    public static <T> PagedResponse<T> toPagedResponse(List<T> items, int page, Page<?> result) {
+        return toPagedResponse(items, page, result, null);
+    }
+
+    public static <T> PagedResponse<T> toPagedResponse(List<T> items, int page, Page<?> result, InventoryFacets facets) {
+        int size = result.request().limit();
+        InventoryFacetsResponse facetsResponse = facets != null ? toFacetsResponse(facets) : null;
+        if (!result.hasTotal()) {
+            return new PagedResponse<>(items, page, size, null, null, result.countMode().name(), result.hasNext(), facetsResponse);
+        }
+        return new PagedResponse<>(
+                items,
+                page,
+                size,
+                result.total(),
+                totalPages(result.total(), size),
+                result.countMode().name(),
+                result.hasNext(),
+                facetsResponse
+        );
+    }
+
+    public static InventoryFacetsResponse toFacetsResponse(InventoryFacets f) {
+        return new InventoryFacetsResponse(
+                byName(f.categories()),
+                byName(f.genders()),
+                byName(f.sizes()),
+                byName(f.fabrics()),
+                byName(f.statuses())
+        );
+    }
+
+    private static <E extends Enum<E>> Map<String, Long> byName(Map<E, Long> counts) {
+        Map<String, Long> out = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> out.put(e.getKey().name(), e.getValue()));
+        return out;
     }
 
     public static int totalPages(long totalItems, int size) {
@@ -0,0 +1,374 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.stream;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.GetStockAvailabilityUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAvailability;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.StockAvailabilityEventResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fan-out de disponibilidad por Server-Sent Events.
+ * <p>
+ * Las conexiones son async de Servlet: una suscripción ociosa no ocupa hilo. Los eventos de stock
+ * solo marcan el item; cada {@code flush-interval} se leen los items marcados en una sola consulta
+ * y se envía como mucho una actualización por item (coalescing). Los envíos van en virtual threads,
+ * así un cliente lento no frena al resto.
+ * <p>
+ * Orden: cada suscriptor tiene una cola FIFO con un único escritor. Cada lectura (flush o snapshot
+ * inicial) toma un número de secuencia antes de consultar, y el suscriptor descarta los eventos de un
+ * item leídos antes que el último que ya encoló: un snapshot lento nunca pisa un flush más nuevo.
+ * El snapshot se lee sin lock, tras registrar al suscriptor, así que cualquier cambio posterior
+ * también le llega por el flush.
+ * <p>
+ * Cada cola está acotada: un cliente que no consume ({@code maxPendingPerSubscriber} envíos pendientes)
+ * se desconecta y reconecta por su cuenta (EventSource), en vez de acumular memoria en el nodo.
+ * <p>
+ * Los eventos de stock son locales: un cambio confirmado en otro nodo no marca nada aquí. Cada
+ * {@code resync-interval} se releen todos los items vigilados (por lotes) y se envían solo los que difieren
+ * de lo último enviado, así que el retraso de un cambio remoto está acotado por ese intervalo.
+ */
+@Slf4j
+public class StockAvailabilityStreamHub implements AutoCloseable {
+
+    static final String EVENT_NAME = "availability";
+    private static final int RESYNC_BATCH_SIZE = 500;
+
+    private final GetStockAvailabilityUseCase availability;
+    private final Duration emitterTimeout;
+    private final int maxItemsPerSubscription;
+    private final int maxSubscribers;
+    private final int maxPendingPerSubscriber;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<Subscriber>> subscribersByItem = new ConcurrentHashMap<>();
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+    // Última disponibilidad leída por item vigilado: el resync solo envía lo que difiere
+    private final Map<UUID, StockAvailabilityEventResponse> lastKnown = new ConcurrentHashMap<>();
+    // Serializa los flushes entre sí (los snapshots iniciales no lo toman)
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Orden de las lecturas: una lectura con número mayor empezó después y ve datos al menos igual de nuevos
+    private final AtomicLong readSeq = new AtomicLong();
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder superseded = new LongAdder();
+    private final LongAdder resynced = new LongAdder();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public StockAvailabilityStreamHub(GetStockAvailabilityUseCase availability,
+                                      Duration emitterTimeout,
+                                      int maxItemsPerSubscription,
+                                      int maxSubscribers,
+                                      int maxPendingPerSubscriber) {
+        if (maxPendingPerSubscriber < 1) throw new IllegalArgumentException("maxPendingPerSubscriber must be >= 1");
+        this.availability = availability;
+        this.emitterTimeout = emitterTimeout;
+        this.maxItemsPerSubscription = maxItemsPerSubscription;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPendingPerSubscriber = maxPendingPerSubscriber;
+    }
+
+    @Override
+    public void close() {
+        List.copyOf(subscribers).forEach(s -> {
+            unregister(s);
+            s.complete();
+        });
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Collection<InventoryItemId> ids) {
+        if (ids == null || ids.isEmpty()) throw new IllegalArgumentException("at least one item id is required");
+        Set<UUID> itemIds = new HashSet<>();
+        ids.forEach(id -> itemIds.add(id.getValue()));
+        if (itemIds.size() > maxItemsPerSubscription) {
+            throw new IllegalArgumentException("at most " + maxItemsPerSubscription + " items per subscription");
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "availability stream is at capacity");
+        }
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeout.toMillis()), Set.copyOf(itemIds));
+        subscriber.emitter.onCompletion(() -> unregister(subscriber));
+        subscriber.emitter.onTimeout(() -> {
+            unregister(subscriber);
+            subscriber.complete();
+        });
+        subscriber.emitter.onError(ex -> unregister(subscriber));
+
+        // Estado inicial: el cliente pinta la disponibilidad sin esperar al primer cambio.
+        // Registrado antes de leer: un cambio que el snapshot no vea llega por el siguiente flush
+        register(subscriber);
+        try {
+            long seq = readSeq.incrementAndGet();
+            List<StockAvailabilityEventResponse> initial = availability.getAvailability(ids).stream()
+                    .map(StockAvailabilityStreamHub::toEvent)
+                    .toList();
+            initial.forEach(e -> lastKnown.putIfAbsent(e.itemId(), e));
+            subscriber.enqueue(seq, initial);
+        } catch (RuntimeException ex) {
+            unregister(subscriber);
+            throw ex;
+        }
+        return subscriber.emitter;
+    }
+
+    /** Llamado tras el commit de cualquier cambio de stock; sin suscriptores del item no cuesta nada. */
+    public void markChanged(InventoryItemId id) {
+        if (subscribersByItem.containsKey(id.getValue())) changed.add(id.getValue());
+    }
+
+    public int getSubscriberCount() { return subscribers.size(); }
+
+    public long getFlushCount() { return flushes.sum(); }
+
+    /** Actualizaciones entregadas (una por item y suscriptor). */
+    public long getSentCount() { return sent.sum(); }
+
+    /** Suscriptores descartados por error de escritura (cliente desconectado). */
+    public long getDroppedCount() { return dropped.sum(); }
+
+    /** Suscriptores desconectados por no consumir su cola a tiempo. */
+    public long getSlowCount() { return slow.sum(); }
+
+    /** Eventos descartados porque el suscriptor ya tenía encolada una lectura más nueva del item. */
+    public long getSupersededCount() { return superseded.sum(); }
+
+    /** Items que el resync encontró cambiados sin evento local (escrituras de otros nodos). */
+    public long getResyncedCount() { return resynced.sum(); }
+
+    /** Envía lo acumulado desde el último flush. */
+    public void flush() {
+        if (changed.isEmpty()) return;
+
+        flushLock.lock();
+        try {
+            List<UUID> ids = new ArrayList<>(changed);
+            ids.forEach(changed::remove);
+            publish(ids, false);
+            flushes.increment();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Relee todos los items vigilados y envía los que cambiaron desde la última lectura. */
+    public void resync() {
+        List<UUID> watched = List.copyOf(subscribersByItem.keySet());
+        for (int from = 0; from < watched.size(); from += RESYNC_BATCH_SIZE) {
+            List<UUID> batch = watched.subList(from, Math.min(from + RESYNC_BATCH_SIZE, watched.size()));
+            flushLock.lock();
+            try {
+                resynced.add(publish(batch, true));
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.stream.flush-interval:1s}")
+    public void scheduledFlush() {
+        Set<UUID> pending = Set.copyOf(changed);
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            changed.addAll(pending);
+            log.warn("[availability-stream] flush failed ({} items requeued): {}", pending.size(), ex.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.inventory.stream.resync-interval:5s}",
+            initialDelayString = "${app.inventory.stream.resync-interval:5s}"
+    )
+    public void scheduledResync() {
+        try {
+            resync();
+        } catch (RuntimeException ex) {
+            // Nunca caemos el scheduler: la siguiente pasada vuelve a leer todo
+            log.warn("[availability-stream] resync failed: {}", ex.getMessage());
+        }
+    }
+
+    // Comentario SSE: mantiene viva la conexión en proxies y detecta clientes que se fueron
+    @Scheduled(
+            fixedDelayString = "${app.inventory.stream.heartbeat-interval:20s}",
+            initialDelayString = "${app.inventory.stream.heartbeat-interval:20s}"
+    )
+    public void heartbeat() {
+        for (Subscriber s : subscribers) {
+            s.enqueueHeartbeat();
+        }
+    }
+
+    private void register(Subscriber s) {
+        subscribers.add(s);
+        for (UUID id : s.itemIds) {
+            subscribersByItem.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(s);
+        }
+    }
+
+    private void unregister(Subscriber s) {
+        if (!subscribers.remove(s)) return;
+        for (UUID id : s.itemIds) {
+            subscribersByItem.computeIfPresent(id, (k, set) -> {
+                set.remove(s);
+                if (!set.isEmpty()) return set;
+                lastKnown.remove(k);
+                return null;
+            });
+        }
+    }
+
+    // Bajo flushLock. Lee y encola por suscriptor; onlyChanged = solo lo que difiere de lo último leído.
+    // Devuelve cuántos items se enviaron.
+    private int publish(List<UUID> ids, boolean onlyChanged) {
+        long seq = readSeq.incrementAndGet();
+        List<StockAvailability> current = availability.getAvailability(ids.stream().map(InventoryItemId::of).toList());
+        Map<Subscriber, List<StockAvailabilityEventResponse>> bySubscriber = new HashMap<>();
+        int published = 0;
+        for (StockAvailability a : current) {
+            StockAvailabilityEventResponse event = toEvent(a);
+            Set<Subscriber> watching = subscribersByItem.get(a.id().getValue());
+            if (watching == null) continue;
+            StockAvailabilityEventResponse previous = lastKnown.put(event.itemId(), event);
+            if (onlyChanged && event.equals(previous)) continue;
+            published++;
+            for (Subscriber s : watching) {
+                bySubscriber.computeIfAbsent(s, k -> new ArrayList<>()).add(event);
+            }
+        }
+        bySubscriber.forEach((s, events) -> s.enqueue(seq, events));
+        return published;
+    }
+
+    private static StockAvailabilityEventResponse toEvent(StockAvailability a) {
+        return new StockAvailabilityEventResponse(a.id().getValue(), a.sellable(), a.status());
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<UUID> itemIds;
+        // Envíos pendientes en orden de llegada; un solo virtual thread los escribe a la vez
+        private final Queue<IoAction> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Secuencia de la última lectura encolada por item (guardado por this)
+        private final Map<UUID, Long> lastRead = new HashMap<>();
+
+        private Subscriber(SseEmitter emitter, Set<UUID> itemIds) {
+            this.emitter = emitter;
+            this.itemIds = itemIds;
+        }
+
+        // synchronized: el filtro por secuencia y el orden en la cola deben coincidir
+        synchronized void enqueue(long seq, List<StockAvailabilityEventResponse> events) {
+            List<StockAvailabilityEventResponse> fresh = new ArrayList<>(events.size());
+            for (StockAvailabilityEventResponse e : events) {
+                Long last = lastRead.get(e.itemId());
+                if (last != null && last > seq) {
+                    superseded.increment();
+                    continue;
+                }
+                lastRead.put(e.itemId(), seq);
+                fresh.add(e);
+            }
+            if (fresh.isEmpty()) return;
+            submit(() -> {
+                for (StockAvailabilityEventResponse e : fresh) {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(e, MediaType.APPLICATION_JSON));
+                    sent.increment();
+                }
+            });
+        }
+
+        void enqueueHeartbeat() {
+            submit(() -> emitter.send(SseEmitter.event().comment("keep-alive")));
+        }
+
+        void complete() {
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // ya cerrado por el contenedor
+            }
+        }
+
+        private void submit(IoAction action) {
+            if (!subscribers.contains(this)) return;
+            if (pending.incrementAndGet() > maxPendingPerSubscriber) {
+                // Cliente que no consume: se le cierra la conexión antes que acumular su cola en memoria
+                pending.decrementAndGet();
+                slow.increment();
+                unregister(this);
+                outbox.clear();
+                complete();
+                return;
+            }
+            outbox.add(action);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    // Hub cerrado
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                IoAction action;
+                while ((action = outbox.poll()) != null) {
+                    pending.decrementAndGet();
+                    if (!write(action)) {
+                        outbox.clear();
+                        break;
+                    }
+                }
+                draining.set(false);
+                // Algo pudo encolarse entre el último poll y soltar el flag
+            } while (!outbox.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private boolean write(IoAction action) {
+            if (!subscribers.contains(this)) return false;
+            try {
+                action.run();
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                dropped.increment();
+                unregister(this);
+                complete();
+                return false;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,116 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache LRU acotada por tamaño y TTL. La carga se hace fuera del lock; si esa misma clave se invalidó
+ * mientras se cargaba, el valor no se guarda (evita repoblar con datos anteriores a un commit).
+ * Invalidar una clave no descarta las cargas en curso de las demás.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {}
+
+    // Cargas en curso de una clave; invalidarla la desengancha del mapa y sus cargas ya no guardan
+    private static final class Load {
+        int pending;
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> map;
+    private final HashMap<K, Load> loads = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BoundedTtlCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1");
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be > 0");
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= BoundedTtlCache.this.maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public Optional<V> get(K key, Supplier<Optional<V>> loader) {
+        Load load;
+        synchronized (this) {
+            Entry<V> e = map.get(key);
+            if (e != null) {
+                if (e.expiresAtMillis() > clock.millis()) {
+                    hits.increment();
+                    return Optional.of(e.value());
+                }
+                map.remove(key);
+                expirations.increment();
+            }
+            misses.increment();
+            load = loads.computeIfAbsent(key, k -> new Load());
+            load.pending++;
+        }
+
+        Optional<V> loaded = Optional.empty();
+        try {
+            loaded = loader.get();
+            return loaded;
+        } finally {
+            synchronized (this) {
+                boolean current = loads.get(key) == load;
+                if (current && loaded.isPresent()) {
+                    map.put(key, new Entry<>(loaded.get(), clock.millis() + ttlMillis));
+                }
+                if (--load.pending == 0 && current) loads.remove(key);
+            }
+        }
+    }
+
+    /** Solo consulta: nunca llama al loader ni cuenta como hit/miss. */
+    public synchronized Optional<V> peek(K key) {
+        Entry<V> e = map.get(key);
+        if (e == null || e.expiresAtMillis() <= clock.millis()) return Optional.empty();
+        return Optional.of(e.value());
+    }
+
+    public synchronized void invalidate(K key) {
+        loads.remove(key);
+        if (map.remove(key) != null) invalidations.increment();
+    }
+
+    public synchronized void invalidateAll() {
+        loads.clear();
+        invalidations.add(map.size());
+        map.clear();
+    }
+
+    public synchronized int size() { return map.size(); }
+
+    public long getHitCount() { return hits.sum(); }
+
+    public long getMissCount() { return misses.sum(); }
+
+    /** Entries dropped because the cache was full (LRU). */
+    public long getEvictionCount() { return evictions.sum(); }
+
+    public long getExpirationCount() { return expirations.sum(); }
+
+    public long getInvalidationCount() { return invalidations.sum(); }
+}
@@ -0,0 +1,206 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPage;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangeCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFacets;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFingerprint;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.Page;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.PageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryAvailabilityView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryChangeView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache delante de {@code findById}/{@code findBySku}.
+ * <p>
+ * Solo se sirve desde memoria fuera de transacciones de escritura: los read-modify-write
+ * necesitan la versión actual de la fila. Cada escritura invalida el item tras el commit,
+ * y los eventos de inventario hacen lo mismo para los cambios que no pasan por aquí.
+ */
+@RequiredArgsConstructor
+public class CachingInventoryItemRepository implements InventoryItemRepositoryPort {
+
+    private final InventoryItemRepositoryPort delegate;
+    private final BoundedTtlCache<InventoryItemId, InventoryItem> byId;
+    private final BoundedTtlCache<Sku, InventoryItemId> skuIndex;
+
+    @Override
+    public Optional<InventoryItem> findById(InventoryItemId id) {
+        if (!cacheable()) return delegate.findById(id);
+        return byId.get(id, () -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<InventoryItem> findBySku(Sku sku) {
+        if (!cacheable()) return delegate.findBySku(sku);
+
+        Optional<InventoryItemId> id = skuIndex.get(sku, () -> delegate.findBySku(sku).map(InventoryItem::id));
+        Optional<InventoryItem> item = id.flatMap(this::findById);
+        if (item.isPresent() && !item.get().sku().equals(sku)) {
+            // El item cambió de SKU: índice obsoleto
+            skuIndex.invalidate(sku);
+            return delegate.findBySku(sku);
+        }
+        return item;
+    }
+
+    @Override
+    public Map<Sku, InventoryItemId> findIdsBySkus(Collection<Sku> skus) {
+        return delegate.findIdsBySkus(skus);
+    }
+
+    @Override
+    public List<InventoryAvailabilityView> findAvailability(Collection<InventoryItemId> ids) {
+        return delegate.findAvailability(ids);
+    }
+
+    @Override
+    public List<InventoryAvailabilityView> findAvailability(Collection<InventoryItemId> ids, Collection<Sku> skus) {
+        return delegate.findAvailability(ids, skus);
+    }
+
+    @Override
+    public List<InventoryChangeView> findChangesAfter(InventoryChangeCursor after, Instant before, int limit) {
+        return delegate.findChangesAfter(after, before, limit);
+    }
+
+    @Override
+    public Optional<Instant> findOldestOpenWriteStart() {
+        return delegate.findOldestOpenWriteStart();
+    }
+
+    // Sin cargar la entidad: si el item está en memoria la huella sale de ahí (misma versión que serviría findById)
+    @Override
+    public Optional<InventoryFingerprint> findFingerprint(InventoryItemId id) {
+        if (cacheable()) {
+            Optional<InventoryItem> cached = byId.peek(id);
+            if (cached.isPresent()) return cached.map(i -> InventoryFingerprint.ofItem(i.version(), i.updatedAt()));
+        }
+        return delegate.findFingerprint(id);
+    }
+
+    @Override
+    public void save(InventoryItem item) {
+        delegate.save(item);
+        invalidateAfterCommit(item.id());
+    }
+
+    @Override
+    public boolean tryReserve(InventoryItemId id, int qty, Instant now) {
+        boolean updated = delegate.tryReserve(id, qty, now);
+        if (updated) invalidateAfterCommit(id);
+        return updated;
+    }
+
+    @Override
+    public boolean tryRelease(InventoryItemId id, int qty, Instant now) {
+        boolean updated = delegate.tryRelease(id, qty, now);
+        if (updated) invalidateAfterCommit(id);
+        return updated;
+    }
+
+    @Override
+    public boolean tryConsume(InventoryItemId id, int qty, Instant now) {
+        boolean updated = delegate.tryConsume(id, qty, now);
+        if (updated) invalidateAfterCommit(id);
+        return updated;
+    }
+
+    @Override
+    public boolean tryReserve(StockReservation reservation) {
+        boolean updated = delegate.tryReserve(reservation);
+        if (updated) invalidateAfterCommit(reservation.itemId());
+        return updated;
+    }
+
+    @Override
+    public boolean tryRelease(StockReservation released) {
+        boolean updated = delegate.tryRelease(released);
+        if (updated) invalidateAfterCommit(released.itemId());
+        return updated;
+    }
+
+    @Override
+    public boolean tryConsume(StockReservation consumed) {
+        boolean updated = delegate.tryConsume(consumed);
+        if (updated) invalidateAfterCommit(consumed.itemId());
+        return updated;
+    }
+
+    @Override
+    public List<InventoryItemId> tryReserveAll(List<ReserveStockLine> lines, Instant now) {
+        List<InventoryItemId> rejected = delegate.tryReserveAll(lines, now);
+        lines.forEach(l -> invalidateAfterCommit(l.itemId()));
+        return rejected;
+    }
+
+    @Override
+    public List<InventoryItemId> tryReleaseAll(Map<InventoryItemId, Integer> quantities, Instant now) {
+        List<InventoryItemId> rejected = delegate.tryReleaseAll(quantities, now);
+        quantities.keySet().forEach(this::invalidateAfterCommit);
+        return rejected;
+    }
+
+    @Override
+    public List<Integer> tryAdjustOnHandAll(List<StockAdjustmentLine> lines, Instant now) {
+        List<Integer> rejected = delegate.tryAdjustOnHandAll(lines, now);
+        lines.forEach(l -> invalidateAfterCommit(l.itemId()));
+        return rejected;
+    }
+
+    @Override
+    public Page<InventoryItemSummaryView> search(InventorySearchQuery query, PageRequest pageRequest) {
+        return delegate.search(query, pageRequest);
+    }
+
+    @Override
+    public CursorPage<InventoryItemSummaryView> searchAfter(InventorySearchQuery query, CursorPageRequest pageRequest) {
+        return delegate.searchAfter(query, pageRequest);
+    }
+
+    @Override
+    public InventoryFacets countFacets(InventorySearchQuery query) {
+        return delegate.countFacets(query);
+    }
+
+    public void invalidate(InventoryItemId id) {
+        byId.invalidate(id);
+    }
+
+    private static boolean cacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    // Invalidar antes del commit dejaría que otra lectura repoblara la cache con el valor anterior
+    private void invalidateAfterCommit(InventoryItemId id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            byId.invalidate(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                byId.invalidate(id);
+            }
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CountMode;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFacets;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.Page;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.PageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Índice de bitmaps en memoria del catálogo: un bitset por valor de cada enum filtrable.
+ * <p>
+ * Se construye al arrancar y se mantiene con los ids marcados por eventos, que se recargan
+ * en bloque cada {@code refresh-interval} (escritores serializados que publican snapshots inmutables).
+ * <p>
+ * Los eventos son locales: lo que escriben otros nodos lo encuentra {@link #pollChanges()} cada
+ * {@code poll-interval}, pidiendo los ids con updated_at posterior a una marca. La marca solo avanza hasta el
+ * inicio de la transacción de escritura más antigua aún abierta (menos {@code settleLag}), así que un commit
+ * lento con un updated_at antiguo no queda detrás. Un rebuild completo periódico corrige cualquier otro hueco.
+ */
+@Slf4j
+public class BitmapCatalogIndex {
+
+    private final CatalogRowSource source;
+    private final Clock clock;
+    private final Duration settleLag;
+
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // Solo se toca bajo el monitor del índice (rebuildAll / refreshDirty)
+    private final Map<UUID, CatalogRow> rowsById = new HashMap<>();
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+    private volatile boolean ready;
+    private volatile boolean rebuildRequested;
+    // Todo lo escrito con updated_at <= watermark ya está en el índice
+    private volatile Instant watermark = Instant.MIN;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder polledChanges = new LongAdder();
+
+    public BitmapCatalogIndex(CatalogRowSource source, Clock clock, Duration settleLag) {
+        if (settleLag == null || settleLag.isNegative()) throw new IllegalArgumentException("settleLag must be >= 0");
+        this.source = source;
+        this.clock = clock;
+        this.settleLag = settleLag;
+    }
+
+    // Arranca con un build completo y lo repite como red de seguridad
+    @Scheduled(
+            fixedDelayString = "${app.inventory.catalog-index.full-rebuild-interval:10m}",
+            initialDelayString = "${app.inventory.catalog-index.initial-delay:0s}"
+    )
+    public void scheduledRebuild() {
+        safeRebuildAll();
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.catalog-index.refresh-interval:200ms}")
+    public void scheduledRefresh() {
+        if (rebuildRequested) {
+            rebuildRequested = false;
+            safeRebuildAll();
+            return;
+        }
+        safeRefreshDirty();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.inventory.catalog-index.poll-interval:2s}",
+            initialDelayString = "${app.inventory.catalog-index.poll-interval:2s}"
+    )
+    public void scheduledPoll() {
+        try {
+            pollChanges();
+        } catch (RuntimeException ex) {
+            // La marca no avanzó: la siguiente pasada vuelve a pedir lo mismo
+            log.warn("[catalog-index] change poll failed: {}", ex.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markDirty(InventoryItemId id) {
+        dirty.add(id.getValue());
+    }
+
+    /** Cambios masivos (import): más barato recargar todo que marcar ids uno a uno. Se aplica en el siguiente refresh. */
+    public void requestRebuild() {
+        rebuildRequested = true;
+    }
+
+    public Page<InventoryItemSummaryView> search(InventorySearchQuery query, PageRequest pageRequest) {
+        queries.increment();
+        CatalogSnapshot current = snapshot;
+        BitSet match = current.match(query);
+
+        List<InventoryItemSummaryView> items = current.page(match, pageRequest.offset(), pageRequest.limit());
+        // El total sale gratis (cardinalidad): siempre exacto, pida lo que pida el caller
+        long total = match.cardinality();
+        boolean hasNext = pageRequest.offset() + (long) items.size() < total;
+        return new Page<>(items, total, pageRequest, CountMode.EXACT, hasNext);
+    }
+
+    public InventoryFacets countFacets(InventorySearchQuery query) {
+        queries.increment();
+        CatalogSnapshot current = snapshot;
+        return current.facets(current.match(query));
+    }
+
+    public int size() { return snapshot.size(); }
+
+    public long getQueryCount() { return queries.sum(); }
+
+    public long getRefreshCount() { return refreshes.sum(); }
+
+    /** Ids marcados por el sondeo de cambios (incluye los de otros nodos y las relecturas dentro del settleLag). */
+    public long getPolledChangeCount() { return polledChanges.sum(); }
+
+    /** Recarga todo el catálogo. */
+    public synchronized void rebuildAll() {
+        long start = System.nanoTime();
+        // Antes de leer: lo que haga commit durante la carga con un updated_at posterior lo recoge el sondeo
+        Instant bound = safeBound();
+        List<CatalogRow> rows = source.loadAll();
+        rowsById.clear();
+        rows.forEach(r -> rowsById.put(r.view().id().getValue(), r));
+        snapshot = CatalogSnapshot.build(rowsById.values());
+        watermark = bound;
+        ready = true;
+        refreshes.increment();
+        log.info("[catalog-index] rebuilt rows={} in {}ms", rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Aplica los ids marcados desde el último refresh. */
+    public synchronized void refreshDirty() {
+        if (!ready || dirty.isEmpty()) return;
+
+        List<UUID> ids = new ArrayList<>(dirty);
+        ids.forEach(dirty::remove);
+
+        List<CatalogRow> rows = source.loadByIds(ids);
+        // Los que no vuelven ya no existen
+        ids.forEach(rowsById::remove);
+        rows.forEach(r -> rowsById.put(r.view().id().getValue(), r));
+        snapshot = CatalogSnapshot.build(rowsById.values());
+        refreshes.increment();
+        log.debug("[catalog-index] refreshed ids={}", ids.size());
+    }
+
+    /**
+     * Marca como sucios los ids escritos desde la marca, los haya escrito este nodo u otro; los aplica el
+     * siguiente refresh. Lo posterior al nuevo límite seguro se vuelve a pedir en la siguiente pasada.
+     */
+    public synchronized void pollChanges() {
+        if (!ready) return;
+        Instant bound = safeBound();
+        List<UUID> ids = source.loadIdsUpdatedAfter(watermark);
+        dirty.addAll(ids);
+        polledChanges.add(ids.size());
+        if (bound.isAfter(watermark)) watermark = bound;
+    }
+
+    private Instant safeBound() {
+        Instant bound = clock.instant();
+        Instant oldestOpenWrite = source.findOldestOpenWriteStart().orElse(null);
+        if (oldestOpenWrite != null && oldestOpenWrite.isBefore(bound)) bound = oldestOpenWrite;
+        return bound.minus(settleLag);
+    }
+
+    private void safeRebuildAll() {
+        try {
+            rebuildAll();
+        } catch (RuntimeException ex) {
+            // Si el primer build falla seguimos sirviendo desde Postgres (ready=false)
+            log.warn("[catalog-index] rebuild failed: {}", ex.getMessage());
+        }
+    }
+
+    private void safeRefreshDirty() {
+        List<UUID> pending = List.copyOf(dirty);
+        try {
+            refreshDirty();
+        } catch (RuntimeException ex) {
+            dirty.addAll(pending);
+            log.warn("[catalog-index] refresh failed ({} ids requeued): {}", pending.size(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Sku;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPage;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangeCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFacets;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFingerprint;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.Page;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.PageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryAvailabilityView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryChangeView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sirve {@code search} y {@code countFacets} desde el índice de bitmaps cuando la búsqueda
+ * es solo por enums; el texto, la paginación por cursor y todas las escrituras van al delegate.
+ */
+@RequiredArgsConstructor
+public class CatalogIndexedInventoryRepository implements InventoryItemRepositoryPort {
+
+    private final InventoryItemRepositoryPort delegate;
+    private final BitmapCatalogIndex index;
+
+    @Override
+    public Optional<InventoryItem> findById(InventoryItemId id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<InventoryItem> findBySku(Sku sku) {
+        return delegate.findBySku(sku);
+    }
+
+    @Override
+    public Map<Sku, InventoryItemId> findIdsBySkus(Collection<Sku> skus) {
+        return delegate.findIdsBySkus(skus);
+    }
+
+    @Override
+    public List<InventoryAvailabilityView> findAvailability(Collection<InventoryItemId> ids) {
+        return delegate.findAvailability(ids);
+    }
+
+    @Override
+    public List<InventoryAvailabilityView> findAvailability(Collection<InventoryItemId> ids, Collection<Sku> skus) {
+        return delegate.findAvailability(ids, skus);
+    }
+
+    @Override
+    public List<InventoryChangeView> findChangesAfter(InventoryChangeCursor after, Instant before, int limit) {
+        return delegate.findChangesAfter(after, before, limit);
+    }
+
+    @Override
+    public Optional<Instant> findOldestOpenWriteStart() {
+        return delegate.findOldestOpenWriteStart();
+    }
+
+    @Override
+    public Optional<InventoryFingerprint> findFingerprint(InventoryItemId id) {
+        return delegate.findFingerprint(id);
+    }
+
+    @Override
+    public void save(InventoryItem item) {
+        delegate.save(item);
+        markDirtyAfterCommit(item.id());
+    }
+
+    @Override
+    public boolean tryReserve(InventoryItemId id, int qty, Instant now) {
+        boolean updated = delegate.tryReserve(id, qty, now);
+        if (updated) markDirtyAfterCommit(id);
+        return updated;
+    }
+
+    @Override
+    public boolean tryRelease(InventoryItemId id, int qty, Instant now) {
+        boolean updated = delegate.tryRelease(id, qty, now);
+        if (updated) markDirtyAfterCommit(id);
+        return updated;
+    }
+
+    @Override
+    public boolean tryConsume(InventoryItemId id, int qty, Instant now) {
+        boolean updated = delegate.tryConsume(id, qty, now);
+        if (updated) markDirtyAfterCommit(id);
+        return updated;
+    }
+
+    @Override
+    public boolean tryReserve(StockReservation reservation) {
+        boolean updated = delegate.tryReserve(reservation);
+        if (updated) markDirtyAfterCommit(reservation.itemId());
+        return updated;
+    }
+
+    @Override
+    public boolean tryRelease(StockReservation released) {
+        boolean updated = delegate.tryRelease(released);
+        if (updated) markDirtyAfterCommit(released.itemId());
+        return updated;
+    }
+
+    @Override
+    public boolean tryConsume(StockReservation consumed) {
+        boolean updated = delegate.tryConsume(consumed);
+        if (updated) markDirtyAfterCommit(consumed.itemId());
+        return updated;
+    }
+
+    @Override
+    public List<InventoryItemId> tryReserveAll(List<ReserveStockLine> lines, Instant now) {
+        List<InventoryItemId> rejected = delegate.tryReserveAll(lines, now);
+        lines.forEach(l -> markDirtyAfterCommit(l.itemId()));
+        return rejected;
+    }
+
+    @Override
+    public List<InventoryItemId> tryReleaseAll(Map<InventoryItemId, Integer> quantities, Instant now) {
+        List<InventoryItemId> rejected = delegate.tryReleaseAll(quantities, now);
+        quantities.keySet().forEach(this::markDirtyAfterCommit);
+        return rejected;
+    }
+
+    @Override
+    public List<Integer> tryAdjustOnHandAll(List<StockAdjustmentLine> lines, Instant now) {
+        List<Integer> rejected = delegate.tryAdjustOnHandAll(lines, now);
+        lines.forEach(l -> markDirtyAfterCommit(l.itemId()));
+        return rejected;
+    }
+
+    @Override
+    public Page<InventoryItemSummaryView> search(InventorySearchQuery query, PageRequest pageRequest) {
+        if (!servable(query)) return delegate.search(query, pageRequest);
+        return index.search(query, pageRequest);
+    }
+
+    @Override
+    public CursorPage<InventoryItemSummaryView> searchAfter(InventorySearchQuery query, CursorPageRequest pageRequest) {
+        return delegate.searchAfter(query, pageRequest);
+    }
+
+    @Override
+    public InventoryFacets countFacets(InventorySearchQuery query) {
+        if (!servable(query)) return delegate.countFacets(query);
+        return index.countFacets(query);
+    }
+
+    private boolean servable(InventorySearchQuery query) {
+        return index.isReady() && (query == null || query.text() == null || query.text().isBlank());
+    }
+
+    private void markDirtyAfterCommit(InventoryItemId id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index.markDirty(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index.markDirty(id);
+            }
+        });
+    }
+}
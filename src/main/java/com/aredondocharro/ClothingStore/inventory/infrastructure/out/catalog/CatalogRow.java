@@ -0,0 +1,22 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.Fabric;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Gender;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryCategory;
+import com.aredondocharro.ClothingStore.inventory.domain.model.Size;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+
+import java.time.Instant;
+
+/**
+ * Fila del snapshot: la vista de resumen más las columnas de filtro, orden y versión.
+ */
+public record CatalogRow(
+        InventoryItemSummaryView view,
+        InventoryCategory category,
+        Gender gender,
+        Size size,
+        Fabric fabric,
+        Instant updatedAt,
+        long version
+) {}
@@ -0,0 +1,20 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CatalogRowSource {
+    List<CatalogRow> loadAll();
+
+    // Los ids que no existen simplemente no aparecen
+    List<CatalogRow> loadByIds(Collection<UUID> ids);
+
+    // Ids escritos (por cualquier nodo) con updated_at posterior a after
+    List<UUID> loadIdsUpdatedAfter(Instant after);
+
+    // Inicio de la transacción de escritura más antigua aún abierta
+    Optional<Instant> findOldestOpenWriteStart();
+}
@@ -0,0 +1,129 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFacets;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+
+import java.util.*;
+
+/**
+ * Snapshot inmutable y columnar del catálogo. Las filas se guardan ya en el orden del listado
+ * (updated_at desc, id asc), así recorrer los bits de un filtro en orden ascendente es recorrer la página.
+ */
+final class CatalogSnapshot {
+
+    // Mismo orden que Postgres para uuid (bytes sin signo), no el de UUID.compareTo
+    static final Comparator<CatalogRow> LISTING_ORDER = Comparator
+            .comparing(CatalogRow::updatedAt, Comparator.reverseOrder())
+            .thenComparing(r -> r.view().id().getValue(), CatalogSnapshot::compareUuidUnsigned);
+
+    static final CatalogSnapshot EMPTY = build(List.of());
+
+    private final InventoryItemSummaryView[] rows;
+    private final BitSet all;
+    private final EnumMap<InventoryCategory, BitSet> categories;
+    private final EnumMap<Gender, BitSet> genders;
+    private final EnumMap<Size, BitSet> sizes;
+    private final EnumMap<Fabric, BitSet> fabrics;
+    private final EnumMap<ItemStatus, BitSet> statuses;
+
+    private CatalogSnapshot(InventoryItemSummaryView[] rows, BitSet all,
+                            EnumMap<InventoryCategory, BitSet> categories,
+                            EnumMap<Gender, BitSet> genders,
+                            EnumMap<Size, BitSet> sizes,
+                            EnumMap<Fabric, BitSet> fabrics,
+                            EnumMap<ItemStatus, BitSet> statuses) {
+        this.rows = rows;
+        this.all = all;
+        this.categories = categories;
+        this.genders = genders;
+        this.sizes = sizes;
+        this.fabrics = fabrics;
+        this.statuses = statuses;
+    }
+
+    static CatalogSnapshot build(Collection<CatalogRow> source) {
+        List<CatalogRow> sorted = new ArrayList<>(source);
+        sorted.sort(LISTING_ORDER);
+
+        InventoryItemSummaryView[] rows = new InventoryItemSummaryView[sorted.size()];
+        BitSet all = new BitSet(sorted.size());
+        EnumMap<InventoryCategory, BitSet> categories = new EnumMap<>(InventoryCategory.class);
+        EnumMap<Gender, BitSet> genders = new EnumMap<>(Gender.class);
+        EnumMap<Size, BitSet> sizes = new EnumMap<>(Size.class);
+        EnumMap<Fabric, BitSet> fabrics = new EnumMap<>(Fabric.class);
+        EnumMap<ItemStatus, BitSet> statuses = new EnumMap<>(ItemStatus.class);
+
+        for (int slot = 0; slot < rows.length; slot++) {
+            CatalogRow r = sorted.get(slot);
+            rows[slot] = r.view();
+            all.set(slot);
+            categories.computeIfAbsent(r.category(), k -> new BitSet()).set(slot);
+            genders.computeIfAbsent(r.gender(), k -> new BitSet()).set(slot);
+            sizes.computeIfAbsent(r.size(), k -> new BitSet()).set(slot);
+            fabrics.computeIfAbsent(r.fabric(), k -> new BitSet()).set(slot);
+            statuses.computeIfAbsent(r.view().status(), k -> new BitSet()).set(slot);
+        }
+        return new CatalogSnapshot(rows, all, categories, genders, sizes, fabrics, statuses);
+    }
+
+    int size() {
+        return rows.length;
+    }
+
+    /** AND de los bitsets de cada filtro presente (el texto no se indexa aquí). */
+    BitSet match(InventorySearchQuery query) {
+        BitSet match = (BitSet) all.clone();
+        if (query == null) return match;
+        and(match, categories, query.category());
+        and(match, genders, query.gender());
+        and(match, sizes, query.size());
+        and(match, fabrics, query.fabric());
+        and(match, statuses, query.status());
+        return match;
+    }
+
+    List<InventoryItemSummaryView> page(BitSet match, int offset, int limit) {
+        List<InventoryItemSummaryView> out = new ArrayList<>(Math.min(limit, 64));
+        int skipped = 0;
+        for (int slot = match.nextSetBit(0); slot >= 0 && out.size() < limit; slot = match.nextSetBit(slot + 1)) {
+            if (skipped++ < offset) continue;
+            out.add(rows[slot]);
+        }
+        return out;
+    }
+
+    InventoryFacets facets(BitSet match) {
+        return new InventoryFacets(
+                counts(match, categories),
+                counts(match, genders),
+                counts(match, sizes),
+                counts(match, fabrics),
+                counts(match, statuses)
+        );
+    }
+
+    private static <E extends Enum<E>> void and(BitSet match, EnumMap<E, BitSet> index, E value) {
+        if (value == null) return;
+        BitSet bits = index.get(value);
+        if (bits == null) match.clear();
+        else match.and(bits);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> counts(BitSet match, EnumMap<E, BitSet> index) {
+        Map<E, Long> out = new HashMap<>();
+        index.forEach((value, bits) -> {
+            BitSet tmp = (BitSet) bits.clone();
+            tmp.and(match);
+            int n = tmp.cardinality();
+            if (n > 0) out.put(value, (long) n);
+        });
+        return out;
+    }
+
+    private static int compareUuidUnsigned(UUID a, UUID b) {
+        int c = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return c != 0 ? c : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,85 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class JdbcCatalogRowSource implements CatalogRowSource {
+
+    private static final String SELECT_SQL = """
+            select id, sku, name, price_amount, price_currency, stock_on_hand, stock_reserved, status,
+                   category, gender, size, fabric, updated_at, version
+              from inventory_items
+            """;
+
+    // Range scan del final de idx_inventory_items_updated_at_id: sin cambios cuesta lo mismo que un max(updated_at)
+    private static final String IDS_UPDATED_AFTER_SQL = "select id from inventory_items where updated_at > ?";
+
+    // Mismo criterio que el change feed: nada aún sin commit puede tener un updated_at anterior a esto
+    private static final String OLDEST_OPEN_WRITE_SQL = """
+            select min(xact_start)
+              from pg_stat_activity
+             where datname = current_database()
+               and backend_xid is not null
+               and pid <> pg_backend_pid()
+            """;
+
+    private static final RowMapper<CatalogRow> ROW_MAPPER = (rs, i) -> new CatalogRow(
+            new InventoryItemSummaryView(
+                    InventoryItemId.of(rs.getObject("id", UUID.class)),
+                    Sku.of(rs.getString("sku")),
+                    rs.getString("name"),
+                    new Money(rs.getBigDecimal("price_amount"), Currency.getInstance(rs.getString("price_currency"))),
+                    rs.getInt("stock_on_hand"),
+                    rs.getInt("stock_reserved"),
+                    ItemStatus.valueOf(rs.getString("status"))
+            ),
+            InventoryCategory.valueOf(rs.getString("category")),
+            Gender.valueOf(rs.getString("gender")),
+            Size.valueOf(rs.getString("size")),
+            Fabric.valueOf(rs.getString("fabric")),
+            rs.getObject("updated_at", OffsetDateTime.class).toInstant(),
+            rs.getLong("version")
+    );
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public List<CatalogRow> loadAll() {
+        return jdbc.query(SELECT_SQL, ROW_MAPPER);
+    }
+
+    @Override
+    public List<CatalogRow> loadByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SQL + " where id = any(?)");
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, ROW_MAPPER);
+    }
+
+    @Override
+    public List<UUID> loadIdsUpdatedAfter(Instant after) {
+        return jdbc.queryForList(IDS_UPDATED_AFTER_SQL, UUID.class, OffsetDateTime.ofInstant(after, ZoneOffset.UTC));
+    }
+
+    @Override
+    public Optional<Instant> findOldestOpenWriteStart() {
+        OffsetDateTime oldest = jdbc.queryForObject(OLDEST_OPEN_WRITE_SQL, OffsetDateTime.class);
+        return Optional.ofNullable(oldest).map(OffsetDateTime::toInstant);
+    }
+}
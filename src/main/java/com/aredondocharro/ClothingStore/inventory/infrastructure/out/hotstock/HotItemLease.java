@@ -0,0 +1,61 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock arrendado de un item, repartido en stripes para que los hilos no compitan por un único contador.
+ * Las reservas solo hacen CAS; el lock únicamente se toma para re-arrendar, consolidar o devolver.
+ */
+final class HotItemLease {
+
+    private final AtomicIntegerArray stripes;
+    final ReentrantLock lock = new ReentrantLock();
+    volatile Instant expiresAt = Instant.MIN;
+
+    HotItemLease(int stripeCount) {
+        this.stripes = new AtomicIntegerArray(stripeCount);
+    }
+
+    boolean tryTake(int qty) {
+        int n = stripes.length();
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            int idx = (start + i) % n;
+            int v;
+            while ((v = stripes.get(idx)) >= qty) {
+                if (stripes.compareAndSet(idx, v, v - qty)) return true;
+            }
+        }
+        return false;
+    }
+
+    void deposit(int units) {
+        if (units <= 0) return;
+        int n = stripes.length();
+        int share = units / n;
+        int rest = units % n;
+        for (int i = 0; i < n; i++) {
+            int add = share + (i < rest ? 1 : 0);
+            if (add > 0) stripes.addAndGet(i, add);
+        }
+    }
+
+    int drain() {
+        int total = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            total += stripes.getAndSet(i, 0);
+        }
+        return total;
+    }
+
+    int available() {
+        int total = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            total += stripes.get(i);
+        }
+        return total;
+    }
+}
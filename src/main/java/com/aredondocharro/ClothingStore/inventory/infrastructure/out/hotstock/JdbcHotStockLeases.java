@@ -0,0 +1,122 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Registro en {@code inventory_hot_stock_leases} de lo que este nodo tiene arrendado y sin persistir.
+ * <p>
+ * Cada escritura va en la misma transacción que el cambio de {@code inventory_items} o de
+ * {@code stock_reservations} al que acompaña, así que el registro siempre dice cuánto hay que devolver si el
+ * nodo muere: lo arrendado menos lo ya insertado como reserva. Las reservas pendientes de flush que se pierden
+ * con el nodo no llegaron a descontarse, y por eso sus unidades también vuelven.
+ */
+public class JdbcHotStockLeases {
+
+    private static final String LEASED_SQL = """
+            insert into inventory_hot_stock_leases (node_id, item_id, units, expires_at)
+            values (?, ?, ?, ?)
+            on conflict (node_id, item_id) do update
+               set units = inventory_hot_stock_leases.units + excluded.units,
+                   expires_at = excluded.expires_at
+            """;
+
+    // Sin fila o con menos unidades = otro nodo la dio por muerta y ya las devolvió
+    private static final String SUBTRACT_SQL = """
+            update inventory_hot_stock_leases
+               set units = units - ?
+             where node_id = ?
+               and item_id = ?
+               and units >= ?
+            """;
+
+    private static final String HEARTBEAT_SQL = "update inventory_hot_stock_leases set expires_at = ? where node_id = ?";
+
+    // Borrar y devolver en una sentencia: dos nodos reconciliando a la vez no devuelven dos veces lo mismo
+    private static final String RECLAIM_SQL = """
+            with stranded as (
+                delete from inventory_hot_stock_leases
+                 where expires_at < ?
+                returning item_id, units
+            ), per_item as (
+                select item_id, sum(units) as units
+                  from stranded
+                 where units > 0
+                 group by item_id
+            ), locked as (
+                select i.id, least(p.units, i.stock_reserved) as units
+                  from inventory_items i
+                  join per_item p on p.item_id = i.id
+                   for update of i
+            ), returned as (
+                update inventory_items i
+                   set stock_reserved = i.stock_reserved - l.units,
+                       updated_at = ?,
+                       version = i.version + 1
+                  from locked l
+                 where i.id = l.id
+                returning l.units
+            )
+            select coalesce(sum(units), 0) from returned
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final String nodeId;
+
+    public JdbcHotStockLeases(JdbcTemplate jdbc, String nodeId) {
+        this.jdbc = jdbc;
+        this.nodeId = nodeId;
+    }
+
+    /** Un id por arranque: lo que quede de un arranque anterior lo reconcilia cualquier nodo al caducar. */
+    public static String newNodeId() {
+        return UUID.randomUUID().toString();
+    }
+
+    public String getNodeId() { return nodeId; }
+
+    /** Suma unidades recién arrendadas y adelanta el heartbeat del item. */
+    public void leased(InventoryItemId itemId, int units, Instant expiresAt) {
+        jdbc.update(LEASED_SQL, nodeId, itemId.getValue(), units, toTimestamp(expiresAt));
+    }
+
+    /** Resta unidades devueltas a la fila. false = ya no estaban registradas (reconciliadas por otro nodo). */
+    public boolean returned(InventoryItemId itemId, int units) {
+        return subtract(itemId, units);
+    }
+
+    /** Resta lo que ya está insertado como reserva, por item. */
+    public void persisted(Map<InventoryItemId, Integer> unitsByItem) {
+        unitsByItem.forEach(this::subtract);
+    }
+
+    /** Mantiene vivos los registros de este nodo hasta {@code expiresAt}. */
+    public void heartbeat(Instant expiresAt) {
+        jdbc.update(HEARTBEAT_SQL, toTimestamp(expiresAt), nodeId);
+    }
+
+    /**
+     * Devuelve a {@code inventory_items} lo registrado por nodos cuyo heartbeat venció antes de {@code now}.
+     * Debe ejecutarse en transacción. Devuelve las unidades devueltas.
+     */
+    public int reclaimExpired(Instant now) {
+        OffsetDateTime ts = toTimestamp(now);
+        Integer units = jdbc.queryForObject(RECLAIM_SQL, Integer.class, ts, ts);
+        return units == null ? 0 : units;
+    }
+
+    private boolean subtract(InventoryItemId itemId, int units) {
+        if (units <= 0) return true;
+        return jdbc.update(SUBTRACT_SQL, units, nodeId, itemId.getValue(), units) == 1;
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
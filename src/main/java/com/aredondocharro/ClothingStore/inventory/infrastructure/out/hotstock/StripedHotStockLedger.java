@@ -0,0 +1,465 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.StockReleased;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.HotStockLedgerPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ledger hot: arrienda stock de la BD por bloques (UPDATE condicional que lo deja como reservado),
+ * reserva en memoria contra ese bloque y persiste las reservas en batches.
+ * <p>
+ * La BD nunca vende de más: lo arrendado ya cuenta como reservado en {@code inventory_items}.
+ * Lo no usado se devuelve al caducar el lease, al discontinuar el item y al parar el nodo.
+ * <p>
+ * Durabilidad: una reserva se confirma al caller (y su StockReserved se publica) antes de que exista su fila
+ * en {@code stock_reservations}. Si el nodo muere sin parar se pierden las reservas de como mucho un
+ * flush-interval, y lo arrendado sin persistir queda reservado en la fila del item. Ese resto está registrado
+ * en {@link JdbcHotStockLeases} y {@link #reclaimStranded()} (en cualquier nodo) lo devuelve cuando el
+ * heartbeat del nodo muerto lleva {@code reclaimAfter} sin avanzar.
+ * <p>
+ * Las peticiones nunca tocan la BD desde el ledger: si el lease se agota dejan pedido un re-arriendo que hace
+ * el siguiente {@link #tick()} (@Scheduled) y siguen por la ruta SQL. Los accesos a BD (arrendar, devolver,
+ * flush) se hacen siempre sin el lock del lease.
+ * <p>
+ * {@code tx} debe abrir transacción propia (REQUIRES_NEW): el lease no puede depender del rollback del caller.
+ */
+@Slf4j
+public class StripedHotStockLedger implements HotStockLedgerPort, AutoCloseable {
+
+    private record PendingKey(InventoryItemId itemId, ReservationReference reference) {
+        static PendingKey of(StockReservation r) {
+            return new PendingKey(r.itemId(), r.reference());
+        }
+    }
+
+    private final Set<InventoryItemId> hotItems;
+    private final InventoryItemRepositoryPort itemRepo;
+    private final StockReservationRepositoryPort reservationRepo;
+    private final EventBusPort eventBus;
+    private final TransactionOperations tx;
+    private final JdbcHotStockLeases leaseRecords;
+    private final Clock clock;
+    private final int stripes;
+    private final int leaseChunk;
+    private final Duration leaseTtl;
+    private final int flushBatchSize;
+    private final Duration reclaimAfter;
+
+    private final ConcurrentHashMap<InventoryItemId, HotItemLease> leases = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<PendingKey, StockReservation> pending = new ConcurrentHashMap<>();
+    // Reservas ya persistidas, retenidas un leaseTtl para resolver reintentos sin ir a la BD
+    private final ConcurrentHashMap<PendingKey, StockReservation> recent = new ConcurrentHashMap<>();
+    // Items con el lease agotado y el mayor qty pedido desde entonces
+    private final ConcurrentHashMap<InventoryItemId, Integer> wanted = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<StockReservation> queue = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder leasedUnits = new LongAdder();
+    private final LongAdder returnedUnits = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder reclaimedUnits = new LongAdder();
+
+    private volatile Instant nextHeartbeat = Instant.MIN;
+    private volatile boolean closed;
+
+    public StripedHotStockLedger(Set<InventoryItemId> hotItems,
+                                 InventoryItemRepositoryPort itemRepo,
+                                 StockReservationRepositoryPort reservationRepo,
+                                 EventBusPort eventBus,
+                                 TransactionOperations tx,
+                                 JdbcHotStockLeases leaseRecords,
+                                 Clock clock,
+                                 int stripes,
+                                 int leaseChunk,
+                                 Duration leaseTtl,
+                                 int flushBatchSize,
+                                 Duration reclaimAfter) {
+        if (stripes < 1) throw new IllegalArgumentException("stripes must be >= 1");
+        if (leaseChunk < 1) throw new IllegalArgumentException("leaseChunk must be >= 1");
+        if (flushBatchSize < 1) throw new IllegalArgumentException("flushBatchSize must be >= 1");
+        if (reclaimAfter.compareTo(leaseTtl) <= 0) throw new IllegalArgumentException("reclaimAfter must be > leaseTtl");
+        this.hotItems = Set.copyOf(hotItems);
+        this.itemRepo = itemRepo;
+        this.reservationRepo = reservationRepo;
+        this.eventBus = eventBus;
+        this.tx = tx;
+        this.leaseRecords = leaseRecords;
+        this.clock = clock;
+        this.stripes = stripes;
+        this.leaseChunk = leaseChunk;
+        this.leaseTtl = leaseTtl;
+        this.flushBatchSize = flushBatchSize;
+        this.reclaimAfter = reclaimAfter;
+    }
+
+    @Override
+    public boolean isHot(InventoryItemId itemId) {
+        return !closed && hotItems.contains(itemId);
+    }
+
+    @Override
+    public Optional<StockReservation> tryReserve(StockReservation candidate) {
+        if (!isHot(candidate.itemId())) return Optional.empty();
+
+        // Idempotencia en memoria: misma (itemId, reference) pendiente o persistida hace poco
+        PendingKey key = PendingKey.of(candidate);
+        StockReservation known = findKnown(key);
+        if (known != null) return Optional.of(known);
+
+        int qty = candidate.quantity();
+        HotItemLease lease = leases.computeIfAbsent(candidate.itemId(), id -> new HotItemLease(stripes));
+        if (!lease.tryTake(qty) && !consolidate(lease, qty)) {
+            requestRefill(candidate.itemId(), qty);
+            return Optional.empty();
+        }
+
+        StockReservation previous = pending.putIfAbsent(key, candidate);
+        if (previous != null) {
+            lease.deposit(qty);
+            return Optional.of(previous);
+        }
+        queue.add(candidate);
+        return Optional.of(candidate);
+    }
+
+    @Override
+    public Optional<StockReservation> findKnown(InventoryItemId itemId, ReservationReference reference) {
+        if (!isHot(itemId)) return Optional.empty();
+        return Optional.ofNullable(findKnown(new PendingKey(itemId, reference)));
+    }
+
+    /** Olvida una reserva retenida (p. ej. al liberarla): la misma referencia puede volver a reservar. */
+    public void forget(InventoryItemId itemId, ReservationReference reference) {
+        recent.remove(new PendingKey(itemId, reference));
+    }
+
+    /**
+     * Arrienda de la BD para los items que agotaron su lease. Corre en el {@link #tick()},
+     * fuera de la transacción y del lock de cualquier petición.
+     */
+    public void refill() {
+        for (InventoryItemId itemId : List.copyOf(wanted.keySet())) {
+            Integer qty = wanted.remove(itemId);
+            if (qty == null || closed) continue;
+            try {
+                leaseChunk(itemId, qty);
+            } catch (RuntimeException ex) {
+                log.warn("[hot-stock] lease failed itemId={}: {}", itemId, ex.getMessage());
+            }
+        }
+    }
+
+    /** Persiste todas las reservas pendientes. El lock se toma por batch: quien espera, espera como mucho uno. */
+    public void flush() {
+        List<StockReservation> batch = new ArrayList<>(flushBatchSize);
+        while (true) {
+            flushLock.lock();
+            try {
+                StockReservation next;
+                while (batch.size() < flushBatchSize && (next = queue.poll()) != null) {
+                    batch.add(next);
+                }
+                if (batch.isEmpty()) return;
+                if (!persist(batch)) return;
+                batch.clear();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean flushPending(InventoryItemId itemId, ReservationReference reference) {
+        PendingKey key = new PendingKey(itemId, reference);
+        StockReservation r = pending.get(key);
+        if (r == null) return false;
+
+        // Solo esa fila: la sacamos de la cola para que el tick no la inserte otra vez
+        if (queue.remove(r)) return persistOne(r);
+
+        // Ya va en el batch de un flush en curso: esperamos a que ese batch termine (no a toda la cola)
+        flushLock.lock();
+        flushLock.unlock();
+        return !pending.containsKey(key);
+    }
+
+    /** Devuelve a la BD el stock arrendado y no usado de un item (p. ej. al discontinuarlo). */
+    public void evict(InventoryItemId itemId) {
+        HotItemLease lease = leases.get(itemId);
+        if (lease == null) return;
+        returnUnused(itemId, lease);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        // Un tick en curso puede solaparse: flush va bajo flushLock y el lease se vacía bajo su lock
+        flush();
+        leases.keySet().forEach(this::evict);
+        log.info("[hot-stock] ledger stopped leased={} returned={} unflushed={}",
+                leasedUnits.sum(), returnedUnits.sum(), queue.size());
+    }
+
+    public long getLeasedUnits() { return leasedUnits.sum(); }
+
+    public long getReturnedUnits() { return returnedUnits.sum(); }
+
+    public int getPendingCount() { return queue.size(); }
+
+    /** Reservas confirmadas en memoria que la BD rechazó al persistir (compensadas con StockReleased). */
+    public long getConflicts() { return conflicts.sum(); }
+
+    /** Unidades de nodos caídos que este nodo devolvió a la BD. */
+    public long getReclaimedUnits() { return reclaimedUnits.sum(); }
+
+    @Scheduled(
+            fixedDelayString = "${app.inventory.hot-stock.flush-interval:50ms}",
+            initialDelayString = "${app.inventory.hot-stock.flush-interval:50ms}"
+    )
+    public void tick() {
+        if (closed) return;
+        try {
+            flush();
+            refill();
+            expireLeases();
+            pruneRecent();
+            heartbeat();
+        } catch (RuntimeException ex) {
+            // Nunca caemos el scheduler
+            log.warn("[hot-stock] tick failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Reconciliación: devuelve a la BD lo que dejaron arrendado nodos que murieron sin parar
+     * (su heartbeat venció). Seguro en varios nodos: cada registro se borra y se devuelve en la misma sentencia.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.inventory.hot-stock.reclaim-interval:1m}",
+            initialDelayString = "${app.inventory.hot-stock.reclaim-interval:1m}"
+    )
+    public void reclaimStranded() {
+        if (closed) return;
+        try {
+            Instant now = Instant.now(clock);
+            Integer units = tx.execute(s -> leaseRecords.reclaimExpired(now));
+            if (units != null && units > 0) {
+                reclaimedUnits.add(units);
+                log.warn("[hot-stock] reclaimed units={} leased by nodes that stopped without returning them", units);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("[hot-stock] reclaim failed: {}", ex.getMessage());
+        }
+    }
+
+    private StockReservation findKnown(PendingKey key) {
+        StockReservation r = pending.get(key);
+        return r != null ? r : recent.get(key);
+    }
+
+    // Solo memoria: consolida los restos repartidos entre stripes
+    private boolean consolidate(HotItemLease lease, int qty) {
+        lease.lock.lock();
+        try {
+            // Otro hilo pudo consolidar mientras esperábamos
+            if (lease.tryTake(qty)) return true;
+
+            int loose = lease.drain();
+            if (loose >= qty) {
+                lease.deposit(loose - qty);
+                return true;
+            }
+            lease.deposit(loose);
+            return false;
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    private void requestRefill(InventoryItemId itemId, int qty) {
+        // El siguiente tick lo arrienda; si ya estaba pedido, con el mayor qty
+        wanted.merge(itemId, qty, Math::max);
+    }
+
+    private void leaseChunk(InventoryItemId itemId, int qty) {
+        Instant now = Instant.now(clock);
+        int chunk = Math.max(leaseChunk, qty);
+        if (!leaseFromDb(itemId, chunk, now)) {
+            // No queda un bloque entero: arrendamos justo lo que pidió la petición
+            if (chunk == qty || !leaseFromDb(itemId, qty, now)) return;
+            chunk = qty;
+        }
+        HotItemLease lease = leases.computeIfAbsent(itemId, id -> new HotItemLease(stripes));
+        lease.deposit(chunk);
+        lease.expiresAt = now.plus(leaseTtl);
+        log.debug("[hot-stock] leased itemId={} units={}", itemId, chunk);
+    }
+
+    // La fila del item y el registro del lease en la misma transacción
+    private boolean leaseFromDb(InventoryItemId itemId, int units, Instant now) {
+        boolean ok = Boolean.TRUE.equals(tx.execute(s -> {
+            if (!itemRepo.tryReserve(itemId, units, now)) return false;
+            leaseRecords.leased(itemId, units, now.plus(reclaimAfter));
+            return true;
+        }));
+        if (ok) leasedUnits.add(units);
+        return ok;
+    }
+
+    private void expireLeases() {
+        Instant now = Instant.now(clock);
+        leases.forEach((itemId, lease) -> {
+            if (!now.isAfter(lease.expiresAt) || lease.available() == 0) return;
+            returnUnused(itemId, lease);
+        });
+    }
+
+    // Un UPDATE cada reclaimAfter/3: los registros de este nodo nunca llegan a caducar mientras viva
+    private void heartbeat() {
+        Instant now = Instant.now(clock);
+        if (now.isBefore(nextHeartbeat)) return;
+        leaseRecords.heartbeat(now.plus(reclaimAfter));
+        nextHeartbeat = now.plus(reclaimAfter.dividedBy(3));
+    }
+
+    private void pruneRecent() {
+        Instant cutoff = Instant.now(clock).minus(leaseTtl);
+        recent.values().removeIf(r -> r.createdAt().isBefore(cutoff));
+    }
+
+    // Vacía el lease bajo su lock y devuelve a la BD ya sin él
+    private void returnUnused(InventoryItemId itemId, HotItemLease lease) {
+        int unused;
+        lease.lock.lock();
+        try {
+            unused = lease.drain();
+        } finally {
+            lease.lock.unlock();
+        }
+        if (unused == 0) return;
+        Instant now = Instant.now(clock);
+        try {
+            // null = otro nodo dio este lease por muerto y ya devolvió las unidades: no se devuelven dos veces
+            Boolean released = tx.execute(s -> leaseRecords.returned(itemId, unused)
+                    ? itemRepo.tryRelease(itemId, unused, now)
+                    : null);
+            if (released == null) {
+                log.warn("[hot-stock] lease of itemId={} was already reclaimed, dropping units={}", itemId, unused);
+            } else if (released) {
+                returnedUnits.add(unused);
+                log.debug("[hot-stock] returned itemId={} units={}", itemId, unused);
+            } else {
+                log.warn("[hot-stock] could not return itemId={} units={} (reserved stock below lease)", itemId, unused);
+            }
+        } catch (RuntimeException ex) {
+            // Se reintenta en el siguiente tick
+            lease.deposit(unused);
+            log.warn("[hot-stock] return failed itemId={} units={}: {}", itemId, unused, ex.getMessage());
+        }
+    }
+
+    private boolean persist(List<StockReservation> batch) {
+        try {
+            tx.executeWithoutResult(s -> {
+                reservationRepo.insertAll(batch);
+                leaseRecords.persisted(unitsByItem(batch));
+            });
+            batch.forEach(this::persisted);
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            // Alguna fila choca (p. ej. misma referencia reservada por la ruta SQL): aislamos fila a fila
+            log.warn("[hot-stock] batch insert rejected ({} rows), retrying one by one", batch.size());
+            boolean allDone = true;
+            for (StockReservation r : batch) {
+                allDone &= persistOne(r);
+            }
+            return allDone;
+        } catch (RuntimeException ex) {
+            // Fallo transitorio: se reencola y se reintenta en el siguiente tick
+            queue.addAll(batch);
+            log.warn("[hot-stock] flush failed ({} rows requeued): {}", batch.size(), ex.getMessage());
+            return false;
+        }
+    }
+
+    private boolean persistOne(StockReservation r) {
+        try {
+            tx.executeWithoutResult(s -> {
+                reservationRepo.insertAll(List.of(r));
+                leaseRecords.persisted(Map.of(r.itemId(), r.quantity()));
+            });
+            persisted(r);
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return compensate(r, ex);
+        } catch (RuntimeException ex) {
+            queue.add(r);
+            log.warn("[hot-stock] insert failed id={}, requeued: {}", r.id(), ex.getMessage());
+            return false;
+        }
+    }
+
+    private static Map<InventoryItemId, Integer> unitsByItem(List<StockReservation> batch) {
+        Map<InventoryItemId, Integer> units = new HashMap<>();
+        batch.forEach(r -> units.merge(r.itemId(), r.quantity(), Integer::sum));
+        return units;
+    }
+
+    private void persisted(StockReservation r) {
+        PendingKey key = PendingKey.of(r);
+        recent.put(key, r);
+        pending.remove(key, r);
+    }
+
+    /**
+     * La BD ya tiene una reserva activa con esa (itemId, reference) que el ledger no conocía
+     * (p. ej. hecha por la ruta SQL o por otro nodo). La confirmada en memoria no llega a existir:
+     * se anula su StockReserved con un StockReleased y sus unidades vuelven al lease.
+     */
+    private boolean compensate(StockReservation r, DataIntegrityViolationException cause) {
+        try {
+            tx.executeWithoutResult(s -> eventBus.publish(new StockReleased(
+                    r.id().getValue(),
+                    r.itemId().getValue(),
+                    r.reference().getValue(),
+                    r.quantity(),
+                    Instant.now(clock)
+            )));
+        } catch (RuntimeException ex) {
+            // Sin compensación publicada no se descarta: se reintenta en el siguiente flush
+            queue.add(r);
+            log.warn("[hot-stock] compensation failed id={}, requeued: {}", r.id(), ex.getMessage());
+            return false;
+        }
+        pending.remove(PendingKey.of(r), r);
+        HotItemLease lease = leases.get(r.itemId());
+        if (lease != null) lease.deposit(r.quantity());
+        conflicts.increment();
+        log.error("[hot-stock] reservation id={} itemId={} ref={} rejected by the database, released: {}",
+                r.id(), r.itemId(), r.reference(), cause.getMessage());
+        return true;
+    }
+}
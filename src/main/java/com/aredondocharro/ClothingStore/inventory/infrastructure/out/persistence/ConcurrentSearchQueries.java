@@ -0,0 +1,173 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Página y count de una búsqueda a la vez, en dos conexiones del pool: la página en el hilo que llama
+ * (y su transacción) y el count en un hilo virtual con conexión propia. La latencia pasa a ser la
+ * de la consulta más lenta en vez de la suma.
+ * <p>
+ * Si una falla, la otra se cancela en el servidor ({@link Statement#cancel()}); si se agota
+ * {@code deadline}, se cancelan las dos y se lanza {@link QueryTimeoutException}. El count se
+ * cancela también cuando la página ya da el total exacto (última página).
+ */
+@Slf4j
+public class ConcurrentSearchQueries implements AutoCloseable {
+
+    public record PageAndCount<T>(List<T> rows, Long total) {}
+
+    private final JdbcTemplate jdbc;
+    private final Duration deadline;
+
+    private final ExecutorService counters = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "inventory-search-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final LongAdder countsCancelled = new LongAdder();
+    private final LongAdder deadlinesExceeded = new LongAdder();
+
+    public ConcurrentSearchQueries(JdbcTemplate jdbc, Duration deadline) {
+        if (deadline == null || deadline.isNegative() || deadline.isZero()) throw new IllegalArgumentException("deadline must be > 0");
+        this.jdbc = jdbc;
+        this.deadline = deadline;
+    }
+
+    /**
+     * @param countNeeded decide con las filas de la página si hace falta el count; si no, se cancela
+     *                    y {@code total} vuelve a null
+     */
+    public <T> PageAndCount<T> pageAndCount(String pageSql, Object[] pageArgs, RowMapper<T> rowMapper,
+                                            String countSql, Object[] countArgs,
+                                            Predicate<List<T>> countNeeded) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        CancellableStatement pageStatement = new CancellableStatement();
+        CancellableStatement countStatement = new CancellableStatement();
+        AtomicBoolean timedOut = new AtomicBoolean();
+
+        Future<Long> count = counters.submit(() -> jdbc.query(countStatement.creator(countSql, countArgs),
+                rs -> rs.next() ? rs.getLong(1) : 0L));
+        ScheduledFuture<?> timer = watchdog.schedule(() -> {
+            timedOut.set(true);
+            pageStatement.cancel();
+            countStatement.cancel();
+        }, deadline.toNanos(), TimeUnit.NANOSECONDS);
+
+        try {
+            List<T> rows;
+            try {
+                rows = jdbc.query(pageStatement.creator(pageSql, pageArgs), rowMapper);
+            } catch (RuntimeException ex) {
+                cancel(count, countStatement);
+                if (timedOut.get()) throw timeout(ex);
+                throw ex;
+            }
+
+            if (!countNeeded.test(rows)) {
+                cancel(count, countStatement);
+                return new PageAndCount<>(rows, null);
+            }
+            return new PageAndCount<>(rows, await(count, countStatement, deadlineNanos, timedOut));
+        } finally {
+            timer.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+        counters.shutdownNow();
+    }
+
+    /** Counts cancelados porque la página ya bastaba o porque falló la otra consulta. */
+    public long getCountsCancelled() { return countsCancelled.sum(); }
+
+    public long getDeadlinesExceeded() { return deadlinesExceeded.sum(); }
+
+    private Long await(Future<Long> count, CancellableStatement statement, long deadlineNanos, AtomicBoolean timedOut) {
+        try {
+            return count.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            cancel(count, statement);
+            throw timeout(ex);
+        } catch (InterruptedException ex) {
+            cancel(count, statement);
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("inventory search interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (timedOut.get()) throw timeout(ex.getCause());
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(ex.getCause());
+        } catch (CancellationException ex) {
+            throw timeout(ex);
+        }
+    }
+
+    private void cancel(Future<Long> count, CancellableStatement statement) {
+        if (count.isDone()) return;
+        countsCancelled.increment();
+        statement.cancel();
+        count.cancel(true);
+    }
+
+    private QueryTimeoutException timeout(Throwable cause) {
+        deadlinesExceeded.increment();
+        return new QueryTimeoutException("inventory search exceeded " + deadline.toMillis() + "ms", cause);
+    }
+
+    /** Guarda la sentencia en curso para poder cancelarla desde otro hilo. */
+    private static final class CancellableStatement {
+
+        private final AtomicReference<Statement> current = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        PreparedStatementCreator creator(String sql, Object[] args) {
+            return con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                new ArgumentPreparedStatementSetter(args).setValues(ps);
+                current.set(ps);
+                // La cancelación pudo llegar antes de registrar la sentencia
+                if (cancelled) ps.cancel();
+                return ps;
+            };
+        }
+
+        void cancel() {
+            cancelled = true;
+            Statement statement = current.get();
+            if (statement == null) return;
+            try {
+                // El driver solo cancela si esta sentencia sigue ejecutándose
+                statement.cancel();
+            } catch (SQLException ex) {
+                log.debug("[inventory-search] cancel failed: {}", ex.getMessage());
+            }
+        }
+    }
+}
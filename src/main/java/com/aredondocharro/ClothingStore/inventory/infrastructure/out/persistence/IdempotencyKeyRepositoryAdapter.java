@@ -0,0 +1,132 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency-Keys por JDBC y fuera de la transacción del caso de uso: el claim tiene que ser
+ * visible para los duplicados concurrentes en cuanto se hace (autocommit).
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepositoryAdapter implements IdempotencyStorePort {
+
+    // Inserta, o retoma la fila si ya caducó o quedó IN_PROGRESS de un nodo que murió.
+    // Cada claim lleva su token: el dueño anterior ya no puede completarla ni borrarla
+    private static final String CLAIM_SQL = """
+            insert into inventory_idempotency_keys as k (idempotency_key, fingerprint, status, claim_token, created_at, expires_at)
+            values (?, ?, 'IN_PROGRESS', ?, ?, ?)
+            on conflict (idempotency_key) do update
+               set fingerprint = excluded.fingerprint,
+                   status = 'IN_PROGRESS',
+                   claim_token = excluded.claim_token,
+                   response_status = null,
+                   response_content_type = null,
+                   response_location = null,
+                   response_body = null,
+                   created_at = excluded.created_at,
+                   completed_at = null,
+                   expires_at = excluded.expires_at
+             where k.expires_at <= ?
+                or (k.status = 'IN_PROGRESS' and k.created_at <= ?)
+            """;
+
+    private static final String FIND_SQL = """
+            select idempotency_key, fingerprint, status, response_status, response_content_type,
+                   response_location, response_body, expires_at
+              from inventory_idempotency_keys
+             where idempotency_key = ?
+            """;
+
+    private static final String COMPLETE_SQL = """
+            update inventory_idempotency_keys
+               set status = 'COMPLETED',
+                   response_status = ?,
+                   response_content_type = ?,
+                   response_location = ?,
+                   response_body = ?,
+                   completed_at = ?
+             where idempotency_key = ?
+               and claim_token = ?
+               and status = 'IN_PROGRESS'
+            """;
+
+    private static final String RELEASE_SQL = """
+            delete from inventory_idempotency_keys
+             where idempotency_key = ?
+               and claim_token = ?
+               and status = 'IN_PROGRESS'
+            """;
+
+    private static final String PURGE_SQL = """
+            delete from inventory_idempotency_keys
+             where idempotency_key in (
+                   select idempotency_key
+                     from inventory_idempotency_keys
+                    where expires_at <= ?
+                    limit ?
+                      for update skip locked)
+            """;
+
+    private static final RowMapper<StoredRequest> ROW_MAPPER = (rs, i) -> new StoredRequest(
+            rs.getString("idempotency_key"),
+            rs.getString("fingerprint"),
+            "COMPLETED".equals(rs.getString("status"))
+                    ? new StoredResponse(
+                            rs.getInt("response_status"),
+                            rs.getString("response_content_type"),
+                            rs.getString("response_location"),
+                            rs.getBytes("response_body"))
+                    : null,
+            rs.getObject("expires_at", OffsetDateTime.class).toInstant()
+    );
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public Claim claim(String key, String fingerprint, Instant now, Instant staleBefore, Instant expiresAt) {
+        // Si la purga borra la fila entre el conflicto y la lectura, se vuelve a intentar el claim
+        for (int attempt = 0; attempt < 3; attempt++) {
+            UUID token = UUID.randomUUID();
+            int claimed = jdbc.update(CLAIM_SQL, key, fingerprint, token, ts(now), ts(expiresAt), ts(now), ts(staleBefore));
+            if (claimed == 1) return Claim.owned(token.toString());
+            Optional<StoredRequest> existing = find(key);
+            if (existing.isPresent()) return Claim.taken(existing.get());
+        }
+        throw new IllegalStateException("could not claim idempotency key");
+    }
+
+    @Override
+    public Optional<StoredRequest> find(String key) {
+        return jdbc.query(FIND_SQL, ROW_MAPPER, key).stream().findFirst();
+    }
+
+    @Override
+    public boolean complete(String key, String claimToken, StoredResponse response, Instant now) {
+        return jdbc.update(COMPLETE_SQL, response.status(), response.contentType(), response.location(), response.body(),
+                ts(now), key, UUID.fromString(claimToken)) == 1;
+    }
+
+    @Override
+    public void release(String key, String claimToken) {
+        jdbc.update(RELEASE_SQL, key, UUID.fromString(claimToken));
+    }
+
+    @Override
+    public int purgeExpired(Instant now, int limit) {
+        return jdbc.update(PURGE_SQL, ts(now), limit);
+    }
+
+    private static OffsetDateTime ts(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,167 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItem;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryBulkImportPort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Import masivo con {@code COPY FROM STDIN} a una tabla temporal y un único INSERT ... SELECT.
+ * <p>
+ * Las filas se serializan a CSV en trozos de {@link #CHUNK_CHARS} según se consumen del iterador,
+ * así que el heap no depende del tamaño del import. Los conflictos de SKU (contra la tabla o
+ * repetidos en la entrada) se resuelven en conjunto con {@code DISTINCT ON} + {@code ON CONFLICT DO NOTHING}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryBulkImportAdapter implements InventoryBulkImportPort {
+
+    private static final int CHUNK_CHARS = 64 * 1024;
+
+    private static final String CREATE_STAGING_SQL = """
+            create temp table if not exists inventory_items_import (
+                line_no        bigint         not null,
+                id             uuid           not null,
+                sku            varchar(64)    not null,
+                name           varchar(120)   not null,
+                description    varchar(2000),
+                category       varchar(32)    not null,
+                accessory_type varchar(32)    not null,
+                gender         varchar(16)    not null,
+                size           varchar(16)    not null,
+                fabric         varchar(32)    not null,
+                color          varchar(40),
+                price_amount   numeric(19, 2) not null,
+                price_currency varchar(3)     not null,
+                stock_on_hand  integer        not null,
+                status         varchar(16)    not null,
+                created_at     timestamptz    not null
+            ) on commit drop
+            """;
+
+    private static final String COPY_SQL = """
+            copy inventory_items_import
+                (line_no, id, sku, name, description, category, accessory_type, gender, size, fabric,
+                 color, price_amount, price_currency, stock_on_hand, status, created_at)
+            from stdin with (format csv)
+            """;
+
+    // Primera aparición de cada SKU; las que ya existen las descarta el índice único
+    private static final String MERGE_SQL = """
+            insert into inventory_items
+                (id, sku, name, description, category, accessory_type, gender, size, fabric, color,
+                 price_amount, price_currency, stock_on_hand, stock_reserved, status, created_at, updated_at, version)
+            select distinct on (s.sku)
+                   s.id, s.sku, s.name, s.description, s.category, s.accessory_type, s.gender, s.size, s.fabric, s.color,
+                   s.price_amount, s.price_currency, s.stock_on_hand, 0, s.status, s.created_at, s.created_at, 0
+              from inventory_items_import s
+             order by s.sku, s.line_no
+            on conflict (sku) do nothing
+            """;
+
+    // Las filas staged cuyo id no llegó a la tabla son las que chocaron
+    private static final String CONFLICTS_SQL = """
+            select s.sku
+              from inventory_items_import s
+             where not exists (select 1 from inventory_items i where i.id = s.id)
+             order by s.line_no
+             limit ?
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Outcome importAll(Iterator<InventoryItem> items, int maxConflictSamples) {
+        if (items == null) throw new IllegalArgumentException("items are required");
+
+        em.flush(); // lo pendiente en el contexto JPA va antes que el COPY
+        jdbc.execute(CREATE_STAGING_SQL);
+        jdbc.execute("truncate inventory_items_import");
+
+        Long staged = jdbc.execute((ConnectionCallback<Long>) con -> copy(con.unwrap(PGConnection.class), items));
+        if (staged == null || staged == 0) return new Outcome(0, 0, List.of());
+
+        int inserted = jdbc.update(MERGE_SQL);
+        List<String> conflicts = inserted == staged || maxConflictSamples <= 0
+                ? List.of()
+                : jdbc.queryForList(CONFLICTS_SQL, String.class, maxConflictSamples);
+
+        return new Outcome(staged, inserted, conflicts);
+    }
+
+    private static long copy(PGConnection pg, Iterator<InventoryItem> items) throws SQLException {
+        CopyIn in = pg.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder buf = new StringBuilder(CHUNK_CHARS + 4096);
+            long lineNo = 0;
+            while (items.hasNext()) {
+                appendRow(buf, ++lineNo, items.next());
+                if (buf.length() >= CHUNK_CHARS) {
+                    write(in, buf);
+                }
+            }
+            write(in, buf);
+            return in.endCopy();
+        } finally {
+            if (in.isActive()) in.cancelCopy();
+        }
+    }
+
+    private static void write(CopyIn in, StringBuilder buf) throws SQLException {
+        if (buf.isEmpty()) return;
+        byte[] bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+        in.writeToCopy(bytes, 0, bytes.length);
+        buf.setLength(0);
+    }
+
+    private static void appendRow(StringBuilder buf, long lineNo, InventoryItem item) {
+        buf.append(lineNo).append(',')
+                .append(item.id().getValue()).append(',');
+        quoted(buf, item.sku().getValue()).append(',');
+        quoted(buf, item.name().getValue()).append(',');
+        quoted(buf, item.description()).append(',');
+        buf.append(item.category().name()).append(',')
+                .append(item.accessoryType().name()).append(',')
+                .append(item.gender().name()).append(',')
+                .append(item.size().name()).append(',')
+                .append(item.fabric().name()).append(',');
+        quoted(buf, item.color() != null ? item.color().getValue() : null).append(',');
+        buf.append(item.price().amount().toPlainString()).append(',')
+                .append(item.price().currency().getCurrencyCode()).append(',')
+                .append(item.stock().onHand()).append(',')
+                .append(item.status().name()).append(',')
+                .append(OffsetDateTime.ofInstant(item.createdAt(), ZoneOffset.UTC))
+                .append('\n');
+    }
+
+    // En CSV de COPY un campo vacío sin comillas es NULL; con comillas es la cadena (aunque esté vacía)
+    private static StringBuilder quoted(StringBuilder buf, String value) {
+        if (value == null) return buf;
+        buf.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') buf.append('"');
+            buf.append(c);
+        }
+        return buf.append('"');
+    }
+}
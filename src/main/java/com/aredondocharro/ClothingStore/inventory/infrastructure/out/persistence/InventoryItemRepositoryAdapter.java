@@ -1,35 +1,256 @@
 package com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence;
 
 import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CountMode;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPage;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangeCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFacets;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryFingerprint;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.Page;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.PageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryExportPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryAvailabilityView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryChangeView;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.entity.InventoryItemEntity;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.entity.StockReservationEntity;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.mapper.InventoryPersistenceMapper;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.repository.InventoryItemJpaRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Tuple;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Currency;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Repository
 @RequiredArgsConstructor
-public class InventoryItemRepositoryAdapter implements InventoryItemRepositoryPort {
+public class InventoryItemRepositoryAdapter implements InventoryItemRepositoryPort, InventoryExportPort {
+
+    private static final String RESERVE_IF_AVAILABLE_SQL = """
+            update inventory_items
+               set stock_reserved = stock_reserved + ?,
+                   updated_at = ?,
+                   version = version + 1
+             where id = ?
+               and status = 'ACTIVE'
+               and stock_on_hand - stock_reserved >= ?
+            """;
+
+    private static final String RELEASE_IF_RESERVED_SQL = """
+            update inventory_items
+               set stock_reserved = stock_reserved - ?,
+                   updated_at = ?,
+                   version = version + 1
+             where id = ?
+               and stock_reserved >= ?
+            """;
+
+    // Misma guarda que Stock.adjustOnHand; el cast a bigint evita el overflow de integer con deltas extremos
+    private static final String ADJUST_ON_HAND_SQL = """
+            update inventory_items
+               set stock_on_hand = stock_on_hand + ?,
+                   updated_at = ?,
+                   version = version + 1
+             where id = ?
+               and status = 'ACTIVE'
+               and stock_on_hand::bigint + ? >= stock_reserved
+            """;
+
+    // Alta sin SELECT previo: con el id asignado, merge() consultaba la fila antes de cada escritura
+    private static final String INSERT_ITEM_SQL = """
+            insert into inventory_items
+                (id, sku, name, description, category, accessory_type, gender, size, fabric, color,
+                 price_amount, price_currency, stock_on_hand, stock_reserved, status, created_at, updated_at, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict (id) do nothing
+            """;
+
+    // Mismo control optimista que @Version: 0 filas = otra transacción escribió antes
+    private static final String UPDATE_ITEM_SQL = """
+            update inventory_items
+               set sku = ?, name = ?, description = ?, category = ?, accessory_type = ?, gender = ?,
+                   size = ?, fabric = ?, color = ?, price_amount = ?, price_currency = ?,
+                   stock_on_hand = ?, stock_reserved = ?, status = ?, updated_at = ?,
+                   version = version + 1
+             where id = ?
+               and version = ?
+            """;
+
+    // La reserva solo se inserta si el UPDATE de stock pasó la guarda: las dos filas en un round trip
+    private static final String RESERVE_AND_INSERT_SQL = """
+            with item as (
+                update inventory_items
+                   set stock_reserved = stock_reserved + ?,
+                       updated_at = ?,
+                       version = version + 1
+                 where id = ?
+                   and status = 'ACTIVE'
+                   and stock_on_hand - stock_reserved >= ?
+                returning id
+            )
+            insert into stock_reservations
+                (id, item_id, reference, quantity, status, created_at, expires_at, released_at, consumed_at, version)
+            select ?, item.id, ?, ?, ?, ?, ?, null, null, ?
+              from item
+            """;
+
+    // La reserva (versión + ACTIVE) manda: el stock solo se toca si su transición se aplicó
+    private static final String RELEASE_AND_UPDATE_SQL = """
+            with res as (
+                update stock_reservations
+                   set status = 'RELEASED',
+                       released_at = ?,
+                       version = version + 1
+                 where id = ?
+                   and version = ?
+                   and status = 'ACTIVE'
+                returning item_id, quantity
+            ), item as (
+                update inventory_items i
+                   set stock_reserved = i.stock_reserved - res.quantity,
+                       updated_at = ?,
+                       version = i.version + 1
+                  from res
+                 where i.id = res.item_id
+                   and i.stock_reserved >= res.quantity
+                returning i.id
+            )
+            select (select count(*) from res) as reservations, (select count(*) from item) as items
+            """;
+
+    private static final String CONSUME_AND_UPDATE_SQL = """
+            with res as (
+                update stock_reservations
+                   set status = 'CONSUMED',
+                       consumed_at = ?,
+                       version = version + 1
+                 where id = ?
+                   and version = ?
+                   and status = 'ACTIVE'
+                returning item_id, quantity
+            ), item as (
+                update inventory_items i
+                   set stock_reserved = i.stock_reserved - res.quantity,
+                       stock_on_hand = i.stock_on_hand - res.quantity,
+                       updated_at = ?,
+                       version = i.version + 1
+                  from res
+                 where i.id = res.item_id
+                   and i.status = 'ACTIVE'
+                   and i.stock_reserved >= res.quantity
+                returning i.id
+            )
+            select (select count(*) from res) as reservations, (select count(*) from item) as items
+            """;
+
+    // Solo las columnas de disponibilidad; un array como único parámetro mantiene una sola sentencia preparada
+    private static final String AVAILABILITY_SQL = """
+            select id, sku, price_amount, price_currency, stock_on_hand, stock_reserved, status
+              from inventory_items
+             where id = any(?)
+                or sku = any(?)
+            """;
+
+    // Feed de cambios en orden (updated_at asc, id desc): es el recorrido hacia atrás de
+    // idx_inventory_items_updated_at_id (V14), así que el seek no necesita otro índice que mantener
+    // en cada escritura de stock.
+    private static final String CHANGES_COLUMNS =
+            "id, sku, name, price_amount, price_currency, stock_on_hand, stock_reserved, status, updated_at, version";
+
+    private static final String CHANGES_FIRST_SQL = "select " + CHANGES_COLUMNS + """
+             from inventory_items
+            where updated_at < ?
+            order by updated_at, id desc
+            limit ?
+            """;
+
+    private static final String CHANGES_AFTER_SQL = "select " + CHANGES_COLUMNS + """
+             from inventory_items
+            where updated_at >= ?
+              and (updated_at > ? or id < ?)
+              and updated_at < ?
+            order by updated_at, id desc
+            limit ?
+            """;
+
+    private static final String OLDEST_OPEN_WRITE_SQL = """
+            select min(xact_start)
+              from pg_stat_activity
+             where datname = current_database()
+               and backend_xid is not null
+               and pid <> pg_backend_pid()
+            """;
+
+    private static final RowMapper<InventoryChangeView> CHANGE_ROW_MAPPER = (rs, i) -> new InventoryChangeView(
+            InventoryItemId.of(rs.getObject("id", UUID.class)),
+            Sku.of(rs.getString("sku")),
+            rs.getString("name"),
+            new Money(rs.getBigDecimal("price_amount"), Currency.getInstance(rs.getString("price_currency"))),
+            rs.getInt("stock_on_hand"),
+            rs.getInt("stock_reserved"),
+            ItemStatus.valueOf(rs.getString("status")),
+            rs.getObject("updated_at", OffsetDateTime.class).toInstant(),
+            rs.getLong("version")
+    );
+
+    // Parámetros por IN al resolver SKUs (Postgres admite como mucho 32767 binds por sentencia)
+    private static final int SKU_LOOKUP_CHUNK = 1000;
+
+    // Filas por round trip del cursor de servidor durante el export
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final char LIKE_ESCAPE = '\\';
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final RowMapper<InventoryItemSummaryView> SUMMARY_ROW_MAPPER = (rs, i) -> new InventoryItemSummaryView(
+            InventoryItemId.of(rs.getObject("id", UUID.class)),
+            Sku.of(rs.getString("sku")),
+            rs.getString("name"),
+            new Money(rs.getBigDecimal("price_amount"), Currency.getInstance(rs.getString("price_currency"))),
+            rs.getInt("stock_on_hand"),
+            rs.getInt("stock_reserved"),
+            ItemStatus.valueOf(rs.getString("status"))
+    );
 
     private final InventoryItemJpaRepository jpaRepo;
+    private final JdbcTemplate jdbc;
+    private final ObjectProvider<ConcurrentSearchQueries> concurrentSearch;
 
     @PersistenceContext
     private EntityManager em;
@@ -46,11 +267,275 @@ public class InventoryItemRepositoryAdapter implements InventoryItemRepositoryPo
         return jpaRepo.findBySku(sku.getValue()).map(InventoryPersistenceMapper::toDomain);
     }
 
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Map<Sku, InventoryItemId> findIdsBySkus(Collection<Sku> skus) {
+        if (skus == null || skus.isEmpty()) return Map.of();
+
+        List<String> values = skus.stream().map(Sku::getValue).distinct().toList();
+        Map<Sku, InventoryItemId> ids = new HashMap<>(values.size() * 2);
+        for (int from = 0; from < values.size(); from += SKU_LOOKUP_CHUNK) {
+            List<String> chunk = values.subList(from, Math.min(from + SKU_LOOKUP_CHUNK, values.size()));
+            em.createQuery("select e.sku, e.id from InventoryItemEntity e where e.sku in :skus", Tuple.class)
+                    .setParameter("skus", chunk)
+                    .getResultList()
+                    .forEach(t -> ids.put(Sku.of(t.get(0, String.class)), InventoryItemId.of(t.get(1, UUID.class))));
+        }
+        return ids;
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<InventoryAvailabilityView> findAvailability(Collection<InventoryItemId> ids) {
+        return findAvailability(ids, List.of());
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<InventoryAvailabilityView> findAvailability(Collection<InventoryItemId> ids, Collection<Sku> skus) {
+        boolean noIds = ids == null || ids.isEmpty();
+        boolean noSkus = skus == null || skus.isEmpty();
+        if (noIds && noSkus) return List.of();
+
+        // Un array vacío deja su rama del OR sin filas: una sola sentencia para ids, SKUs o ambos
+        Object[] uuids = noIds ? new Object[0] : ids.stream().map(InventoryItemId::getValue).distinct().toArray();
+        Object[] skuValues = noSkus ? new Object[0] : skus.stream().map(Sku::getValue).distinct().toArray();
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(AVAILABILITY_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", uuids));
+            ps.setArray(2, con.createArrayOf("varchar", skuValues));
+            return ps;
+        }, (rs, i) -> new InventoryAvailabilityView(
+                InventoryItemId.of(rs.getObject("id", UUID.class)),
+                Sku.of(rs.getString("sku")),
+                new Money(rs.getBigDecimal("price_amount"), Currency.getInstance(rs.getString("price_currency"))),
+                rs.getInt("stock_on_hand"),
+                rs.getInt("stock_reserved"),
+                ItemStatus.valueOf(rs.getString("status"))
+        ));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<InventoryChangeView> findChangesAfter(InventoryChangeCursor after, Instant before, int limit) {
+        if (before == null) throw new IllegalArgumentException("before is required");
+        if (limit <= 0) throw new IllegalArgumentException("limit must be > 0");
+
+        if (after == null) {
+            return jdbc.query(CHANGES_FIRST_SQL, CHANGE_ROW_MAPPER, toTimestamp(before), limit);
+        }
+        OffsetDateTime from = toTimestamp(after.updatedAt());
+        return jdbc.query(CHANGES_AFTER_SQL, CHANGE_ROW_MAPPER,
+                from, from, after.lastId(), toTimestamp(before), limit);
+    }
+
+    /**
+     * backend_xid solo existe cuando la transacción ya escribió: las de solo lectura (p. ej. un export largo)
+     * no frenan el feed. Requiere ver las sesiones de la app en pg_stat_activity (mismo rol o pg_read_all_stats).
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<Instant> findOldestOpenWriteStart() {
+        OffsetDateTime oldest = jdbc.queryForObject(OLDEST_OPEN_WRITE_SQL, OffsetDateTime.class);
+        return Optional.ofNullable(oldest).map(OffsetDateTime::toInstant);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<InventoryFingerprint> findFingerprint(InventoryItemId id) {
+        return jdbc.query("select version, updated_at from inventory_items where id = ?",
+                        (rs, i) -> InventoryFingerprint.ofItem(
+                                rs.getLong("version"),
+                                rs.getObject("updated_at", OffsetDateTime.class).toInstant()),
+                        id.getValue())
+                .stream().findFirst();
+    }
+
+    /**
+     * Una sola sentencia por guardado: INSERT si el item es nuevo (versión 0) y UPDATE versionado si no.
+     * Sustituye a {@code jpaRepo.save}, que con id asignado hacía merge (SELECT + UPDATE).
+     */
     @Override
     @Transactional(propagation = Propagation.MANDATORY)
     public void save(InventoryItem item) {
-        InventoryItemEntity entity = InventoryPersistenceMapper.toEntity(item);
-        jpaRepo.save(entity);
+        em.flush();
+        // Versión 0 también es un item importado y nunca modificado: si el INSERT choca, se cae al UPDATE
+        boolean written = item.version() == 0 && jdbc.update(INSERT_ITEM_SQL, ps -> bindInsert(ps, item)) == 1;
+        if (!written) written = jdbc.update(UPDATE_ITEM_SQL, ps -> bindUpdate(ps, item)) == 1;
+        em.clear(); // una copia gestionada de la fila ya no refleja lo escrito
+        if (!written) {
+            throw new ObjectOptimisticLockingFailureException(InventoryItemEntity.class, item.id().getValue());
+        }
+    }
+
+    /**
+     * Reserva con un único UPDATE condicional: sin read-modify-write ni lock
+     * retenido mientras corre código de aplicación. La guarda replica {@link Stock#reserve(int)}.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(InventoryItemId id, int qty, Instant now) {
+        return jpaRepo.reserveIfAvailable(id.getValue(), qty, ItemStatus.ACTIVE, now) == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryRelease(InventoryItemId id, int qty, Instant now) {
+        // Sin filtro de status: liberar debe funcionar también en DISCONTINUED (igual que el dominio)
+        return jpaRepo.releaseIfReserved(id.getValue(), qty, now) == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryConsume(InventoryItemId id, int qty, Instant now) {
+        // onHand >= reserved siempre, así que basta con exigir reserved >= qty
+        return jpaRepo.consumeIfReserved(id.getValue(), qty, ItemStatus.ACTIVE, now) == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(StockReservation reservation) {
+        if (reservation.status() != ReservationStatus.ACTIVE) throw new IllegalArgumentException("reservation must be ACTIVE");
+
+        em.flush();
+        OffsetDateTime ts = toTimestamp(reservation.createdAt());
+        int inserted = jdbc.update(RESERVE_AND_INSERT_SQL, ps -> {
+            ps.setInt(1, reservation.quantity());
+            ps.setObject(2, ts);
+            ps.setObject(3, reservation.itemId().getValue());
+            ps.setInt(4, reservation.quantity());
+            ps.setObject(5, reservation.id().getValue());
+            ps.setString(6, reservation.reference().getValue());
+            ps.setInt(7, reservation.quantity());
+            ps.setString(8, reservation.status().name());
+            ps.setObject(9, ts);
+            ps.setObject(10, toTimestamp(reservation.expiresAt()));
+            ps.setLong(11, reservation.version());
+        });
+        em.clear();
+        return inserted == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryRelease(StockReservation released) {
+        if (released.status() != ReservationStatus.RELEASED) throw new IllegalArgumentException("reservation must be RELEASED");
+        return applyTransition(RELEASE_AND_UPDATE_SQL, released, released.releasedAt());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryConsume(StockReservation consumed) {
+        if (consumed.status() != ReservationStatus.CONSUMED) throw new IllegalArgumentException("reservation must be CONSUMED");
+        return applyTransition(CONSUME_AND_UPDATE_SQL, consumed, consumed.consumedAt());
+    }
+
+    /**
+     * Un único batch JDBC con un UPDATE condicional por línea, en el orden recibido
+     * (el caller ordena por id para que los locks de fila se tomen siempre en el mismo orden).
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<InventoryItemId> tryReserveAll(List<ReserveStockLine> lines, Instant now) {
+        if (lines == null || lines.isEmpty()) return List.of();
+
+        em.flush(); // lo pendiente en el contexto JPA va antes que el batch
+        OffsetDateTime ts = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        int[] counts = jdbc.batchUpdate(RESERVE_IF_AVAILABLE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ReserveStockLine line = lines.get(i);
+                ps.setInt(1, line.quantity());
+                ps.setObject(2, ts);
+                ps.setObject(3, line.itemId().getValue());
+                ps.setInt(4, line.quantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+        em.clear(); // las entidades gestionadas ya no reflejan el stock actual
+
+        List<InventoryItemId> rejected = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) rejected.add(lines.get(i).itemId());
+        }
+        return rejected;
+    }
+
+    /**
+     * Igual que {@link #tryReserveAll} pero liberando: un UPDATE por item con la cantidad ya agregada.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<InventoryItemId> tryReleaseAll(Map<InventoryItemId, Integer> quantities, Instant now) {
+        if (quantities == null || quantities.isEmpty()) return List.of();
+
+        List<Map.Entry<InventoryItemId, Integer>> entries = List.copyOf(quantities.entrySet());
+        em.flush();
+        OffsetDateTime ts = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        int[] counts = jdbc.batchUpdate(RELEASE_IF_RESERVED_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<InventoryItemId, Integer> e = entries.get(i);
+                ps.setInt(1, e.getValue());
+                ps.setObject(2, ts);
+                ps.setObject(3, e.getKey().getValue());
+                ps.setInt(4, e.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+        em.clear();
+
+        List<InventoryItemId> rejected = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) rejected.add(entries.get(i).getKey());
+        }
+        return rejected;
+    }
+
+    /**
+     * Ajuste masivo de onHand: un UPDATE condicional por línea, todos en un único batch JDBC.
+     * Las líneas del mismo item se aplican en el orden recibido, así que cada guarda ve el resultado de la anterior.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Integer> tryAdjustOnHandAll(List<StockAdjustmentLine> lines, Instant now) {
+        if (lines == null || lines.isEmpty()) return List.of();
+        for (StockAdjustmentLine line : lines) {
+            if (line.itemId() == null) throw new IllegalArgumentException("lines must be resolved to itemId");
+        }
+
+        em.flush();
+        OffsetDateTime ts = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        int[] counts = jdbc.batchUpdate(ADJUST_ON_HAND_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockAdjustmentLine line = lines.get(i);
+                ps.setInt(1, line.delta());
+                ps.setObject(2, ts);
+                ps.setObject(3, line.itemId().getValue());
+                ps.setInt(4, line.delta());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+        em.clear();
+
+        List<Integer> rejected = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) rejected.add(i);
+        }
+        return rejected;
     }
 
     /**
@@ -63,61 +548,313 @@ public class InventoryItemRepositoryAdapter implements InventoryItemRepositoryPo
     @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<InventoryItemSummaryView> search(InventorySearchQuery query, PageRequest pageRequest) {
         if (pageRequest == null) throw new IllegalArgumentException("pageRequest is required");
-        return searchAsTuple(query, pageRequest);
+        return searchByTemplate(query, pageRequest);
     }
 
-    private Page<InventoryItemSummaryView> searchAsTuple(InventorySearchQuery query, PageRequest pageRequest) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
+    /**
+     * Paginación keyset: filtra por (clave de orden, id) &gt; último cursor en vez de saltar filas,
+     * así cada página recorre solo su tramo del índice compuesto (V14).
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPage<InventoryItemSummaryView> searchAfter(InventorySearchQuery query, CursorPageRequest pageRequest) {
+        if (pageRequest == null) throw new IllegalArgumentException("pageRequest is required");
 
-        // ---------- Items query ----------
-        CriteriaQuery<Tuple> itemsCq = cb.createTupleQuery();
-        Root<InventoryItemEntity> root = itemsCq.from(InventoryItemEntity.class);
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<InventoryItemEntity> root = cq.from(InventoryItemEntity.class);
 
         List<Predicate> predicates = buildPredicates(cb, root, query);
+        if (pageRequest.after() != null) {
+            predicates.add(seekPredicate(cb, root, pageRequest.after()));
+        }
 
-        itemsCq.multiselect(
-                root.get("id").alias("id"),
-                root.get("sku").alias("sku"),
-                root.get("name").alias("name"),
-                root.get("priceAmount").alias("priceAmount"),
-                root.get("priceCurrency").alias("priceCurrency"),
-                root.get("stockOnHand").alias("stockOnHand"),
-                root.get("stockReserved").alias("stockReserved"),
-                root.get("status").alias("status")
-        );
+        List<Selection<?>> selections = new ArrayList<>(summarySelections(root));
+        selections.add(root.get("updatedAt").alias("updatedAt"));
+        cq.multiselect(selections);
 
         if (!predicates.isEmpty()) {
-            itemsCq.where(cb.and(predicates.toArray(Predicate[]::new)));
+            cq.where(cb.and(predicates.toArray(Predicate[]::new)));
         }
+        cq.orderBy(sortOrders(cb, root, pageRequest.sort()));
 
-        itemsCq.orderBy(
-                cb.desc(root.get("updatedAt")),
-                cb.asc(root.get("id"))
-        );
+        // Una fila extra para saber si hay siguiente página sin COUNT
+        List<Tuple> tuples = em.createQuery(cq)
+                .setMaxResults(pageRequest.limit() + 1)
+                .getResultList();
 
-        TypedQuery<Tuple> itemsQuery = em.createQuery(itemsCq);
-        itemsQuery.setFirstResult(pageRequest.offset());
-        itemsQuery.setMaxResults(pageRequest.limit());
+        boolean hasMore = tuples.size() > pageRequest.limit();
+        List<Tuple> rows = hasMore ? tuples.subList(0, pageRequest.limit()) : tuples;
 
-        List<Tuple> tuples = itemsQuery.getResultList();
-        List<InventoryItemSummaryView> items = tuples.stream()
+        List<InventoryItemSummaryView> items = rows.stream()
                 .map(this::toSummaryView)
                 .toList();
 
-        // ---------- Count query ----------
-        CriteriaQuery<Long> countCq = cb.createQuery(Long.class);
-        Root<InventoryItemEntity> countRoot = countCq.from(InventoryItemEntity.class);
+        InventoryCursor next = hasMore ? cursorOf(pageRequest.sort(), rows.get(rows.size() - 1)) : null;
+        return new CursorPage<>(items, next);
+    }
+
+    /**
+     * Página y count con el SQL precompilado de la combinación de filtros ({@link InventorySearchSql}):
+     * sin árbol Criteria ni render de Hibernate por petición.
+     */
+    private Page<InventoryItemSummaryView> searchByTemplate(InventorySearchQuery query, PageRequest pageRequest) {
+        int mask = InventorySearchSql.mask(query);
+        List<Object> args = InventorySearchSql.args(query);
+
+        // Una fila extra: hasNext sin depender del total
+        Object[] pageArgs = args.toArray(new Object[args.size() + 2]);
+        pageArgs[args.size()] = pageRequest.limit() + 1;
+        pageArgs[args.size() + 1] = pageRequest.offset();
+
+        // EXACT: página y count a la vez en dos conexiones, si está habilitado
+        ConcurrentSearchQueries concurrent = pageRequest.countMode() == CountMode.EXACT ? concurrentSearch.getIfAvailable() : null;
+        if (concurrent != null) {
+            ConcurrentSearchQueries.PageAndCount<InventoryItemSummaryView> result = concurrent.pageAndCount(
+                    InventorySearchSql.page(mask), pageArgs, SUMMARY_ROW_MAPPER,
+                    InventorySearchSql.count(mask), args.toArray(),
+                    found -> !isLastPage(pageRequest, found));
+            boolean hasNext = result.rows().size() > pageRequest.limit();
+            List<InventoryItemSummaryView> items = hasNext ? result.rows().subList(0, pageRequest.limit()) : result.rows();
+            long total = result.total() != null ? result.total() : pageRequest.offset() + (long) items.size();
+            return new Page<>(items, total, pageRequest, CountMode.EXACT, hasNext);
+        }
+
+        List<InventoryItemSummaryView> rows = jdbc.query(InventorySearchSql.page(mask), SUMMARY_ROW_MAPPER, pageArgs);
+        boolean hasNext = rows.size() > pageRequest.limit();
+        List<InventoryItemSummaryView> items = hasNext ? rows.subList(0, pageRequest.limit()) : rows;
+
+        if (pageRequest.countMode() == CountMode.NONE) {
+            return new Page<>(items, -1, pageRequest, CountMode.NONE, hasNext);
+        }
+
+        // Última página alcanzada: el total es exacto sin consultar nada más
+        long seen = pageRequest.offset() + (long) items.size();
+        if (isLastPage(pageRequest, rows)) {
+            return new Page<>(items, seen, pageRequest, CountMode.EXACT, false);
+        }
+
+        if (pageRequest.countMode() == CountMode.ESTIMATED) {
+            // La estimación nunca puede quedar por debajo de lo ya visto
+            long estimate = Math.max(estimateCount(query), hasNext ? seen + 1 : seen);
+            return new Page<>(items, estimate, pageRequest, CountMode.ESTIMATED, hasNext);
+        }
+
+        Long total = jdbc.queryForObject(InventorySearchSql.count(mask), Long.class, args.toArray());
+        return new Page<>(items, total != null ? total : 0L, pageRequest, CountMode.EXACT, hasNext);
+    }
+
+    // Sin fila extra y con algo visto (o desde el principio): offset + filas es el total exacto
+    private static boolean isLastPage(PageRequest pageRequest, List<?> rows) {
+        return rows.size() <= pageRequest.limit() && (!rows.isEmpty() || pageRequest.offset() == 0);
+    }
+
+    /**
+     * Filas estimadas por el planner de Postgres para los mismos filtros (EXPLAIN, sin ejecutar la consulta).
+     * Debe reflejar los predicados de {@link #buildPredicates}.
+     */
+    private long estimateCount(InventorySearchQuery query) {
+        List<Object> args = new ArrayList<>();
+        String sql = "explain (format json) select 1 from inventory_items" + nativeWhere(query, args);
+
+        String plan = jdbc.queryForObject(sql, String.class, args.toArray());
+        Matcher m = PLAN_ROWS.matcher(plan == null ? "" : plan);
+        return m.find() ? Long.parseLong(m.group(1)) : 0L;
+    }
+
+    /**
+     * Todas las facetas en una pasada: GROUPING SETS agrupa por cada columna por separado
+     * y grouping(col) = 0 indica a qué faceta pertenece cada fila.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public InventoryFacets countFacets(InventorySearchQuery query) {
+        List<Object> args = new ArrayList<>();
+        String sql = """
+                select category, gender, size, fabric, status, count(*) as n,
+                       grouping(category) as g_category, grouping(gender) as g_gender,
+                       grouping(size) as g_size, grouping(fabric) as g_fabric
+                  from inventory_items
+                """ + nativeWhere(query, args) + """
+
+                 group by grouping sets ((category), (gender), (size), (fabric), (status))
+                """;
+
+        Map<InventoryCategory, Long> categories = new EnumMap<>(InventoryCategory.class);
+        Map<Gender, Long> genders = new EnumMap<>(Gender.class);
+        Map<Size, Long> sizes = new EnumMap<>(Size.class);
+        Map<Fabric, Long> fabrics = new EnumMap<>(Fabric.class);
+        Map<ItemStatus, Long> statuses = new EnumMap<>(ItemStatus.class);
+
+        jdbc.query(sql, rs -> {
+            long n = rs.getLong("n");
+            if (rs.getInt("g_category") == 0) categories.put(InventoryCategory.valueOf(rs.getString("category")), n);
+            else if (rs.getInt("g_gender") == 0) genders.put(Gender.valueOf(rs.getString("gender")), n);
+            else if (rs.getInt("g_size") == 0) sizes.put(Size.valueOf(rs.getString("size")), n);
+            else if (rs.getInt("g_fabric") == 0) fabrics.put(Fabric.valueOf(rs.getString("fabric")), n);
+            else statuses.put(ItemStatus.valueOf(rs.getString("status")), n);
+        }, args.toArray());
+
+        return new InventoryFacets(categories, genders, sizes, fabrics, statuses);
+    }
+
+    /**
+     * Export en streaming: con autocommit desactivado (transacción) y fetch size, el driver de
+     * Postgres usa un cursor de servidor y trae las filas por tandas; ninguna lista se materializa.
+     * Sin ORDER BY a propósito: un seq scan es lo más barato para recorrer la tabla entera.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public long streamSummaries(InventorySearchQuery query, Consumer<InventoryItemSummaryView> sink) {
+        List<Object> args = new ArrayList<>();
+        String sql = """
+                select id, sku, name, price_amount, price_currency, stock_on_hand, stock_reserved, status
+                  from inventory_items
+                """ + nativeWhere(query, args);
+
+        long[] count = {0};
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            sink.accept(new InventoryItemSummaryView(
+                    InventoryItemId.of(rs.getObject("id", UUID.class)),
+                    Sku.of(rs.getString("sku")),
+                    rs.getString("name"),
+                    new Money(rs.getBigDecimal("price_amount"), Currency.getInstance(rs.getString("price_currency"))),
+                    rs.getInt("stock_on_hand"),
+                    rs.getInt("stock_reserved"),
+                    ItemStatus.valueOf(rs.getString("status"))
+            ));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Transición ACTIVE -> final de la reserva y movimiento de stock en la misma sentencia.
+     * Reserva ya cambiada (versión o estado) = conflicto optimista, como hacía el merge de JPA.
+     * Si la guarda de stock falla la reserva ya quedó escrita: el caller debe lanzar para hacer rollback.
+     */
+    private boolean applyTransition(String sql, StockReservation reservation, Instant at) {
+        em.flush();
+        OffsetDateTime ts = toTimestamp(at);
+        int[] counts = jdbc.queryForObject(sql,
+                (rs, i) -> new int[]{rs.getInt("reservations"), rs.getInt("items")},
+                ts, reservation.id().getValue(), reservation.version(), ts);
+        em.clear();
+        if (counts[0] == 0) {
+            throw new ObjectOptimisticLockingFailureException(StockReservationEntity.class, reservation.id().getValue());
+        }
+        return counts[1] == 1;
+    }
+
+    private static void bindInsert(PreparedStatement ps, InventoryItem item) throws SQLException {
+        ps.setObject(1, item.id().getValue());
+        bindColumns(ps, 2, item);
+        ps.setObject(16, toTimestamp(item.createdAt()));
+        ps.setObject(17, toTimestamp(item.updatedAt()));
+        ps.setLong(18, item.version());
+    }
+
+    private static void bindUpdate(PreparedStatement ps, InventoryItem item) throws SQLException {
+        bindColumns(ps, 1, item);
+        ps.setObject(15, toTimestamp(item.updatedAt()));
+        ps.setObject(16, item.id().getValue());
+        ps.setLong(17, item.version());
+    }
+
+    // sku .. status, en el orden común a INSERT_ITEM_SQL y UPDATE_ITEM_SQL (14 columnas desde 'from')
+    private static void bindColumns(PreparedStatement ps, int from, InventoryItem item) throws SQLException {
+        int i = from;
+        ps.setString(i++, item.sku().getValue());
+        ps.setString(i++, item.name().getValue());
+        ps.setString(i++, item.description());
+        ps.setString(i++, item.category().name());
+        ps.setString(i++, item.accessoryType().name());
+        ps.setString(i++, item.gender().name());
+        ps.setString(i++, item.size().name());
+        ps.setString(i++, item.fabric().name());
+        ps.setString(i++, item.color() != null ? item.color().getValue() : null);
+        ps.setBigDecimal(i++, item.price().amount());
+        ps.setString(i++, item.price().currency().getCurrencyCode());
+        ps.setInt(i++, item.stock().onHand());
+        ps.setInt(i++, item.stock().reserved());
+        ps.setString(i, item.status().name());
+    }
 
-        List<Predicate> countPredicates = buildPredicates(cb, countRoot, query);
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return instant != null ? OffsetDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
 
-        countCq.select(cb.count(countRoot));
-        if (!countPredicates.isEmpty()) {
-            countCq.where(cb.and(countPredicates.toArray(Predicate[]::new)));
+    /**
+     * WHERE nativo equivalente a {@link #buildPredicates} (estimación, facetas y export van por JDBC).
+     */
+    private static String nativeWhere(InventorySearchQuery query, List<Object> args) {
+        args.addAll(InventorySearchSql.args(query));
+        return InventorySearchSql.where(InventorySearchSql.mask(query));
+    }
+
+    private static List<Selection<?>> summarySelections(Root<InventoryItemEntity> root) {
+        return List.of(
+                root.get("id").alias("id"),
+                root.get("sku").alias("sku"),
+                root.get("name").alias("name"),
+                root.get("priceAmount").alias("priceAmount"),
+                root.get("priceCurrency").alias("priceCurrency"),
+                root.get("stockOnHand").alias("stockOnHand"),
+                root.get("stockReserved").alias("stockReserved"),
+                root.get("status").alias("status")
+        );
+    }
+
+    // El desempate por id sigue la dirección del orden salvo en UPDATED_AT_DESC (orden histórico del listado)
+    private static List<Order> sortOrders(CriteriaBuilder cb, Root<InventoryItemEntity> root, InventorySort sort) {
+        return switch (sort) {
+            case UPDATED_AT_DESC -> List.of(cb.desc(root.get("updatedAt")), cb.asc(root.get("id")));
+            case PRICE_ASC -> List.of(cb.asc(root.get("priceAmount")), cb.asc(root.get("id")));
+            case PRICE_DESC -> List.of(cb.desc(root.get("priceAmount")), cb.desc(root.get("id")));
+            case NAME_ASC -> List.of(cb.asc(root.get("name")), cb.asc(root.get("id")));
+        };
+    }
+
+    private static Predicate seekPredicate(CriteriaBuilder cb, Root<InventoryItemEntity> root, InventoryCursor after) {
+        Path<UUID> id = root.get("id");
+        UUID lastId = after.lastId();
+        try {
+            return switch (after.sort()) {
+                case UPDATED_AT_DESC -> seekDesc(cb, root.get("updatedAt"), Instant.parse(after.key()), cb.greaterThan(id, lastId));
+                case PRICE_ASC -> seekAsc(cb, root.get("priceAmount"), new BigDecimal(after.key()), cb.greaterThan(id, lastId));
+                case PRICE_DESC -> seekDesc(cb, root.get("priceAmount"), new BigDecimal(after.key()), cb.lessThan(id, lastId));
+                case NAME_ASC -> seekAsc(cb, root.get("name"), after.key(), cb.greaterThan(id, lastId));
+            };
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("invalid cursor");
         }
+    }
 
-        long total = em.createQuery(countCq).getSingleResult();
+    // key >= v AND (key > v OR desempate): la primera condición acota el rango del índice
+    private static <K extends Comparable<? super K>> Predicate seekAsc(
+            CriteriaBuilder cb, Path<K> key, K value, Predicate idTieBreak) {
+        return cb.and(cb.greaterThanOrEqualTo(key, value), cb.or(cb.greaterThan(key, value), idTieBreak));
+    }
+
+    private static <K extends Comparable<? super K>> Predicate seekDesc(
+            CriteriaBuilder cb, Path<K> key, K value, Predicate idTieBreak) {
+        return cb.and(cb.lessThanOrEqualTo(key, value), cb.or(cb.lessThan(key, value), idTieBreak));
+    }
 
-        return new Page<>(items, total, pageRequest);
+    private static InventoryCursor cursorOf(InventorySort sort, Tuple last) {
+        String key = switch (sort) {
+            case UPDATED_AT_DESC -> last.get("updatedAt", Instant.class).toString();
+            case PRICE_ASC, PRICE_DESC -> last.get("priceAmount", BigDecimal.class).toPlainString();
+            case NAME_ASC -> last.get("name", String.class);
+        };
+        return new InventoryCursor(sort, key, last.get("id", UUID.class));
     }
 
     private InventoryItemSummaryView toSummaryView(Tuple t) {
@@ -140,10 +877,12 @@ public class InventoryItemRepositoryAdapter implements InventoryItemRepositoryPo
         List<Predicate> predicates = new ArrayList<>();
         if (query == null) return predicates;
 
+        // lower(col) like '%x%' coincide con los índices GIN trigram (V16): BitmapOr de ambos, sin seq scan.
+        // Con menos de 3 caracteres no hay trigramas y Postgres acaba recorriendo todo el índice.
         if (query.text() != null && !query.text().isBlank()) {
-            String like = "%" + query.text().trim().toLowerCase() + "%";
-            Predicate skuLike = cb.like(cb.lower(root.get("sku")), like);
-            Predicate nameLike = cb.like(cb.lower(root.get("name")), like);
+            String like = InventorySearchSql.containsPattern(query.text());
+            Predicate skuLike = cb.like(cb.lower(root.get("sku")), like, LIKE_ESCAPE);
+            Predicate nameLike = cb.like(cb.lower(root.get("name")), like, LIKE_ESCAPE);
             predicates.add(cb.or(skuLike, nameLike));
         }
 
@@ -0,0 +1,108 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL de búsqueda precompilado por combinación de filtros.
+ * <p>
+ * Los filtros opcionales de {@link InventorySearchQuery} son 6 (texto + 5 enums): 64 combinaciones,
+ * cada una con su texto fijo generado una sola vez. Así no se construye ni se renderiza un árbol
+ * Criteria por petición, y el driver reutiliza el prepared statement de servidor de cada texto
+ * (pgjdbc lo promociona tras {@code prepareThreshold} ejecuciones por conexión).
+ */
+public final class InventorySearchSql {
+
+    public static final int TEXT = 1;
+    public static final int CATEGORY = 1 << 1;
+    public static final int GENDER = 1 << 2;
+    public static final int SIZE = 1 << 3;
+    public static final int FABRIC = 1 << 4;
+    public static final int STATUS = 1 << 5;
+
+    public static final int COMBINATIONS = 1 << 6;
+
+    private static final String SUMMARY_COLUMNS =
+            "id, sku, name, price_amount, price_currency, stock_on_hand, stock_reserved, status";
+
+    private static final String[] WHERE = new String[COMBINATIONS];
+    private static final String[] PAGE = new String[COMBINATIONS];
+    private static final String[] COUNT = new String[COMBINATIONS];
+
+    static {
+        for (int mask = 0; mask < COMBINATIONS; mask++) {
+            WHERE[mask] = renderWhere(mask);
+            PAGE[mask] = "select " + SUMMARY_COLUMNS + " from inventory_items" + WHERE[mask]
+                    + " order by updated_at desc, id limit ? offset ?";
+            COUNT[mask] = "select count(*) from inventory_items" + WHERE[mask];
+        }
+    }
+
+    private InventorySearchSql() {}
+
+    public static int mask(InventorySearchQuery query) {
+        if (query == null) return 0;
+        int mask = 0;
+        if (query.text() != null && !query.text().isBlank()) mask |= TEXT;
+        if (query.category() != null) mask |= CATEGORY;
+        if (query.gender() != null) mask |= GENDER;
+        if (query.size() != null) mask |= SIZE;
+        if (query.fabric() != null) mask |= FABRIC;
+        if (query.status() != null) mask |= STATUS;
+        return mask;
+    }
+
+    /** {@code " where true [and ...]"} para la combinación dada. */
+    public static String where(int mask) {
+        return WHERE[mask];
+    }
+
+    /** Página por offset con el orden del listado; los dos últimos parámetros son limit y offset. */
+    public static String page(int mask) {
+        return PAGE[mask];
+    }
+
+    public static String count(int mask) {
+        return COUNT[mask];
+    }
+
+    /** Parámetros del WHERE en el orden de la plantilla. */
+    public static List<Object> args(InventorySearchQuery query) {
+        List<Object> args = new ArrayList<>(7);
+        if (query == null) return args;
+        if (query.text() != null && !query.text().isBlank()) {
+            String like = containsPattern(query.text());
+            args.add(like);
+            args.add(like);
+        }
+        if (query.category() != null) args.add(query.category().name());
+        if (query.gender() != null) args.add(query.gender().name());
+        if (query.size() != null) args.add(query.size().name());
+        if (query.fabric() != null) args.add(query.fabric().name());
+        if (query.status() != null) args.add(query.status().name());
+        return args;
+    }
+
+    // El texto del usuario es literal: % y _ no deben actuar como comodines
+    static String containsPattern(String text) {
+        String escaped = text.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    // lower(col) like '%x%' coincide con los índices GIN trigram (V16)
+    private static String renderWhere(int mask) {
+        StringBuilder sql = new StringBuilder(" where true");
+        if ((mask & TEXT) != 0) sql.append(" and (lower(sku) like ? escape '\\' or lower(name) like ? escape '\\')");
+        if ((mask & CATEGORY) != 0) sql.append(" and category = ?");
+        if ((mask & GENDER) != 0) sql.append(" and gender = ?");
+        if ((mask & SIZE) != 0) sql.append(" and size = ?");
+        if ((mask & FABRIC) != 0) sql.append(" and fabric = ?");
+        if ((mask & STATUS) != 0) sql.append(" and status = ?");
+        return sql.toString();
+    }
+}
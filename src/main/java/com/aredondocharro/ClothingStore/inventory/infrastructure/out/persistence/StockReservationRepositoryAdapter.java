@@ -4,21 +4,81 @@ import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
 import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
 import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationStatus;
 import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservationId;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.entity.StockReservationEntity;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.mapper.InventoryPersistenceMapper;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.repository.StockReservationJpaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 @RequiredArgsConstructor
 public class StockReservationRepositoryAdapter implements StockReservationRepositoryPort {
 
+    private static final String INSERT_SQL = """
+            insert into stock_reservations
+                (id, item_id, reference, quantity, status, created_at, expires_at, released_at, consumed_at, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Alta sin SELECT previo (save de una reserva nueva); el conflicto por id cae al UPDATE versionado
+    private static final String INSERT_IF_ABSENT_SQL = INSERT_SQL + "on conflict (id) do nothing";
+
+    private static final String UPDATE_SQL = """
+            update stock_reservations
+               set status = ?,
+                   expires_at = ?,
+                   released_at = ?,
+                   consumed_at = ?,
+                   version = version + 1
+             where id = ?
+               and version = ?
+            """;
+
+    // Reclama y libera en la misma sentencia (el unique solo cubre ACTIVE, V21)
+    private static final String RELEASE_EXPIRED_SQL = """
+            with due as (
+                select r.id
+                  from stock_reservations r
+                 where r.status = 'ACTIVE'
+                   and r.expires_at <= ?
+                 order by r.expires_at
+                 limit ?
+                   for update of r skip locked
+            )
+            update stock_reservations r
+               set status = 'RELEASED',
+                   released_at = ?,
+                   version = r.version + 1
+              from due
+             where r.id = due.id
+            returning r.id, r.item_id, r.reference, r.quantity, r.status,
+                      r.created_at, r.expires_at, r.released_at, r.version
+            """;
+
     private final StockReservationJpaRepository jpaRepo;
+    private final JdbcTemplate jdbc;
+
+    @PersistenceContext
+    private EntityManager em;
 
     @Override
     @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
@@ -45,7 +105,7 @@ public class StockReservationRepositoryAdapter implements StockReservationReposi
         if (reference == null) throw new IllegalArgumentException("reference is required");
         if (status == null) throw new IllegalArgumentException("status is required");
 
-        return jpaRepo.findByItemIdAndReferenceAndStatus(
+        return jpaRepo.findFirstByItemIdAndReferenceAndStatusOrderByCreatedAtDesc(
                         itemId.getValue(),
                         reference.getValue(),
                         status
@@ -57,6 +117,112 @@ public class StockReservationRepositoryAdapter implements StockReservationReposi
     @Transactional(propagation = Propagation.MANDATORY)
     public void save(StockReservation reservation) {
         if (reservation == null) throw new IllegalArgumentException("reservation is required");
-        jpaRepo.save(InventoryPersistenceMapper.toEntity(reservation));
+
+        // Una sentencia, sin el SELECT que hacía merge() con el id ya asignado
+        em.flush();
+        boolean written = reservation.version() == 0
+                && jdbc.update(INSERT_IF_ABSENT_SQL, ps -> bindInsert(ps, reservation)) == 1;
+        if (!written) {
+            written = jdbc.update(UPDATE_SQL,
+                    reservation.status().name(),
+                    toTimestamp(reservation.expiresAt()),
+                    toTimestamp(reservation.releasedAt()),
+                    toTimestamp(reservation.consumedAt()),
+                    reservation.id().getValue(),
+                    reservation.version()) == 1;
+        }
+        em.clear();
+        if (!written) {
+            throw new ObjectOptimisticLockingFailureException(StockReservationEntity.class, reservation.id().getValue());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<StockReservation> findActiveByReference(ReservationReference reference) {
+        if (reference == null) throw new IllegalArgumentException("reference is required");
+
+        return jpaRepo.findByReferenceAndStatus(reference.getValue(), ReservationStatus.ACTIVE).stream()
+                .map(InventoryPersistenceMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<StockReservation> findActiveByItemAndReferences(InventoryItemId itemId, Collection<ReservationReference> references) {
+        if (itemId == null) throw new IllegalArgumentException("itemId is required");
+        if (references == null || references.isEmpty()) return List.of();
+
+        List<String> values = references.stream().map(ReservationReference::getValue).distinct().toList();
+        return jpaRepo.findByItemIdAndStatusAndReferenceIn(itemId.getValue(), ReservationStatus.ACTIVE, values).stream()
+                .map(InventoryPersistenceMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void insertAll(List<StockReservation> reservations) {
+        if (reservations == null) throw new IllegalArgumentException("reservations is required");
+        if (reservations.isEmpty()) return;
+
+        em.flush();
+        jdbc.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bindInsert(ps, reservations.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return reservations.size();
+            }
+        });
+    }
+
+    /**
+     * Barrido de caducadas con {@code FOR UPDATE SKIP LOCKED} sobre el índice parcial de V17:
+     * cada nodo se lleva un lote distinto y nadie espera por filas que ya tiene otro.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<StockReservation> releaseExpired(Instant now, int limit) {
+        if (now == null) throw new IllegalArgumentException("now is required");
+        if (limit <= 0) throw new IllegalArgumentException("limit must be > 0");
+
+        em.flush();
+        OffsetDateTime ts = toTimestamp(now);
+        return jdbc.query(RELEASE_EXPIRED_SQL, (rs, i) -> new StockReservation(
+                StockReservationId.of(rs.getObject("id", UUID.class)),
+                InventoryItemId.of(rs.getObject("item_id", UUID.class)),
+                ReservationReference.of(rs.getString("reference")),
+                rs.getInt("quantity"),
+                ReservationStatus.valueOf(rs.getString("status")),
+                toInstant(rs.getObject("created_at", OffsetDateTime.class)),
+                toInstant(rs.getObject("expires_at", OffsetDateTime.class)),
+                toInstant(rs.getObject("released_at", OffsetDateTime.class)),
+                null,
+                rs.getLong("version")
+        ), ts, limit, ts);
+    }
+
+    private static void bindInsert(PreparedStatement ps, StockReservation r) throws SQLException {
+        ps.setObject(1, r.id().getValue());
+        ps.setObject(2, r.itemId().getValue());
+        ps.setString(3, r.reference().getValue());
+        ps.setInt(4, r.quantity());
+        ps.setString(5, r.status().name());
+        ps.setObject(6, toTimestamp(r.createdAt()));
+        ps.setObject(7, toTimestamp(r.expiresAt()));
+        ps.setObject(8, toTimestamp(r.releasedAt()));
+        ps.setObject(9, toTimestamp(r.consumedAt()));
+        ps.setLong(10, r.version());
+    }
+
+    private static Instant toInstant(OffsetDateTime ts) {
+        return ts != null ? ts.toInstant() : null;
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return instant != null ? OffsetDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
     }
 }
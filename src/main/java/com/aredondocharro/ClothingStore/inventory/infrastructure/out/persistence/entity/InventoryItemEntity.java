@@ -19,7 +19,10 @@ import java.util.UUID;
         name = "inventory_items",
         indexes = {
                 @Index(name = "idx_inventory_items_sku", columnList = "sku", unique = true),
-                @Index(name = "idx_inventory_items_status", columnList = "status")
+                @Index(name = "idx_inventory_items_status", columnList = "status"),
+                @Index(name = "idx_inventory_items_updated_at_id", columnList = "updated_at DESC, id"),
+                @Index(name = "idx_inventory_items_price_id", columnList = "price_amount, id"),
+                @Index(name = "idx_inventory_items_name_id", columnList = "name, id")
         }
 )
 public class InventoryItemEntity {
@@ -81,4 +84,8 @@ public class InventoryItemEntity {
 
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
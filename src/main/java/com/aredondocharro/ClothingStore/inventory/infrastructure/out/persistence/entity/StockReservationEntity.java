@@ -15,16 +15,10 @@ import java.util.UUID;
 @Entity
 @Table(
         name = "stock_reservations",
-        uniqueConstraints = {
-                // Permitimos 1 reserva por (item, reference, status). Esto evita duplicar ACTIVE
-                // y deja histórico (RELEASED/CONSUMED). Para portfolio es suficiente.
-                @UniqueConstraint(
-                        name = "uk_stock_reservation_item_reference_status",
-                        columnNames = {"item_id", "reference", "status"}
-                )
-        },
+        // Una sola ACTIVE por (item, reference): índice único parcial en V21 (JPA no lo puede expresar)
         indexes = {
-                @Index(name = "idx_stock_reservation_item_ref_status", columnList = "item_id, reference, status")
+                @Index(name = "idx_stock_reservation_item_ref_status", columnList = "item_id, reference, status"),
+                @Index(name = "idx_stock_reservation_ref_status", columnList = "reference, status")
         }
 )
 public class StockReservationEntity {
@@ -49,9 +43,17 @@ public class StockReservationEntity {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    // null = no caduca. El sweeper la busca con el índice parcial de V17 (solo ACTIVE)
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
     @Column(name = "released_at")
     private Instant releasedAt;
 
     @Column(name = "consumed_at")
     private Instant consumedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
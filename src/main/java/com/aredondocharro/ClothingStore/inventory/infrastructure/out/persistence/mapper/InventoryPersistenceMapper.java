@@ -29,6 +29,7 @@ public final class InventoryPersistenceMapper {
                 .status(d.status())
                 .createdAt(d.createdAt())
                 .updatedAt(d.updatedAt())
+                .version(d.version())
                 .build();
     }
 
@@ -48,7 +49,8 @@ public final class InventoryPersistenceMapper {
                 new Stock(e.getStockOnHand(), e.getStockReserved()),
                 e.getStatus(),
                 e.getCreatedAt(),
-                e.getUpdatedAt()
+                e.getUpdatedAt(),
+                e.getVersion()
         );
     }
 
@@ -60,8 +62,10 @@ public final class InventoryPersistenceMapper {
                 .quantity(d.quantity())
                 .status(d.status())
                 .createdAt(d.createdAt())
+                .expiresAt(d.expiresAt())
                 .releasedAt(d.releasedAt())
                 .consumedAt(d.consumedAt())
+                .version(d.version())
                 .build();
     }
 
@@ -73,8 +77,10 @@ public final class InventoryPersistenceMapper {
                 e.getQuantity(),
                 e.getStatus(),
                 e.getCreatedAt(),
+                e.getExpiresAt(),
                 e.getReleasedAt(),
-                e.getConsumedAt()
+                e.getConsumedAt(),
+                e.getVersion()
         );
     }
 }
@@ -1,11 +1,62 @@
 package com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.repository;
 
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.entity.InventoryItemEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface InventoryItemJpaRepository extends JpaRepository<InventoryItemEntity, UUID> {
     Optional<InventoryItemEntity> findBySku(String sku);
+
+    // Los updates atómicos también incrementan version: así un read-modify-write
+    // concurrente (adjust, changePrice...) falla con optimistic lock en vez de pisarlos.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryItemEntity e
+               set e.stockReserved = e.stockReserved + :qty,
+                   e.updatedAt = :now,
+                   e.version = e.version + 1
+             where e.id = :id
+               and e.status = :active
+               and e.stockOnHand - e.stockReserved >= :qty
+            """)
+    int reserveIfAvailable(@Param("id") UUID id,
+                           @Param("qty") int qty,
+                           @Param("active") ItemStatus active,
+                           @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryItemEntity e
+               set e.stockReserved = e.stockReserved - :qty,
+                   e.updatedAt = :now,
+                   e.version = e.version + 1
+             where e.id = :id
+               and e.stockReserved >= :qty
+            """)
+    int releaseIfReserved(@Param("id") UUID id,
+                          @Param("qty") int qty,
+                          @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryItemEntity e
+               set e.stockReserved = e.stockReserved - :qty,
+                   e.stockOnHand = e.stockOnHand - :qty,
+                   e.updatedAt = :now,
+                   e.version = e.version + 1
+             where e.id = :id
+               and e.status = :active
+               and e.stockReserved >= :qty
+            """)
+    int consumeIfReserved(@Param("id") UUID id,
+                          @Param("qty") int qty,
+                          @Param("active") ItemStatus active,
+                          @Param("now") Instant now);
 }
@@ -4,10 +4,19 @@ import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationStatus
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.entity.StockReservationEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface StockReservationJpaRepository extends JpaRepository<StockReservationEntity, UUID> {
 
     Optional<StockReservationEntity> findByItemIdAndReferenceAndStatus(UUID itemId, String reference, ReservationStatus status);
+
+    // RELEASED/CONSUMED pueden repetirse por (item, reference): la más reciente
+    Optional<StockReservationEntity> findFirstByItemIdAndReferenceAndStatusOrderByCreatedAtDesc(UUID itemId, String reference, ReservationStatus status);
+
+    List<StockReservationEntity> findByReferenceAndStatus(String reference, ReservationStatus status);
+
+    List<StockReservationEntity> findByItemIdAndStatusAndReferenceIn(UUID itemId, ReservationStatus status, Collection<String> references);
 }
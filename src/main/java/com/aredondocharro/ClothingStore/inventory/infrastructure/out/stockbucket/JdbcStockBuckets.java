@@ -0,0 +1,361 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.stockbucket;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationStatus;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryAvailabilityView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buckets de stock en {@code inventory_stock_buckets}: N filas por item con parte de su disponible.
+ * <p>
+ * Reservar descuenta de un solo bucket (elegido empezando por uno al azar y saltando los bloqueados),
+ * así que N transacciones pueden reservar el mismo item a la vez. El rebalanceo en segundo plano mueve
+ * stock entre la fila del item y los buckets con los UPDATEs condicionales del repositorio: lo que entra
+ * en un bucket queda como reservado en el item (nunca se vende dos veces) y lo que sale se libera. Un item
+ * discontinuado o que deja de estar configurado vacía sus buckets en la siguiente pasada.
+ * <p>
+ * {@code tx} debe abrir transacción propia (REQUIRES_NEW) para el rebalanceo.
+ */
+@Slf4j
+public class JdbcStockBuckets implements StockBucketPort {
+
+    // Un bucket con bastante disponible, rotando desde uno al azar; %s = modo de bloqueo del candidato.
+    // La reserva solo se inserta si el bucket se descontó: las dos filas en un round trip.
+    private static final String RESERVE_SQL = """
+            with bucket as (
+                update inventory_stock_buckets b
+                   set available = b.available - ?,
+                       version = b.version + 1,
+                       updated_at = ?
+                 where (b.item_id, b.bucket) = (
+                           select s.item_id, s.bucket
+                             from inventory_stock_buckets s
+                            where s.item_id = ?
+                              and s.available >= ?
+                            order by (s.bucket + ?) %% ?
+                            limit 1
+                            %s
+                       )
+                   and b.available >= ?
+                   and exists (select 1 from inventory_items i where i.id = b.item_id and i.status = 'ACTIVE')
+                returning b.item_id
+            )
+            insert into stock_reservations
+                (id, item_id, reference, quantity, status, created_at, expires_at, released_at, consumed_at, version)
+            select ?, bucket.item_id, ?, ?, ?, ?, ?, null, null, ?
+              from bucket
+            """;
+
+    private static final String RESERVE_SKIP_LOCKED_SQL = RESERVE_SQL.formatted("for update skip locked");
+    private static final String RESERVE_WAIT_SQL = RESERVE_SQL.formatted("for update");
+
+    // Drain y rebalanceo bloquean igual: la fila del item y después los buckets por número
+    private static final String LOCK_ITEM_SQL = "select id from inventory_items where id = ? for update";
+
+    private static final String DRAIN_SQL = """
+            with old as (
+                select item_id, bucket, available
+                  from inventory_stock_buckets
+                 where item_id = ?
+                   and available > 0
+                 order by bucket
+                 for update
+            ), drained as (
+                update inventory_stock_buckets b
+                   set available = 0,
+                       version = b.version + 1,
+                       updated_at = ?
+                  from old
+                 where b.item_id = old.item_id
+                   and b.bucket = old.bucket
+                returning old.available
+            )
+            select coalesce(sum(available), 0) from drained
+            """;
+
+    private static final String ENSURE_BUCKETS_SQL = """
+            insert into inventory_stock_buckets (item_id, bucket, available, version, updated_at)
+            select ?, g, 0, 0, ?
+              from generate_series(0, ? - 1) g
+            on conflict do nothing
+            """;
+
+    // Buckets de más (p. ej. si se bajó la configuración) van a 0
+    private static final String SET_BUCKETS_SQL = """
+            update inventory_stock_buckets
+               set available = case when bucket < ? then ? else 0 end,
+                   version = version + 1,
+                   updated_at = ?
+             where item_id = ?
+               and available <> case when bucket < ? then ? else 0 end
+            """;
+
+    private static final String COUNT_BUCKETS_SQL = "select count(*) from inventory_stock_buckets where item_id = ?";
+
+    // Sin esperar: un bucket ocupado por una reserva en curso hace que el rebalanceo salte el item
+    private static final String LOCK_BUCKETS_SQL = """
+            select bucket, available
+              from inventory_stock_buckets
+             where item_id = ?
+             order by bucket
+             for update skip locked
+            """;
+
+    private static final String TOTALS_SQL = """
+            select item_id, sum(available) as unreserved, sum(version) as version_sum, max(updated_at) as last_modified
+              from inventory_stock_buckets
+             where item_id = any(?)
+             group by item_id
+            """;
+
+    private final Set<InventoryItemId> bucketed;
+    private final JdbcTemplate jdbc;
+    private final InventoryItemRepositoryPort itemRepo;
+    private final TransactionOperations tx;
+    private final Clock clock;
+    private final int buckets;
+    private final int maxPerBucket;
+
+    // Items ya no configurados que aún tienen stock en buckets: se vacían y se siguen corrigiendo al leer
+    private final Set<InventoryItemId> retiring = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder bucketHits = new LongAdder();
+    private final LongAdder bucketMisses = new LongAdder();
+    private final LongAdder movedUnits = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder busySkips = new LongAdder();
+
+    public JdbcStockBuckets(Set<InventoryItemId> bucketed,
+                            JdbcTemplate jdbc,
+                            InventoryItemRepositoryPort itemRepo,
+                            TransactionOperations tx,
+                            Clock clock,
+                            int buckets,
+                            int maxPerBucket) {
+        if (buckets < 2) throw new IllegalArgumentException("buckets must be >= 2");
+        if (maxPerBucket < 1) throw new IllegalArgumentException("maxPerBucket must be >= 1");
+        this.bucketed = Set.copyOf(bucketed);
+        this.jdbc = jdbc;
+        this.itemRepo = itemRepo;
+        this.tx = tx;
+        this.clock = clock;
+        this.buckets = buckets;
+        this.maxPerBucket = maxPerBucket;
+    }
+
+    // Primera pasada inmediata: crea los buckets y los llena antes del tráfico
+    @Scheduled(
+            fixedDelayString = "${app.inventory.stock-buckets.rebalance-interval:1s}",
+            initialDelayString = "${app.inventory.stock-buckets.initial-delay:0s}"
+    )
+    public void scheduledRebalance() {
+        try {
+            rebalance();
+        } catch (RuntimeException ex) {
+            // Nunca tumbamos el scheduler: se reintenta en la siguiente pasada
+            failures.increment();
+            log.warn("[stock-buckets] rebalance pass failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isBucketed(InventoryItemId itemId) {
+        return bucketed.contains(itemId);
+    }
+
+    @Override
+    public boolean tryReserve(StockReservation reservation) {
+        if (reservation.status() != ReservationStatus.ACTIVE) throw new IllegalArgumentException("reservation must be ACTIVE");
+        if (!isBucketed(reservation.itemId())) return false;
+
+        int offset = buckets - ThreadLocalRandom.current().nextInt(buckets);
+        // Primero sin esperar a nadie; si todos los que tienen stock están ocupados, se espera a uno
+        boolean reserved = insert(RESERVE_SKIP_LOCKED_SQL, reservation, offset)
+                || insert(RESERVE_WAIT_SQL, reservation, offset);
+        if (reserved) bucketHits.increment();
+        else bucketMisses.increment();
+        return reserved;
+    }
+
+    @Override
+    public int drain(InventoryItemId itemId, Instant now) {
+        if (!isBucketed(itemId) && !retiring.contains(itemId)) return 0;
+
+        // La fila del item primero: dos drains (o un drain y un rebalanceo) del mismo item se serializan ahí
+        if (jdbc.queryForList(LOCK_ITEM_SQL, UUID.class, itemId.getValue()).isEmpty()) return 0;
+        Integer units = jdbc.queryForObject(DRAIN_SQL, Integer.class, itemId.getValue(), toTimestamp(now));
+        if (units == null || units == 0) return 0;
+        if (!itemRepo.tryRelease(itemId, units, now)) {
+            // Lo de los buckets siempre está dentro de stock_reserved: si no, algo externo tocó la fila
+            throw new IllegalStateException("stock buckets of " + itemId + " hold more than the item has reserved");
+        }
+        movedUnits.add(units);
+        log.debug("[stock-buckets] drained itemId={} units={}", itemId, units);
+        return units;
+    }
+
+    @Override
+    public Map<InventoryItemId, StockBucketView> findTotals(Collection<InventoryItemId> ids) {
+        List<UUID> wanted = ids.stream()
+                .filter(id -> bucketed.contains(id) || retiring.contains(id))
+                .map(InventoryItemId::getValue)
+                .distinct()
+                .toList();
+        if (wanted.isEmpty()) return Map.of();
+
+        Map<InventoryItemId, StockBucketView> totals = new HashMap<>();
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(TOTALS_SQL);
+            Array array = con.createArrayOf("uuid", wanted.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, rs -> {
+            InventoryItemId id = InventoryItemId.of(rs.getObject("item_id", UUID.class));
+            totals.put(id, new StockBucketView(
+                    id,
+                    rs.getInt("unreserved"),
+                    rs.getLong("version_sum"),
+                    rs.getObject("last_modified", OffsetDateTime.class).toInstant()));
+        });
+        return totals;
+    }
+
+    /** Una pasada sobre todos los items con buckets. Devuelve las unidades movidas. Llamar desde el scheduler (o en tests). */
+    public int rebalance() {
+        Instant now = Instant.now(clock);
+        retiring.addAll(jdbc.query(
+                        "select distinct item_id from inventory_stock_buckets where available > 0",
+                        (rs, i) -> InventoryItemId.of(rs.getObject("item_id", UUID.class))).stream()
+                .filter(id -> !bucketed.contains(id))
+                .toList());
+
+        int moved = 0;
+        for (InventoryItemId itemId : bucketed) {
+            moved += rebalanceSafely(itemId, now);
+        }
+        for (InventoryItemId itemId : List.copyOf(retiring)) {
+            moved += rebalanceSafely(itemId, now);
+        }
+        if (moved > 0) log.info("[stock-buckets] rebalanced units={}", moved);
+        return moved;
+    }
+
+    public long getBucketHitCount() { return bucketHits.sum(); }
+
+    /** Reservas de items con buckets que acabaron en la fila del item. */
+    public long getBucketMissCount() { return bucketMisses.sum(); }
+
+    public long getMovedUnitCount() { return movedUnits.sum(); }
+
+    public long getFailureCount() { return failures.sum(); }
+
+    /** Pasadas que saltaron un item porque una reserva en curso tenía alguno de sus buckets. */
+    public long getBusySkipCount() { return busySkips.sum(); }
+
+    private int rebalanceSafely(InventoryItemId itemId, Instant now) {
+        try {
+            Integer moved = tx.execute(status -> {
+                int units = rebalance(itemId, now);
+                if (units < 0) status.setRollbackOnly();
+                return Math.max(0, units);
+            });
+            return moved == null ? 0 : moved;
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("[stock-buckets] rebalance of {} failed: {}", itemId, ex.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Reparte a partes iguales (hasta {@code maxPerBucket}) el disponible de la fila más lo de los buckets.
+     * Solo escribe si algún bucket se salió de [objetivo/2, objetivo]. -1 = la fila cambió entretanto.
+     */
+    private int rebalance(InventoryItemId itemId, Instant now) {
+        boolean active = bucketed.contains(itemId);
+        // Mismo orden que drain: la fila del item y luego los buckets. El rebalanceo solo espera por la fila;
+        // los buckets los toma sin esperar, así una reserva que ya tiene uno y luego drena no queda en ciclo con él
+        jdbc.queryForList(LOCK_ITEM_SQL, UUID.class, itemId.getValue());
+        if (active) jdbc.update(ENSURE_BUCKETS_SQL, itemId.getValue(), toTimestamp(now), buckets);
+
+        Integer existing = jdbc.queryForObject(COUNT_BUCKETS_SQL, Integer.class, itemId.getValue());
+        List<int[]> current = jdbc.query(
+                LOCK_BUCKETS_SQL,
+                (rs, i) -> new int[]{rs.getInt("bucket"), rs.getInt("available")},
+                itemId.getValue());
+        if (existing != null && current.size() < existing) {
+            // Alguna reserva tiene un bucket: se reparte en la siguiente pasada
+            busySkips.increment();
+            log.debug("[stock-buckets] rebalance of {} skipped: bucket in use", itemId);
+            return 0;
+        }
+        Optional<InventoryAvailabilityView> row = itemRepo.findAvailability(List.of(itemId)).stream().findFirst();
+
+        int inBuckets = current.stream().mapToInt(b -> b[1]).sum();
+        int rowFree = row.filter(v -> v.status() == ItemStatus.ACTIVE).map(v -> v.onHand() - v.reserved()).orElse(0);
+        int target = active && row.map(v -> v.status() == ItemStatus.ACTIVE).orElse(false)
+                ? Math.min(maxPerBucket, (rowFree + inBuckets) / buckets)
+                : 0;
+
+        boolean balanced = current.stream().allMatch(b -> b[0] < buckets
+                ? b[1] <= target && b[1] >= target / 2
+                : b[1] == 0);
+        if (balanced) {
+            if (!active && inBuckets == 0) retiring.remove(itemId);
+            return 0;
+        }
+
+        int delta = target * (int) current.stream().filter(b -> b[0] < buckets).count() - inBuckets;
+        // Primero la fila: si su guarda falla (stock movido desde la lectura) no se toca ningún bucket
+        if (delta > 0 && !itemRepo.tryReserve(itemId, delta, now)) return -1;
+        if (delta < 0 && !itemRepo.tryRelease(itemId, -delta, now)) return -1;
+        jdbc.update(SET_BUCKETS_SQL, buckets, target, toTimestamp(now), itemId.getValue(), buckets, target);
+
+        if (!active && target == 0) retiring.remove(itemId);
+        movedUnits.add(Math.abs(delta));
+        return Math.abs(delta);
+    }
+
+    private boolean insert(String sql, StockReservation reservation, int offset) {
+        OffsetDateTime ts = toTimestamp(reservation.createdAt());
+        return jdbc.update(sql, ps -> {
+            ps.setInt(1, reservation.quantity());
+            ps.setObject(2, ts);
+            ps.setObject(3, reservation.itemId().getValue());
+            ps.setInt(4, reservation.quantity());
+            ps.setInt(5, offset);
+            ps.setInt(6, buckets);
+            ps.setInt(7, reservation.quantity());
+            ps.setObject(8, reservation.id().getValue());
+            ps.setString(9, reservation.reference().getValue());
+            ps.setInt(10, reservation.quantity());
+            ps.setString(11, reservation.status().name());
+            ps.setObject(12, ts);
+            ps.setObject(13, toTimestamp(reservation.expiresAt()));
+            ps.setLong(14, reservation.version());
+        }) == 1;
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return instant != null ? OffsetDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+}
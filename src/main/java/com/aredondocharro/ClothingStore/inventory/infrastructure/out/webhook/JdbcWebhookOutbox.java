@@ -0,0 +1,118 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tabla inventory_webhook_outbox (V19). {@link #record} se llama dentro de la transacción del cambio;
+ * el resto lo usa {@link WebhookDispatcher}, cada llamada en su propia sentencia autocommit.
+ */
+public class JdbcWebhookOutbox {
+
+    public record OutboxEvent(String eventType, String payload, Instant occurredAt) {}
+
+    public record PendingEvent(long id, String eventType, String payload, Instant occurredAt, int attemptCount) {}
+
+    private static final String INSERT_SQL = """
+            insert into inventory_webhook_outbox (subscriber, event_type, payload, occurred_at)
+            values (?, ?, ?, ?)
+            """;
+
+    // SKIP LOCKED: varios nodos reclaman lotes distintos; el lease oculta las filas mientras se entregan
+    private static final String CLAIM_SQL = """
+            update inventory_webhook_outbox o
+               set next_attempt_at = ?
+              from (select id
+                      from inventory_webhook_outbox
+                     where subscriber = ?
+                       and status = 'PENDING'
+                       and next_attempt_at <= ?
+                     order by id
+                     limit ?
+                       for update skip locked) due
+             where o.id = due.id
+            returning o.id, o.event_type, o.payload, o.occurred_at, o.attempt_count
+            """;
+
+    private static final String DELETE_SQL = "delete from inventory_webhook_outbox where id = any(?)";
+
+    private static final String FAILED_SQL = """
+            update inventory_webhook_outbox
+               set attempt_count = attempt_count + 1,
+                   last_error = ?,
+                   status = case when attempt_count + 1 >= ? then 'FAILED' else 'PENDING' end,
+                   next_attempt_at = ?
+             where id = any(?)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final List<WebhookSubscriber> subscribers;
+
+    public JdbcWebhookOutbox(JdbcTemplate jdbc, List<WebhookSubscriber> subscribers) {
+        this.jdbc = jdbc;
+        this.subscribers = List.copyOf(subscribers);
+    }
+
+    /** Una fila por evento y suscriptor interesado, en un solo batch. Devuelve las filas escritas. */
+    public int record(List<OutboxEvent> events) {
+        List<Object[]> rows = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            for (WebhookSubscriber subscriber : subscribers) {
+                if (!subscriber.accepts(event.eventType())) continue;
+                rows.add(new Object[]{subscriber.id(), event.eventType(), event.payload(), toTimestamp(event.occurredAt())});
+            }
+        }
+        if (rows.isEmpty()) return 0;
+        jdbc.batchUpdate(INSERT_SQL, rows);
+        return rows.size();
+    }
+
+    /** Reclama hasta {@code limit} eventos vencidos, en orden de inserción, ocultándolos hasta {@code leaseUntil}. */
+    public List<PendingEvent> claim(String subscriber, int limit, Instant now, Instant leaseUntil) {
+        List<PendingEvent> claimed = new ArrayList<>(jdbc.query(CLAIM_SQL,
+                (rs, i) -> new PendingEvent(
+                        rs.getLong("id"),
+                        rs.getString("event_type"),
+                        rs.getString("payload"),
+                        rs.getObject("occurred_at", OffsetDateTime.class).toInstant(),
+                        rs.getInt("attempt_count")),
+                toTimestamp(leaseUntil), subscriber, toTimestamp(now), limit));
+        // RETURNING no garantiza orden
+        claimed.sort(Comparator.comparingLong(PendingEvent::id));
+        return claimed;
+    }
+
+    public void delivered(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    /** Cuenta un intento fallido; las filas que agotan {@code maxAttempts} quedan FAILED. */
+    public void failed(Collection<Long> ids, String error, int maxAttempts, Instant nextAttemptAt) {
+        if (ids.isEmpty()) return;
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(FAILED_SQL);
+            ps.setString(1, error);
+            ps.setInt(2, maxAttempts);
+            ps.setObject(3, toTimestamp(nextAttemptAt));
+            ps.setArray(4, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,12 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook;
+
+/** El suscriptor no confirmó el lote (respuesta no 2xx, timeout o error de red). */
+public class WebhookDeliveryException extends RuntimeException {
+    public WebhookDeliveryException(String message) {
+        super(message);
+    }
+
+    public WebhookDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
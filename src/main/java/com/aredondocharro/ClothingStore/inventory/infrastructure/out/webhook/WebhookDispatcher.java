@@ -0,0 +1,181 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Entrega el outbox de webhooks por suscriptor, como {@code OutboxEmailDispatcher} con el correo,
+ * pero por lotes: cada pasada reclama hasta {@code batchSize} eventos pendientes y los envía en un
+ * único POST firmado. Un semáforo por suscriptor limita los lotes en vuelo, así un destino lento no
+ * acapara hilos ni recibe más carga de la que admite; los hilos de entrega son virtuales.
+ * <p>
+ * 2xx borra los eventos del lote; cualquier otra cosa reintenta el lote entero con backoff exponencial
+ * hasta {@code maxAttempts}, tras lo que queda FAILED. Con {@code maxInFlight > 1} dos lotes pueden
+ * llegar desordenados: los eventos llevan id y occurredAt para que el suscriptor los ordene.
+ */
+@Slf4j
+public class WebhookDispatcher implements AutoCloseable {
+
+    private final JdbcWebhookOutbox outbox;
+    private final WebhookSender sender;
+    private final List<WebhookSubscriber> subscribers;
+    private final Clock clock;
+    private final Executor deliveries;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final double multiplier;
+    private final Duration maxDelay;
+    private final Duration lease;
+
+    private final Map<String, Semaphore> inFlight = new HashMap<>();
+
+    private final LongAdder deliveredEvents = new LongAdder();
+    private final LongAdder deliveredBatches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public WebhookDispatcher(JdbcWebhookOutbox outbox,
+                             WebhookSender sender,
+                             List<WebhookSubscriber> subscribers,
+                             Clock clock,
+                             Executor deliveries,
+                             int batchSize,
+                             int maxAttempts,
+                             Duration baseDelay,
+                             double multiplier,
+                             Duration maxDelay,
+                             Duration lease) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be > 0");
+        if (maxAttempts <= 0) throw new IllegalArgumentException("maxAttempts must be > 0");
+        if (baseDelay.compareTo(maxDelay) > 0) throw new IllegalArgumentException("baseDelay must be <= maxDelay");
+        if (lease.isNegative() || lease.isZero()) throw new IllegalArgumentException("lease must be > 0");
+        this.outbox = outbox;
+        this.sender = sender;
+        this.subscribers = List.copyOf(subscribers);
+        this.clock = clock;
+        this.deliveries = deliveries;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.multiplier = Math.max(1.0, multiplier);
+        this.maxDelay = maxDelay;
+        this.lease = lease;
+        for (WebhookSubscriber s : this.subscribers) {
+            inFlight.put(s.id(), new Semaphore(s.maxInFlight()));
+        }
+    }
+
+    public static ExecutorService newDeliveryExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    public void close() {
+        if (deliveries instanceof ExecutorService executor) executor.shutdownNow();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.inventory.webhooks.poll-interval:1s}",
+            initialDelayString = "${app.inventory.webhooks.poll-interval:1s}"
+    )
+    public void tick() {
+        try {
+            dispatch();
+        } catch (Exception ex) {
+            // Nunca caemos el scheduler
+            failures.increment();
+            log.warn("[inventory-webhook] dispatch failed: {}", ex.getMessage());
+        }
+    }
+
+    /** Una pasada: reclama y lanza lotes mientras haya eventos y hueco en vuelo. Devuelve los lotes lanzados. */
+    public int dispatch() {
+        int launched = 0;
+        for (WebhookSubscriber subscriber : subscribers) {
+            Semaphore permits = inFlight.get(subscriber.id());
+            while (permits.tryAcquire()) {
+                List<JdbcWebhookOutbox.PendingEvent> batch;
+                try {
+                    Instant now = clock.instant();
+                    batch = outbox.claim(subscriber.id(), batchSize, now, now.plus(lease));
+                } catch (RuntimeException ex) {
+                    permits.release();
+                    throw ex;
+                }
+                if (batch.isEmpty()) {
+                    permits.release();
+                    break;
+                }
+                launched++;
+                deliveries.execute(() -> {
+                    try {
+                        deliver(subscriber, batch);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return launched;
+    }
+
+    public long getDeliveredEventCount() { return deliveredEvents.sum(); }
+
+    public long getDeliveredBatchCount() { return deliveredBatches.sum(); }
+
+    public long getFailedBatchCount() { return failedBatches.sum(); }
+
+    public long getFailureCount() { return failures.sum(); }
+
+    private void deliver(WebhookSubscriber subscriber, List<JdbcWebhookOutbox.PendingEvent> batch) {
+        List<Long> ids = batch.stream().map(JdbcWebhookOutbox.PendingEvent::id).toList();
+        try {
+            sender.send(subscriber, batch);
+        } catch (RuntimeException ex) {
+            int attempts = 1 + batch.stream().mapToInt(JdbcWebhookOutbox.PendingEvent::attemptCount).max().orElse(0);
+            failedBatches.increment();
+            log.warn("[inventory-webhook] subscriber={} events={} attempt={} err='{}'",
+                    subscriber.id(), ids.size(), attempts, trim(ex.getMessage()));
+            // Si esto falla, el lease vence y el lote se reintenta igualmente
+            safely(() -> outbox.failed(ids, trim(ex.getMessage()), maxAttempts, clock.instant().plus(backoff(attempts))));
+            return;
+        }
+        deliveredBatches.increment();
+        deliveredEvents.add(ids.size());
+        log.debug("[inventory-webhook] subscriber={} delivered={}", subscriber.id(), ids.size());
+        // Un fallo aquí provoca una entrega repetida al vencer el lease, nunca una pérdida
+        safely(() -> outbox.delivered(ids));
+    }
+
+    private Duration backoff(int attempts) {
+        double millis = baseDelay.toMillis() * Math.pow(multiplier, Math.max(0, attempts - 1));
+        return millis >= maxDelay.toMillis() ? maxDelay : Duration.ofMillis((long) millis);
+    }
+
+    private void safely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception ex) {
+            failures.increment();
+            log.warn("[inventory-webhook] outbox update failed: {}", ex.getMessage());
+        }
+    }
+
+    private static String trim(String s) {
+        if (s == null) return null;
+        return s.length() > 200 ? s.substring(0, 197) + "..." : s;
+    }
+}
@@ -0,0 +1,103 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * POST de un lote firmado: {@code {"deliveryId", "events": [{id, type, occurredAt, data}]}}.
+ * <p>
+ * Firma: {@value #SIGNATURE_HEADER}: {@code t=<epoch s>,v1=<hex HMAC-SHA256(secret, t + "." + body)>}.
+ * El timestamp firmado permite al suscriptor rechazar reenvíos antiguos; {@code id} de cada evento
+ * sirve para descartar duplicados (la entrega es al menos una vez).
+ */
+public class WebhookSender {
+
+    public static final String SIGNATURE_HEADER = "X-Inventory-Signature";
+    public static final String DELIVERY_HEADER = "X-Inventory-Delivery";
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration requestTimeout;
+
+    public WebhookSender(HttpClient http, ObjectMapper objectMapper, Clock clock, Duration requestTimeout) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public void send(WebhookSubscriber subscriber, List<JdbcWebhookOutbox.PendingEvent> batch) {
+        String deliveryId = UUID.randomUUID().toString();
+        String body = body(deliveryId, batch);
+        long timestamp = clock.instant().getEpochSecond();
+
+        HttpRequest request = HttpRequest.newBuilder(subscriber.url())
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header(DELIVERY_HEADER, deliveryId)
+                .header(SIGNATURE_HEADER, "t=" + timestamp + ",v1=" + sign(subscriber.secret(), timestamp, body))
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+
+        HttpResponse<Void> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException ex) {
+            throw new WebhookDeliveryException("delivery failed: " + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WebhookDeliveryException("delivery interrupted", ex);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new WebhookDeliveryException("subscriber answered HTTP " + response.statusCode());
+        }
+    }
+
+    public static String sign(String secret, long timestamp, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] digest = mac.doFinal((timestamp + "." + body).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 not available", ex);
+        }
+    }
+
+    // El payload ya es JSON (se serializó al grabar el evento): se incrusta tal cual
+    private String body(String deliveryId, List<JdbcWebhookOutbox.PendingEvent> batch) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("deliveryId", deliveryId);
+        ArrayNode events = root.putArray("events");
+        for (JdbcWebhookOutbox.PendingEvent e : batch) {
+            ObjectNode node = events.addObject();
+            node.put("id", e.id());
+            node.put("type", e.eventType());
+            node.put("occurredAt", e.occurredAt().toString());
+            node.putRawValue("data", new RawValue(e.payload()));
+        }
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("cannot serialize webhook batch", ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Destino de webhooks. {@code eventTypes} vacío = todos los eventos publicados;
+ * {@code maxInFlight} limita los lotes entregándose a la vez a este suscriptor.
+ */
+public record WebhookSubscriber(String id, URI url, String secret, Set<String> eventTypes, int maxInFlight) {
+
+    public WebhookSubscriber {
+        Objects.requireNonNull(url, "url");
+        if (id == null || id.isBlank() || id.length() > 64) throw new IllegalArgumentException("subscriber id must have 1..64 chars");
+        if (secret == null || secret.isBlank()) throw new IllegalArgumentException("secret is required for subscriber " + id);
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be > 0");
+        eventTypes = eventTypes == null ? Set.of() : Set.copyOf(eventTypes);
+    }
+
+    public boolean accepts(String eventType) {
+        return eventTypes.isEmpty() || eventTypes.contains(eventType);
+    }
+}
@@ -0,0 +1,205 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.tx;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservationId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockAttempt;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockOutcome;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockUseCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las reservas concurrentes sobre un mismo item (group commit). Si el item está libre la petición
+ * pasa directa, sin esperar. Si ya hay una transacción de reserva en curso sobre él (las nuevas se quedarían
+ * esperando su lock de fila igualmente), la primera que llega abre un grupo, espera {@code window} (o a que
+ * haya {@code maxBatch}) y lo aplica en una transacción con {@link ReserveStockUseCase#reserveGroup};
+ * cada llamante recibe su propia reserva o su propio error.
+ * <p>
+ * No hay hilos propios: el trabajo lo hace el hilo de la primera petición (y el grupo usa su {@code now}),
+ * el resto espera su resultado como mucho {@code waitTimeout}. Pase lo que pase en el líder (incluido un
+ * {@link Error}), ninguna petición del grupo se queda sin resultado.
+ */
+@Slf4j
+public class CoalescingReserveStockUseCase implements ReserveStockUseCase {
+
+    private final ReserveStockUseCase delegate;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final long waitTimeoutNanos;
+
+    private final Map<InventoryItemId, Group> open = new ConcurrentHashMap<>();
+    // Líderes aplicando ahora mismo por item: solo con contención merece la pena esperar la ventana
+    private final Map<InventoryItemId, Integer> applying = new ConcurrentHashMap<>();
+
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingReserveStockUseCase(ReserveStockUseCase delegate, Duration window, int maxBatch, Duration waitTimeout) {
+        if (window == null || window.isNegative() || window.isZero()) throw new IllegalArgumentException("window must be > 0");
+        if (maxBatch < 2) throw new IllegalArgumentException("maxBatch must be >= 2");
+        if (waitTimeout == null || waitTimeout.compareTo(window) <= 0) throw new IllegalArgumentException("waitTimeout must be > window");
+        this.delegate = delegate;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    @Override
+    public StockReservationId reserve(InventoryItemId itemId, ReservationReference reference, int quantity, Instant now) {
+        if (itemId == null) throw new IllegalArgumentException("itemId is required");
+
+        Pending pending = new Pending(new ReserveStockAttempt(reference, quantity), new CompletableFuture<>());
+        Group[] created = new Group[1];
+        open.compute(itemId, (id, group) -> {
+            if (group != null && group.add(pending)) return group;
+            // Sin grupo abierto (o ya cerrado/lleno): esta petición abre uno nuevo y lo lidera
+            created[0] = new Group(maxBatch, pending);
+            return created[0];
+        });
+
+        if (created[0] != null) lead(itemId, created[0], now);
+        return await(itemId, pending.result());
+    }
+
+    @Override
+    public Map<InventoryItemId, StockReservationId> reserveAll(ReservationReference reference, List<ReserveStockLine> lines, Instant now) {
+        return delegate.reserveAll(reference, lines, now);
+    }
+
+    @Override
+    public List<ReserveStockOutcome> reserveGroup(InventoryItemId itemId, List<ReserveStockAttempt> attempts, Instant now) {
+        return delegate.reserveGroup(itemId, attempts, now);
+    }
+
+    /** Grupos aplicados con más de una petición. */
+    public long getGroupCount() { return groups.sum(); }
+
+    /** Peticiones que viajaron en un grupo en vez de en su propia transacción. */
+    public long getCoalescedCount() { return coalesced.sum(); }
+
+    private void lead(InventoryItemId itemId, Group group, Instant now) {
+        // Item libre: se cierra ya con lo que haya (normalmente solo esta petición), sin pagar la ventana
+        boolean contended = applying.containsKey(itemId);
+        List<Pending> batch = group.closeAfter(contended ? System.nanoTime() + windowNanos : System.nanoTime());
+        open.remove(itemId, group);
+        applying.merge(itemId, 1, Integer::sum);
+        try {
+            apply(itemId, batch, now);
+        } finally {
+            applying.computeIfPresent(itemId, (id, n) -> n == 1 ? null : n - 1);
+            // Un Error en el líder (OOM, StackOverflow...) no deja a los demás esperando: él lo propaga,
+            // el resto recibe un fallo del grupo
+            for (Pending p : batch) {
+                if (!p.result().isDone()) {
+                    p.result().completeExceptionally(
+                            new IllegalStateException("reserve group for itemId=" + itemId + " aborted by its leader"));
+                }
+            }
+        }
+    }
+
+    private void apply(InventoryItemId itemId, List<Pending> batch, Instant now) {
+        if (batch.size() == 1) {
+            // Nadie más se unió: la ruta normal. Solo esperó la ventana si el item estaba ocupado
+            Pending only = batch.get(0);
+            complete(only, () -> ReserveStockOutcome.reserved(delegate.reserve(
+                    itemId, only.attempt().reference(), only.attempt().quantity(), now)));
+            return;
+        }
+
+        groups.increment();
+        coalesced.add(batch.size());
+        try {
+            List<ReserveStockOutcome> outcomes = delegate.reserveGroup(
+                    itemId, batch.stream().map(Pending::attempt).toList(), now);
+            for (int i = 0; i < batch.size(); i++) {
+                ReserveStockOutcome outcome = outcomes.get(i);
+                if (outcome.isReserved()) batch.get(i).result().complete(outcome.reservationId());
+                else batch.get(i).result().completeExceptionally(outcome.error());
+            }
+        } catch (RuntimeException ex) {
+            // Fallo de infraestructura (no de negocio): todo el grupo recibe el mismo error
+            log.warn("[inventory-reserve] group of {} for itemId={} failed: {}", batch.size(), itemId, ex.toString());
+            batch.forEach(p -> p.result().completeExceptionally(ex));
+        }
+    }
+
+    private static void complete(Pending pending, Supplier<ReserveStockOutcome> outcome) {
+        try {
+            pending.result().complete(outcome.get().reservationId());
+        } catch (RuntimeException ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Espera acotada: si el líder no contesta a tiempo la petición falla con {@link QueryTimeoutException};
+     * su reserva puede haberse aplicado igualmente, y un reintento con la misma referencia es idempotente.
+     */
+    private StockReservationId await(InventoryItemId itemId, CompletableFuture<StockReservationId> result) {
+        try {
+            return result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new QueryTimeoutException("coalesced reserve on itemId=" + itemId + " exceeded "
+                    + TimeUnit.NANOSECONDS.toMillis(waitTimeoutNanos) + "ms", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("coalesced reserve on itemId=" + itemId + " interrupted", ex);
+        }
+    }
+
+    private record Pending(ReserveStockAttempt attempt, CompletableFuture<StockReservationId> result) {}
+
+    /** Peticiones de un item a la espera del líder; se cierra al vencer la ventana o al llenarse. */
+    private static final class Group {
+
+        private final int maxBatch;
+        private final List<Pending> pending = new ArrayList<>();
+        private boolean closed;
+
+        Group(int maxBatch, Pending first) {
+            this.maxBatch = maxBatch;
+            this.pending.add(first);
+        }
+
+        synchronized boolean add(Pending p) {
+            if (closed || pending.size() >= maxBatch) return false;
+            pending.add(p);
+            if (pending.size() >= maxBatch) notifyAll();
+            return true;
+        }
+
+        synchronized List<Pending> closeAfter(long deadlineNanos) {
+            long remaining;
+            while (pending.size() < maxBatch && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+                try {
+                    wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                } catch (InterruptedException ex) {
+                    // Se aplica ya lo acumulado; el flag queda para el llamante
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            closed = true;
+            return List.copyOf(pending);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.tx;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Re-ejecuta una operación (una transacción completa) cuando falla por optimistic lock.
+ * Backoff exponencial con "full jitter" y presupuesto de intentos configurable.
+ * Debe envolver la transacción, nunca ejecutarse dentro de ella.
+ */
+@Slf4j
+public class OptimisticLockRetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public OptimisticLockRetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1");
+        if (baseDelay == null || baseDelay.isNegative()) throw new IllegalArgumentException("baseDelay must be >= 0");
+        if (maxDelay == null || maxDelay.compareTo(baseDelay) < 0) throw new IllegalArgumentException("maxDelay must be >= baseDelay");
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException ex) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("[inventory-retry] {} gave up after {} attempts: {}", operation, attempt, ex.getMessage());
+                    throw ex;
+                }
+                retries.increment();
+                long delay = backoffMillis(attempt);
+                log.debug("[inventory-retry] {} conflict on attempt {}/{}, retrying in {}ms", operation, attempt, maxAttempts, delay);
+                sleep(delay, ex);
+                attempt++;
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Optimistic lock failures observed (including the last one of an exhausted budget). */
+    public long getConflictCount() { return conflicts.sum(); }
+
+    /** Re-executions actually performed. */
+    public long getRetryCount() { return retries.sum(); }
+
+    /** Operations that ran out of attempts and propagated the conflict. */
+    public long getExhaustedCount() { return exhausted.sum(); }
+
+    private long backoffMillis(int attempt) {
+        if (maxDelayMillis == 0) return 0;
+        long exp = baseDelayMillis << Math.min(attempt - 1, 20);
+        long cap = Math.min(maxDelayMillis, Math.max(exp, baseDelayMillis));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long millis, RuntimeException cause) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -2,22 +2,32 @@ package com.aredondocharro.ClothingStore.inventory.infrastructure.tx;
 
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.AdjustInventoryStockUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.List;
 
 public class TransactionalAdjustInventoryStockUseCase implements AdjustInventoryStockUseCase {
 
     private final AdjustInventoryStockUseCase delegate;
     private final TransactionTemplate tx;
+    private final OptimisticLockRetryPolicy retry;
 
-    public TransactionalAdjustInventoryStockUseCase(AdjustInventoryStockUseCase delegate, TransactionTemplate tx) {
+    public TransactionalAdjustInventoryStockUseCase(AdjustInventoryStockUseCase delegate, TransactionTemplate tx, OptimisticLockRetryPolicy retry) {
         this.delegate = delegate;
         this.tx = tx;
+        this.retry = retry;
     }
 
     @Override
     public void adjustOnHand(InventoryItemId id, int delta, String reason, Instant now) {
-        tx.executeWithoutResult(status -> delegate.adjustOnHand(id, delta, reason, now));
+        retry.run("adjustOnHand", () -> tx.executeWithoutResult(status -> delegate.adjustOnHand(id, delta, reason, now)));
+    }
+
+    @Override
+    public StockAdjustmentResult adjustOnHandAll(List<StockAdjustmentLine> lines, Instant now) {
+        return retry.execute("adjustOnHandAll", () -> tx.execute(status -> delegate.adjustOnHandAll(lines, now)));
     }
 }
@@ -11,14 +11,16 @@ public class TransactionalChangeInventoryItemPriceUseCase implements ChangeInven
 
     private final ChangeInventoryItemPriceUseCase delegate;
     private final TransactionTemplate tx;
+    private final OptimisticLockRetryPolicy retry;
 
-    public TransactionalChangeInventoryItemPriceUseCase(ChangeInventoryItemPriceUseCase delegate, TransactionTemplate tx) {
+    public TransactionalChangeInventoryItemPriceUseCase(ChangeInventoryItemPriceUseCase delegate, TransactionTemplate tx, OptimisticLockRetryPolicy retry) {
         this.delegate = delegate;
         this.tx = tx;
+        this.retry = retry;
     }
 
     @Override
     public void changePrice(InventoryItemId id, Money newPrice, Instant now) {
-        tx.executeWithoutResult(status -> delegate.changePrice(id, newPrice, now));
+        retry.run("changePrice", () -> tx.executeWithoutResult(status -> delegate.changePrice(id, newPrice, now)));
     }
 }
@@ -11,14 +11,16 @@ public class TransactionalConsumeStockUseCase implements ConsumeStockUseCase {
 
     private final ConsumeStockUseCase delegate;
     private final TransactionTemplate tx;
+    private final OptimisticLockRetryPolicy retry;
 
-    public TransactionalConsumeStockUseCase(ConsumeStockUseCase delegate, TransactionTemplate tx) {
+    public TransactionalConsumeStockUseCase(ConsumeStockUseCase delegate, TransactionTemplate tx, OptimisticLockRetryPolicy retry) {
         this.delegate = delegate;
         this.tx = tx;
+        this.retry = retry;
     }
 
     @Override
     public void consume(InventoryItemId itemId, ReservationReference reference, Instant now) {
-        tx.executeWithoutResult(status -> delegate.consume(itemId, reference, now));
+        retry.run("consume", () -> tx.executeWithoutResult(status -> delegate.consume(itemId, reference, now)));
     }
 }
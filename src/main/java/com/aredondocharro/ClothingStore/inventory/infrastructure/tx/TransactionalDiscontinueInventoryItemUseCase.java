@@ -10,19 +10,21 @@ public class TransactionalDiscontinueInventoryItemUseCase implements Discontinue
 
     private final DiscontinueInventoryItemUseCase delegate;
     private final TransactionTemplate tx;
+    private final OptimisticLockRetryPolicy retry;
 
-    public TransactionalDiscontinueInventoryItemUseCase(DiscontinueInventoryItemUseCase delegate, TransactionTemplate tx) {
+    public TransactionalDiscontinueInventoryItemUseCase(DiscontinueInventoryItemUseCase delegate, TransactionTemplate tx, OptimisticLockRetryPolicy retry) {
         this.delegate = delegate;
         this.tx = tx;
+        this.retry = retry;
     }
 
     @Override
     public void discontinue(InventoryItemId id, Instant now) {
-        tx.executeWithoutResult(status -> delegate.discontinue(id, now));
+        retry.run("discontinue", () -> tx.executeWithoutResult(status -> delegate.discontinue(id, now)));
     }
 
     @Override
     public void reactivate(InventoryItemId id, Instant now) {
-        tx.executeWithoutResult(status -> delegate.reactivate(id, now));
+        retry.run("reactivate", () -> tx.executeWithoutResult(status -> delegate.reactivate(id, now)));
     }
 }
@@ -0,0 +1,26 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.tx;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ExpireStockReservationsUseCase;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+public class TransactionalExpireStockReservationsUseCase implements ExpireStockReservationsUseCase {
+
+    private final ExpireStockReservationsUseCase delegate;
+    private final TransactionTemplate tx;
+    private final OptimisticLockRetryPolicy retry;
+
+    public TransactionalExpireStockReservationsUseCase(ExpireStockReservationsUseCase delegate, TransactionTemplate tx, OptimisticLockRetryPolicy retry) {
+        this.delegate = delegate;
+        this.tx = tx;
+        this.retry = retry;
+    }
+
+    // Una transacción por lote: el lote se libera entero o no se libera
+    @Override
+    public int expireBatch(Instant now, int batchSize) {
+        Integer released = retry.execute("expire", () -> tx.execute(status -> delegate.expireBatch(now, batchSize)));
+        return released != null ? released : 0;
+    }
+}
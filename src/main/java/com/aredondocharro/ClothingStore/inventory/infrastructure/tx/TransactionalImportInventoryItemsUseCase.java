@@ -0,0 +1,26 @@
+package com.aredondocharro.ClothingStore.inventory.infrastructure.tx;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ImportInventoryItemsUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Iterator;
+
+// Sin retry: el iterador es un stream de la petición y no se puede volver a leer
+public class TransactionalImportInventoryItemsUseCase implements ImportInventoryItemsUseCase {
+
+    private final ImportInventoryItemsUseCase delegate;
+    private final TransactionTemplate tx;
+
+    public TransactionalImportInventoryItemsUseCase(ImportInventoryItemsUseCase delegate, TransactionTemplate tx) {
+        this.delegate = delegate;
+        this.tx = tx;
+    }
+
+    @Override
+    public InventoryImportResult importItems(Iterator<InventoryImportLine> lines, Instant now) {
+        return tx.execute(status -> delegate.importItems(lines, now));
+    }
+}
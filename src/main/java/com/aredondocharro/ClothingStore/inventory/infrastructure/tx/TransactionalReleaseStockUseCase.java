@@ -11,14 +11,16 @@ public class TransactionalReleaseStockUseCase implements ReleaseStockUseCase {
 
     private final ReleaseStockUseCase delegate;
     private final TransactionTemplate tx;
+    private final OptimisticLockRetryPolicy retry;
 
-    public TransactionalReleaseStockUseCase(ReleaseStockUseCase delegate, TransactionTemplate tx) {
+    public TransactionalReleaseStockUseCase(ReleaseStockUseCase delegate, TransactionTemplate tx, OptimisticLockRetryPolicy retry) {
         this.delegate = delegate;
         this.tx = tx;
+        this.retry = retry;
     }
 
     @Override
     public void release(InventoryItemId itemId, ReservationReference reference, Instant now) {
-        tx.executeWithoutResult(status -> delegate.release(itemId, reference, now));
+        retry.run("release", () -> tx.executeWithoutResult(status -> delegate.release(itemId, reference, now)));
     }
 }
@@ -3,23 +3,40 @@ package com.aredondocharro.ClothingStore.inventory.infrastructure.tx;
 import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
 import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
 import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservationId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockAttempt;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockOutcome;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockUseCase;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 public class TransactionalReserveStockUseCase implements ReserveStockUseCase {
 
     private final ReserveStockUseCase delegate;
     private final TransactionTemplate tx;
+    private final OptimisticLockRetryPolicy retry;
 
-    public TransactionalReserveStockUseCase(ReserveStockUseCase delegate, TransactionTemplate tx) {
+    public TransactionalReserveStockUseCase(ReserveStockUseCase delegate, TransactionTemplate tx, OptimisticLockRetryPolicy retry) {
         this.delegate = delegate;
         this.tx = tx;
+        this.retry = retry;
     }
 
     @Override
     public StockReservationId reserve(InventoryItemId itemId, ReservationReference reference, int quantity, Instant now) {
-        return tx.execute(status -> delegate.reserve(itemId, reference, quantity, now));
+        return retry.execute("reserve", () -> tx.execute(status -> delegate.reserve(itemId, reference, quantity, now)));
+    }
+
+    @Override
+    public Map<InventoryItemId, StockReservationId> reserveAll(ReservationReference reference, List<ReserveStockLine> lines, Instant now) {
+        return retry.execute("reserveAll", () -> tx.execute(status -> delegate.reserveAll(reference, lines, now)));
+    }
+
+    @Override
+    public List<ReserveStockOutcome> reserveGroup(InventoryItemId itemId, List<ReserveStockAttempt> attempts, Instant now) {
+        return retry.execute("reserveGroup", () -> tx.execute(status -> delegate.reserveGroup(itemId, attempts, now)));
     }
 }
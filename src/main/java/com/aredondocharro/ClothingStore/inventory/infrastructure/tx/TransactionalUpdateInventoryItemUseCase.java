@@ -8,14 +8,16 @@ public class TransactionalUpdateInventoryItemUseCase implements UpdateInventoryI
 
     private final UpdateInventoryItemUseCase delegate;
     private final TransactionTemplate tx;
+    private final OptimisticLockRetryPolicy retry;
 
-    public TransactionalUpdateInventoryItemUseCase(UpdateInventoryItemUseCase delegate, TransactionTemplate tx) {
+    public TransactionalUpdateInventoryItemUseCase(UpdateInventoryItemUseCase delegate, TransactionTemplate tx, OptimisticLockRetryPolicy retry) {
         this.delegate = delegate;
         this.tx = tx;
+        this.retry = retry;
     }
 
     @Override
     public void update(UpdateInventoryItemCommand command) {
-        tx.executeWithoutResult(status -> delegate.update(command));
+        retry.run("update", () -> tx.executeWithoutResult(status -> delegate.update(command)));
     }
 }
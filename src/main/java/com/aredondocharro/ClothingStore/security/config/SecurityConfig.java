@@ -2,6 +2,7 @@ package com.aredondocharro.ClothingStore.security.config;
 
 import com.aredondocharro.ClothingStore.security.filter.AccessTokenFilter;
 import com.aredondocharro.ClothingStore.security.port.AccessTokenVerifierPort;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -67,6 +68,9 @@ public class SecurityConfig {
                         .contentSecurityPolicy(csp -> csp.policyDirectives("default-src 'self'; frame-ancestors 'none'; object-src 'none'"))
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Los dispatch ASYNC/ERROR de streams (SSE, export) ya se autorizaron en el REQUEST original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+
                         // --- SOLO endpoints realmente públicos en /auth ---
                         .requestMatchers(HttpMethod.POST, "/auth/register", "/auth/login", "/auth/verify/resend").permitAll()
                         .requestMatchers(HttpMethod.GET,  "/auth/verify").permitAll()
@@ -0,0 +1,53 @@
+-- V12__inventory_schema_and_versioning.sql
+-- Esquema de inventario bajo Flyway (hasta ahora lo creaba Hibernate) + columna
+-- version para optimistic locking en inventory_items y stock_reservations.
+
+create table if not exists inventory_items (
+    id             uuid           primary key,
+    sku            varchar(64)    not null,
+    name           varchar(120)   not null,
+    description    varchar(2000),
+    category       varchar(32)    not null,
+    accessory_type varchar(32)    not null,
+    gender         varchar(16)    not null,
+    size           varchar(16)    not null,
+    fabric         varchar(32)    not null,
+    color          varchar(40),
+    price_amount   numeric(19, 2) not null,
+    price_currency varchar(3)     not null,
+    stock_on_hand  integer        not null,
+    stock_reserved integer        not null,
+    status         varchar(16)    not null,
+    created_at     timestamptz    not null,
+    updated_at     timestamptz    not null,
+    version        bigint         not null default 0
+);
+
+create unique index if not exists idx_inventory_items_sku
+    on inventory_items (sku);
+
+create index if not exists idx_inventory_items_status
+    on inventory_items (status);
+
+create table if not exists stock_reservations (
+    id          uuid        primary key,
+    item_id     uuid        not null,
+    reference   varchar(80) not null,
+    quantity    integer     not null,
+    status      varchar(16) not null,
+    created_at  timestamptz not null,
+    released_at timestamptz,
+    consumed_at timestamptz,
+    version     bigint      not null default 0,
+    constraint uk_stock_reservation_item_reference_status unique (item_id, reference, status)
+);
+
+create index if not exists idx_stock_reservation_item_ref_status
+    on stock_reservations (item_id, reference, status);
+
+-- Instalaciones previas (tablas creadas por Hibernate sin version)
+alter table inventory_items
+    add column if not exists version bigint not null default 0;
+
+alter table stock_reservations
+    add column if not exists version bigint not null default 0;
@@ -0,0 +1,5 @@
+-- V13__stock_reservations_reference_index.sql
+-- Reserva multi-línea: la idempotencia se resuelve por referencia (todas las líneas de un pedido)
+
+create index if not exists idx_stock_reservation_ref_status
+    on stock_reservations (reference, status);
@@ -0,0 +1,12 @@
+-- V14__inventory_items_keyset_indexes.sql
+-- Paginación keyset del listado: un índice compuesto (clave de orden, id) por cada orden soportado.
+-- PRICE_DESC recorre idx_inventory_items_price_id hacia atrás (price desc, id desc).
+
+create index if not exists idx_inventory_items_updated_at_id
+    on inventory_items (updated_at desc, id);
+
+create index if not exists idx_inventory_items_price_id
+    on inventory_items (price_amount, id);
+
+create index if not exists idx_inventory_items_name_id
+    on inventory_items (name, id);
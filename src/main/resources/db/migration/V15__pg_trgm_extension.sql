@@ -0,0 +1,5 @@
+-- V15__pg_trgm_extension.sql
+-- Trigramas para el filtro "text" (contains) del buscador de inventario.
+-- pg_trgm es "trusted" desde PG13: basta con ser owner de la base de datos.
+
+create extension if not exists pg_trgm;
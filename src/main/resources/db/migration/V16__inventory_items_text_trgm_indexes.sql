@@ -0,0 +1,12 @@
+-- V16__inventory_items_text_trgm_indexes.sql
+-- GIN trigram sobre las mismas expresiones que usa el buscador (lower(sku) / lower(name) like '%x%').
+-- Sin CONCURRENTLY: Flyway ejecuta cada migración con su lock de PostgreSQL, que mantiene abierta una
+-- transacción en otra conexión, y CREATE INDEX CONCURRENTLY esperaría a que terminase (nunca).
+-- El build bloquea escrituras en inventory_items mientras dura; en catálogos grandes, crear antes los
+-- índices a mano con CONCURRENTLY (mismos nombres) y esta migración no hace nada.
+
+create index if not exists idx_inventory_items_sku_trgm
+    on inventory_items using gin (lower(sku) gin_trgm_ops);
+
+create index if not exists idx_inventory_items_name_trgm
+    on inventory_items using gin (lower(name) gin_trgm_ops);
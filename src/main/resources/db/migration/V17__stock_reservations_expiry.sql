@@ -0,0 +1,11 @@
+-- V17__stock_reservations_expiry.sql
+-- Reservas con caducidad: null = no caduca (reservas anteriores a esta migración).
+-- El sweeper solo busca ACTIVE caducadas, así que el índice parcial se queda pequeño
+-- (las RELEASED/CONSUMED históricas no entran).
+
+alter table stock_reservations
+    add column if not exists expires_at timestamptz;
+
+create index if not exists idx_stock_reservation_active_expiry
+    on stock_reservations (expires_at)
+    where status = 'ACTIVE' and expires_at is not null;
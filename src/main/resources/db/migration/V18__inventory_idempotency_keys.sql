@@ -0,0 +1,21 @@
+-- V18__inventory_idempotency_keys.sql
+-- Idempotency-Key de los endpoints admin de inventario: huella de la petición y respuesta guardada.
+-- IN_PROGRESS mientras se ejecuta (los duplicados esperan o reciben 409); COMPLETED con la respuesta.
+-- El sweeper borra por lotes lo caducado usando el índice de expires_at.
+
+create table if not exists inventory_idempotency_keys (
+    idempotency_key       varchar(300) primary key,
+    fingerprint           varchar(64)  not null,
+    status                varchar(16)  not null,
+    response_status       integer,
+    response_content_type varchar(200),
+    response_location     varchar(500),
+    response_body         bytea,
+    created_at            timestamptz  not null,
+    completed_at          timestamptz,
+    expires_at            timestamptz  not null,
+    constraint ck_inventory_idempotency_status check (status in ('IN_PROGRESS', 'COMPLETED'))
+);
+
+create index if not exists idx_inventory_idempotency_expires_at
+    on inventory_idempotency_keys (expires_at);
@@ -0,0 +1,22 @@
+-- V19__inventory_webhook_outbox.sql
+-- Outbox de webhooks de inventario: una fila por (evento, suscriptor), escrita en la misma transacción
+-- que el cambio. El dispatcher reclama lotes moviendo next_attempt_at al final de un lease (si el nodo
+-- cae, las filas vuelven a estar disponibles al vencer), borra lo entregado y deja FAILED para revisión.
+
+create table if not exists inventory_webhook_outbox (
+    id              bigserial    primary key,
+    subscriber      varchar(64)  not null,
+    event_type      varchar(64)  not null,
+    payload         text         not null,
+    occurred_at     timestamptz  not null,
+    status          varchar(16)  not null default 'PENDING',
+    attempt_count   integer      not null default 0,
+    next_attempt_at timestamptz  not null default now(),
+    last_error      text,
+    created_at      timestamptz  not null default now(),
+    constraint ck_inventory_webhook_status check (status in ('PENDING', 'FAILED'))
+);
+
+create index if not exists idx_inventory_webhook_outbox_due
+    on inventory_webhook_outbox (subscriber, next_attempt_at, id)
+    where status = 'PENDING';
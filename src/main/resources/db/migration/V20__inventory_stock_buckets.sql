@@ -0,0 +1,15 @@
+-- V20__inventory_stock_buckets.sql
+-- Buckets de stock para items con mucha contención: parte del disponible de un item se reparte en N filas
+-- y cada reserva bloquea solo una. Lo que hay en los buckets (available) ya cuenta como reservado en
+-- inventory_items, así que la fila del item nunca permite vender esas unidades por otra vía; la lectura
+-- exacta es stock_reserved - sum(available).
+
+create table if not exists inventory_stock_buckets (
+    item_id    uuid        not null,
+    bucket     smallint    not null,
+    available  integer     not null default 0,
+    version    bigint      not null default 0,
+    updated_at timestamptz not null,
+    primary key (item_id, bucket),
+    constraint ck_inventory_stock_buckets_available check (available >= 0)
+);
@@ -0,0 +1,11 @@
+-- V21__stock_reservations_active_reference_unique.sql
+-- Una sola reserva ACTIVE por (item, reference); el histórico (RELEASED/CONSUMED) puede repetirse.
+-- El unique (item_id, reference, status) de V12 impedía liberar o consumir una segunda reserva
+-- con la misma referencia (p. ej. un carrito que caduca dos veces).
+
+alter table stock_reservations
+    drop constraint if exists uk_stock_reservation_item_reference_status;
+
+create unique index if not exists uk_stock_reservation_item_reference_active
+    on stock_reservations (item_id, reference)
+    where status = 'ACTIVE';
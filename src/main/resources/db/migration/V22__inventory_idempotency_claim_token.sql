@@ -0,0 +1,6 @@
+-- V22__inventory_idempotency_claim_token.sql
+-- Token por claim: complete/release solo afectan a la fila si sigue siendo del mismo claim.
+-- Sin él, una petición lenta cuya clave retomó otra tras el timeout podía completarla o borrarla.
+
+alter table inventory_idempotency_keys
+    add column if not exists claim_token uuid;
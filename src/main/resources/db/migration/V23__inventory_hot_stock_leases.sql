@@ -0,0 +1,16 @@
+-- V23__inventory_hot_stock_leases.sql
+-- Stock arrendado por cada nodo del ledger hot que aún no está en una reserva persistida. Ya cuenta como
+-- reservado en inventory_items: si el nodo muere sin devolverlo, su heartbeat (expires_at) deja de avanzar
+-- y la reconciliación de cualquier otro nodo devuelve esas unidades a la fila del item.
+
+create table if not exists inventory_hot_stock_leases (
+    node_id    varchar(64) not null,
+    item_id    uuid        not null,
+    units      integer     not null default 0,
+    expires_at timestamptz not null,
+    primary key (node_id, item_id),
+    constraint ck_inventory_hot_stock_leases_units check (units >= 0)
+);
+
+create index if not exists idx_inventory_hot_stock_leases_expires_at
+    on inventory_hot_stock_leases (expires_at);
@@ -0,0 +1,128 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.application;
+
+import com.aredondocharro.ClothingStore.inventory.application.AdjustInventoryStockService;
+import com.aredondocharro.ClothingStore.inventory.contracts.event.InventoryStockBulkAdjusted;
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentResult;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AdjustInventoryStockServiceTest {
+
+    private InventoryItemRepositoryPort repo;
+    private EventBusPort eventBus;
+
+    private AdjustInventoryStockService service;
+
+    private final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final InventoryItemId low = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    private final InventoryItemId high = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+
+    @BeforeEach
+    void setup() {
+        repo = mock(InventoryItemRepositoryPort.class);
+        eventBus = mock(EventBusPort.class);
+        service = new AdjustInventoryStockService(repo, Clock.fixed(NOW, ZoneOffset.UTC), eventBus, StockBucketPort.disabled());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void adjustOnHandAll_resolvesSkusInOneQuery_andAppliesOneBatchSortedById() {
+        Sku sku = Sku.of("TEE-001");
+        when(repo.findIdsBySkus(anyCollection())).thenReturn(Map.of(sku, low));
+        when(repo.tryAdjustOnHandAll(anyList(), eq(NOW))).thenReturn(List.of());
+
+        StockAdjustmentResult result = service.adjustOnHandAll(List.of(
+                StockAdjustmentLine.byId(high, 5, "recount"),
+                StockAdjustmentLine.bySku(sku, -2, null),
+                StockAdjustmentLine.byId(high, -1, "damaged")
+        ), null);
+
+        assertEquals(3, result.applied());
+        assertTrue(result.failures().isEmpty());
+
+        verify(repo, times(1)).findIdsBySkus(anyCollection());
+        ArgumentCaptor<List<StockAdjustmentLine>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repo).tryAdjustOnHandAll(batch.capture(), eq(NOW));
+        assertEquals(List.of(low, high, high), batch.getValue().stream().map(StockAdjustmentLine::itemId).toList());
+        assertEquals(List.of(-2, 5, -1), batch.getValue().stream().map(StockAdjustmentLine::delta).toList());
+        assertEquals("admin-adjustment", batch.getValue().get(0).reason());
+
+        ArgumentCaptor<InventoryStockBulkAdjusted> event = ArgumentCaptor.forClass(InventoryStockBulkAdjusted.class);
+        verify(eventBus, times(1)).publish(event.capture());
+        assertEquals(3, event.getValue().adjustments().size());
+        verify(repo, never()).findById(any());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void adjustOnHandAll_reportsUnknownSkusAndRejectedLines_byRequestIndex() {
+        when(repo.findIdsBySkus(anyCollection())).thenReturn(Map.of());
+        // La única línea resuelta (índice 1 de la petición) no cumple la guarda
+        when(repo.tryAdjustOnHandAll(anyList(), eq(NOW))).thenReturn(List.of(0));
+        when(repo.findById(low)).thenReturn(Optional.of(item(low, 3)));
+
+        StockAdjustmentResult result = service.adjustOnHandAll(List.of(
+                StockAdjustmentLine.bySku(Sku.of("MISSING-1"), 1, "sync"),
+                StockAdjustmentLine.byId(low, -10, "sync")
+        ), NOW);
+
+        assertEquals(0, result.applied());
+        assertEquals(2, result.failures().size());
+
+        StockAdjustmentResult.Failure notFound = result.failures().get(0);
+        assertEquals(0, notFound.index());
+        assertEquals("MISSING-1", notFound.target());
+        assertEquals("Inventory item not found", notFound.reason());
+
+        StockAdjustmentResult.Failure rejected = result.failures().get(1);
+        assertEquals(1, rejected.index());
+        assertEquals(low.getValue().toString(), rejected.target());
+        assertEquals("onHand cannot be negative after adjustment", rejected.reason());
+
+        verifyNoInteractions(eventBus);
+    }
+
+    @Test
+    void adjustOnHandAll_rejectsEmptyRequest() {
+        assertThrows(IllegalArgumentException.class, () -> service.adjustOnHandAll(List.of(), NOW));
+        verifyNoInteractions(repo, eventBus);
+    }
+
+    private InventoryItem item(InventoryItemId id, int onHand) {
+        return InventoryItem.createNew(
+                id,
+                Sku.of("TEE-001"),
+                ItemName.of("Tee"),
+                null,
+                InventoryCategory.TOP,
+                AccessoryType.NONE,
+                Gender.UNISEX,
+                Size.M,
+                Fabric.COTTON,
+                Color.of("Black"),
+                Money.eur(new BigDecimal("19.99")),
+                onHand,
+                NOW
+        );
+    }
+}
@@ -0,0 +1,68 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.application;
+
+import com.aredondocharro.ClothingStore.inventory.application.ConsumeStockService;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.StockReservationNotFoundException;
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.HotStockLedgerPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ConsumeStockServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private InventoryItemRepositoryPort itemRepo;
+    private StockReservationRepositoryPort reservationRepo;
+    private HotStockLedgerPort hotLedger;
+
+    private ConsumeStockService service;
+
+    private final InventoryItemId itemId = InventoryItemId.newId();
+    private final ReservationReference ref = ReservationReference.of("ORDER-1");
+
+    @BeforeEach
+    void setup() {
+        itemRepo = mock(InventoryItemRepositoryPort.class);
+        reservationRepo = mock(StockReservationRepositoryPort.class);
+        hotLedger = mock(HotStockLedgerPort.class);
+        when(reservationRepo.findByItemAndReferenceAndStatus(any(), any(), any())).thenReturn(Optional.empty());
+
+        service = new ConsumeStockService(itemRepo, reservationRepo, Clock.fixed(NOW, ZoneOffset.UTC), hotLedger);
+    }
+
+    @Test
+    void consume_pendingInHotLedger_flushesOnlyThatReservation_andConsumesIt() {
+        StockReservation reservation = StockReservation.createNew(StockReservationId.newId(), itemId, ref, 2, NOW);
+        when(reservationRepo.findByItemAndReferenceAndStatus(itemId, ref, ReservationStatus.ACTIVE))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(reservation));
+        when(hotLedger.flushPending(itemId, ref)).thenReturn(true);
+        when(itemRepo.tryConsume(any(StockReservation.class))).thenReturn(true);
+
+        service.consume(itemId, ref, NOW);
+
+        verify(hotLedger).flushPending(itemId, ref);
+        verify(itemRepo).tryConsume(any(StockReservation.class));
+    }
+
+    @Test
+    void consume_unknownEverywhere_throwsNotFound() {
+        when(hotLedger.flushPending(itemId, ref)).thenReturn(false);
+
+        assertThrows(StockReservationNotFoundException.class, () -> service.consume(itemId, ref, NOW));
+
+        verify(reservationRepo, times(1)).findByItemAndReferenceAndStatus(itemId, ref, ReservationStatus.ACTIVE);
+        verify(itemRepo, never()).tryConsume(any());
+    }
+}
@@ -0,0 +1,118 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.application;
+
+import com.aredondocharro.ClothingStore.inventory.application.ExpireStockReservationsService;
+import com.aredondocharro.ClothingStore.inventory.contracts.event.StockReleased;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpireStockReservationsServiceTest {
+
+    private InventoryItemRepositoryPort itemRepo;
+    private StockReservationRepositoryPort reservationRepo;
+    private EventBusPort eventBus;
+
+    private ExpireStockReservationsService service;
+
+    private final Instant NOW = Instant.parse("2025-01-01T01:00:00Z");
+    private final Instant CREATED = NOW.minus(Duration.ofHours(1));
+
+    @BeforeEach
+    void setup() {
+        itemRepo = mock(InventoryItemRepositoryPort.class);
+        reservationRepo = mock(StockReservationRepositoryPort.class);
+        eventBus = mock(EventBusPort.class);
+        service = new ExpireStockReservationsService(itemRepo, reservationRepo, Clock.fixed(NOW, ZoneOffset.UTC), eventBus);
+    }
+
+    @Test
+    void expireBatch_whenNothingDue_doesNotTouchStock() {
+        when(reservationRepo.releaseExpired(NOW, 100)).thenReturn(List.of());
+
+        assertEquals(0, service.expireBatch(null, 100));
+
+        verifyNoInteractions(itemRepo, eventBus);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void expireBatch_aggregatesOneStockUpdatePerItem_inIdOrder_andPublishesOneEventPerReservation() {
+        InventoryItemId low = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        InventoryItemId high = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+        List<StockReservation> expired = List.of(
+                expired(high, "CART-1", 2),
+                expired(low, "CART-2", 1),
+                expired(high, "CART-3", 3)
+        );
+        when(reservationRepo.releaseExpired(NOW, 100)).thenReturn(expired);
+        when(itemRepo.tryReleaseAll(anyMap(), eq(NOW))).thenReturn(List.of());
+
+        assertEquals(3, service.expireBatch(NOW, 100));
+
+        ArgumentCaptor<Map<InventoryItemId, Integer>> quantities = ArgumentCaptor.forClass(Map.class);
+        verify(itemRepo).tryReleaseAll(quantities.capture(), eq(NOW));
+        assertEquals(List.of(low, high), List.copyOf(quantities.getValue().keySet()));
+        assertEquals(1, quantities.getValue().get(low));
+        assertEquals(5, quantities.getValue().get(high));
+
+        ArgumentCaptor<StockReleased> events = ArgumentCaptor.forClass(StockReleased.class);
+        verify(eventBus, times(3)).publish(events.capture());
+        assertEquals(List.of("CART-1", "CART-2", "CART-3"),
+                events.getAllValues().stream().map(StockReleased::reference).toList());
+    }
+
+    @Test
+    void expireBatch_whenOneItemIsInconsistent_skipsIt_andReleasesTheRestOfTheBatch() {
+        InventoryItemId bad = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        InventoryItemId good = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+        when(reservationRepo.releaseExpired(NOW, 10)).thenReturn(List.of(
+                expired(bad, "CART-1", 2),
+                expired(good, "CART-2", 1),
+                expired(good, "CART-3", 1)
+        ));
+        when(itemRepo.tryReleaseAll(anyMap(), eq(NOW))).thenReturn(List.of(bad));
+
+        // Sin excepción: el lote hace commit y la siguiente pasada no vuelve a reclamarlo
+        assertEquals(3, service.expireBatch(NOW, 10));
+
+        ArgumentCaptor<StockReleased> events = ArgumentCaptor.forClass(StockReleased.class);
+        verify(eventBus, times(2)).publish(events.capture());
+        assertEquals(List.of("CART-2", "CART-3"),
+                events.getAllValues().stream().map(StockReleased::reference).toList());
+        assertEquals(1, service.getSkippedCount());
+    }
+
+    @Test
+    void createNew_withTtl_expiresAfterTtl() {
+        StockReservation r = StockReservation.createNew(null, InventoryItemId.newId(),
+                ReservationReference.of("CART-9"), 1, CREATED, Duration.ofMinutes(30));
+
+        assertEquals(CREATED.plus(Duration.ofMinutes(30)), r.expiresAt());
+        assertFalse(r.isExpired(CREATED.plus(Duration.ofMinutes(29))));
+        assertTrue(r.isExpired(CREATED.plus(Duration.ofMinutes(30))));
+        assertFalse(r.release(NOW).isExpired(NOW));
+    }
+
+    private StockReservation expired(InventoryItemId itemId, String ref, int qty) {
+        return StockReservation.createNew(null, itemId, ReservationReference.of(ref), qty, CREATED, Duration.ofMinutes(30))
+                .release(NOW);
+    }
+}
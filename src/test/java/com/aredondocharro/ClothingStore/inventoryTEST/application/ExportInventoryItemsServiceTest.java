@@ -0,0 +1,90 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.application;
+
+import com.aredondocharro.ClothingStore.inventory.application.ExportInventoryItemsService;
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryItemSummary;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryExportPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExportInventoryItemsServiceTest {
+
+    private InventoryExportPort exportPort;
+    private StockBucketPort stockBuckets;
+    private ExportInventoryItemsService service;
+
+    @BeforeEach
+    void setup() {
+        exportPort = mock(InventoryExportPort.class);
+        stockBuckets = mock(StockBucketPort.class);
+        service = new ExportInventoryItemsService(exportPort, stockBuckets);
+    }
+
+    @Test
+    void export_reportsStockStillInBucketsAsAvailable() {
+        InventoryItemSummaryView launch = view("LAUNCH-001", 9);
+        InventoryItemSummaryView plain = view("TEE-001", 1);
+        streams(List.of(launch, plain));
+        // 1 reservado de verdad + 8 repartidos en buckets, todo contado como reservado en la fila
+        when(stockBuckets.findTotals(List.of(launch.id(), plain.id())))
+                .thenReturn(Map.of(launch.id(), new StockBucketView(launch.id(), 8, 4L, Instant.parse("2025-01-01T00:00:00Z"))));
+
+        List<InventoryItemSummary> rows = new ArrayList<>();
+        assertEquals(2, service.export(null, rows::add));
+
+        assertEquals(List.of("LAUNCH-001", "TEE-001"), rows.stream().map(r -> r.sku().getValue()).toList());
+        assertEquals(new Stock(10, 1), rows.get(0).stock());
+        assertEquals(new Stock(10, 1), rows.get(1).stock());
+    }
+
+    @Test
+    void export_looksUpBucketsOncePerChunk_notPerRow() {
+        List<InventoryItemSummaryView> views = IntStream.range(0, 1_200)
+                .mapToObj(i -> view("TEE-" + i, 1))
+                .toList();
+        streams(views);
+
+        List<InventoryItemSummary> rows = new ArrayList<>();
+        assertEquals(1_200, service.export(null, rows::add));
+
+        assertEquals(1_200, rows.size());
+        assertEquals("TEE-1199", rows.get(1_199).sku().getValue());
+        verify(stockBuckets, times(3)).findTotals(anyCollection());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streams(List<InventoryItemSummaryView> views) {
+        when(exportPort.streamSummaries(any(), any())).thenAnswer(inv -> {
+            Consumer<InventoryItemSummaryView> sink = inv.getArgument(1);
+            views.forEach(sink);
+            return (long) views.size();
+        });
+    }
+
+    private static InventoryItemSummaryView view(String sku, int reserved) {
+        return new InventoryItemSummaryView(
+                InventoryItemId.newId(),
+                Sku.of(sku),
+                "Tee " + sku,
+                Money.of(new BigDecimal("9.99"), "EUR"),
+                10,
+                reserved,
+                ItemStatus.ACTIVE
+        );
+    }
+}
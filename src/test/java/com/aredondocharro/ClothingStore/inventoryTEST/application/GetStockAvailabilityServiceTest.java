@@ -0,0 +1,91 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.application;
+
+import com.aredondocharro.ClothingStore.inventory.application.GetStockAvailabilityService;
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAvailabilityCheck;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryAvailabilityView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GetStockAvailabilityServiceTest {
+
+    private InventoryItemRepositoryPort repo;
+    private GetStockAvailabilityService service;
+
+    private final InventoryItemId known = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    private final InventoryItemId unknown = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+    private final InventoryItemId bySku = InventoryItemId.of(UUID.fromString("00000000-0000-0000-0000-000000000003"));
+
+    @BeforeEach
+    void setup() {
+        repo = mock(InventoryItemRepositoryPort.class);
+        service = new GetStockAvailabilityService(repo, StockBucketPort.disabled());
+    }
+
+    @Test
+    void check_resolvesIdsAndSkusInOneQuery_andReportsMissing() {
+        Sku tee = Sku.of("TEE-001");
+        Sku ghost = Sku.of("GHOST-001");
+        when(repo.findAvailability(anyCollection(), anyCollection())).thenReturn(List.of(
+                view(known, Sku.of("CAP-001"), 5, 2, ItemStatus.ACTIVE),
+                view(bySku, tee, 3, 3, ItemStatus.ACTIVE)
+        ));
+
+        StockAvailabilityCheck check = service.check(List.of(known, unknown, known), List.of(tee, ghost));
+
+        assertEquals(2, check.items().size());
+        assertEquals(3, check.items().get(0).sellable());
+        assertEquals(0, check.items().get(1).sellable());
+        assertEquals(List.of(unknown), check.missingIds());
+        assertEquals(List.of(ghost), check.missingSkus());
+        verify(repo, times(1)).findAvailability(anyCollection(), anyCollection());
+        verify(repo, never()).findById(any());
+    }
+
+    @Test
+    void check_rejectsEmptyAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> service.check(List.of(), null));
+
+        List<InventoryItemId> tooMany = IntStream.rangeClosed(0, GetStockAvailabilityService.MAX_CHECK_SIZE)
+                .mapToObj(i -> InventoryItemId.of(UUID.randomUUID()))
+                .toList();
+        assertThrows(IllegalArgumentException.class, () -> service.check(tooMany, List.of()));
+
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void check_onBucketedItem_reportsUnreservedBucketStockAsAvailable() {
+        StockBucketPort buckets = mock(StockBucketPort.class);
+        service = new GetStockAvailabilityService(repo, buckets);
+
+        // La fila cuenta como reservadas las 40 que siguen en buckets
+        when(repo.findAvailability(anyCollection(), anyCollection())).thenReturn(List.of(
+                view(known, Sku.of("DROP-001"), 100, 60, ItemStatus.ACTIVE)));
+        when(buckets.findTotals(List.of(known))).thenReturn(Map.of(
+                known, new StockBucketView(known, 40, 7L, Instant.parse("2025-01-01T00:00:00Z"))));
+
+        StockAvailabilityCheck check = service.check(List.of(known), List.of());
+
+        assertEquals(20, check.items().get(0).stock().reserved());
+        assertEquals(80, check.items().get(0).sellable());
+    }
+
+    private static InventoryAvailabilityView view(InventoryItemId id, Sku sku, int onHand, int reserved, ItemStatus status) {
+        return new InventoryAvailabilityView(id, sku, Money.of(new BigDecimal("19.99"), "EUR"), onHand, reserved, status);
+    }
+}
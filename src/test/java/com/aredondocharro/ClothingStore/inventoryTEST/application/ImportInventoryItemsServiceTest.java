@@ -0,0 +1,92 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.application;
+
+import com.aredondocharro.ClothingStore.inventory.application.ImportInventoryItemsService;
+import com.aredondocharro.ClothingStore.inventory.contracts.event.InventoryItemsImported;
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CreateInventoryItemCommand;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportResult;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryBulkImportPort;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImportInventoryItemsServiceTest {
+
+    private InventoryBulkImportPort importPort;
+    private EventBusPort eventBus;
+    private ImportInventoryItemsService service;
+
+    private final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setup() {
+        importPort = mock(InventoryBulkImportPort.class);
+        eventBus = mock(EventBusPort.class);
+        service = new ImportInventoryItemsService(importPort, Clock.fixed(NOW, ZoneOffset.UTC), eventBus);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void importItems_streamsValidRowsToThePort_andSkipsInvalidOnes() {
+        List<InventoryItem> streamed = new ArrayList<>();
+        when(importPort.importAll(any(), anyInt())).thenAnswer(inv -> {
+            Iterator<InventoryItem> it = inv.getArgument(0);
+            it.forEachRemaining(streamed::add);
+            return new InventoryBulkImportPort.Outcome(streamed.size(), 1, List.of("SKU-002"));
+        });
+
+        List<InventoryImportLine> lines = List.of(
+                InventoryImportLine.ok(2, command("SKU-001", 5)),
+                InventoryImportLine.rejected(3, "invalid category: FOO"),
+                InventoryImportLine.ok(4, command("SKU-002", -1)),
+                InventoryImportLine.ok(5, command("SKU-002", 1))
+        );
+
+        InventoryImportResult result = service.importItems(lines.iterator(), null);
+
+        assertEquals(List.of("SKU-001", "SKU-002"), streamed.stream().map(i -> i.sku().getValue()).toList());
+        assertEquals(NOW, streamed.get(0).createdAt());
+        assertEquals(4, result.received());
+        assertEquals(1, result.imported());
+        assertEquals(1, result.conflicts());
+        assertEquals(2, result.rejected());
+        assertEquals("line 3: invalid category: FOO", result.errors().get(0));
+        assertTrue(result.errors().get(1).startsWith("line 4: "));
+        assertEquals("sku SKU-002 already exists", result.errors().get(2));
+
+        ArgumentCaptor<InventoryItemsImported> event = ArgumentCaptor.forClass(InventoryItemsImported.class);
+        verify(eventBus, times(1)).publish(event.capture());
+        assertEquals(new InventoryItemsImported(1, 1, 2, NOW), event.getValue());
+    }
+
+    private static CreateInventoryItemCommand command(String sku, int onHand) {
+        return new CreateInventoryItemCommand(
+                Sku.of(sku),
+                ItemName.of("Basic tee"),
+                null,
+                InventoryCategory.TOP,
+                AccessoryType.NONE,
+                Gender.UNISEX,
+                Size.M,
+                Fabric.COTTON,
+                null,
+                Money.of(new BigDecimal("19.99"), "EUR"),
+                onHand,
+                null
+        );
+    }
+}
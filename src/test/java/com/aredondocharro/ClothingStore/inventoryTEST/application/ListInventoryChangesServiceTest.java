@@ -0,0 +1,125 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.application;
+
+import com.aredondocharro.ClothingStore.inventory.application.ListInventoryChangesService;
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangeCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangePage;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryChangeView;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.StockBucketView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ListInventoryChangesServiceTest {
+
+    private final Instant NOW = Instant.parse("2025-01-01T00:00:10Z");
+
+    private InventoryItemRepositoryPort repo;
+    private StockBucketPort stockBuckets;
+    private ListInventoryChangesService service;
+
+    @BeforeEach
+    void setup() {
+        repo = mock(InventoryItemRepositoryPort.class);
+        stockBuckets = mock(StockBucketPort.class);
+        service = new ListInventoryChangesService(repo, Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofSeconds(5), stockBuckets);
+    }
+
+    @Test
+    void changesAfter_holdsBackUnsettledRows_andAdvancesCursorToLastRow() {
+        InventoryChangeView a = view("TEE-001", Instant.parse("2025-01-01T00:00:01Z"));
+        InventoryChangeView b = view("TEE-002", Instant.parse("2025-01-01T00:00:02Z"));
+        InventoryChangeView c = view("TEE-003", Instant.parse("2025-01-01T00:00:03Z"));
+        when(repo.findChangesAfter(isNull(), any(), anyInt())).thenReturn(List.of(a, b, c));
+
+        InventoryChangePage page = service.changesAfter(null, 2);
+
+        verify(repo).findChangesAfter(null, NOW.minusSeconds(5), 3);
+        assertEquals(2, page.changes().size());
+        assertTrue(page.hasMore());
+        assertEquals(new InventoryChangeCursor(b.updatedAt(), b.id().getValue()), page.next());
+    }
+
+    @Test
+    void changesAfter_stopsBeforeTheOldestOpenWriteTransaction() {
+        // Un import que empezó hace un minuto y aún no hizo commit: nada posterior a su inicio sale todavía
+        Instant importStart = NOW.minusSeconds(60);
+        when(repo.findOldestOpenWriteStart()).thenReturn(Optional.of(importStart));
+        when(repo.findChangesAfter(isNull(), any(), anyInt())).thenReturn(List.of());
+
+        service.changesAfter(null, 10);
+
+        verify(repo).findChangesAfter(null, importStart.minusSeconds(5), 11);
+    }
+
+    @Test
+    void changesAfter_reportsStockStillInBucketsAsAvailable() {
+        InventoryChangeView launch = view("LAUNCH-001", Instant.parse("2025-01-01T00:00:01Z"), 9);
+        InventoryChangeView plain = view("TEE-001", Instant.parse("2025-01-01T00:00:02Z"));
+        when(repo.findChangesAfter(isNull(), any(), anyInt())).thenReturn(List.of(launch, plain));
+        // 1 reservado de verdad + 8 repartidos en buckets, todo contado como reservado en la fila
+        when(stockBuckets.findTotals(List.of(launch.id(), plain.id())))
+                .thenReturn(Map.of(launch.id(), new StockBucketView(launch.id(), 8, 4L, launch.updatedAt())));
+
+        InventoryChangePage page = service.changesAfter(null, 10);
+
+        assertEquals(new Stock(10, 1), page.changes().get(0).stock());
+        assertEquals(new Stock(10, 1), page.changes().get(1).stock());
+    }
+
+    @Test
+    void changesAfter_withNothingNew_keepsTheSameCursor() {
+        InventoryChangeCursor after = new InventoryChangeCursor(Instant.parse("2025-01-01T00:00:01Z"), UUID.randomUUID());
+        when(repo.findChangesAfter(eq(after), any(), anyInt())).thenReturn(List.of());
+
+        InventoryChangePage page = service.changesAfter(after, 50);
+
+        assertTrue(page.changes().isEmpty());
+        assertFalse(page.hasMore());
+        assertEquals(after, page.next());
+    }
+
+    @Test
+    void changesAfter_rejectsInvalidLimits_andCursorsRoundTrip() {
+        assertThrows(IllegalArgumentException.class, () -> service.changesAfter(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.changesAfter(null, ListInventoryChangesService.MAX_LIMIT + 1));
+
+        InventoryChangeCursor cursor = new InventoryChangeCursor(Instant.parse("2025-01-01T00:00:01.123456Z"), UUID.randomUUID());
+        assertEquals(cursor, InventoryChangeCursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> InventoryChangeCursor.decode("not-a-cursor"));
+        verifyNoInteractions(repo);
+    }
+
+    private static InventoryChangeView view(String sku, Instant updatedAt) {
+        return view(sku, updatedAt, 1);
+    }
+
+    private static InventoryChangeView view(String sku, Instant updatedAt, int reserved) {
+        return new InventoryChangeView(
+                InventoryItemId.newId(),
+                Sku.of(sku),
+                "Tee " + sku,
+                Money.of(new BigDecimal("9.99"), "EUR"),
+                10,
+                reserved,
+                ItemStatus.ACTIVE,
+                updatedAt,
+                3L
+        );
+    }
+}
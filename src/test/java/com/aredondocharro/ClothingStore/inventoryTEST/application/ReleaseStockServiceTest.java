@@ -0,0 +1,87 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.application;
+
+import com.aredondocharro.ClothingStore.inventory.application.ReleaseStockService;
+import com.aredondocharro.ClothingStore.inventory.contracts.event.StockReleased;
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.HotStockLedgerPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ReleaseStockServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private InventoryItemRepositoryPort itemRepo;
+    private StockReservationRepositoryPort reservationRepo;
+    private EventBusPort eventBus;
+    private HotStockLedgerPort hotLedger;
+
+    private ReleaseStockService service;
+
+    private final InventoryItemId itemId = InventoryItemId.newId();
+    private final ReservationReference ref = ReservationReference.of("ORDER-1");
+
+    @BeforeEach
+    void setup() {
+        itemRepo = mock(InventoryItemRepositoryPort.class);
+        reservationRepo = mock(StockReservationRepositoryPort.class);
+        eventBus = mock(EventBusPort.class);
+        hotLedger = mock(HotStockLedgerPort.class);
+
+        service = new ReleaseStockService(itemRepo, reservationRepo, Clock.fixed(NOW, ZoneOffset.UTC), eventBus, hotLedger);
+    }
+
+    @Test
+    void release_activeReservation_releasesWithoutTouchingTheLedger() {
+        StockReservation reservation = StockReservation.createNew(StockReservationId.newId(), itemId, ref, 2, NOW);
+        when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.of(reservation));
+        when(itemRepo.tryRelease(any(StockReservation.class))).thenReturn(true);
+
+        service.release(itemId, ref, NOW);
+
+        verify(itemRepo).tryRelease(any(StockReservation.class));
+        verify(eventBus).publish(any(StockReleased.class));
+        verifyNoInteractions(hotLedger);
+    }
+
+    @Test
+    void release_pendingInHotLedger_flushesOnlyThatReservation_andReleasesIt() {
+        StockReservation reservation = StockReservation.createNew(StockReservationId.newId(), itemId, ref, 2, NOW);
+        when(reservationRepo.findActiveByItemAndReference(itemId, ref))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(reservation));
+        when(hotLedger.flushPending(itemId, ref)).thenReturn(true);
+        when(itemRepo.tryRelease(any(StockReservation.class))).thenReturn(true);
+
+        service.release(itemId, ref, NOW);
+
+        verify(hotLedger).flushPending(itemId, ref);
+        verify(reservationRepo, times(2)).findActiveByItemAndReference(itemId, ref);
+        verify(eventBus).publish(any(StockReleased.class));
+    }
+
+    @Test
+    void release_unknownEverywhere_isIgnored_withoutASecondLookup() {
+        when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.empty());
+        when(hotLedger.flushPending(itemId, ref)).thenReturn(false);
+
+        service.release(itemId, ref, NOW);
+
+        verify(reservationRepo, times(1)).findActiveByItemAndReference(itemId, ref);
+        verify(itemRepo, never()).tryRelease(any(), anyInt(), any());
+        verify(itemRepo, never()).tryRelease(any(StockReservation.class));
+        verifyNoInteractions(eventBus);
+    }
+}
@@ -1,20 +1,31 @@
 package com.aredondocharro.ClothingStore.inventoryTEST.application;
 
 import com.aredondocharro.ClothingStore.inventory.application.ReserveStockService;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.InsufficientStockException;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.InventoryItemNotFoundException;
+import com.aredondocharro.ClothingStore.inventory.domain.exception.ItemDiscontinuedException;
 import com.aredondocharro.ClothingStore.inventory.domain.exception.StockReservationAlreadyExistsException;
 import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockAttempt;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockLine;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockOutcome;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.HotStockLedgerPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockBucketPort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
 import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
 
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,7 +49,8 @@ class ReserveStockServiceTest {
         eventBus = mock(EventBusPort.class);
         clock = Clock.fixed(NOW, ZoneOffset.UTC);
 
-        service = new ReserveStockService(itemRepo, reservationRepo, clock, eventBus);
+        service = new ReserveStockService(itemRepo, reservationRepo, clock, eventBus,
+                HotStockLedgerPort.disabled(), null, StockBucketPort.disabled());
     }
 
     @Test
@@ -60,8 +72,9 @@ class ReserveStockServiceTest {
 
         assertEquals(existing.id(), result);
 
+        verify(itemRepo, never()).tryReserve(any(), anyInt(), any());
+        verify(itemRepo, never()).tryReserve(any(StockReservation.class));
         verify(itemRepo, never()).findById(any());
-        verify(itemRepo, never()).save(any());
         verify(reservationRepo, never()).save(any());
         verify(eventBus, never()).publish(any());
     }
@@ -83,51 +96,37 @@ class ReserveStockServiceTest {
 
         assertThrows(StockReservationAlreadyExistsException.class, () -> service.reserve(itemId, ref, 3, NOW));
 
+        verify(itemRepo, never()).tryReserve(any(), anyInt(), any());
+        verify(itemRepo, never()).tryReserve(any(StockReservation.class));
         verify(itemRepo, never()).findById(any());
-        verify(itemRepo, never()).save(any());
         verify(reservationRepo, never()).save(any());
         verify(eventBus, never()).publish(any());
     }
 
     @Test
-    void reserve_whenNoExistingReservation_reservesStock_persists_andPublishesEvent() {
+    void reserve_whenNoExistingReservation_reservesAtomically_persists_andPublishesEvent() {
         InventoryItemId itemId = InventoryItemId.newId();
         ReservationReference ref = ReservationReference.of("ORDER-999");
 
         when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.empty());
-
-        InventoryItem item = InventoryItem.createNew(
-                itemId,
-                Sku.of("TSHIRT-001"),
-                ItemName.of("T-Shirt"),
-                null,
-                InventoryCategory.TOP,
-                AccessoryType.NONE,
-                Gender.UNISEX,
-                Size.M,
-                Fabric.COTTON,
-                Color.of("Black"),
-                Money.eur(new BigDecimal("19.99")),
-                10,
-                NOW
-        );
-
-        when(itemRepo.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepo.tryReserve(any(StockReservation.class))).thenReturn(true);
 
         StockReservationId reservationId = service.reserve(itemId, ref, 3, NOW);
 
         assertNotNull(reservationId);
 
-        verify(itemRepo).save(any(InventoryItem.class));
-        verify(reservationRepo).save(any(StockReservation.class));
+        // Una única sentencia (UPDATE condicional + INSERT de la reserva): ni lectura previa ni save aparte
+        ArgumentCaptor<StockReservation> reservationCaptor = ArgumentCaptor.forClass(StockReservation.class);
+        verify(itemRepo).tryReserve(reservationCaptor.capture());
+        verify(itemRepo, never()).findById(any());
+        verify(itemRepo, never()).save(any());
+        verify(reservationRepo, never()).save(any());
+
+        assertEquals(reservationId, reservationCaptor.getValue().id());
+        assertEquals(itemId, reservationCaptor.getValue().itemId());
+        assertEquals(3, reservationCaptor.getValue().quantity());
 
         verify(eventBus).publish(any());
-
-        // Extra: comprobar que el item guardado tiene reserved=3
-        ArgumentCaptor<InventoryItem> itemCaptor = ArgumentCaptor.forClass(InventoryItem.class);
-        verify(itemRepo).save(itemCaptor.capture());
-        assertEquals(3, itemCaptor.getValue().stock().reserved());
-        assertEquals(7, itemCaptor.getValue().stock().available());
     }
 
     @Test
@@ -136,6 +135,7 @@ class ReserveStockServiceTest {
         ReservationReference ref = ReservationReference.of("ORDER-404");
 
         when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.empty());
+        when(itemRepo.tryReserve(any(StockReservation.class))).thenReturn(false);
         when(itemRepo.findById(itemId)).thenReturn(Optional.empty());
 
         assertThrows(InventoryItemNotFoundException.class, () -> service.reserve(itemId, ref, 1, NOW));
@@ -145,6 +145,37 @@ class ReserveStockServiceTest {
         verify(eventBus, never()).publish(any());
     }
 
+    @Test
+    void reserve_whenItemDiscontinued_throwsDomainException() {
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-OLD");
+
+        InventoryItem item = InventoryItem.createNew(
+                itemId,
+                Sku.of("CAP-002"),
+                ItemName.of("Cap"),
+                null,
+                InventoryCategory.ACCESSORY,
+                AccessoryType.HAT,
+                Gender.UNISEX,
+                Size.ONE_SIZE,
+                Fabric.COTTON,
+                Color.of("Blue"),
+                Money.eur(new BigDecimal("9.99")),
+                5,
+                NOW
+        ).discontinue(NOW);
+
+        when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.empty());
+        when(itemRepo.tryReserve(any(StockReservation.class))).thenReturn(false);
+        when(itemRepo.findById(itemId)).thenReturn(Optional.of(item));
+
+        assertThrows(ItemDiscontinuedException.class, () -> service.reserve(itemId, ref, 1, NOW));
+
+        verify(reservationRepo, never()).save(any());
+        verify(eventBus, never()).publish(any());
+    }
+
     @Test
     void reserve_whenInsufficientStock_throws_andDoesNotPersist() {
         InventoryItemId itemId = InventoryItemId.newId();
@@ -168,12 +199,337 @@ class ReserveStockServiceTest {
                 NOW
         );
 
+        when(itemRepo.tryReserve(any(StockReservation.class))).thenReturn(false);
         when(itemRepo.findById(itemId)).thenReturn(Optional.of(item));
 
-        assertThrows(RuntimeException.class, () -> service.reserve(itemId, ref, 2, NOW));
+        // El error lo decide el dominio (Stock) tras fallar la guarda del UPDATE
+        assertThrows(InsufficientStockException.class, () -> service.reserve(itemId, ref, 2, NOW));
 
         verify(itemRepo, never()).save(any());
         verify(reservationRepo, never()).save(any());
         verify(eventBus, never()).publish(any());
     }
+
+    @Test
+    void reserveAll_reservesInIdOrder_insertsInOneBatch_andReturnsInInputOrder() {
+        InventoryItemId a = InventoryItemId.of("00000000-0000-0000-0000-00000000000a");
+        InventoryItemId b = InventoryItemId.of("00000000-0000-0000-0000-00000000000b");
+        ReservationReference ref = ReservationReference.of("ORDER-CART");
+
+        when(reservationRepo.findActiveByReference(ref)).thenReturn(List.of());
+        when(itemRepo.tryReserveAll(anyList(), eq(NOW))).thenReturn(List.of());
+
+        Map<InventoryItemId, StockReservationId> result = service.reserveAll(ref, List.of(
+                new ReserveStockLine(b, 1),
+                new ReserveStockLine(a, 2)
+        ), NOW);
+
+        assertEquals(List.of(b, a), List.copyOf(result.keySet()));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReserveStockLine>> linesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(itemRepo).tryReserveAll(linesCaptor.capture(), eq(NOW));
+        assertEquals(List.of(a, b), linesCaptor.getValue().stream().map(ReserveStockLine::itemId).toList());
+
+        verify(reservationRepo).insertAll(argThat(list -> list.size() == 2));
+        verify(eventBus, times(2)).publish(any());
+    }
+
+    @Test
+    void reserveAll_whenOneLineRejected_throwsDomainException_andInsertsNothing() {
+        InventoryItemId a = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-CART-LOW");
+
+        InventoryItem item = InventoryItem.createNew(
+                a,
+                Sku.of("SOCKS-001"),
+                ItemName.of("Socks"),
+                null,
+                InventoryCategory.ACCESSORY,
+                AccessoryType.OTHER,
+                Gender.UNISEX,
+                Size.ONE_SIZE,
+                Fabric.COTTON,
+                null,
+                Money.eur(new BigDecimal("4.99")),
+                1,
+                NOW
+        );
+
+        when(reservationRepo.findActiveByReference(ref)).thenReturn(List.of());
+        when(itemRepo.tryReserveAll(anyList(), eq(NOW))).thenReturn(List.of(a));
+        when(itemRepo.findById(a)).thenReturn(Optional.of(item));
+
+        assertThrows(InsufficientStockException.class,
+                () -> service.reserveAll(ref, List.of(new ReserveStockLine(a, 5)), NOW));
+
+        verify(reservationRepo, never()).insertAll(any());
+        verify(eventBus, never()).publish(any());
+    }
+
+    @Test
+    void reserveAll_reusesExistingReservations_withSameQty() {
+        InventoryItemId a = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-RETRY");
+        StockReservation existing = StockReservation.createNew(null, a, ref, 2, NOW);
+
+        when(reservationRepo.findActiveByReference(ref)).thenReturn(List.of(existing));
+
+        Map<InventoryItemId, StockReservationId> result =
+                service.reserveAll(ref, List.of(new ReserveStockLine(a, 2)), NOW);
+
+        assertEquals(existing.id(), result.get(a));
+        verify(itemRepo, never()).tryReserveAll(any(), any());
+        verify(reservationRepo, never()).insertAll(any());
+    }
+
+    @Test
+    void reserveAll_rejectsDuplicateItems() {
+        InventoryItemId a = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-DUP");
+
+        assertThrows(IllegalArgumentException.class, () -> service.reserveAll(ref, List.of(
+                new ReserveStockLine(a, 1),
+                new ReserveStockLine(a, 2)
+        ), NOW));
+    }
+
+    @Test
+    void reserve_onHotItem_reservesAgainstLedger_withoutStockUpdate() {
+        HotStockLedgerPort ledger = mock(HotStockLedgerPort.class);
+        service = new ReserveStockService(itemRepo, reservationRepo, clock, eventBus,
+                ledger, null, StockBucketPort.disabled());
+
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-DROP-1");
+
+        when(ledger.isHot(itemId)).thenReturn(true);
+        when(ledger.findKnown(itemId, ref)).thenReturn(Optional.empty());
+        when(ledger.tryReserve(any())).thenAnswer(inv -> Optional.of(inv.getArgument(0)));
+
+        StockReservationId id = service.reserve(itemId, ref, 1, NOW);
+
+        assertNotNull(id);
+        verify(reservationRepo).findActiveByItemAndReference(itemId, ref);
+        verify(itemRepo, never()).tryReserve(any(), anyInt(), any());
+        verify(itemRepo, never()).tryReserve(any(StockReservation.class));
+        verify(reservationRepo, never()).save(any());
+        verify(eventBus).publish(any());
+    }
+
+    @Test
+    void reserve_onHotItem_knownToLedger_isIdempotentWithoutDatabase() {
+        HotStockLedgerPort ledger = mock(HotStockLedgerPort.class);
+        service = new ReserveStockService(itemRepo, reservationRepo, clock, eventBus,
+                ledger, null, StockBucketPort.disabled());
+
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-DROP-3");
+        StockReservation known = StockReservation.createNew(StockReservationId.newId(), itemId, ref, 2, NOW);
+
+        when(ledger.isHot(itemId)).thenReturn(true);
+        when(ledger.findKnown(itemId, ref)).thenReturn(Optional.of(known));
+
+        assertEquals(known.id(), service.reserve(itemId, ref, 2, NOW));
+        assertThrows(StockReservationAlreadyExistsException.class, () -> service.reserve(itemId, ref, 3, NOW));
+
+        verify(reservationRepo, never()).findActiveByItemAndReference(any(), any());
+        verify(ledger, never()).tryReserve(any());
+        verify(eventBus, never()).publish(any());
+    }
+
+    @Test
+    void reserve_onHotItem_retryAfterLeaseWindow_returnsPersistedReservation_withoutLeasing() {
+        HotStockLedgerPort ledger = mock(HotStockLedgerPort.class);
+        service = new ReserveStockService(itemRepo, reservationRepo, clock, eventBus,
+                ledger, null, StockBucketPort.disabled());
+
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-DROP-4");
+        // Persistida hace más de un leaseTtl: el ledger ya la olvidó
+        StockReservation persisted = StockReservation.createNew(
+                StockReservationId.newId(), itemId, ref, 2, NOW.minusSeconds(3600));
+
+        when(ledger.isHot(itemId)).thenReturn(true);
+        when(ledger.findKnown(itemId, ref)).thenReturn(Optional.empty());
+        when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.of(persisted));
+
+        assertEquals(persisted.id(), service.reserve(itemId, ref, 2, NOW));
+        assertThrows(StockReservationAlreadyExistsException.class, () -> service.reserve(itemId, ref, 3, NOW));
+
+        verify(ledger, never()).tryReserve(any());
+        verify(itemRepo, never()).tryReserve(any(StockReservation.class));
+        verify(eventBus, never()).publish(any());
+    }
+
+    @Test
+    void reserve_onHotItem_whenLeaseExhausted_fallsBackToSqlPath() {
+        HotStockLedgerPort ledger = mock(HotStockLedgerPort.class);
+        service = new ReserveStockService(itemRepo, reservationRepo, clock, eventBus,
+                ledger, null, StockBucketPort.disabled());
+
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-DROP-2");
+
+        when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.empty());
+        when(ledger.isHot(itemId)).thenReturn(true);
+        when(ledger.tryReserve(any())).thenReturn(Optional.empty());
+        when(itemRepo.tryReserve(any(StockReservation.class))).thenReturn(true);
+
+        service.reserve(itemId, ref, 1, NOW);
+
+        verify(itemRepo).tryReserve(any(StockReservation.class));
+    }
+
+    @Test
+    void reserveGroup_allocatesFirstComeFirstServed_inOneUpdateAndOneBatch() {
+        InventoryItemId itemId = InventoryItemId.newId();
+        InventoryItem item = cap(itemId, 5);
+        ReservationReference first = ReservationReference.of("ORDER-G1");
+        ReservationReference big = ReservationReference.of("ORDER-G2");
+        ReservationReference last = ReservationReference.of("ORDER-G3");
+
+        when(reservationRepo.findActiveByItemAndReferences(eq(itemId), anyCollection())).thenReturn(List.of());
+        when(itemRepo.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepo.tryReserveAll(anyList(), eq(NOW))).thenReturn(List.of());
+
+        List<ReserveStockOutcome> outcomes = service.reserveGroup(itemId, List.of(
+                new ReserveStockAttempt(first, 3),
+                new ReserveStockAttempt(big, 4),
+                new ReserveStockAttempt(last, 2)
+        ), NOW);
+
+        // En secuencia: 3 entra, 4 ya no cabe, 2 sí
+        assertTrue(outcomes.get(0).isReserved());
+        assertInstanceOf(InsufficientStockException.class, outcomes.get(1).error());
+        assertTrue(outcomes.get(2).isReserved());
+
+        verify(itemRepo).tryReserveAll(List.of(new ReserveStockLine(itemId, 5)), NOW);
+        verify(itemRepo, never()).tryReserve(any(StockReservation.class));
+        verify(itemRepo, times(1)).findById(itemId);
+        verify(reservationRepo).insertAll(argThat(list -> list.size() == 2));
+        verify(eventBus, times(2)).publish(any());
+    }
+
+    @Test
+    void reserveGroup_reusesExistingAndRepeatedReferences_andFallsBackWhenStockMoved() {
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference retried = ReservationReference.of("ORDER-RETRY");
+        ReservationReference fresh = ReservationReference.of("ORDER-NEW");
+        StockReservation existing = StockReservation.createNew(null, itemId, retried, 1, NOW);
+
+        when(reservationRepo.findActiveByItemAndReferences(eq(itemId), anyCollection())).thenReturn(List.of(existing));
+        when(itemRepo.findById(itemId)).thenReturn(Optional.of(cap(itemId, 5)));
+        // Otra transacción movió el stock entre la lectura y el UPDATE del grupo
+        when(itemRepo.tryReserveAll(anyList(), eq(NOW))).thenReturn(List.of(itemId));
+        when(reservationRepo.findActiveByItemAndReference(itemId, fresh)).thenReturn(Optional.empty());
+        when(itemRepo.tryReserve(any(StockReservation.class))).thenReturn(true);
+
+        List<ReserveStockOutcome> outcomes = service.reserveGroup(itemId, List.of(
+                new ReserveStockAttempt(retried, 1),
+                new ReserveStockAttempt(fresh, 2),
+                new ReserveStockAttempt(retried, 3)
+        ), NOW);
+
+        assertEquals(existing.id(), outcomes.get(0).reservationId());
+        assertTrue(outcomes.get(1).isReserved());
+        assertInstanceOf(StockReservationAlreadyExistsException.class, outcomes.get(2).error());
+
+        verify(itemRepo, times(1)).tryReserve(any(StockReservation.class));
+        verify(reservationRepo, never()).insertAll(any());
+    }
+
+    @Test
+    void reserveGroup_whenDatabaseFails_propagates_insteadOfRejectingOneRequest() {
+        InventoryItemId itemId = InventoryItemId.newId();
+
+        when(reservationRepo.findActiveByItemAndReferences(eq(itemId), anyCollection())).thenReturn(List.of());
+        when(itemRepo.findById(itemId)).thenThrow(new QueryTimeoutException("lock wait timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> service.reserveGroup(itemId, List.of(
+                new ReserveStockAttempt(ReservationReference.of("ORDER-A"), 1),
+                new ReserveStockAttempt(ReservationReference.of("ORDER-B"), 1)
+        ), NOW));
+
+        verify(itemRepo, never()).tryReserveAll(anyList(), any());
+        verify(eventBus, never()).publish(any());
+    }
+
+    @Test
+    void reserveGroup_whenDatabaseFailsInSequentialFallback_propagates() {
+        InventoryItemId itemId = InventoryItemId.newId();
+
+        when(reservationRepo.findActiveByItemAndReferences(eq(itemId), anyCollection())).thenReturn(List.of());
+        when(itemRepo.findById(itemId)).thenReturn(Optional.of(cap(itemId, 5)));
+        when(itemRepo.tryReserveAll(anyList(), eq(NOW))).thenReturn(List.of(itemId));
+        when(reservationRepo.findActiveByItemAndReference(eq(itemId), any())).thenReturn(Optional.empty());
+        when(itemRepo.tryReserve(any(StockReservation.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> service.reserveGroup(itemId, List.of(
+                new ReserveStockAttempt(ReservationReference.of("ORDER-A"), 1),
+                new ReserveStockAttempt(ReservationReference.of("ORDER-B"), 1)
+        ), NOW));
+
+        verify(eventBus, never()).publish(any());
+    }
+
+    @Test
+    void reserve_onBucketedItem_takesFromABucket_withoutTouchingTheItemRow() {
+        StockBucketPort buckets = mock(StockBucketPort.class);
+        service = new ReserveStockService(itemRepo, reservationRepo, clock, eventBus,
+                HotStockLedgerPort.disabled(), null, buckets);
+
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-LAUNCH");
+
+        when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.empty());
+        when(buckets.isBucketed(itemId)).thenReturn(true);
+        when(buckets.tryReserve(any())).thenReturn(true);
+
+        assertNotNull(service.reserve(itemId, ref, 1, NOW));
+
+        verify(itemRepo, never()).tryReserve(any(StockReservation.class));
+        verify(eventBus).publish(any());
+    }
+
+    @Test
+    void reserve_whenRowIsShort_drainsBucketsIntoTheRow_andRetries() {
+        StockBucketPort buckets = mock(StockBucketPort.class);
+        service = new ReserveStockService(itemRepo, reservationRepo, clock, eventBus,
+                HotStockLedgerPort.disabled(), null, buckets);
+
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-BIG");
+
+        // Ningún bucket tiene 30 sueltas, pero entre todos y la fila sí
+        when(reservationRepo.findActiveByItemAndReference(itemId, ref)).thenReturn(Optional.empty());
+        when(buckets.isBucketed(itemId)).thenReturn(true);
+        when(buckets.tryReserve(any())).thenReturn(false);
+        when(buckets.drain(itemId, NOW)).thenReturn(40);
+        when(itemRepo.tryReserve(any(StockReservation.class))).thenReturn(false, true);
+
+        assertNotNull(service.reserve(itemId, ref, 30, NOW));
+
+        verify(itemRepo, times(2)).tryReserve(any(StockReservation.class));
+        verify(itemRepo, never()).findById(any());
+    }
+
+    private InventoryItem cap(InventoryItemId itemId, int onHand) {
+        return InventoryItem.createNew(
+                itemId,
+                Sku.of("CAP-001"),
+                ItemName.of("Cap"),
+                null,
+                InventoryCategory.ACCESSORY,
+                AccessoryType.HAT,
+                Gender.UNISEX,
+                Size.ONE_SIZE,
+                Fabric.COTTON,
+                Color.of("Blue"),
+                Money.eur(new BigDecimal("9.99")),
+                onHand,
+                NOW
+        );
+    }
 }
@@ -0,0 +1,266 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.in.web;
+
+import com.aredondocharro.ClothingStore.inventory.domain.exception.InsufficientStockException;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservationId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.*;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.InventoryAdminController;
+import com.aredondocharro.ClothingStore.testconfig.TestSecurityConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = InventoryAdminController.class)
+@Import(TestSecurityConfig.class)
+class InventoryAdminControllerTest {
+
+    private static final InventoryItemId ITEM_ID = InventoryItemId.newId();
+    private static final String HEADER =
+            "sku,name,description,category,accessoryType,gender,size,fabric,color,priceAmount,priceCurrency,initialOnHand\n";
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockitoBean CreateInventoryItemUseCase createUseCase;
+    @MockitoBean ImportInventoryItemsUseCase importUseCase;
+    @MockitoBean ExportInventoryItemsUseCase exportUseCase;
+    @MockitoBean UpdateInventoryItemUseCase updateUseCase;
+    @MockitoBean ChangeInventoryItemPriceUseCase changePriceUseCase;
+    @MockitoBean AdjustInventoryStockUseCase adjustStockUseCase;
+    @MockitoBean DiscontinueInventoryItemUseCase discontinueUseCase;
+    @MockitoBean ReserveStockUseCase reserveUseCase;
+    @MockitoBean ReleaseStockUseCase releaseUseCase;
+    @MockitoBean ConsumeStockUseCase consumeUseCase;
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/import (CSV) -> 200 with the import summary")
+    void importCsv_returnsSummary() throws Exception {
+        List<InventoryImportLine> read = new ArrayList<>();
+        when(importUseCase.importItems(any(), any())).thenAnswer(inv -> summarize(inv.getArgument(0), read));
+
+        mvc.perform(post("/admin/inventory/items/import")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType("text/csv")
+                        .content(HEADER
+                                + "TSHIRT-001,Basic tee,,TOP,NONE,MALE,M,COTTON,Black,19.99,EUR,10\n"
+                                + "TSHIRT-002,Other tee,,NOT_A_CATEGORY,NONE,MALE,M,COTTON,,9.50,EUR,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.conflicts").value(0))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0]").value(startsWith("line 3:")));
+
+        // El controlador pasa el cuerpo en streaming a un lector CSV: las filas llegan ya convertidas a comandos
+        assertEquals("TSHIRT-001", read.get(0).command().sku().getValue());
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/import (NDJSON) -> 200, read line by line as JSON")
+    void importNdjson_returnsSummary() throws Exception {
+        List<InventoryImportLine> read = new ArrayList<>();
+        when(importUseCase.importItems(any(), any())).thenAnswer(inv -> summarize(inv.getArgument(0), read));
+
+        mvc.perform(post("/admin/inventory/items/import")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType("application/x-ndjson")
+                        .content("""
+                                {"sku":"TSHIRT-001","name":"Basic tee","category":"TOP","accessoryType":"NONE","gender":"MALE","size":"M","fabric":"COTTON","priceAmount":19.99,"priceCurrency":"EUR","initialOnHand":10}
+                                {not json}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/import with a JSON body -> 415 without running the import")
+    void importWithUnsupportedContentType_returns415() throws Exception {
+        mvc.perform(post("/admin/inventory/items/import")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(importUseCase);
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/import without ROLE_ADMIN -> 403, and without auth -> 401")
+    void import_requiresAdmin() throws Exception {
+        mvc.perform(post("/admin/inventory/items/import")
+                        .with(user("shopper").roles("USER"))
+                        .contentType("text/csv")
+                        .content(HEADER))
+                .andExpect(status().isForbidden());
+        mvc.perform(post("/admin/inventory/items/import")
+                        .contentType("text/csv")
+                        .content(HEADER))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(importUseCase);
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/stock/adjust -> 200 with applied lines and failures by position")
+    void adjustStockAll_returnsAppliedAndFailures() throws Exception {
+        when(adjustStockUseCase.adjustOnHandAll(any(), any())).thenReturn(new StockAdjustmentResult(1,
+                List.of(new StockAdjustmentResult.Failure(1, "MISSING-001", "item not found"))));
+
+        mvc.perform(post("/admin/inventory/items/stock/adjust")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"lines":[
+                                  {"itemId":"%s","delta":5,"reason":"restock"},
+                                  {"sku":"MISSING-001","delta":-2}
+                                ]}
+                                """.formatted(ITEM_ID.getValue())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.failures[0].index").value(1))
+                .andExpect(jsonPath("$.failures[0].target").value("MISSING-001"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockAdjustmentLine>> lines = ArgumentCaptor.forClass(List.class);
+        verify(adjustStockUseCase).adjustOnHandAll(lines.capture(), any());
+        assertEquals(2, lines.getValue().size());
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/stock/adjust with invalid lines -> 400 without touching stock")
+    void adjustStockAll_withInvalidLines_returns400() throws Exception {
+        // Sin líneas
+        mvc.perform(post("/admin/inventory/items/stock/adjust")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[]}"))
+                .andExpect(status().isBadRequest());
+        // Línea con itemId y sku a la vez
+        mvc.perform(post("/admin/inventory/items/stock/adjust")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[{\"itemId\":\"%s\",\"sku\":\"TEE-001\",\"delta\":1}]}"
+                                .formatted(ITEM_ID.getValue())))
+                .andExpect(status().isBadRequest());
+        // Línea sin destino
+        mvc.perform(post("/admin/inventory/items/stock/adjust")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[{\"delta\":1}]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(adjustStockUseCase);
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/stock/adjust without ROLE_ADMIN -> 403")
+    void adjustStockAll_requiresAdmin() throws Exception {
+        mvc.perform(post("/admin/inventory/items/stock/adjust")
+                        .with(user("shopper").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[{\"sku\":\"TEE-001\",\"delta\":1}]}"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(adjustStockUseCase);
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/reserve -> 200 with one reservation per line")
+    void reserveAll_returnsReservations() throws Exception {
+        StockReservationId reservationId = StockReservationId.newId();
+        when(reserveUseCase.reserveAll(eq(ReservationReference.of("ORDER-1")), any(), any()))
+                .thenReturn(Map.of(ITEM_ID, reservationId));
+
+        mvc.perform(post("/admin/inventory/items/reserve")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reference\":\"ORDER-1\",\"lines\":[{\"itemId\":\"%s\",\"quantity\":2}]}"
+                                .formatted(ITEM_ID.getValue())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reference").value("ORDER-1"))
+                .andExpect(jsonPath("$.reservations[0].itemId").value(ITEM_ID.getValue().toString()))
+                .andExpect(jsonPath("$.reservations[0].reservationId").value(reservationId.getValue().toString()));
+
+        verify(reserveUseCase).reserveAll(ReservationReference.of("ORDER-1"), List.of(new ReserveStockLine(ITEM_ID, 2)), null);
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/reserve with invalid body -> 400 without reserving")
+    void reserveAll_withInvalidBody_returns400() throws Exception {
+        // Sin referencia
+        mvc.perform(post("/admin/inventory/items/reserve")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reference\":\" \",\"lines\":[{\"itemId\":\"%s\",\"quantity\":1}]}"
+                                .formatted(ITEM_ID.getValue())))
+                .andExpect(status().isBadRequest());
+        // Cantidad 0
+        mvc.perform(post("/admin/inventory/items/reserve")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reference\":\"ORDER-1\",\"lines\":[{\"itemId\":\"%s\",\"quantity\":0}]}"
+                                .formatted(ITEM_ID.getValue())))
+                .andExpect(status().isBadRequest());
+        // Línea sin item
+        mvc.perform(post("/admin/inventory/items/reserve")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reference\":\"ORDER-1\",\"lines\":[{\"quantity\":1}]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reserveUseCase);
+    }
+
+    @Test
+    @DisplayName("POST /admin/inventory/items/reserve when a line lacks stock -> 409, nothing reserved")
+    void reserveAll_insufficientStock_returns409() throws Exception {
+        when(reserveUseCase.reserveAll(any(), any(), any())).thenThrow(new InsufficientStockException("not enough stock"));
+
+        mvc.perform(post("/admin/inventory/items/reserve")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reference\":\"ORDER-1\",\"lines\":[{\"itemId\":\"%s\",\"quantity\":5}]}"
+                                .formatted(ITEM_ID.getValue())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("inventory.business_conflict"));
+    }
+
+    // Hace de caso de uso: consume el iterador (solo se puede leer durante la petición) y resume lo leído
+    private static InventoryImportResult summarize(Iterator<InventoryImportLine> lines, List<InventoryImportLine> read) {
+        List<String> errors = new ArrayList<>();
+        long rejected = 0;
+        while (lines.hasNext()) {
+            InventoryImportLine line = lines.next();
+            read.add(line);
+            if (line.isRejected()) {
+                rejected++;
+                errors.add("line " + line.lineNumber() + ": " + line.error());
+            }
+        }
+        return new InventoryImportResult(read.size(), read.size() - rejected, 0, rejected, errors);
+    }
+}
@@ -0,0 +1,238 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.in.web;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.*;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.config.web.InventoryHttpCacheProperties;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.InventoryPublicController;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.mapper.InventoryWebMapper;
+import com.aredondocharro.ClothingStore.testconfig.TestSecurityConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = InventoryPublicController.class)
+@Import({TestSecurityConfig.class, InventoryHttpCacheProperties.class})
+class InventoryPublicControllerTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final InventoryItemId ITEM_ID = InventoryItemId.newId();
+    private static final String CACHE_CONTROL = "max-age=0, must-revalidate, public";
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockitoBean GetInventoryItemUseCase getUseCase;
+    @MockitoBean SearchInventoryItemsUseCase searchUseCase;
+    @MockitoBean GetStockAvailabilityUseCase availabilityUseCase;
+
+    @Test
+    @DisplayName("GET /inventory/items -> 200 with ETag and Cache-Control built from the page")
+    void search_returnsETagAndCacheControl() throws Exception {
+        when(searchUseCase.search(any(), any())).thenReturn(page(new Stock(10, 2)));
+
+        String etag = mvc.perform(get("/inventory/items").with(user("shopper").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL))
+                .andExpect(jsonPath("$.items[0].sku").value("TEE-001"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(etag);
+        verify(searchUseCase, never()).facets(any());
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items with matching If-None-Match -> 304 without body")
+    void search_withMatchingIfNoneMatch_returns304() throws Exception {
+        when(searchUseCase.search(any(), any())).thenReturn(page(new Stock(10, 2)));
+        String etag = etagOfSearch();
+
+        var res = mvc.perform(get("/inventory/items")
+                        .with(user("shopper").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL))
+                .andReturn();
+
+        assertEquals("", res.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items -> 200 with a new ETag once the stock of a listed item changes")
+    void search_afterStockChange_returns200WithNewETag() throws Exception {
+        when(searchUseCase.search(any(), any())).thenReturn(page(new Stock(10, 2)));
+        String before = etagOfSearch();
+
+        when(searchUseCase.search(any(), any())).thenReturn(page(new Stock(10, 3)));
+        String after = mvc.perform(get("/inventory/items")
+                        .with(user("shopper").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].reserved").value(3))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items/{id} -> 200 with the item's ETag and Cache-Control")
+    void getById_returnsETagAndCacheControl() throws Exception {
+        when(getUseCase.getById(ITEM_ID)).thenReturn(details(4));
+
+        mvc.perform(get("/inventory/items/{id}", ITEM_ID.getValue()).with(user("shopper").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, InventoryWebMapper.toETag(details(4))))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL))
+                .andExpect(jsonPath("$.sku").value("TEE-001"));
+
+        verify(getUseCase, never()).fingerprint(any());
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items/{id} with matching If-None-Match -> 304 without loading the item")
+    void getById_withMatchingIfNoneMatch_returns304() throws Exception {
+        InventoryFingerprint current = InventoryFingerprint.ofItem(4, T0);
+        when(getUseCase.fingerprint(ITEM_ID)).thenReturn(Optional.of(current));
+        String etag = InventoryWebMapper.toETag(current);
+
+        mvc.perform(get("/inventory/items/{id}", ITEM_ID.getValue())
+                        .with(user("shopper").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL));
+
+        verify(getUseCase, never()).getById(any());
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items/{id} with stale If-None-Match -> 200 with the current ETag")
+    void getById_withStaleIfNoneMatch_returns200() throws Exception {
+        when(getUseCase.fingerprint(ITEM_ID)).thenReturn(Optional.of(InventoryFingerprint.ofItem(5, T0.plusSeconds(1))));
+        when(getUseCase.getById(ITEM_ID)).thenReturn(details(5));
+
+        mvc.perform(get("/inventory/items/{id}", ITEM_ID.getValue())
+                        .with(user("shopper").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, InventoryWebMapper.toETag(InventoryFingerprint.ofItem(4, T0))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, InventoryWebMapper.toETag(details(5))));
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items/availability -> 200 with found items, missing ids/SKUs and no-store")
+    void availability_returnsItemsAndMissing() throws Exception {
+        InventoryItemId missingId = InventoryItemId.newId();
+        when(availabilityUseCase.check(any(), any())).thenReturn(new StockAvailabilityCheck(
+                List.of(new StockAvailability(ITEM_ID, Sku.of("TEE-001"), Money.of(new BigDecimal("9.99"), "EUR"),
+                        new Stock(10, 2), ItemStatus.ACTIVE)),
+                List.of(missingId),
+                List.of(Sku.of("GONE-001"))));
+
+        mvc.perform(get("/inventory/items/availability")
+                        .with(user("shopper").roles("USER"))
+                        .param("ids", ITEM_ID.getValue().toString(), missingId.getValue().toString())
+                        .param("skus", "gone-001"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+                .andExpect(jsonPath("$.items[0].sku").value("TEE-001"))
+                .andExpect(jsonPath("$.items[0].available").value(8))
+                .andExpect(jsonPath("$.missingIds[0]").value(missingId.getValue().toString()))
+                .andExpect(jsonPath("$.missingSkus[0]").value("GONE-001"));
+
+        verify(availabilityUseCase).check(List.of(ITEM_ID, missingId), List.of(Sku.of("GONE-001")));
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items/availability with a malformed id or SKU -> 400 without querying stock")
+    void availability_withMalformedIdOrSku_returns400() throws Exception {
+        mvc.perform(get("/inventory/items/availability")
+                        .with(user("shopper").roles("USER"))
+                        .param("ids", "not-a-uuid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("inventory.bad_request"));
+        mvc.perform(get("/inventory/items/availability")
+                        .with(user("shopper").roles("USER"))
+                        .param("skus", "!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("inventory.bad_request"));
+
+        verifyNoInteractions(availabilityUseCase);
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items/availability rejected by the use case (empty or over the limit) -> 400")
+    void availability_rejectedByUseCase_returns400() throws Exception {
+        when(availabilityUseCase.check(any(), any()))
+                .thenThrow(new IllegalArgumentException("ids or skus are required"));
+
+        mvc.perform(get("/inventory/items/availability").with(user("shopper").roles("USER")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("ids or skus are required"));
+    }
+
+    @Test
+    @DisplayName("GET /inventory/items/availability without auth -> 401")
+    void availability_requiresAuthentication() throws Exception {
+        mvc.perform(get("/inventory/items/availability").param("skus", "TEE-001"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(availabilityUseCase);
+    }
+
+    private String etagOfSearch() throws Exception {
+        return mvc.perform(get("/inventory/items").with(user("shopper").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static Page<InventoryItemSummary> page(Stock stock) {
+        InventoryItemSummary summary = new InventoryItemSummary(
+                ITEM_ID,
+                Sku.of("TEE-001"),
+                ItemName.of("Tee"),
+                Money.of(new BigDecimal("9.99"), "EUR"),
+                stock,
+                ItemStatus.ACTIVE
+        );
+        return new Page<>(List.of(summary), 1, PageRequest.of(0, 20));
+    }
+
+    // updatedAt avanza con la versión, como en una escritura real
+    private static InventoryItemDetails details(long version) {
+        return new InventoryItemDetails(
+                ITEM_ID,
+                Sku.of("TEE-001"),
+                ItemName.of("Tee"),
+                null,
+                InventoryCategory.TOP,
+                AccessoryType.NONE,
+                Gender.UNISEX,
+                Size.M,
+                Fabric.COTTON,
+                Color.of("Black"),
+                Money.of(new BigDecimal("9.99"), "EUR"),
+                new Stock(10, 2),
+                ItemStatus.ACTIVE,
+                T0,
+                T0.plusSeconds(version - 4),
+                version
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.in.web.exporter;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.ItemStatus;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.dto.InventoryItemSummaryResponse;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.exporter.InventoryExportFormat;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.exporter.InventoryExportWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryExportWriterTest {
+
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void csv_writesHeader_andQuotesOnlyWhenNeeded() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InventoryExportWriter writer = new InventoryExportWriter(InventoryExportFormat.CSV, out, mapper)) {
+            writer.write(row("TSHIRT-001", "Tee, \"basic\""));
+            writer.write(row("TSHIRT-002", "Plain"));
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,sku,name,priceAmount,priceCurrency,onHand,reserved,available,status", lines[0]);
+        assertEquals(ID + ",TSHIRT-001,\"Tee, \"\"basic\"\"\",19.90,EUR,5,2,3,ACTIVE", lines[1]);
+        assertEquals(ID + ",TSHIRT-002,Plain,19.90,EUR,5,2,3,ACTIVE", lines[2]);
+    }
+
+    @Test
+    void ndjson_writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InventoryExportWriter writer = new InventoryExportWriter(InventoryExportFormat.NDJSON, out, mapper)) {
+            writer.write(row("TSHIRT-001", "Tee"));
+            writer.write(row("TSHIRT-002", "Tee 2"));
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = mapper.readTree(lines[1]);
+        assertEquals("TSHIRT-002", second.get("sku").asText());
+        assertEquals(3, second.get("available").asInt());
+    }
+
+    private static InventoryItemSummaryResponse row(String sku, String name) {
+        return new InventoryItemSummaryResponse(ID, sku, name, new BigDecimal("19.90"), "EUR", 5, 2, 3, ItemStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,258 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.in.web.idempotency;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.idempotency.IdempotencyKeyFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyKeyFilterTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final AtomicInteger executions = new AtomicInteger();
+    private int nextStatus = 200;
+
+    private final IdempotencyKeyFilter filter = new IdempotencyKeyFilter(
+            store, new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC),
+            Duration.ofHours(1), Duration.ofSeconds(30),
+            Map.of("/admin/inventory/items/stock/adjust", Duration.ofMinutes(10)),
+            Duration.ZERO, 1024, 16);
+
+    private final FilterChain chain = (req, res) -> {
+        // El controlador debe poder leer el cuerpo ya consumido por el filtro
+        String body = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        res.setContentType("application/json");
+        ((jakarta.servlet.http.HttpServletResponse) res).setStatus(nextStatus);
+        res.getWriter().write("{\"run\":" + executions.incrementAndGet() + ",\"echo\":" + body + "}");
+    };
+
+    @Test
+    void duplicateRequest_isReplayedWithoutRunningTheUseCaseAgain() throws Exception {
+        MockHttpServletResponse first = send("k-1", "{\"delta\":5}");
+        MockHttpServletResponse second = send("k-1", "{\"delta\":5}");
+
+        assertEquals(1, executions.get());
+        assertEquals(200, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("{\"run\":1,\"echo\":{\"delta\":5}}", second.getContentAsString());
+        assertEquals("true", second.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void sameKeyWithDifferentBody_isRejected() throws Exception {
+        send("k-1", "{\"delta\":5}");
+        MockHttpServletResponse reused = send("k-1", "{\"delta\":6}");
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+        assertEquals(1, filter.getMismatchCount());
+    }
+
+    @Test
+    void errorBody_isValidJson_evenWhenThePathNeedsEscaping() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", "/admin/inventory/items/a\"b\\c/discontinue");
+        req.addHeader(IdempotencyKeyFilter.HEADER, " ");
+
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filter.doFilter(req, res, chain);
+
+        assertEquals(400, res.getStatus());
+        JsonNode error = new ObjectMapper().readTree(res.getContentAsString());
+        assertEquals("inventory.idempotency.invalid_key", error.get("code").asText());
+        assertEquals("/admin/inventory/items/a\"b\\c/discontinue", error.get("path").asText());
+        assertEquals(NOW.toString(), error.get("timestamp").asText());
+    }
+
+    @Test
+    void inFlightDuplicate_answersConflict() throws Exception {
+        // Otra petición con la misma huella sigue en curso
+        store.rows.put("anonymous:k-1", new IdempotencyStorePort.StoredRequest(
+                "anonymous:k-1", fingerprintOf("k-2", "{}"), null, NOW.plusSeconds(3600)));
+
+        MockHttpServletResponse res = send("k-1", "{}");
+
+        assertEquals(409, res.getStatus());
+        assertEquals("600", res.getHeader("Retry-After"));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void inFlightTimeout_usesRouteOverride() {
+        assertEquals(Duration.ofMinutes(10), store.lastStaleAfter(() -> send("k-1", "{}")));
+        assertEquals(Duration.ofSeconds(30), store.lastStaleAfter(() -> {
+            MockHttpServletRequest req = new MockHttpServletRequest("POST", "/admin/inventory/items/42/discontinue");
+            req.addHeader(IdempotencyKeyFilter.HEADER, "k-2");
+            filter.doFilter(req, new MockHttpServletResponse(), chain);
+        }));
+    }
+
+    @Test
+    void keyTakenOverWhileExecuting_isNeitherCompletedNorReleasedByTheOriginal() throws Exception {
+        // Mientras la petición original se ejecuta, la clave se da por abandonada y la retoma otra
+        FilterChain slow = (req, res) -> {
+            store.takeOver("anonymous:k-1");
+            chain.doFilter(req, res);
+        };
+        MockHttpServletRequest req = request("{}");
+        req.addHeader(IdempotencyKeyFilter.HEADER, "k-1");
+        filter.doFilter(req, new MockHttpServletResponse(), slow);
+
+        assertEquals(1, filter.getTakenOverCount());
+        assertFalse(store.rows.get("anonymous:k-1").isCompleted());
+        assertEquals("other-claim", store.tokens.get("anonymous:k-1"));
+    }
+
+    @Test
+    void serverError_releasesTheKeySoTheRetryRunsAgain() throws Exception {
+        nextStatus = 503;
+        send("k-1", "{}");
+        nextStatus = 200;
+        MockHttpServletResponse retry = send("k-1", "{}");
+
+        assertEquals(2, executions.get());
+        assertEquals(200, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void replayableBody_supportsAsyncReadListener() throws Exception {
+        StringBuilder read = new StringBuilder();
+        AtomicInteger allDataRead = new AtomicInteger();
+        FilterChain async = (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override public void onDataAvailable() throws IOException {
+                    byte[] buf = new byte[4];
+                    while (in.isReady() && !in.isFinished()) {
+                        int n = in.read(buf);
+                        if (n > 0) read.append(new String(buf, 0, n, StandardCharsets.UTF_8));
+                    }
+                }
+                @Override public void onAllDataRead() { allDataRead.incrementAndGet(); }
+                @Override public void onError(Throwable t) { fail(t); }
+            });
+            ((jakarta.servlet.http.HttpServletResponse) res).setStatus(204);
+        };
+        MockHttpServletRequest req = request("{\"delta\":5}");
+        req.addHeader(IdempotencyKeyFilter.HEADER, "k-1");
+
+        filter.doFilter(req, new MockHttpServletResponse(), async);
+
+        assertEquals("{\"delta\":5}", read.toString());
+        assertEquals(1, allDataRead.get());
+    }
+
+    @Test
+    void withoutHeader_passesThrough() throws Exception {
+        MockHttpServletRequest req = request("{}");
+        filter.doFilter(req, new MockHttpServletResponse(), chain);
+        filter.doFilter(request("{}"), new MockHttpServletResponse(), chain);
+
+        assertEquals(2, executions.get());
+        assertTrue(store.rows.isEmpty());
+    }
+
+    private MockHttpServletResponse send(String key, String body) throws Exception {
+        MockHttpServletRequest req = request(body);
+        req.addHeader(IdempotencyKeyFilter.HEADER, key);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filter.doFilter(req, res, chain);
+        return res;
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", "/admin/inventory/items/stock/adjust");
+        req.setContentType("application/json");
+        req.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return req;
+    }
+
+    // Deja que el filtro calcule la huella real reclamando una clave auxiliar
+    private String fingerprintOf(String key, String body) throws Exception {
+        send(key, body);
+        executions.set(0);
+        return store.rows.get("anonymous:" + key).fingerprint();
+    }
+
+    private static final class InMemoryStore implements IdempotencyStorePort {
+
+        final Map<String, StoredRequest> rows = new HashMap<>();
+        final Map<String, String> tokens = new HashMap<>();
+        private int claims;
+        private Duration staleAfter;
+
+        @Override
+        public Claim claim(String key, String fingerprint, Instant now, Instant staleBefore, Instant expiresAt) {
+            staleAfter = Duration.between(staleBefore, now);
+            StoredRequest existing = rows.get(key);
+            if (existing != null) return Claim.taken(existing);
+            String token = "claim-" + (++claims);
+            rows.put(key, new StoredRequest(key, fingerprint, null, expiresAt));
+            tokens.put(key, token);
+            return Claim.owned(token);
+        }
+
+        void takeOver(String key) {
+            tokens.put(key, "other-claim");
+        }
+
+        Duration lastStaleAfter(ThrowingRunnable action) {
+            try {
+                action.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return staleAfter;
+        }
+
+        @Override
+        public Optional<StoredRequest> find(String key) {
+            return Optional.ofNullable(rows.get(key));
+        }
+
+        @Override
+        public boolean complete(String key, String claimToken, StoredResponse response, Instant now) {
+            StoredRequest r = rows.get(key);
+            if (r == null || r.isCompleted() || !claimToken.equals(tokens.get(key))) return false;
+            rows.put(key, new StoredRequest(key, r.fingerprint(), response, r.expiresAt()));
+            return true;
+        }
+
+        @Override
+        public void release(String key, String claimToken) {
+            StoredRequest r = rows.get(key);
+            if (r != null && !r.isCompleted() && claimToken.equals(tokens.get(key))) rows.remove(key);
+        }
+
+        @Override
+        public int purgeExpired(Instant now, int limit) {
+            return 0;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,89 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.in.web.importer;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.Gender;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryImportLine;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.importer.InventoryImportReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryImportReaderTest {
+
+    private static final String HEADER =
+            "sku,name,description,category,accessoryType,gender,size,fabric,color,priceAmount,priceCurrency,initialOnHand\n";
+
+    @Test
+    void csv_readsQuotedFieldsAndEmbeddedNewlines_andKeepsStartLineNumbers() {
+        String csv = HEADER
+                + "TSHIRT-001,Basic tee,\"Soft, \"\"premium\"\"\ncotton\",TOP,NONE,male,M,COTTON,Black,19.99,EUR,10\n"
+                + "\n"
+                + "TSHIRT-002,Other tee,,TOP,NONE,FEMALE,S,COTTON,,9.50,EUR,\n";
+
+        List<InventoryImportLine> lines = readAll(InventoryImportReader.csv(new StringReader(csv)));
+
+        assertEquals(2, lines.size());
+        InventoryImportLine first = lines.get(0);
+        assertFalse(first.isRejected(), first.error());
+        assertEquals(2, first.lineNumber());
+        assertEquals("Soft, \"premium\"\ncotton", first.command().description());
+        assertEquals(Gender.MALE, first.command().gender());
+        assertEquals(new BigDecimal("19.99"), first.command().price().amount());
+
+        InventoryImportLine second = lines.get(1);
+        assertFalse(second.isRejected(), second.error());
+        assertEquals(5, second.lineNumber());
+        assertNull(second.command().description());
+        assertNull(second.command().color());
+        assertEquals(0, second.command().initialOnHand());
+    }
+
+    @Test
+    void csv_badRowIsRejectedWithoutStoppingTheStream() {
+        String csv = HEADER
+                + "TSHIRT-001,Basic tee,,NOT_A_CATEGORY,NONE,MALE,M,COTTON,,19.99,EUR,1\n"
+                + "TSHIRT-002,Other tee,,TOP,NONE,MALE,M,COTTON,,abc,EUR,1\n"
+                + "TSHIRT-003,Third tee,,TOP,NONE,MALE,M,COTTON,,5,EUR,1\n";
+
+        List<InventoryImportLine> lines = readAll(InventoryImportReader.csv(new StringReader(csv)));
+
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).isRejected());
+        assertTrue(lines.get(0).error().contains("category"));
+        assertTrue(lines.get(1).isRejected());
+        assertFalse(lines.get(2).isRejected());
+    }
+
+    @Test
+    void csv_missingRequiredColumns_failsFast() {
+        var reader = InventoryImportReader.csv(new StringReader("sku,name\nTSHIRT-001,Basic tee\n"));
+        assertThrows(IllegalArgumentException.class, reader::hasNext);
+    }
+
+    @Test
+    void ndjson_readsOneItemPerLine_andRejectsInvalidJson() {
+        String ndjson = """
+                {"sku":"TSHIRT-001","name":"Basic tee","category":"TOP","accessoryType":"NONE","gender":"MALE","size":"M","fabric":"COTTON","priceAmount":19.99,"priceCurrency":"EUR","initialOnHand":3}
+                {not json}
+                """;
+
+        List<InventoryImportLine> lines = readAll(InventoryImportReader.ndjson(new StringReader(ndjson), new ObjectMapper()));
+
+        assertEquals(2, lines.size());
+        assertFalse(lines.get(0).isRejected(), lines.get(0).error());
+        assertEquals(3, lines.get(0).command().initialOnHand());
+        assertTrue(lines.get(1).isRejected());
+        assertEquals(2, lines.get(1).lineNumber());
+    }
+
+    private static List<InventoryImportLine> readAll(InventoryImportReader reader) {
+        List<InventoryImportLine> out = new ArrayList<>();
+        reader.forEachRemaining(out::add);
+        return out;
+    }
+}
@@ -0,0 +1,139 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.in.web.stream;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.GetStockAvailabilityUseCase;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAvailability;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.web.stream.StockAvailabilityStreamHub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockAvailabilityStreamHubTest {
+
+    private final InventoryItemId watched = InventoryItemId.newId();
+    private final InventoryItemId other = InventoryItemId.newId();
+
+    private GetStockAvailabilityUseCase availability;
+    private StockAvailabilityStreamHub hub;
+
+    @BeforeEach
+    void setup() {
+        availability = mock(GetStockAvailabilityUseCase.class);
+        when(availability.getAvailability(anyCollection())).thenReturn(List.of(availability(watched, 3)));
+        // Sin scheduler: el test dispara flush() a mano
+        hub = new StockAvailabilityStreamHub(availability, Duration.ofMinutes(1), 10, 2, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.close();
+    }
+
+    @Test
+    void subscribe_sendsCurrentAvailability_thenOneCoalescedUpdatePerFlush() {
+        hub.subscribe(List.of(watched));
+        assertEquals(1, hub.getSubscriberCount());
+        awaitSent(1);
+
+        hub.markChanged(watched);
+        hub.markChanged(watched);
+        hub.markChanged(other); // nadie lo escucha: ni se consulta
+        hub.flush();
+        hub.flush();            // nada pendiente: no consulta
+
+        verify(availability, times(2)).getAvailability(anyCollection());
+        verify(availability, times(2)).getAvailability(List.of(watched));
+        awaitSent(2);
+        assertEquals(1, hub.getFlushCount());
+    }
+
+    @Test
+    void subscribe_enforcesLimits() {
+        assertThrows(IllegalArgumentException.class, () -> hub.subscribe(List.of()));
+        List<InventoryItemId> tooMany = java.util.stream.Stream.generate(InventoryItemId::newId).limit(11).toList();
+        assertThrows(IllegalArgumentException.class, () -> hub.subscribe(tooMany));
+
+        hub.subscribe(List.of(watched));
+        hub.subscribe(List.of(other));
+        assertThrows(RuntimeException.class, () -> hub.subscribe(List.of(watched)));
+        assertEquals(2, hub.getSubscriberCount());
+    }
+
+    @Test
+    void slowInitialSnapshot_doesNotBlockFlush_andIsSupersededByIt() throws Exception {
+        InventoryItemId newcomer = InventoryItemId.newId();
+        CountDownLatch snapshotReading = new CountDownLatch(1);
+        CountDownLatch releaseSnapshot = new CountDownLatch(1);
+        when(availability.getAvailability(anyCollection())).thenAnswer(inv -> {
+            if (snapshotReading.getCount() > 0) {
+                snapshotReading.countDown();
+                releaseSnapshot.await(5, TimeUnit.SECONDS);
+                return List.of(availability(newcomer, 3));
+            }
+            return List.of(availability(newcomer, 2));
+        });
+
+        Thread subscribing = Thread.ofVirtual().start(() -> hub.subscribe(List.of(newcomer)));
+        assertTrue(snapshotReading.await(5, TimeUnit.SECONDS));
+
+        // Ya registrado: el cambio se marca y el flush lee y envía sin esperar al snapshot
+        hub.markChanged(newcomer);
+        hub.flush();
+        awaitSent(1);
+
+        releaseSnapshot.countDown();
+        subscribing.join(5_000);
+
+        // El snapshot se leyó antes que el flush: se descarta en vez de pisar el dato más nuevo
+        assertEquals(1, hub.getSupersededCount());
+        assertEquals(1, hub.getSentCount());
+    }
+
+    @Test
+    void resync_sendsOnlyItemsChangedWithoutALocalEvent() {
+        hub.subscribe(List.of(watched));
+        awaitSent(1);
+
+        // Sin cambios: relee pero no envía
+        hub.resync();
+        assertEquals(0, hub.getResyncedCount());
+
+        // Escritura confirmada en otro nodo: aquí no llega ningún evento
+        when(availability.getAvailability(anyCollection())).thenReturn(List.of(availability(watched, 1)));
+        hub.resync();
+
+        awaitSent(2);
+        assertEquals(1, hub.getResyncedCount());
+        verify(availability, times(3)).getAvailability(List.of(watched));
+    }
+
+    @Test
+    void resync_withoutSubscribers_doesNotQuery() {
+        hub.resync();
+
+        verifyNoInteractions(availability);
+    }
+
+    private void awaitSent(long expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (hub.getSentCount() < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, hub.getSentCount());
+    }
+
+    private static StockAvailability availability(InventoryItemId id, int available) {
+        return new StockAvailability(id, Sku.of("TEE-001"), Money.eur(new BigDecimal("19.99")),
+                new Stock(available, 0), ItemStatus.ACTIVE);
+    }
+}
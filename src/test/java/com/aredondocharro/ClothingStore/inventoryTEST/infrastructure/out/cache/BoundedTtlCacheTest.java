@@ -0,0 +1,122 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.cache;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache.BoundedTtlCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    /** Reloj manipulable para probar el TTL sin esperas. */
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        void advance(Duration d) { now = now.plus(d); }
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Optional<String> load(String value) {
+        loads.incrementAndGet();
+        return Optional.of(value);
+    }
+
+    @Test
+    void get_loadsOnce_thenServesFromMemory_untilTtl() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+
+        assertEquals("v1", cache.get("k", () -> load("v1")).orElseThrow());
+        assertEquals("v1", cache.get("k", () -> load("v2")).orElseThrow());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        clock.advance(Duration.ofSeconds(31));
+        assertEquals("v2", cache.get("k", () -> load("v2")).orElseThrow());
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsed_whenFull() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofSeconds(30), clock);
+
+        cache.get("a", () -> load("A"));
+        cache.get("b", () -> load("B"));
+        cache.get("a", () -> load("A"));   // a pasa a ser el más reciente
+        cache.get("c", () -> load("C"));   // expulsa b
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.get("b", () -> load("B"));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_doesNotStoreValueLoadedConcurrentlyWithAnInvalidation() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+
+        // La invalidación llega mientras se carga el valor antiguo
+        cache.get("k", () -> {
+            cache.invalidate("k");
+            return load("stale");
+        });
+
+        assertEquals(0, cache.size());
+        assertEquals("fresh", cache.get("k", () -> load("fresh")).orElseThrow());
+    }
+
+    @Test
+    void get_invalidatingAnotherKey_keepsTheInFlightLoad() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+
+        cache.get("k", () -> {
+            cache.invalidate("other");
+            return load("v1");
+        });
+
+        assertEquals(Optional.of("v1"), cache.peek("k"));
+    }
+
+    @Test
+    void get_invalidateAll_discardsEveryInFlightLoad() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+
+        cache.get("k", () -> {
+            cache.invalidateAll();
+            return load("stale");
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_loaderFailure_doesNotLeaveTheKeyBlocked() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("k", () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertEquals("v1", cache.get("k", () -> load("v1")).orElseThrow());
+        assertEquals(Optional.of("v1"), cache.peek("k"));
+    }
+
+    @Test
+    void get_doesNotCacheMisses() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+
+        assertTrue(cache.get("missing", Optional::empty).isEmpty());
+        assertEquals(0, cache.size());
+    }
+}
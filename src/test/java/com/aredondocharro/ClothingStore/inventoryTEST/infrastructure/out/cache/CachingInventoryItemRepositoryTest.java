@@ -0,0 +1,192 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.cache;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.InventoryStockAdjusted;
+import com.aredondocharro.ClothingStore.inventory.contracts.event.StockReserved;
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.in.events.OnInventoryChangedCacheListener;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache.BoundedTtlCache;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.cache.CachingInventoryItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CachingInventoryItemRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final InventoryItemId id = InventoryItemId.newId();
+    private final Sku sku = Sku.of("TEE-001");
+
+    private InventoryItemRepositoryPort delegate;
+    private CachingInventoryItemRepository repo;
+
+    @BeforeEach
+    void setup() {
+        delegate = mock(InventoryItemRepositoryPort.class);
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        repo = new CachingInventoryItemRepository(
+                delegate,
+                new BoundedTtlCache<>(100, Duration.ofSeconds(30), clock),
+                new BoundedTtlCache<>(100, Duration.ofSeconds(30), clock)
+        );
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void findById_outsideTransactions_isServedFromMemory() {
+        when(delegate.findById(id)).thenReturn(Optional.of(item(sku, 10)));
+
+        repo.findById(id);
+        repo.findById(id);
+
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    void findById_insideReadWriteTransaction_bypassesTheCache() {
+        when(delegate.findById(id)).thenReturn(Optional.of(item(sku, 10)));
+        repo.findById(id);
+
+        beginTransaction(false);
+        repo.findById(id);
+        repo.findById(id);
+
+        // Una carga para poblar y las dos de la transacción de escritura van a la BD
+        verify(delegate, times(3)).findById(id);
+    }
+
+    @Test
+    void findById_insideReadOnlyTransaction_usesTheCache() {
+        when(delegate.findById(id)).thenReturn(Optional.of(item(sku, 10)));
+        repo.findById(id);
+
+        beginTransaction(true);
+        repo.findById(id);
+
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    void write_invalidatesOnlyAfterCommit() {
+        when(delegate.findById(id)).thenReturn(Optional.of(item(sku, 10)));
+        when(delegate.tryReserve(eq(id), anyInt(), eq(NOW))).thenReturn(true);
+        repo.findById(id);
+
+        beginTransaction(false);
+        repo.tryReserve(id, 2, NOW);
+        endTransaction();
+
+        // Antes del commit la entrada sigue ahí: otra lectura no puede repoblar con el valor anterior
+        repo.findById(id);
+        verify(delegate, times(1)).findById(id);
+
+        commit();
+        when(delegate.findById(id)).thenReturn(Optional.of(item(sku, 8)));
+        assertEquals(8, repo.findById(id).orElseThrow().stock().onHand());
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    void write_rejectedByTheDatabase_doesNotInvalidate() {
+        when(delegate.findById(id)).thenReturn(Optional.of(item(sku, 10)));
+        when(delegate.tryReserve(eq(id), anyInt(), eq(NOW))).thenReturn(false);
+        repo.findById(id);
+
+        repo.tryReserve(id, 50, NOW);
+        repo.findById(id);
+
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    void findBySku_afterTheItemChangedSku_repairsTheIndex() {
+        Sku renamed = Sku.of("TEE-002");
+        when(delegate.findBySku(sku)).thenReturn(Optional.of(item(sku, 10)));
+        when(delegate.findById(id)).thenReturn(Optional.of(item(sku, 10)));
+        assertTrue(repo.findBySku(sku).isPresent());
+
+        // El item pasa a TEE-002 y su escritura invalida el id (no el índice por SKU)
+        when(delegate.findById(id)).thenReturn(Optional.of(item(renamed, 10)));
+        when(delegate.findBySku(sku)).thenReturn(Optional.empty());
+        repo.save(item(renamed, 10));
+
+        assertTrue(repo.findBySku(sku).isEmpty());
+
+        // Índice reparado: la siguiente consulta del SKU viejo ya no pasa por el item
+        clearInvocations(delegate);
+        assertTrue(repo.findBySku(sku).isEmpty());
+        verify(delegate, never()).findById(id);
+    }
+
+    @Test
+    void listener_invalidatesOnInventoryEvents() {
+        OnInventoryChangedCacheListener listener = new OnInventoryChangedCacheListener(repo);
+        when(delegate.findById(id)).thenReturn(Optional.of(item(sku, 10)));
+        repo.findById(id);
+
+        listener.on(new InventoryStockAdjusted(id.getValue(), 5, "restock", NOW));
+        repo.findById(id);
+        listener.on(new StockReserved(UUID.randomUUID(), id.getValue(), "ORDER-1", 1, NOW));
+        repo.findById(id);
+
+        verify(delegate, times(3)).findById(id);
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    // Como la lectura de otro hilo: fuera de la transacción, con su afterCommit aún pendiente
+    private static void endTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private InventoryItem item(Sku itemSku, int onHand) {
+        return InventoryItem.createNew(
+                id,
+                itemSku,
+                ItemName.of("Tee"),
+                null,
+                InventoryCategory.TOP,
+                AccessoryType.NONE,
+                Gender.UNISEX,
+                Size.M,
+                Fabric.COTTON,
+                Color.of("Black"),
+                Money.of(new BigDecimal("9.99"), "EUR"),
+                onHand,
+                NOW
+        );
+    }
+}
@@ -0,0 +1,170 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.catalog;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.PageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.view.InventoryItemSummaryView;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog.BitmapCatalogIndex;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog.CatalogRow;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.catalog.CatalogRowSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitmapCatalogIndexTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant NOW = T0.plusSeconds(60);
+
+    /** Tabla simulada en memoria. */
+    private final Map<UUID, CatalogRow> table = new LinkedHashMap<>();
+
+    // Inicio de la transacción de escritura abierta más antigua en la "BD"
+    private Instant oldestOpenWrite;
+
+    private final CatalogRowSource source = new CatalogRowSource() {
+        @Override public List<CatalogRow> loadAll() { return List.copyOf(table.values()); }
+        @Override public List<CatalogRow> loadByIds(Collection<UUID> ids) {
+            return ids.stream().map(table::get).filter(Objects::nonNull).toList();
+        }
+        @Override public List<UUID> loadIdsUpdatedAfter(Instant after) {
+            return table.values().stream()
+                    .filter(r -> r.updatedAt().isAfter(after))
+                    .map(r -> r.view().id().getValue())
+                    .toList();
+        }
+        @Override public Optional<Instant> findOldestOpenWriteStart() { return Optional.ofNullable(oldestOpenWrite); }
+    };
+
+    private BitmapCatalogIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new BitmapCatalogIndex(source, Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void search_intersectsEnumFilters_andPagesInListingOrder() {
+        CatalogRow older = row("TOP-M-OLD", InventoryCategory.TOP, Size.M, ItemStatus.ACTIVE, T0);
+        CatalogRow newer = row("TOP-M-NEW", InventoryCategory.TOP, Size.M, ItemStatus.ACTIVE, T0.plusSeconds(10));
+        row("TOP-L", InventoryCategory.TOP, Size.L, ItemStatus.ACTIVE, T0.plusSeconds(5));
+        row("TOP-M-OFF", InventoryCategory.TOP, Size.M, ItemStatus.DISCONTINUED, T0.plusSeconds(20));
+        index.rebuildAll();
+
+        var query = new InventorySearchQuery(null, InventoryCategory.TOP, null, Size.M, null, ItemStatus.ACTIVE);
+
+        var page1 = index.search(query, PageRequest.of(0, 1));
+        assertEquals(2, page1.total());
+        assertTrue(page1.hasNext());
+        assertEquals(newer.view().id(), page1.items().get(0).id());
+
+        var page2 = index.search(query, PageRequest.of(1, 1));
+        assertEquals(older.view().id(), page2.items().get(0).id());
+        assertFalse(page2.hasNext());
+    }
+
+    @Test
+    void countFacets_countsOnlyMatchingRows() {
+        row("SKU-A", InventoryCategory.TOP, Size.M, ItemStatus.ACTIVE, T0);
+        row("SKU-B", InventoryCategory.TOP, Size.L, ItemStatus.ACTIVE, T0);
+        row("SKU-C", InventoryCategory.TOP, Size.L, ItemStatus.DISCONTINUED, T0);
+        index.rebuildAll();
+
+        var facets = index.countFacets(new InventorySearchQuery(null, null, null, null, null, ItemStatus.ACTIVE));
+
+        assertEquals(2L, facets.categories().get(InventoryCategory.TOP));
+        assertEquals(1L, facets.sizes().get(Size.M));
+        assertEquals(1L, facets.sizes().get(Size.L));
+        assertNull(facets.statuses().get(ItemStatus.DISCONTINUED));
+    }
+
+    @Test
+    void refreshDirty_appliesOnlyMarkedChanges() {
+        CatalogRow a = row("SKU-A", InventoryCategory.TOP, Size.M, ItemStatus.ACTIVE, T0);
+        index.rebuildAll();
+
+        // Cambio en la "BD": discontinuado
+        row("SKU-A", a.view().id(), InventoryCategory.TOP, Size.M, ItemStatus.DISCONTINUED, T0.plusSeconds(1));
+        var active = new InventorySearchQuery(null, null, null, null, null, ItemStatus.ACTIVE);
+        assertEquals(1, index.search(active, PageRequest.of(0, 10)).total());
+
+        index.markDirty(a.view().id());
+        index.refreshDirty();
+
+        assertEquals(0, index.search(active, PageRequest.of(0, 10)).total());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void pollChanges_picksUpWritesFromOtherNodes_withoutEvents() {
+        CatalogRow a = row("SKU-A", InventoryCategory.TOP, Size.M, ItemStatus.ACTIVE, T0);
+        index.rebuildAll();
+        index.pollChanges();
+        assertEquals(0, index.getPolledChangeCount());
+
+        // Otro nodo discontinúa el item: aquí no llega ningún evento
+        row("SKU-A", a.view().id(), InventoryCategory.TOP, Size.M, ItemStatus.DISCONTINUED, NOW.minusSeconds(1));
+        index.pollChanges();
+        index.refreshDirty();
+
+        var active = new InventorySearchQuery(null, null, null, null, null, ItemStatus.ACTIVE);
+        assertEquals(0, index.search(active, PageRequest.of(0, 10)).total());
+    }
+
+    @Test
+    void pollChanges_doesNotMovePastAnOpenWriteTransaction() {
+        CatalogRow a = row("SKU-A", InventoryCategory.TOP, Size.M, ItemStatus.ACTIVE, T0);
+        // Un import lento empezó en T0+10s y aún no hizo commit
+        oldestOpenWrite = T0.plusSeconds(10);
+        index.rebuildAll();
+        index.pollChanges();
+
+        // Hace commit ahora con un updated_at muy anterior a NOW
+        row("SKU-A", a.view().id(), InventoryCategory.TOP, Size.M, ItemStatus.DISCONTINUED, T0.plusSeconds(12));
+        oldestOpenWrite = null;
+        index.pollChanges();
+        index.refreshDirty();
+
+        var active = new InventorySearchQuery(null, null, null, null, null, ItemStatus.ACTIVE);
+        assertEquals(0, index.search(active, PageRequest.of(0, 10)).total());
+    }
+
+    @Test
+    void requestRebuild_isAppliedOnNextScheduledRefresh() {
+        index.scheduledRebuild();
+        assertEquals(0, index.size());
+
+        row("SKU-A", InventoryCategory.TOP, Size.M, ItemStatus.ACTIVE, T0);
+        row("SKU-B", InventoryCategory.TOP, Size.L, ItemStatus.ACTIVE, T0);
+        index.requestRebuild();
+        index.scheduledRefresh();
+
+        assertEquals(2, index.size());
+    }
+
+    private CatalogRow row(String sku, InventoryCategory category, Size size, ItemStatus status, Instant updatedAt) {
+        return row(sku, InventoryItemId.newId(), category, size, status, updatedAt);
+    }
+
+    private CatalogRow row(String sku, InventoryItemId id, InventoryCategory category, Size size, ItemStatus status, Instant updatedAt) {
+        CatalogRow r = new CatalogRow(
+                new InventoryItemSummaryView(id, Sku.of(sku), sku, Money.of(new BigDecimal("10.00"), "EUR"), 5, 0, status),
+                category,
+                Gender.UNISEX,
+                size,
+                Fabric.COTTON,
+                updatedAt,
+                0
+        );
+        table.put(id.getValue(), r);
+        return r;
+    }
+}
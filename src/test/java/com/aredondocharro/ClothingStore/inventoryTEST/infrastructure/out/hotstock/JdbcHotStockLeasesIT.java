@@ -0,0 +1,179 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.hotstock;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock.JdbcHotStockLeases;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventoryItemRepositoryAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL real del registro de leases hot y de la reconciliación de nodos caídos.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(InventoryItemRepositoryAdapter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "classpath:db/migration/V23__inventory_hot_stock_leases.sql")
+class JdbcHotStockLeasesIT {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration RECLAIM_AFTER = Duration.ofMinutes(5);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("inventory_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        r.add("spring.datasource.username", POSTGRES::getUsername);
+        r.add("spring.datasource.password", POSTGRES::getPassword);
+
+        // inventory_items lo crea Hibernate; el registro de leases, su migración (@Sql)
+        r.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        r.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    InventoryItemRepositoryAdapter items;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    private TransactionTemplate tx;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setup() {
+        tx = new TransactionTemplate(txManager);
+        item = newItem("HOT-001", 100);
+        tx.executeWithoutResult(s -> items.save(item));
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbc.update("delete from inventory_hot_stock_leases");
+        jdbc.update("delete from inventory_items");
+    }
+
+    @Test
+    void record_keepsLeasedMinusPersistedAndReturned() {
+        JdbcHotStockLeases node = new JdbcHotStockLeases(jdbc, "node-a");
+
+        tx.executeWithoutResult(s -> {
+            node.leased(item.id(), 50, T0.plus(RECLAIM_AFTER));
+            node.leased(item.id(), 20, T0.plus(RECLAIM_AFTER));
+            node.persisted(Map.of(item.id(), 15));
+        });
+        assertEquals(55, recordedUnits("node-a"));
+
+        assertTrue(returnInTx(node, 40));
+        assertEquals(15, recordedUnits("node-a"));
+
+        // Más de lo registrado: no se resta nada
+        assertFalse(returnInTx(node, 16));
+        assertEquals(15, recordedUnits("node-a"));
+    }
+
+    @Test
+    void reclaimExpired_returnsOnlyWhatDeadNodesLeft_once() {
+        JdbcHotStockLeases dead = new JdbcHotStockLeases(jdbc, "node-dead");
+        JdbcHotStockLeases alive = new JdbcHotStockLeases(jdbc, "node-alive");
+        leaseFromRow(dead, 30, T0.plus(RECLAIM_AFTER));
+        leaseFromRow(alive, 20, T0.plus(RECLAIM_AFTER));
+        assertEquals(50, reservedOnRow());
+
+        // Solo el vivo mantiene su heartbeat
+        Instant later = T0.plus(RECLAIM_AFTER).plusSeconds(1);
+        tx.executeWithoutResult(s -> alive.heartbeat(later.plus(RECLAIM_AFTER)));
+
+        assertEquals(30, reclaimInTx(dead, later));
+        assertEquals(20, reservedOnRow());
+        assertNull(recordedUnitsOrNull("node-dead"));
+        assertEquals(20, recordedUnits("node-alive"));
+
+        // Ya borrado: otra pasada (u otro nodo) no lo devuelve otra vez
+        assertEquals(0, reclaimInTx(alive, later));
+        assertEquals(20, reservedOnRow());
+
+        // El nodo muerto que vuelve sabe que su lease ya no es suyo
+        assertFalse(returnInTx(dead, 30));
+    }
+
+    private boolean returnInTx(JdbcHotStockLeases node, int units) {
+        return Boolean.TRUE.equals(tx.execute(s -> node.returned(item.id(), units)));
+    }
+
+    private int reclaimInTx(JdbcHotStockLeases node, Instant now) {
+        Integer units = tx.execute(s -> node.reclaimExpired(now));
+        return units == null ? 0 : units;
+    }
+
+    private void leaseFromRow(JdbcHotStockLeases node, int units, Instant expiresAt) {
+        tx.executeWithoutResult(s -> {
+            assertTrue(items.tryReserve(item.id(), units, T0));
+            node.leased(item.id(), units, expiresAt);
+        });
+    }
+
+    private int recordedUnits(String nodeId) {
+        Integer units = recordedUnitsOrNull(nodeId);
+        assertNotNull(units);
+        return units;
+    }
+
+    private Integer recordedUnitsOrNull(String nodeId) {
+        return jdbc.query("select units from inventory_hot_stock_leases where node_id = ? and item_id = ?",
+                rs -> rs.next() ? rs.getInt(1) : null, nodeId, item.id().getValue());
+    }
+
+    private int reservedOnRow() {
+        return jdbc.queryForObject("select stock_reserved from inventory_items where id = ?",
+                Integer.class, item.id().getValue());
+    }
+
+    private static InventoryItem newItem(String sku, int onHand) {
+        return InventoryItem.createNew(
+                null,
+                Sku.of(sku),
+                ItemName.of("Hot item"),
+                null,
+                InventoryCategory.TOP,
+                AccessoryType.NONE,
+                Gender.UNISEX,
+                Size.M,
+                Fabric.COTTON,
+                Color.of("Black"),
+                Money.of(new BigDecimal("19.99"), "EUR"),
+                onHand,
+                T0
+        );
+    }
+}
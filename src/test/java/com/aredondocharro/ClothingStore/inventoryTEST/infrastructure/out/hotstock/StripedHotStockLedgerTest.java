@@ -0,0 +1,281 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.hotstock;
+
+import com.aredondocharro.ClothingStore.inventory.contracts.event.StockReleased;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservation;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.InventoryItemRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.StockReservationRepositoryPort;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock.JdbcHotStockLeases;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.hotstock.StripedHotStockLedger;
+import com.aredondocharro.ClothingStore.shared.domain.event.EventBusPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StripedHotStockLedgerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final InventoryItemId hotItem = InventoryItemId.newId();
+
+    private InventoryItemRepositoryPort itemRepo;
+    private StockReservationRepositoryPort reservationRepo;
+    private EventBusPort eventBus;
+    private JdbcHotStockLeases leaseRecords;
+    private final List<StockReservation> persisted = Collections.synchronizedList(new ArrayList<>());
+
+    // Fila de inventario simulada: available = onHand - reserved
+    private final AtomicInteger available = new AtomicInteger();
+
+    private StripedHotStockLedger ledger;
+
+    @BeforeEach
+    void setup() {
+        itemRepo = mock(InventoryItemRepositoryPort.class);
+        reservationRepo = mock(StockReservationRepositoryPort.class);
+        eventBus = mock(EventBusPort.class);
+        leaseRecords = mock(JdbcHotStockLeases.class);
+        when(leaseRecords.returned(eq(hotItem), anyInt())).thenReturn(true);
+
+        when(itemRepo.tryReserve(eq(hotItem), anyInt(), any())).thenAnswer(inv -> {
+            int qty = inv.getArgument(1);
+            return available.getAndUpdate(v -> v >= qty ? v - qty : v) >= qty;
+        });
+        when(itemRepo.tryRelease(eq(hotItem), anyInt(), any())).thenAnswer(inv -> {
+            available.addAndGet(inv.getArgument(1));
+            return true;
+        });
+        doAnswer(inv -> persisted.addAll(inv.getArgument(0))).when(reservationRepo).insertAll(anyList());
+
+        ledger = new StripedHotStockLedger(
+                Set.of(hotItem),
+                itemRepo,
+                reservationRepo,
+                eventBus,
+                TransactionOperations.withoutTransaction(),
+                leaseRecords,
+                Clock.fixed(NOW, ZoneOffset.UTC),
+                4,
+                50,
+                Duration.ofSeconds(30),
+                100,
+                Duration.ofMinutes(5)
+        );
+    }
+
+    @Test
+    void concurrentReservations_neverExceedStock_andAreFlushedInBatches() throws Exception {
+        available.set(1_000);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger seq = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    StockReservation r = reservation("ORDER-" + seq.incrementAndGet(), 1);
+                    if (reserveWithRefill(r).isPresent()) accepted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        ledger.flush();
+        assertEquals(accepted.get(), persisted.size());
+        assertEquals(0, ledger.getPendingCount());
+        verify(reservationRepo, atMost(20)).insertAll(anyList());
+
+        // Lo arrendado y no vendido vuelve a la fila: nunca se vende de más ni se pierde stock
+        ledger.close();
+        assertTrue(accepted.get() > 0);
+        assertEquals(1_000, accepted.get() + available.get());
+    }
+
+    @Test
+    void exhaustedLease_neverLeasesOnCallerThread_andRefillsInBackground() {
+        available.set(100);
+
+        assertTrue(ledger.tryReserve(reservation("ORDER-E", 1)).isEmpty());
+        verify(itemRepo, never()).tryReserve(any(InventoryItemId.class), anyInt(), any());
+
+        ledger.refill();
+
+        assertEquals(50, available.get());
+        assertTrue(ledger.tryReserve(reservation("ORDER-E", 1)).isPresent());
+    }
+
+    @Test
+    void flushedReservation_staysKnown_untilForgotten() {
+        available.set(100);
+        StockReservation first = reservation("ORDER-F", 2);
+        reserveWithRefill(first).orElseThrow();
+        ledger.flush();
+
+        assertEquals(Optional.of(first), ledger.findKnown(hotItem, first.reference()));
+        assertSame(first, ledger.tryReserve(reservation("ORDER-F", 2)).orElseThrow());
+        assertEquals(1, persisted.size());
+
+        ledger.forget(hotItem, first.reference());
+        assertTrue(ledger.findKnown(hotItem, first.reference()).isEmpty());
+    }
+
+    @Test
+    void reservationRejectedOnFlush_isCompensatedWithRelease() {
+        available.set(100);
+        doThrow(new DataIntegrityViolationException("uk")).when(reservationRepo).insertAll(anyList());
+        StockReservation r = reservation("ORDER-G", 3);
+        reserveWithRefill(r).orElseThrow();
+
+        ledger.flush();
+
+        ArgumentCaptor<StockReleased> released = ArgumentCaptor.forClass(StockReleased.class);
+        verify(eventBus).publish(released.capture());
+        assertEquals(r.id().getValue(), released.getValue().reservationId());
+        assertEquals(3, released.getValue().quantity());
+        assertEquals(1, ledger.getConflicts());
+        assertEquals(0, ledger.getPendingCount());
+        assertTrue(ledger.findKnown(hotItem, r.reference()).isEmpty());
+
+        // Sus unidades vuelven al lease y a la fila al parar
+        ledger.close();
+        assertEquals(100, available.get());
+    }
+
+    @Test
+    void flushPending_persistsOnlyThatReservation_andTheTickDoesNotInsertItAgain() {
+        available.set(100);
+        StockReservation target = reservation("ORDER-H", 2);
+        StockReservation other = reservation("ORDER-I", 1);
+        reserveWithRefill(target).orElseThrow();
+        reserveWithRefill(other).orElseThrow();
+
+        assertTrue(ledger.flushPending(hotItem, target.reference()));
+
+        assertEquals(List.of(target), persisted);
+        assertEquals(1, ledger.getPendingCount());
+        assertEquals(Optional.of(target), ledger.findKnown(hotItem, target.reference()));
+
+        ledger.flush();
+        assertEquals(List.of(target, other), persisted);
+    }
+
+    @Test
+    void flushPending_unknownReference_doesNotTouchTheDatabase() {
+        available.set(100);
+        reserveWithRefill(reservation("ORDER-J", 1)).orElseThrow();
+
+        assertFalse(ledger.flushPending(hotItem, ReservationReference.of("ORDER-UNKNOWN")));
+
+        verify(reservationRepo, never()).insertAll(anyList());
+        assertEquals(1, ledger.getPendingCount());
+    }
+
+    @Test
+    void sameReference_whilePending_returnsFirstReservation() {
+        available.set(100);
+
+        StockReservation first = reservation("ORDER-A", 2);
+        StockReservation second = reservation("ORDER-A", 2);
+
+        assertSame(first, reserveWithRefill(first).orElseThrow());
+        assertSame(first, ledger.tryReserve(second).orElseThrow());
+
+        ledger.flush();
+        assertEquals(List.of(first), persisted);
+    }
+
+    @Test
+    void close_flushesPending_andReturnsUnusedLease() {
+        available.set(100);
+
+        reserveWithRefill(reservation("ORDER-B", 3)).orElseThrow();
+        // Un bloque arrendado: 50 unidades salen de la fila aunque solo se reserven 3
+        assertEquals(50, available.get());
+
+        ledger.close();
+
+        assertEquals(1, persisted.size());
+        assertEquals(97, available.get());
+        assertEquals(47, ledger.getReturnedUnits());
+        assertFalse(ledger.isHot(hotItem));
+    }
+
+    @Test
+    void leaseRecord_tracksLeasedMinusPersisted_soADeadNodeCanBeReclaimed() {
+        available.set(100);
+        reserveWithRefill(reservation("ORDER-K", 3)).orElseThrow();
+        verify(leaseRecords).leased(hotItem, 50, NOW.plus(Duration.ofMinutes(5)));
+
+        ledger.flush();
+        verify(leaseRecords).persisted(Map.of(hotItem, 3));
+
+        ledger.close();
+        verify(leaseRecords).returned(hotItem, 47);
+    }
+
+    @Test
+    void leaseAlreadyReclaimedByAnotherNode_isNotReturnedTwice() {
+        available.set(100);
+        reserveWithRefill(reservation("ORDER-L", 3)).orElseThrow();
+        when(leaseRecords.returned(hotItem, 47)).thenReturn(false);
+
+        ledger.evict(hotItem);
+
+        verify(itemRepo, never()).tryRelease(any(InventoryItemId.class), anyInt(), any());
+        assertEquals(50, available.get());
+        assertEquals(0, ledger.getReturnedUnits());
+    }
+
+    @Test
+    void reclaimStranded_returnsWhatDeadNodesLeft() {
+        when(leaseRecords.reclaimExpired(NOW)).thenReturn(12);
+
+        ledger.reclaimStranded();
+
+        assertEquals(12, ledger.getReclaimedUnits());
+    }
+
+    @Test
+    void whenDatabaseHasLessThanAChunk_leasesExactlyWhatIsMissing() {
+        available.set(2);
+
+        assertTrue(reserveWithRefill(reservation("ORDER-C", 2)).isPresent());
+        assertTrue(reserveWithRefill(reservation("ORDER-D", 1)).isEmpty());
+        assertEquals(0, available.get());
+    }
+
+    // Hace de tick del ledger: si el lease está agotado, re-arrienda y reintenta una vez
+    private Optional<StockReservation> reserveWithRefill(StockReservation r) {
+        Optional<StockReservation> held = ledger.tryReserve(r);
+        if (held.isPresent()) return held;
+        ledger.refill();
+        return ledger.tryReserve(r);
+    }
+
+    private StockReservation reservation(String ref, int qty) {
+        return StockReservation.createNew(null, hotItem, ReservationReference.of(ref), qty, NOW);
+    }
+}
@@ -0,0 +1,134 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.persistence;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.ConcurrentSearchQueries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ConcurrentSearchQueriesTest {
+
+    private static final RowMapper<String> MAPPER = (rs, i) -> rs.getString(1);
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private ConcurrentSearchQueries queries = new ConcurrentSearchQueries(jdbc, Duration.ofSeconds(2));
+
+    @AfterEach
+    void tearDown() {
+        queries.close();
+    }
+
+    @Test
+    void pageAndCount_runBothQueriesAtTheSameTime() {
+        CountDownLatch countStarted = new CountDownLatch(1);
+        when(jdbc.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class))).thenAnswer(inv -> {
+            countStarted.countDown();
+            return 42L;
+        });
+        when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(inv -> {
+            // En secuencia el count nunca empezaría mientras la página espera
+            assertTrue(countStarted.await(1, TimeUnit.SECONDS));
+            return List.of("a", "b", "c");
+        });
+
+        ConcurrentSearchQueries.PageAndCount<String> result = queries.pageAndCount(
+                "page", new Object[]{"x"}, MAPPER, "count", new Object[]{"x"}, rows -> true);
+
+        assertEquals(List.of("a", "b", "c"), result.rows());
+        assertEquals(42L, result.total());
+    }
+
+    @Test
+    void pageAndCount_whenPageFails_cancelsCountOnServer() throws Exception {
+        PreparedStatement countPs = mock(PreparedStatement.class);
+        CountDownLatch countRunning = new CountDownLatch(1);
+        CountDownLatch countCancelled = new CountDownLatch(1);
+        doAnswer(inv -> { countCancelled.countDown(); return null; }).when(countPs).cancel();
+
+        when(jdbc.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class))).thenAnswer(inv -> {
+            runStatement(inv.getArgument(0), countPs);
+            countRunning.countDown();
+            countCancelled.await(2, TimeUnit.SECONDS);
+            throw new DataAccessResourceFailureException("canceling statement due to user request");
+        });
+        when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(inv -> {
+            assertTrue(countRunning.await(1, TimeUnit.SECONDS));
+            throw new DataAccessResourceFailureException("page failed");
+        });
+
+        DataAccessResourceFailureException ex = assertThrows(DataAccessResourceFailureException.class,
+                () -> queries.pageAndCount("page", new Object[0], MAPPER, "count", new Object[0], rows -> true));
+
+        assertEquals("page failed", ex.getMessage());
+        assertTrue(countCancelled.await(1, TimeUnit.SECONDS));
+        assertEquals(1, queries.getCountsCancelled());
+    }
+
+    @Test
+    void pageAndCount_whenDeadlineExpires_cancelsBothAndTimesOut() throws Exception {
+        queries.close();
+        queries = new ConcurrentSearchQueries(jdbc, Duration.ofMillis(100));
+
+        PreparedStatement pagePs = mock(PreparedStatement.class);
+        PreparedStatement countPs = mock(PreparedStatement.class);
+        CountDownLatch pageCancelled = new CountDownLatch(1);
+        CountDownLatch countCancelled = new CountDownLatch(1);
+        doAnswer(inv -> { pageCancelled.countDown(); return null; }).when(pagePs).cancel();
+        doAnswer(inv -> { countCancelled.countDown(); return null; }).when(countPs).cancel();
+
+        when(jdbc.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class))).thenAnswer(inv -> {
+            runStatement(inv.getArgument(0), countPs);
+            countCancelled.await(2, TimeUnit.SECONDS);
+            throw new DataAccessResourceFailureException("count cancelled");
+        });
+        when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(inv -> {
+            runStatement(inv.getArgument(0), pagePs);
+            pageCancelled.await(2, TimeUnit.SECONDS);
+            throw new DataAccessResourceFailureException("page cancelled");
+        });
+
+        assertThrows(QueryTimeoutException.class,
+                () -> queries.pageAndCount("page", new Object[0], MAPPER, "count", new Object[0], rows -> true));
+
+        assertTrue(pageCancelled.await(1, TimeUnit.SECONDS));
+        assertTrue(countCancelled.await(1, TimeUnit.SECONDS));
+        assertEquals(1, queries.getDeadlinesExceeded());
+    }
+
+    @Test
+    void pageAndCount_whenPageIsEnough_skipsCount() {
+        when(jdbc.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class))).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return 99L;
+        });
+        when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of("a"));
+
+        ConcurrentSearchQueries.PageAndCount<String> result = queries.pageAndCount(
+                "page", new Object[0], MAPPER, "count", new Object[0], rows -> false);
+
+        assertEquals(List.of("a"), result.rows());
+        assertNull(result.total());
+    }
+
+    private static void runStatement(PreparedStatementCreator creator, PreparedStatement ps) throws Exception {
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(anyString())).thenReturn(ps);
+        creator.createPreparedStatement(con);
+    }
+}
@@ -0,0 +1,171 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.persistence;
+
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort.Claim;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort.StoredRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.out.IdempotencyStorePort.StoredResponse;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.IdempotencyKeyRepositoryAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL real del claim (upsert condicionado), del token de dueño y de la purga. Sin transacción de test:
+ * el adaptador trabaja en autocommit, que es lo que ven los duplicados concurrentes.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdempotencyKeyRepositoryAdapter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = {
+        "classpath:db/migration/V18__inventory_idempotency_keys.sql",
+        "classpath:db/migration/V22__inventory_idempotency_claim_token.sql"
+})
+class IdempotencyKeyRepositoryAdapterIT {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final Duration STALE_AFTER = Duration.ofSeconds(30);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("inventory_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        r.add("spring.datasource.username", POSTGRES::getUsername);
+        r.add("spring.datasource.password", POSTGRES::getPassword);
+
+        // La tabla de claves la crean sus migraciones (@Sql)
+        r.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        r.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    IdempotencyKeyRepositoryAdapter store;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @AfterEach
+    void cleanup() {
+        jdbc.update("delete from inventory_idempotency_keys");
+    }
+
+    @Test
+    void claim_firstRequestOwnsTheKey_andADuplicateSeesItInProgress() {
+        Claim first = claim("user:k-1", "fp-1", T0);
+        Claim duplicate = claim("user:k-1", "fp-1", T0.plusSeconds(1));
+
+        assertTrue(first.isOwned());
+        assertFalse(duplicate.isOwned());
+        assertEquals("fp-1", duplicate.existing().fingerprint());
+        assertFalse(duplicate.existing().isCompleted());
+        assertEquals(T0.plus(TTL), duplicate.existing().expiresAt());
+    }
+
+    @Test
+    void complete_storesTheResponse_andLaterClaimsReplayIt() {
+        Claim owner = claim("user:k-1", "fp-1", T0);
+        byte[] body = "{\"id\":\"42\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(store.complete("user:k-1", owner.token(),
+                new StoredResponse(201, "application/json", "/admin/inventory/items/42", body), T0.plusSeconds(1)));
+
+        // Ni siquiera pasado el timeout de "en curso": una clave completada solo se retoma al caducar
+        Claim replay = claim("user:k-1", "fp-1", T0.plus(STALE_AFTER).plusSeconds(1));
+        assertFalse(replay.isOwned());
+        StoredResponse stored = replay.existing().response();
+        assertEquals(201, stored.status());
+        assertEquals("application/json", stored.contentType());
+        assertEquals("/admin/inventory/items/42", stored.location());
+        assertArrayEquals(body, stored.body());
+
+        // Una vez completada, release no la borra
+        store.release("user:k-1", owner.token());
+        assertTrue(store.find("user:k-1").orElseThrow().isCompleted());
+    }
+
+    @Test
+    void staleInProgressKey_isTakenOver_andTheOriginalTokenCanNeitherCompleteNorReleaseIt() {
+        Claim original = claim("user:k-1", "fp-1", T0);
+        Claim takeover = claim("user:k-1", "fp-1", T0.plus(STALE_AFTER));
+
+        assertTrue(takeover.isOwned());
+        assertNotEquals(original.token(), takeover.token());
+
+        assertFalse(store.complete("user:k-1", original.token(), response(200), T0.plus(STALE_AFTER).plusSeconds(1)));
+        store.release("user:k-1", original.token());
+        StoredRequest row = store.find("user:k-1").orElseThrow();
+        assertFalse(row.isCompleted());
+        assertEquals(T0.plus(STALE_AFTER).plus(TTL), row.expiresAt());
+
+        assertTrue(store.complete("user:k-1", takeover.token(), response(200), T0.plus(STALE_AFTER).plusSeconds(1)));
+    }
+
+    @Test
+    void release_byTheOwner_freesTheKeyForTheRetry() {
+        Claim owner = claim("user:k-1", "fp-1", T0);
+
+        store.release("user:k-1", owner.token());
+
+        assertTrue(store.find("user:k-1").isEmpty());
+        assertTrue(claim("user:k-1", "fp-1", T0.plusSeconds(1)).isOwned());
+    }
+
+    @Test
+    void expiredCompletedKey_isClaimedAgain_asANewRequest() {
+        Claim owner = claim("user:k-1", "fp-1", T0);
+        store.complete("user:k-1", owner.token(), response(200), T0.plusSeconds(1));
+
+        Claim reused = claim("user:k-1", "fp-2", T0.plus(TTL));
+
+        assertTrue(reused.isOwned());
+        StoredRequest row = store.find("user:k-1").orElseThrow();
+        assertEquals("fp-2", row.fingerprint());
+        assertFalse(row.isCompleted());
+    }
+
+    @Test
+    void purgeExpired_deletesOnlyExpiredKeys_upToTheLimit() {
+        claim("user:k-1", "fp", T0);
+        claim("user:k-2", "fp", T0);
+        claim("user:k-3", "fp", T0);
+        claim("user:k-4", "fp", T0.plus(TTL));
+
+        Instant now = T0.plus(TTL);
+        assertEquals(2, store.purgeExpired(now, 2));
+        assertEquals(1, store.purgeExpired(now, 2));
+        assertEquals(0, store.purgeExpired(now, 2));
+
+        assertTrue(store.find("user:k-4").isPresent());
+    }
+
+    private Claim claim(String key, String fingerprint, Instant now) {
+        return store.claim(key, fingerprint, now, now.minus(STALE_AFTER), now.plus(TTL));
+    }
+
+    private static StoredResponse response(int status) {
+        return new StoredResponse(status, "application/json", null, "{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,15 +1,24 @@
 package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.persistence;
 
 import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CountMode;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.CursorPageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryChangeCursor;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventoryCursor;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySort;
 import com.aredondocharro.ClothingStore.inventory.domain.port.in.PageRequest;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.StockAdjustmentLine;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventoryBulkImportAdapter;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventoryItemRepositoryAdapter;
 import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.StockReservationRepositoryAdapter;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.transaction.IllegalTransactionStateException;
@@ -21,6 +30,9 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,7 +41,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Import({
         InventoryItemRepositoryAdapter.class,
-        StockReservationRepositoryAdapter.class
+        StockReservationRepositoryAdapter.class,
+        InventoryBulkImportAdapter.class
 })
 class InventoryItemRepositoryAdapterIT {
 
@@ -54,6 +67,12 @@ class InventoryItemRepositoryAdapterIT {
 
     @Autowired
     InventoryItemRepositoryAdapter adapter;
+    @Autowired
+    StockReservationRepositoryAdapter reservations;
+    @Autowired
+    InventoryBulkImportAdapter bulkImport;
+    @Autowired
+    EntityManager em;
 
     @Test
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -102,17 +121,350 @@ class InventoryItemRepositoryAdapterIT {
         assertEquals("HOODIE-BLK-L", hoodie.items().get(0).sku().getValue());
     }
 
+    @Test
+    void search_treatsLikeWildcardsInTextAsLiterals() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        adapter.save(newItem("TEE_50", "Tee 50% off", now));
+        adapter.save(newItem("TEE-500", "Tee 500", now.plusSeconds(1)));
+
+        var percent = adapter.search(new InventorySearchQuery("50%", null, null, null, null, null), PageRequest.of(0, 10));
+        assertEquals(1, percent.items().size());
+        assertEquals("TEE_50", percent.items().get(0).sku().getValue());
+
+        var underscore = adapter.search(new InventorySearchQuery("tee_", null, null, null, null, null), PageRequest.of(0, 10));
+        assertEquals(1, underscore.items().size());
+    }
+
+    @Test
+    void countFacets_countsEveryFacetInOneQuery_withSameFilters() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        adapter.save(newItem("POLO-1", "Polo one", now));
+        adapter.save(newItem("POLO-2", "Polo two", now));
+        adapter.save(newItem("POLO-3", "Polo three", now).discontinue(now));
+        adapter.save(newItem("SHIRT-1", "Shirt", now));
+        em.flush(); // las facetas van por JDBC
+
+        var facets = adapter.countFacets(new InventorySearchQuery("polo", null, null, null, null, null));
+
+        assertEquals(3L, facets.categories().get(InventoryCategory.TOP));
+        assertEquals(3L, facets.sizes().get(Size.M));
+        assertEquals(2L, facets.statuses().get(ItemStatus.ACTIVE));
+        assertEquals(1L, facets.statuses().get(ItemStatus.DISCONTINUED));
+    }
+
+    @Test
+    void countFacets_countsEachDimensionSeparately_underTheFilter() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        adapter.save(newItem("FACET-1", "Facet one", InventoryCategory.TOP, Gender.MALE, Size.M, Fabric.COTTON, now));
+        adapter.save(newItem("FACET-2", "Facet two", InventoryCategory.TOP, Gender.MALE, Size.L, Fabric.DENIM, now));
+        adapter.save(newItem("FACET-3", "Facet three", InventoryCategory.BOTTOM, Gender.MALE, Size.L, Fabric.DENIM, now).discontinue(now));
+        // Fuera del filtro: por género y por texto
+        adapter.save(newItem("FACET-4", "Facet four", InventoryCategory.BOTTOM, Gender.FEMALE, Size.M, Fabric.COTTON, now));
+        adapter.save(newItem("OTHER-1", "Other", InventoryCategory.TOP, Gender.MALE, Size.M, Fabric.COTTON, now));
+        em.flush(); // las facetas van por JDBC
+
+        var facets = adapter.countFacets(new InventorySearchQuery("facet", null, Gender.MALE, null, null, null));
+
+        assertEquals(Map.of(InventoryCategory.TOP, 2L, InventoryCategory.BOTTOM, 1L), facets.categories());
+        assertEquals(Map.of(Gender.MALE, 3L), facets.genders());
+        assertEquals(Map.of(Size.M, 1L, Size.L, 2L), facets.sizes());
+        assertEquals(Map.of(Fabric.COTTON, 1L, Fabric.DENIM, 2L), facets.fabrics());
+        assertEquals(Map.of(ItemStatus.ACTIVE, 2L, ItemStatus.DISCONTINUED, 1L), facets.statuses());
+    }
+
+    @Test
+    void search_countModes_skipOrEstimateTheCount() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < 3; i++) {
+            adapter.save(newItem("BELT-" + i, "Belt " + i, now.plusSeconds(i)));
+        }
+        var query = new InventorySearchQuery("belt", null, null, null, null, null);
+
+        var none = adapter.search(query, PageRequest.of(0, 2, CountMode.NONE));
+        assertEquals(2, none.items().size());
+        assertEquals(-1, none.total());
+        assertTrue(none.hasNext());
+        assertFalse(none.hasTotal());
+
+        var estimated = adapter.search(query, PageRequest.of(0, 2, CountMode.ESTIMATED));
+        assertEquals(CountMode.ESTIMATED, estimated.countMode());
+        assertTrue(estimated.total() >= 3);
+
+        // Última página: el total se deduce sin count
+        var last = adapter.search(query, PageRequest.of(2, 2, CountMode.ESTIMATED));
+        assertEquals(CountMode.EXACT, last.countMode());
+        assertEquals(3, last.total());
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void searchAfter_walksAllPagesByCursor_withoutDuplicatesOrGaps() {
+        Instant same = Instant.parse("2025-01-01T00:00:00Z");
+        // Misma updated_at en todos: el desempate por id es el que evita duplicados/huecos
+        for (int i = 0; i < 5; i++) {
+            adapter.save(newItem("SOCK-" + i, "Sock " + i, same));
+        }
+
+        var query = new InventorySearchQuery("sock", null, null, null, null, null);
+        List<String> seen = new ArrayList<>();
+
+        var request = CursorPageRequest.first(InventorySort.UPDATED_AT_DESC, 2);
+        while (true) {
+            var page = adapter.searchAfter(query, request);
+            page.items().forEach(v -> seen.add(v.sku().getValue()));
+            if (!page.hasNext()) break;
+            // El cursor viaja como token opaco
+            InventoryCursor next = InventoryCursor.decode(page.next().encode());
+            request = new CursorPageRequest(InventorySort.UPDATED_AT_DESC, next, 2);
+        }
+
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().distinct().count());
+    }
+
+    @Test
+    void findChangesAfter_walksFeedInStableOrder_includingDiscontinued_andStopsAtBefore() {
+        Instant t0 = Instant.parse("2025-01-01T00:00:00Z");
+        // Tres con la misma updated_at: el desempate por id no debe duplicar ni saltar filas
+        for (int i = 0; i < 3; i++) {
+            adapter.save(newItem("FEED-" + i, "Feed " + i, t0));
+        }
+        adapter.save(newItem("FEED-OFF", "Feed off", t0).discontinue(t0.plusSeconds(1)));
+        adapter.save(newItem("FEED-LATE", "Feed late", t0.plusSeconds(60)));
+
+        Instant before = t0.plusSeconds(30);
+        List<String> seen = new ArrayList<>();
+        InventoryChangeCursor cursor = null;
+        while (true) {
+            var rows = adapter.findChangesAfter(cursor, before, 2);
+            if (rows.isEmpty()) break;
+            rows.forEach(v -> seen.add(v.sku().getValue()));
+            var last = rows.get(rows.size() - 1);
+            cursor = InventoryChangeCursor.decode(new InventoryChangeCursor(last.updatedAt(), last.id().getValue()).encode());
+        }
+
+        assertEquals(4, seen.size());
+        assertEquals(4, seen.stream().distinct().count());
+        assertEquals("FEED-OFF", seen.get(3));
+        assertFalse(seen.contains("FEED-LATE"));
+    }
+
+    @Test
+    void findOldestOpenWriteStart_ignoresTheCallersOwnTransaction() {
+        adapter.save(newItem("FEED-OWN", "Feed own", Instant.parse("2025-01-01T00:00:00Z")));
+        em.flush();
+
+        // La tx del test ya escribió (tiene xid), pero es la del caller: no frena su propio feed
+        assertTrue(adapter.findOldestOpenWriteStart().isEmpty());
+    }
+
+    @Test
+    void searchAfter_sortsByName() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        adapter.save(newItem("CAP-B", "Beta Cap", now));
+        adapter.save(newItem("CAP-A", "Alpha Cap", now.plusSeconds(1)));
+
+        var query = new InventorySearchQuery("cap", null, null, null, null, null);
+        var first = adapter.searchAfter(query, CursorPageRequest.first(InventorySort.NAME_ASC, 1));
+        assertEquals("CAP-A", first.items().get(0).sku().getValue());
+
+        var second = adapter.searchAfter(query, new CursorPageRequest(InventorySort.NAME_ASC, first.next(), 1));
+        assertEquals("CAP-B", second.items().get(0).sku().getValue());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void tryReserve_appliesGuardedUpdate_andRejectsWhenNotEnoughAvailable() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        InventoryItem item = newItem("JEANS-001", "Jeans", now);
+        adapter.save(item);
+
+        Instant later = now.plusSeconds(5);
+        assertTrue(adapter.tryReserve(item.id(), 7, later));
+        assertFalse(adapter.tryReserve(item.id(), 4, later)); // available = 3
+
+        var reloaded = adapter.findById(item.id()).orElseThrow();
+        assertEquals(10, reloaded.stock().onHand());
+        assertEquals(7, reloaded.stock().reserved());
+        assertEquals(later, reloaded.updatedAt());
+
+        assertTrue(adapter.tryConsume(item.id(), 2, later));
+        assertTrue(adapter.tryRelease(item.id(), 5, later));
+        assertFalse(adapter.tryRelease(item.id(), 1, later));
+
+        var afterConsume = adapter.findById(item.id()).orElseThrow();
+        assertEquals(8, afterConsume.stock().onHand());
+        assertEquals(0, afterConsume.stock().reserved());
+    }
+
+    @Test
+    void save_updatesWithVersionCheck_andRejectsStaleCopies() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        InventoryItem item = newItem("LEAN-001", "Lean", now);
+        adapter.save(item);
+
+        Instant later = now.plusSeconds(5);
+        adapter.save(item.adjustOnHand(5, later));
+
+        var reloaded = adapter.findById(item.id()).orElseThrow();
+        assertEquals(15, reloaded.stock().onHand());
+        assertEquals(1, reloaded.version());
+        assertEquals(later, reloaded.updatedAt());
+
+        // Misma versión de partida que la escritura anterior: conflicto optimista, como con @Version
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> adapter.save(item.changePrice(Money.of(new BigDecimal("1.00"), "EUR"), later)));
+    }
+
+    @Test
+    void tryReserveReleaseConsume_writeStockAndReservationTogether() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        InventoryItem item = newItem("LEAN-002", "Lean", now);
+        adapter.save(item);
+
+        StockReservation first = StockReservation.createNew(null, item.id(), ReservationReference.of("ORDER-1"), 4, now, null);
+        StockReservation second = StockReservation.createNew(null, item.id(), ReservationReference.of("ORDER-2"), 7, now, null);
+        assertTrue(adapter.tryReserve(first));
+        assertFalse(adapter.tryReserve(second)); // available = 6: ni stock ni fila de reserva
+        assertTrue(reservations.findActiveByItemAndReference(item.id(), ReservationReference.of("ORDER-2")).isEmpty());
+
+        var active = reservations.findActiveByItemAndReference(item.id(), ReservationReference.of("ORDER-1")).orElseThrow();
+        assertTrue(adapter.tryConsume(active.consume(now.plusSeconds(1))));
+        assertEquals(ReservationStatus.CONSUMED, reservations.findByItemAndReferenceAndStatus(
+                item.id(), ReservationReference.of("ORDER-1"), ReservationStatus.CONSUMED).orElseThrow().status());
+
+        // La copia ACTIVE ya no está vigente: conflicto optimista y el stock no se toca
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> adapter.tryRelease(active.release(now)));
+
+        var reloaded = adapter.findById(item.id()).orElseThrow();
+        assertEquals(6, reloaded.stock().onHand());
+        assertEquals(0, reloaded.stock().reserved());
+    }
+
+    @Test
+    void tryReserve_rejectsDiscontinuedItems() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        InventoryItem item = newItem("SCARF-001", "Scarf", now).discontinue(now);
+        adapter.save(item);
+
+        assertFalse(adapter.tryReserve(item.id(), 1, now));
+    }
+
+    @Test
+    void findAvailability_matchesIdsAndSkusInOneQuery_withoutDuplicates() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        InventoryItem tee = newItem("CART-TEE", "Cart tee", now);
+        InventoryItem cap = newItem("CART-CAP", "Cart cap", now);
+        adapter.save(tee);
+        adapter.save(cap);
+        adapter.save(newItem("CART-SOCK", "Cart sock", now));
+
+        var found = adapter.findAvailability(
+                List.of(tee.id(), InventoryItemId.newId()),
+                List.of(Sku.of("CART-TEE"), Sku.of("CART-CAP"), Sku.of("CART-NONE")));
+
+        assertEquals(2, found.size());
+        assertTrue(found.stream().anyMatch(v -> v.id().equals(tee.id())));
+        assertTrue(found.stream().anyMatch(v -> v.id().equals(cap.id())));
+    }
+
+    @Test
+    void tryAdjustOnHandAll_appliesLinesInOrder_andReportsRejectedPositions() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        InventoryItem tee = newItem("ADJ-TEE", "Tee", now);
+        InventoryItem cap = newItem("ADJ-CAP", "Cap", now).discontinue(now);
+        adapter.save(tee);
+        adapter.save(cap);
+        assertTrue(adapter.tryReserve(tee.id(), 4, now));
+
+        Map<Sku, InventoryItemId> ids = adapter.findIdsBySkus(List.of(Sku.of("ADJ-TEE"), Sku.of("ADJ-NONE")));
+        assertEquals(Map.of(Sku.of("ADJ-TEE"), tee.id()), ids);
+
+        Instant later = now.plusSeconds(5);
+        List<Integer> rejected = adapter.tryAdjustOnHandAll(List.of(
+                StockAdjustmentLine.byId(tee.id(), 5, "recount"),  // 15
+                StockAdjustmentLine.byId(tee.id(), -12, "sync"),   // 3 < reserved
+                StockAdjustmentLine.byId(tee.id(), -11, "sync"),   // 4
+                StockAdjustmentLine.byId(cap.id(), 1, "sync")      // discontinued
+        ), later);
+
+        assertEquals(List.of(1, 3), rejected);
+        var reloaded = adapter.findById(tee.id()).orElseThrow();
+        assertEquals(4, reloaded.stock().onHand());
+        assertEquals(4, reloaded.stock().reserved());
+        assertEquals(later, reloaded.updatedAt());
+        assertEquals(10, adapter.findById(cap.id()).orElseThrow().stock().onHand());
+    }
+
+    @Test
+    void findFingerprint_changesWithAnyWriteToTheItem() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        InventoryItem a = newItem("PRINT-A", "Print A", now);
+        adapter.save(a);
+        em.flush();
+
+        var before = adapter.findFingerprint(a.id()).orElseThrow();
+        assertEquals(now, before.lastModified());
+        assertTrue(adapter.tryReserve(a.id(), 1, now)); // mismo updated_at: solo cambia la versión
+
+        assertEquals(before.versionSum() + 1, adapter.findFingerprint(a.id()).orElseThrow().versionSum());
+        assertTrue(adapter.findFingerprint(InventoryItemId.newId()).isEmpty());
+    }
+
+    @Test
+    void streamSummaries_deliversEveryMatchingRow_oneByOne() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < 25; i++) {
+            adapter.save(newItem("EXPORT-%03d".formatted(i), "Export " + i, now.plusSeconds(i)));
+        }
+        adapter.save(newItem("OTHER-001", "Other", now));
+        em.flush(); // el export va por JDBC
+
+        List<String> skus = new ArrayList<>();
+        long count = adapter.streamSummaries(
+                new InventorySearchQuery("export", null, null, null, null, null),
+                v -> skus.add(v.sku().getValue()));
+
+        assertEquals(25, count);
+        assertEquals(25, skus.size());
+        assertFalse(skus.contains("OTHER-001"));
+    }
+
+    @Test
+    void bulkImport_copiesRows_andSkipsExistingAndRepeatedSkus() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        adapter.save(newItem("EXISTING-001", "Existing", now));
+
+        var outcome = bulkImport.importAll(List.of(
+                newItem("BULK-001", "Quoted \"name\", with comma", now),
+                newItem("EXISTING-001", "Clash with table", now),
+                newItem("BULK-002", "Second", now),
+                newItem("BULK-001", "Repeated in file", now)
+        ).iterator(), 10);
+
+        assertEquals(4, outcome.staged());
+        assertEquals(2, outcome.inserted());
+        assertEquals(2, outcome.conflicts());
+        assertEquals(List.of("EXISTING-001", "BULK-001"), outcome.conflictingSkus());
+        assertEquals("Quoted \"name\", with comma", adapter.findBySku(Sku.of("BULK-001")).orElseThrow().name().getValue());
+        assertEquals("Existing", adapter.findBySku(Sku.of("EXISTING-001")).orElseThrow().name().getValue());
+    }
+
     private InventoryItem newItem(String sku, String name, Instant now) {
+        return newItem(sku, name, InventoryCategory.TOP, Gender.UNISEX, Size.M, Fabric.COTTON, now);
+    }
+
+    private InventoryItem newItem(String sku, String name, InventoryCategory category, Gender gender,
+                                  Size size, Fabric fabric, Instant now) {
         return InventoryItem.createNew(
                 null,
                 Sku.of(sku),
                 ItemName.of(name),
                 null,
-                InventoryCategory.TOP,
+                category,
                 AccessoryType.NONE,
-                Gender.UNISEX,
-                Size.M,
-                Fabric.COTTON,
+                gender,
+                size,
+                fabric,
                 Color.of("Black"),
                 Money.of(new BigDecimal("19.99"), "EUR"),
                 10,
@@ -0,0 +1,180 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.persistence;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.PageRequest;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventoryItemRepositoryAdapter;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventorySearchSql;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.entity.InventoryItemEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Micro-benchmark: CPU por búsqueda (página + count) del SQL precompilado frente al árbol Criteria
+ * que se construía en cada petición. Recorre las 64 combinaciones de filtros y comprueba que ambos
+ * caminos devuelven las mismas filas; los tiempos solo se publican (en CI cargada no son comparables).
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(InventoryItemRepositoryAdapter.class)
+class InventorySearchBenchmarkIT {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+    private static final PageRequest PAGE = PageRequest.of(0, 5);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("inventory_bench")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        r.add("spring.datasource.username", POSTGRES::getUsername);
+        r.add("spring.datasource.password", POSTGRES::getPassword);
+        r.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        r.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    InventoryItemRepositoryAdapter adapter;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void templates_matchCriteriaResults_andReportCpuPerSearch(TestReporter reporter) {
+        seed();
+        List<InventorySearchQuery> queries = allCombinations();
+
+        for (InventorySearchQuery q : queries) {
+            var page = adapter.search(q, PAGE);
+            assertEquals(criteriaIds(q), page.items().stream().map(v -> v.id().getValue()).toList(), q.toString());
+            assertEquals(criteriaCount(q), page.total(), q.toString());
+        }
+
+        long templateNanos = cpuPerSearch(queries, q -> adapter.search(q, PAGE));
+        long criteriaNanos = cpuPerSearch(queries, q -> {
+            criteriaIds(q);
+            criteriaCount(q);
+        });
+
+        // Mismo SQL y mismas filas: la diferencia es solo construir/compilar el árbol Criteria en cada búsqueda
+        reporter.publishEntry("search-benchmark", String.format("cpu/search template=%dus criteria=%dus",
+                templateNanos / 1_000, criteriaNanos / 1_000));
+    }
+
+    private long cpuPerSearch(List<InventorySearchQuery> queries, Consumer<InventorySearchQuery> search) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) queries.forEach(search);
+        em.clear();
+
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) queries.forEach(search);
+        return (threads.getCurrentThreadCpuTime() - start) / ((long) MEASURED_ROUNDS * queries.size());
+    }
+
+    // Camino anterior: árbol Criteria nuevo para items y otro para el count en cada búsqueda
+    private List<UUID> criteriaIds(InventorySearchQuery q) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<InventoryItemEntity> root = cq.from(InventoryItemEntity.class);
+        cq.multiselect(root.get("id").alias("id"), root.get("sku").alias("sku"), root.get("name").alias("name"),
+                root.get("priceAmount").alias("priceAmount"), root.get("priceCurrency").alias("priceCurrency"),
+                root.get("stockOnHand").alias("stockOnHand"), root.get("stockReserved").alias("stockReserved"),
+                root.get("status").alias("status"));
+        cq.where(predicates(cb, root, q));
+        cq.orderBy(cb.desc(root.get("updatedAt")), cb.asc(root.get("id")));
+        return em.createQuery(cq).setFirstResult(PAGE.offset()).setMaxResults(PAGE.limit()).getResultList().stream()
+                .map(t -> t.get("id", UUID.class))
+                .toList();
+    }
+
+    private long criteriaCount(InventorySearchQuery q) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<InventoryItemEntity> root = cq.from(InventoryItemEntity.class);
+        cq.select(cb.count(root)).where(predicates(cb, root, q));
+        return em.createQuery(cq).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<InventoryItemEntity> root, InventorySearchQuery q) {
+        List<Predicate> p = new ArrayList<>();
+        if (q.text() != null) {
+            String like = "%" + q.text().toLowerCase() + "%";
+            p.add(cb.or(cb.like(cb.lower(root.get("sku")), like, '\\'), cb.like(cb.lower(root.get("name")), like, '\\')));
+        }
+        if (q.category() != null) p.add(cb.equal(root.get("category"), q.category()));
+        if (q.gender() != null) p.add(cb.equal(root.get("gender"), q.gender()));
+        if (q.size() != null) p.add(cb.equal(root.get("size"), q.size()));
+        if (q.fabric() != null) p.add(cb.equal(root.get("fabric"), q.fabric()));
+        if (q.status() != null) p.add(cb.equal(root.get("status"), q.status()));
+        return p.toArray(Predicate[]::new);
+    }
+
+    private static List<InventorySearchQuery> allCombinations() {
+        List<InventorySearchQuery> queries = new ArrayList<>(InventorySearchSql.COMBINATIONS);
+        for (int mask = 0; mask < InventorySearchSql.COMBINATIONS; mask++) {
+            queries.add(new InventorySearchQuery(
+                    (mask & InventorySearchSql.TEXT) != 0 ? "bench" : null,
+                    (mask & InventorySearchSql.CATEGORY) != 0 ? InventoryCategory.TOP : null,
+                    (mask & InventorySearchSql.GENDER) != 0 ? Gender.UNISEX : null,
+                    (mask & InventorySearchSql.SIZE) != 0 ? Size.M : null,
+                    (mask & InventorySearchSql.FABRIC) != 0 ? Fabric.COTTON : null,
+                    (mask & InventorySearchSql.STATUS) != 0 ? ItemStatus.ACTIVE : null));
+        }
+        return queries;
+    }
+
+    private void seed() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        Size[] sizes = {Size.M, Size.L};
+        Gender[] genders = {Gender.UNISEX, Gender.MALE};
+        for (int i = 0; i < 40; i++) {
+            InventoryItem item = InventoryItem.createNew(
+                    null,
+                    Sku.of("BENCH-" + i),
+                    ItemName.of("Bench item " + i),
+                    null,
+                    InventoryCategory.TOP,
+                    AccessoryType.NONE,
+                    genders[i % 2],
+                    sizes[(i / 2) % 2],
+                    Fabric.COTTON,
+                    Color.of("Black"),
+                    Money.of(new BigDecimal("10.00"), "EUR"),
+                    5,
+                    now.plusSeconds(i)
+            );
+            adapter.save(i % 5 == 0 ? item.discontinue(now.plusSeconds(i)) : item);
+        }
+    }
+}
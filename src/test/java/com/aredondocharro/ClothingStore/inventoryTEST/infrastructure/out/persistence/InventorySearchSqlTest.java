@@ -0,0 +1,57 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.persistence;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.InventorySearchQuery;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventorySearchSql;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventorySearchSqlTest {
+
+    @Test
+    void everyCombination_hasItsOwnTemplate_withOneBindPerArgument() {
+        Set<String> pages = new HashSet<>();
+        for (int mask = 0; mask < InventorySearchSql.COMBINATIONS; mask++) {
+            InventorySearchQuery query = queryFor(mask);
+            assertEquals(mask, InventorySearchSql.mask(query));
+
+            int args = InventorySearchSql.args(query).size();
+            assertEquals(args, placeholders(InventorySearchSql.where(mask)));
+            assertEquals(args, placeholders(InventorySearchSql.count(mask)));
+            assertEquals(args + 2, placeholders(InventorySearchSql.page(mask))); // limit, offset
+            pages.add(InventorySearchSql.page(mask));
+        }
+        assertEquals(InventorySearchSql.COMBINATIONS, pages.size());
+        assertSame(InventorySearchSql.page(5), InventorySearchSql.page(5));
+    }
+
+    @Test
+    void args_followTemplateOrder_andEscapeLikeWildcards() {
+        InventorySearchQuery query = new InventorySearchQuery(" 50%_Off ", null, Gender.UNISEX, null, null, ItemStatus.ACTIVE);
+
+        assertEquals(InventorySearchSql.TEXT | InventorySearchSql.GENDER | InventorySearchSql.STATUS, InventorySearchSql.mask(query));
+        assertEquals(List.of("%50\\%\\_off%", "%50\\%\\_off%", "UNISEX", "ACTIVE"), InventorySearchSql.args(query));
+        assertEquals(0, InventorySearchSql.mask(new InventorySearchQuery("  ", null, null, null, null, null)));
+        assertEquals(0, InventorySearchSql.mask(null));
+    }
+
+    private static InventorySearchQuery queryFor(int mask) {
+        return new InventorySearchQuery(
+                (mask & InventorySearchSql.TEXT) != 0 ? "tee" : null,
+                (mask & InventorySearchSql.CATEGORY) != 0 ? InventoryCategory.TOP : null,
+                (mask & InventorySearchSql.GENDER) != 0 ? Gender.UNISEX : null,
+                (mask & InventorySearchSql.SIZE) != 0 ? Size.M : null,
+                (mask & InventorySearchSql.FABRIC) != 0 ? Fabric.COTTON : null,
+                (mask & InventorySearchSql.STATUS) != 0 ? ItemStatus.ACTIVE : null
+        );
+    }
+
+    private static long placeholders(String sql) {
+        return sql.chars().filter(c -> c == '?').count();
+    }
+}
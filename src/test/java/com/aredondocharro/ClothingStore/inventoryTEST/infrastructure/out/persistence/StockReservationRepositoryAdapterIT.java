@@ -16,7 +16,9 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -87,4 +89,43 @@ class StockReservationRepositoryAdapterIT {
         assertTrue(adapter.findByItemAndReferenceAndStatus(itemId, ref, ReservationStatus.ACTIVE).isEmpty());
         assertTrue(adapter.findByItemAndReferenceAndStatus(itemId, ref, ReservationStatus.CONSUMED).isPresent());
     }
+
+    @Test
+    void releaseExpired_releasesOnlyDueActiveReservations() {
+        InventoryItemId itemId = InventoryItemId.newId();
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        StockReservation due = StockReservation.createNew(null, itemId, ReservationReference.of("CART-1"), 2, now, Duration.ofMinutes(5));
+        StockReservation notYet = StockReservation.createNew(null, itemId, ReservationReference.of("CART-2"), 1, now, Duration.ofHours(1));
+        StockReservation forever = StockReservation.createNew(null, itemId, ReservationReference.of("CART-3"), 1, now);
+        adapter.insertAll(List.of(due, notYet, forever));
+
+        List<StockReservation> released = adapter.releaseExpired(now.plus(Duration.ofMinutes(10)), 50);
+
+        assertEquals(1, released.size());
+        assertEquals(due.id(), released.get(0).id());
+        assertEquals(ReservationStatus.RELEASED, released.get(0).status());
+        assertTrue(adapter.findActiveByItemAndReference(itemId, ReservationReference.of("CART-1")).isEmpty());
+        assertTrue(adapter.findActiveByItemAndReference(itemId, ReservationReference.of("CART-2")).isPresent());
+        assertTrue(adapter.findActiveByItemAndReference(itemId, ReservationReference.of("CART-3")).isPresent());
+    }
+
+    @Test
+    void releaseExpired_releasesAgain_whenReferenceAlreadyHasReleasedReservation() {
+        InventoryItemId itemId = InventoryItemId.newId();
+        ReservationReference ref = ReservationReference.of("CART-AGAIN");
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        adapter.insertAll(List.of(StockReservation.createNew(null, itemId, ref, 1, now, Duration.ofMinutes(5))));
+        assertEquals(1, adapter.releaseExpired(now.plus(Duration.ofMinutes(10)), 50).size());
+
+        StockReservation second = StockReservation.createNew(null, itemId, ref, 2, now.plus(Duration.ofMinutes(20)), Duration.ofMinutes(5));
+        adapter.insertAll(List.of(second));
+
+        List<StockReservation> released = adapter.releaseExpired(now.plus(Duration.ofMinutes(30)), 50);
+
+        assertEquals(1, released.size());
+        assertEquals(second.id(), released.get(0).id());
+        assertEquals(second.id(), adapter.findByItemAndReferenceAndStatus(itemId, ref, ReservationStatus.RELEASED).orElseThrow().id());
+    }
 }
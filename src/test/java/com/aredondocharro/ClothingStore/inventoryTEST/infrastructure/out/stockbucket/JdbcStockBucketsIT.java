@@ -0,0 +1,223 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.stockbucket;
+
+import com.aredondocharro.ClothingStore.inventory.domain.model.*;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.persistence.InventoryItemRepositoryAdapter;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.stockbucket.JdbcStockBuckets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL real de reservar, drenar y rebalancear buckets. Sin transacción de test: el rebalanceo abre la suya
+ * (REQUIRES_NEW) y los casos concurrentes necesitan ver lo que otra conexión ya confirmó.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(InventoryItemRepositoryAdapter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "classpath:db/migration/V20__inventory_stock_buckets.sql")
+class JdbcStockBucketsIT {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final int BUCKETS = 4;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("inventory_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        r.add("spring.datasource.username", POSTGRES::getUsername);
+        r.add("spring.datasource.password", POSTGRES::getPassword);
+
+        // inventory_items y stock_reservations los crea Hibernate; los buckets, su migración (@Sql)
+        r.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        r.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    InventoryItemRepositoryAdapter items;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    private TransactionTemplate tx;
+    private InventoryItem item;
+    private JdbcStockBuckets stockBuckets;
+
+    @BeforeEach
+    void setup() {
+        tx = new TransactionTemplate(txManager);
+        TransactionTemplate requiresNew = new TransactionTemplate(txManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        item = newItem("BUCKET-001", 10);
+        tx.executeWithoutResult(s -> items.save(item));
+        stockBuckets = new JdbcStockBuckets(Set.of(item.id()), jdbc, items, requiresNew,
+                Clock.fixed(T0, ZoneOffset.UTC), BUCKETS, 5);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbc.update("delete from stock_reservations");
+        jdbc.update("delete from inventory_stock_buckets");
+        jdbc.update("delete from inventory_items");
+    }
+
+    @Test
+    void rebalance_movesRowStockIntoBuckets_asReserved() {
+        assertEquals(8, stockBuckets.rebalance()); // 10 / 4 buckets = 2 por bucket
+
+        assertEquals(List.of(2, 2, 2, 2), bucketAvailability());
+        assertEquals(8, reservedOnRow());
+        assertEquals(8, stockBuckets.findTotals(List.of(item.id())).get(item.id()).unreserved());
+
+        // Ya repartido: la siguiente pasada no escribe
+        assertEquals(0, stockBuckets.rebalance());
+    }
+
+    @Test
+    void tryReserve_takesFromOneBucket_andInsertsTheReservationWithoutTouchingTheRow() {
+        stockBuckets.rebalance();
+
+        StockReservation reservation = StockReservation.createNew(null, item.id(), ReservationReference.of("ORDER-1"), 2, T0);
+        assertTrue(reserveInTx(reservation));
+
+        assertEquals(6, bucketAvailability().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(8, reservedOnRow());
+        assertEquals(1, jdbc.queryForObject(
+                "select count(*) from stock_reservations where id = ? and status = 'ACTIVE'",
+                Integer.class, reservation.id().getValue()));
+
+        // Ningún bucket tiene 3: la reserva sigue por la fila
+        StockReservation tooBig = StockReservation.createNew(null, item.id(), ReservationReference.of("ORDER-2"), 3, T0);
+        assertFalse(reserveInTx(tooBig));
+    }
+
+    @Test
+    void drain_returnsWhatIsLeftInTheBucketsToTheRow() {
+        stockBuckets.rebalance();
+        StockReservation reservation = StockReservation.createNew(null, item.id(), ReservationReference.of("ORDER-1"), 2, T0);
+        reserveInTx(reservation);
+
+        assertEquals(6, drainInTx());
+
+        assertEquals(List.of(0, 0, 0, 0), bucketAvailability());
+        assertEquals(2, reservedOnRow()); // solo la reserva real
+        assertEquals(0, drainInTx());
+    }
+
+    @Test
+    void rebalance_skipsAnItemWhoseBucketIsHeldByAnOpenReservation_andThatReservationCanStillDrain() throws Exception {
+        stockBuckets.rebalance();
+        CountDownLatch bucketHeld = new CountDownLatch(1);
+        CountDownLatch rebalanced = new CountDownLatch(1);
+
+        // Reserva que ya tiene un bucket y luego drena en la misma transacción (reserveGroup con un hueco)
+        CompletableFuture<Integer> reserveThenDrain = CompletableFuture.supplyAsync(() -> tx.execute(s -> {
+            StockReservation reservation = StockReservation.createNew(null, item.id(), ReservationReference.of("ORDER-1"), 1, T0);
+            assertTrue(stockBuckets.tryReserve(reservation));
+            bucketHeld.countDown();
+            try {
+                assertTrue(rebalanced.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return stockBuckets.drain(item.id(), T0);
+        }));
+
+        assertTrue(bucketHeld.await(10, TimeUnit.SECONDS));
+        // Con el bucket ocupado el rebalanceo no espera: salta el item en vez de quedar en ciclo con la reserva
+        CompletableFuture<Integer> rebalance = CompletableFuture.supplyAsync(stockBuckets::rebalance);
+        assertEquals(0, rebalance.get(10, TimeUnit.SECONDS));
+        rebalanced.countDown();
+
+        assertEquals(7, reserveThenDrain.get(10, TimeUnit.SECONDS));
+        assertEquals(1, stockBuckets.getBusySkipCount());
+        assertEquals(0, stockBuckets.getFailureCount());
+        assertEquals(1, reservedOnRow());
+    }
+
+    @Test
+    void rebalance_emptiesTheBucketsOfADiscontinuedItem() {
+        stockBuckets.rebalance();
+        jdbc.update("update inventory_items set status = 'DISCONTINUED' where id = ?", item.id().getValue());
+
+        assertEquals(8, stockBuckets.rebalance());
+
+        assertEquals(List.of(0, 0, 0, 0), bucketAvailability());
+        assertEquals(0, reservedOnRow());
+    }
+
+    private boolean reserveInTx(StockReservation reservation) {
+        return Boolean.TRUE.equals(tx.execute(s -> stockBuckets.tryReserve(reservation)));
+    }
+
+    private int drainInTx() {
+        Integer units = tx.execute(s -> stockBuckets.drain(item.id(), T0));
+        return units == null ? 0 : units;
+    }
+
+    private List<Integer> bucketAvailability() {
+        return jdbc.queryForList(
+                "select available from inventory_stock_buckets where item_id = ? order by bucket",
+                Integer.class, item.id().getValue());
+    }
+
+    private int reservedOnRow() {
+        return jdbc.queryForObject("select stock_reserved from inventory_items where id = ?",
+                Integer.class, item.id().getValue());
+    }
+
+    private static InventoryItem newItem(String sku, int onHand) {
+        return InventoryItem.createNew(
+                null,
+                Sku.of(sku),
+                ItemName.of("Bucket item"),
+                null,
+                InventoryCategory.TOP,
+                AccessoryType.NONE,
+                Gender.UNISEX,
+                Size.M,
+                Fabric.COTTON,
+                Color.of("Black"),
+                Money.of(new BigDecimal("19.99"), "EUR"),
+                onHand,
+                T0
+        );
+    }
+}
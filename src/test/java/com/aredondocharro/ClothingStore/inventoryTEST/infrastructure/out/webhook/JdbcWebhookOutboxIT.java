@@ -0,0 +1,224 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.webhook;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.JdbcWebhookOutbox;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.JdbcWebhookOutbox.OutboxEvent;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.JdbcWebhookOutbox.PendingEvent;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.WebhookSubscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL real del outbox de webhooks: reclamo con SKIP LOCKED y lease, reintentos con backoff y paso a FAILED.
+ * Sin transacción de test: el dispatcher trabaja en autocommit y el caso concurrente necesita dos conexiones.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "classpath:db/migration/V19__inventory_webhook_outbox.sql")
+class JdbcWebhookOutboxIT {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration LEASE = Duration.ofSeconds(30);
+    private static final String PARTNER = "partner-a";
+    private static final String AUDIT = "audit";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("inventory_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        r.add("spring.datasource.username", POSTGRES::getUsername);
+        r.add("spring.datasource.password", POSTGRES::getPassword);
+
+        // La tabla del outbox la crea su migración (@Sql)
+        r.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        r.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    private JdbcWebhookOutbox outbox;
+
+    @BeforeEach
+    void setup() {
+        outbox = new JdbcWebhookOutbox(jdbc, List.of(
+                subscriber(PARTNER, Set.of()),
+                subscriber(AUDIT, Set.of("StockAdjusted"))
+        ));
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbc.update("delete from inventory_webhook_outbox");
+    }
+
+    @Test
+    void record_writesOneRowPerInterestedSubscriber() {
+        int rows = outbox.record(List.of(
+                event("StockAdjusted", "{\"n\":1}"),
+                event("ItemDiscontinued", "{\"n\":2}")
+        ));
+
+        assertEquals(3, rows);
+        assertEquals(Map.of(PARTNER, 2L, AUDIT, 1L), rowsBySubscriber());
+    }
+
+    @Test
+    void claim_returnsDueEventsInOrder_andHidesThemUntilTheLeaseEnds() {
+        recordDue(event("StockAdjusted", "{\"n\":1}"), event("StockAdjusted", "{\"n\":2}"), event("StockAdjusted", "{\"n\":3}"));
+
+        List<PendingEvent> batch = outbox.claim(PARTNER, 2, T0, T0.plus(LEASE));
+
+        assertEquals(List.of("{\"n\":1}", "{\"n\":2}"), batch.stream().map(PendingEvent::payload).toList());
+        assertEquals(T0, batch.get(0).occurredAt());
+        assertEquals(0, batch.get(0).attemptCount());
+
+        // Reclamados: solo queda el tercero hasta que vence el lease
+        assertEquals(List.of("{\"n\":3}"), payloads(outbox.claim(PARTNER, 10, T0, T0.plus(LEASE))));
+        assertTrue(outbox.claim(PARTNER, 10, T0.plus(LEASE).minusMillis(1), T0.plus(LEASE.multipliedBy(2))).isEmpty());
+        assertEquals(3, outbox.claim(PARTNER, 10, T0.plus(LEASE), T0.plus(LEASE.multipliedBy(2))).size());
+
+        // Cada suscriptor tiene su propia cola
+        assertEquals(3, outbox.claim(AUDIT, 10, T0, T0.plus(LEASE)).size());
+    }
+
+    @Test
+    void claim_skipsRowsLockedByAnotherNode_insteadOfWaiting() throws Exception {
+        recordDue(event("StockAdjusted", "{\"n\":1}"), event("StockAdjusted", "{\"n\":2}"));
+        long firstId = jdbc.queryForObject(
+                "select min(id) from inventory_webhook_outbox where subscriber = ?", Long.class, PARTNER);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch claimed = new CountDownLatch(1);
+
+        // Otro nodo tiene la primera fila bloqueada en una transacción abierta
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() -> tx.executeWithoutResult(s -> {
+            jdbc.queryForObject("select id from inventory_webhook_outbox where id = ? for update", Long.class, firstId);
+            locked.countDown();
+            try {
+                assertTrue(claimed.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }));
+
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+        List<PendingEvent> batch = CompletableFuture
+                .supplyAsync(() -> outbox.claim(PARTNER, 10, T0, T0.plus(LEASE)))
+                .get(10, TimeUnit.SECONDS);
+        claimed.countDown();
+        otherNode.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("{\"n\":2}"), payloads(batch));
+    }
+
+    @Test
+    void failed_countsTheAttempt_andReschedulesWithTheGivenBackoff() {
+        recordDue(event("StockAdjusted", "{\"n\":1}"));
+        PendingEvent claimed = outbox.claim(PARTNER, 10, T0, T0.plus(LEASE)).get(0);
+        Instant retryAt = T0.plusSeconds(5);
+
+        outbox.failed(List.of(claimed.id()), "HTTP 503", 3, retryAt);
+
+        assertEquals("PENDING", column(claimed.id(), "status"));
+        assertEquals("HTTP 503", column(claimed.id(), "last_error"));
+        assertTrue(outbox.claim(PARTNER, 10, retryAt.minusMillis(1), retryAt.plus(LEASE)).isEmpty());
+        PendingEvent retried = outbox.claim(PARTNER, 10, retryAt, retryAt.plus(LEASE)).get(0);
+        assertEquals(claimed.id(), retried.id());
+        assertEquals(1, retried.attemptCount());
+    }
+
+    @Test
+    void failed_afterMaxAttempts_leavesTheRowFailed_andOutOfTheQueue() {
+        recordDue(event("StockAdjusted", "{\"n\":1}"));
+        long id = outbox.claim(PARTNER, 10, T0, T0.plus(LEASE)).get(0).id();
+
+        outbox.failed(List.of(id), "HTTP 500", 2, T0);
+        outbox.failed(List.of(id), "HTTP 500", 2, T0);
+
+        assertEquals("FAILED", column(id, "status"));
+        assertEquals(2, jdbc.queryForObject(
+                "select attempt_count from inventory_webhook_outbox where id = ?", Integer.class, id));
+        assertTrue(outbox.claim(PARTNER, 10, T0.plus(Duration.ofDays(1)), T0.plus(Duration.ofDays(2))).isEmpty());
+    }
+
+    @Test
+    void delivered_deletesTheRows() {
+        recordDue(event("StockAdjusted", "{\"n\":1}"), event("StockAdjusted", "{\"n\":2}"));
+        List<PendingEvent> batch = outbox.claim(PARTNER, 1, T0, T0.plus(LEASE));
+
+        outbox.delivered(batch.stream().map(PendingEvent::id).toList());
+
+        assertEquals(Map.of(PARTNER, 1L, AUDIT, 2L), rowsBySubscriber());
+    }
+
+    // next_attempt_at toma now() de la BD al insertar: se lleva a T0 para que las filas venzan con el reloj del test
+    private void recordDue(OutboxEvent... events) {
+        outbox.record(List.of(events));
+        jdbc.update("update inventory_webhook_outbox set next_attempt_at = ?", OffsetDateTime.ofInstant(T0, ZoneOffset.UTC));
+    }
+
+    private Map<String, Long> rowsBySubscriber() {
+        return jdbc.query("select subscriber, count(*) as n from inventory_webhook_outbox group by subscriber",
+                rs -> {
+                    Map<String, Long> counts = new HashMap<>();
+                    while (rs.next()) counts.put(rs.getString("subscriber"), rs.getLong("n"));
+                    return counts;
+                });
+    }
+
+    private String column(long id, String name) {
+        return jdbc.queryForObject("select " + name + " from inventory_webhook_outbox where id = ?", String.class, id);
+    }
+
+    private static List<String> payloads(List<PendingEvent> events) {
+        return events.stream().map(PendingEvent::payload).toList();
+    }
+
+    private static OutboxEvent event(String type, String payload) {
+        return new OutboxEvent(type, payload, T0);
+    }
+
+    private static WebhookSubscriber subscriber(String id, Set<String> eventTypes) {
+        return new WebhookSubscriber(id, URI.create("https://example.test/" + id), "secret", eventTypes, 1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.out.webhook;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.JdbcWebhookOutbox;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.WebhookDispatcher;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.WebhookSender;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.out.webhook.WebhookSubscriber;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WebhookDispatcherTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    private static final String SECRET = "s3cret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private final JdbcWebhookOutbox outbox = mock(JdbcWebhookOutbox.class);
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<String> signatures = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    private HttpServer stub;
+    private WebhookSubscriber subscriber;
+    private WebhookDispatcher dispatcher;
+
+    @BeforeEach
+    void setup() throws Exception {
+        // Suscriptor local: guarda cuerpo y firma y contesta con el status configurado
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/hook", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            signatures.add(exchange.getRequestHeaders().getFirst(WebhookSender.SIGNATURE_HEADER));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        stub.start();
+
+        subscriber = new WebhookSubscriber("partner-a",
+                URI.create("http://127.0.0.1:" + stub.getAddress().getPort() + "/hook"),
+                SECRET, Set.of(), 1);
+
+        WebhookSender sender = new WebhookSender(HttpClient.newHttpClient(), objectMapper, clock, Duration.ofSeconds(5));
+        // Entrega en el mismo hilo: cada dispatch() termina con el lote ya enviado
+        dispatcher = new WebhookDispatcher(outbox, sender, List.of(subscriber), clock, Runnable::run,
+                100, 3, Duration.ofSeconds(10), 3.0, Duration.ofMinutes(5), Duration.ofSeconds(60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+        stub.stop(0);
+    }
+
+    @Test
+    void dispatch_postsOneSignedBatch_andDeletesDeliveredEvents() throws Exception {
+        when(outbox.claim(eq("partner-a"), eq(100), eq(NOW), eq(NOW.plusSeconds(60))))
+                .thenReturn(List.of(
+                        pending(1, "inventory.item.price-changed", "{\"amount\":9.99}", 0),
+                        pending(2, "inventory.stock.reserved", "{\"quantity\":2}", 0)))
+                .thenReturn(List.of());
+
+        assertEquals(1, dispatcher.dispatch());
+
+        assertEquals(1, bodies.size());
+        JsonNode body = objectMapper.readTree(bodies.get(0));
+        assertEquals(2, body.get("events").size());
+        assertEquals("inventory.stock.reserved", body.get("events").get(1).get("type").asText());
+        assertEquals(2, body.get("events").get(1).get("data").get("quantity").asInt());
+
+        long t = NOW.getEpochSecond();
+        assertEquals("t=" + t + ",v1=" + WebhookSender.sign(SECRET, t, bodies.get(0)), signatures.get(0));
+
+        verify(outbox).delivered(List.of(1L, 2L));
+        verify(outbox, never()).failed(any(), any(), anyInt(), any());
+        assertEquals(2, dispatcher.getDeliveredEventCount());
+    }
+
+    @Test
+    void dispatch_whenSubscriberFails_backsOffTheWholeBatch() {
+        status.set(503);
+        when(outbox.claim(anyString(), anyInt(), any(), any()))
+                .thenReturn(List.of(pending(7, "inventory.stock.adjusted", "{}", 1)))
+                .thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        // Segundo intento: base * multiplier
+        verify(outbox).failed(eq(List.of(7L)), contains("503"), eq(3), eq(NOW.plusSeconds(30)));
+        verify(outbox, never()).delivered(any());
+        assertEquals(1, dispatcher.getFailedBatchCount());
+    }
+
+    @Test
+    void dispatch_withNothingDue_sendsNothing() {
+        when(outbox.claim(anyString(), anyInt(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, dispatcher.dispatch());
+        assertTrue(bodies.isEmpty());
+    }
+
+    private static JdbcWebhookOutbox.PendingEvent pending(long id, String type, String payload, int attempts) {
+        return new JdbcWebhookOutbox.PendingEvent(id, type, payload, NOW.minusSeconds(1), attempts);
+    }
+}
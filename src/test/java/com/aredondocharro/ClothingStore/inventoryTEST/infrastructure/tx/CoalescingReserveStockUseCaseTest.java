@@ -0,0 +1,184 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.tx;
+
+import com.aredondocharro.ClothingStore.inventory.domain.exception.InsufficientStockException;
+import com.aredondocharro.ClothingStore.inventory.domain.model.InventoryItemId;
+import com.aredondocharro.ClothingStore.inventory.domain.model.ReservationReference;
+import com.aredondocharro.ClothingStore.inventory.domain.model.StockReservationId;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockAttempt;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockOutcome;
+import com.aredondocharro.ClothingStore.inventory.domain.port.in.ReserveStockUseCase;
+import com.aredondocharro.ClothingStore.inventory.infrastructure.tx.CoalescingReserveStockUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CoalescingReserveStockUseCaseTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ReserveStockUseCase delegate = mock(ReserveStockUseCase.class);
+    private final InventoryItemId itemId = InventoryItemId.newId();
+
+    @Test
+    void reserve_concurrentCallsOnSameItem_shareOneGroup_andEachGetsItsOwnOutcome() throws Exception {
+        // Ventana larga: el grupo sale al llenarse, no por tiempo
+        CoalescingReserveStockUseCase coalescer = new CoalescingReserveStockUseCase(delegate, Duration.ofSeconds(5), 3, TIMEOUT);
+        StockReservationId a = StockReservationId.newId();
+        StockReservationId c = StockReservationId.newId();
+        when(delegate.reserveGroup(eq(itemId), anyList(), any())).thenAnswer(inv -> {
+            List<ReserveStockAttempt> attempts = inv.getArgument(1);
+            return attempts.stream()
+                    .map(at -> switch (at.reference().getValue()) {
+                        case "ORDER-A" -> ReserveStockOutcome.reserved(a);
+                        case "ORDER-C" -> ReserveStockOutcome.reserved(c);
+                        default -> ReserveStockOutcome.rejected(new InsufficientStockException("sold out"));
+                    })
+                    .toList();
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        CountDownLatch busy = occupy(coalescer, callers);
+        try {
+            Future<StockReservationId> fa = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-A"), 1, NOW));
+            Future<StockReservationId> fb = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-B"), 9, NOW));
+            Future<StockReservationId> fc = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-C"), 1, NOW));
+
+            assertEquals(a, fa.get(2, TimeUnit.SECONDS));
+            assertEquals(c, fc.get(2, TimeUnit.SECONDS));
+            Exception ex = assertThrows(Exception.class, () -> fb.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(InsufficientStockException.class, ex.getCause());
+        } finally {
+            busy.countDown();
+            callers.shutdownNow();
+        }
+
+        verify(delegate, times(1)).reserveGroup(eq(itemId), argThat(list -> list.size() == 3), any());
+        verify(delegate, times(1)).reserve(any(), any(), anyInt(), any()); // solo la que ocupaba el item
+        assertEquals(1, coalescer.getGroupCount());
+        assertEquals(3, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    void reserve_onAnIdleItem_usesThePlainPath_withoutWaitingTheWindow() {
+        CoalescingReserveStockUseCase coalescer = new CoalescingReserveStockUseCase(delegate, Duration.ofSeconds(5), 64, TIMEOUT);
+        StockReservationId id = StockReservationId.newId();
+        ReservationReference ref = ReservationReference.of("ORDER-SOLO");
+        when(delegate.reserve(itemId, ref, 2, NOW)).thenReturn(id);
+
+        long start = System.nanoTime();
+        assertEquals(id, coalescer.reserve(itemId, ref, 2, NOW));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "a lone reserve must not wait the window");
+        verify(delegate, never()).reserveGroup(any(), any(), any());
+        assertEquals(0, coalescer.getGroupCount());
+    }
+
+    @Test
+    void reserve_whenGroupFails_everyCallerSeesTheError() throws Exception {
+        CoalescingReserveStockUseCase coalescer = new CoalescingReserveStockUseCase(delegate, Duration.ofSeconds(5), 2, TIMEOUT);
+        when(delegate.reserveGroup(eq(itemId), anyList(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        CountDownLatch busy = occupy(coalescer, callers);
+        try {
+            Future<StockReservationId> f1 = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-1"), 1, NOW));
+            Future<StockReservationId> f2 = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-2"), 1, NOW));
+
+            for (Future<StockReservationId> f : List.of(f1, f2)) {
+                Exception ex = assertThrows(Exception.class, () -> f.get(2, TimeUnit.SECONDS));
+                assertInstanceOf(DataAccessResourceFailureException.class, ex.getCause());
+            }
+        } finally {
+            busy.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void reserve_whenLeaderDiesWithAnError_followersFailInsteadOfHanging() throws Exception {
+        CoalescingReserveStockUseCase coalescer = new CoalescingReserveStockUseCase(delegate, Duration.ofSeconds(5), 2, TIMEOUT);
+        when(delegate.reserveGroup(eq(itemId), anyList(), any())).thenThrow(new StackOverflowError());
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        CountDownLatch busy = occupy(coalescer, callers);
+        try {
+            Future<StockReservationId> f1 = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-1"), 1, NOW));
+            Future<StockReservationId> f2 = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-2"), 1, NOW));
+
+            // El líder propaga el Error; el seguidor recibe un fallo del grupo
+            int errors = 0;
+            int aborted = 0;
+            for (Future<StockReservationId> f : List.of(f1, f2)) {
+                Exception ex = assertThrows(Exception.class, () -> f.get(2, TimeUnit.SECONDS));
+                if (ex.getCause() instanceof StackOverflowError) errors++;
+                if (ex.getCause() instanceof IllegalStateException) aborted++;
+            }
+            assertEquals(1, errors);
+            assertEquals(1, aborted);
+        } finally {
+            busy.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void reserve_followerGivesUp_afterTheWaitTimeout() throws Exception {
+        CoalescingReserveStockUseCase coalescer = new CoalescingReserveStockUseCase(
+                delegate, Duration.ofMillis(100), 2, Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.reserveGroup(eq(itemId), anyList(), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        CountDownLatch busy = occupy(coalescer, callers);
+        try {
+            Future<StockReservationId> f1 = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-1"), 1, NOW));
+            Future<StockReservationId> f2 = callers.submit(() -> coalescer.reserve(itemId, ReservationReference.of("ORDER-2"), 1, NOW));
+
+            // Uno de los dos es el líder (bloqueado en el delegate); el otro se rinde a los 200ms
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (!f1.isDone() && !f2.isDone() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Future<StockReservationId> follower = f1.isDone() ? f1 : f2;
+            Exception ex = assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(QueryTimeoutException.class, ex.getCause());
+        } finally {
+            release.countDown();
+            busy.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    // Deja una reserva del item en curso (bloqueada en el delegate) para que las siguientes se agrupen
+    private CountDownLatch occupy(CoalescingReserveStockUseCase coalescer, ExecutorService callers) throws InterruptedException {
+        ReservationReference busyRef = ReservationReference.of("ORDER-BUSY");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.reserve(eq(itemId), eq(busyRef), anyInt(), any())).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return StockReservationId.newId();
+        });
+        callers.submit(() -> coalescer.reserve(itemId, busyRef, 1, NOW));
+        assertTrue(entered.await(2, TimeUnit.SECONDS));
+        return release;
+    }
+}
@@ -0,0 +1,70 @@
+package com.aredondocharro.ClothingStore.inventoryTEST.infrastructure.tx;
+
+import com.aredondocharro.ClothingStore.inventory.infrastructure.tx.OptimisticLockRetryPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticLockRetryPolicyTest {
+
+    private final OptimisticLockRetryPolicy policy =
+            new OptimisticLockRetryPolicy(3, Duration.ZERO, Duration.ZERO);
+
+    @Test
+    void execute_retriesOnOptimisticLock_untilSuccess() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.execute("reserve", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("InventoryItemEntity", "id");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, policy.getConflictCount());
+        assertEquals(2, policy.getRetryCount());
+        assertEquals(0, policy.getExhaustedCount());
+    }
+
+    @Test
+    void execute_whenBudgetExhausted_propagatesConflict() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> policy.run("adjust", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("InventoryItemEntity", "id");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(3, policy.getConflictCount());
+        assertEquals(2, policy.getRetryCount());
+        assertEquals(1, policy.getExhaustedCount());
+    }
+
+    @Test
+    void execute_doesNotRetryOtherExceptions() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> policy.run("changePrice", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(0, policy.getConflictCount());
+    }
+
+    @Test
+    void constructor_rejectsInvalidBudget() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OptimisticLockRetryPolicy(0, Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OptimisticLockRetryPolicy(3, Duration.ofMillis(50), Duration.ofMillis(10)));
+    }
+}